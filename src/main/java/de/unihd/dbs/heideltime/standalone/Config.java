@@ -67,6 +67,14 @@ public abstract class Config {
 	public static final String UIMAVAR_TYPETOPROCESS = "uimaVarTypeToProcess";
 	public static final String UIMAVAR_CONVERTDURATIONS = "ConvertDurations";
 
+	public static final String SERVER_HOST = "serverHost";
+	public static final String SERVER_PORT = "serverPort";
+	public static final String SERVER_WORKERS = "serverWorkers";
+	public static final String SERVER_BATCH_SIZE = "serverBatchSize";
+	public static final String SERVER_BATCH_WAIT_MILLIS = "serverBatchWaitMillis";
+	public static final String SERVER_QUEUE_CAPACITY = "serverQueueCapacity";
+	public static final String SERVER_PRELOAD = "serverPreload";
+
 	/**
 	 * 
 	 */
@@ -18,9 +18,11 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.RandomAccessFile;
+import java.io.Writer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.text.DateFormat;
@@ -41,9 +43,11 @@ import de.unihd.dbs.heideltime.standalone.components.JCasFactory;
 import de.unihd.dbs.heideltime.standalone.components.ResultFormatter;
 import de.unihd.dbs.heideltime.standalone.components.PartOfSpeechTagger;
 import de.unihd.dbs.heideltime.standalone.components.impl.AllLanguagesTokenizerWrapper;
+import de.unihd.dbs.heideltime.standalone.components.impl.BinaryCasResultFormatter;
 import de.unihd.dbs.heideltime.standalone.components.impl.HunPosTaggerWrapper;
 import de.unihd.dbs.heideltime.standalone.components.impl.IntervalTaggerWrapper;
 import de.unihd.dbs.heideltime.standalone.components.impl.JCasFactoryImpl;
+import de.unihd.dbs.heideltime.standalone.components.impl.JSONResultFormatter;
 import de.unihd.dbs.heideltime.standalone.components.impl.JVnTextProWrapper;
 import de.unihd.dbs.heideltime.standalone.components.impl.StanfordPOSTaggerWrapper;
 import de.unihd.dbs.heideltime.standalone.components.impl.TimeMLResultFormatter;
@@ -426,8 +430,24 @@ public class HeidelTimeStandalone {
 	}
 
 	private ResultFormatter getFormatter() {
+		return getFormatter(outputType);
+	}
+
+	/**
+	 * Creates the result formatter for the given output type
+	 * 
+	 * @param outputType
+	 * @return Formatter producing the requested output
+	 */
+	public static ResultFormatter getFormatter(OutputType outputType) {
 		if (outputType.toString().equals("xmi")){
 			return new XMIResultFormatter();
+		} else if (outputType.toString().equals("json")) {
+			return new JSONResultFormatter(false);
+		} else if (outputType.toString().equals("jsonl")) {
+			return new JSONResultFormatter(true);
+		} else if (outputType.toString().equals("binary")) {
+			return new BinaryCasResultFormatter();
 		} else {
 			return new TimeMLResultFormatter();
 		}
@@ -495,6 +515,97 @@ public class HeidelTimeStandalone {
 	 */
 	public String process(String document, Date documentCreationTime, ResultFormatter resultFormatter)
 			throws DocumentCreationTimeMissingException {
+		JCas jcas = annotate(document, documentCreationTime);
+
+		// Process results ---------------
+		logger.log(Level.FINE, "Formatting result...");
+		// PrintAnnotations.printAnnotations(jcas.getCas(), System.out);
+		String result = null;
+		try {
+			result = resultFormatter.format(jcas);
+			logger.log(Level.INFO, "Result formatted");
+		} catch (Exception e) {
+			e.printStackTrace();
+			logger.log(Level.WARNING, "Result could not be formatted");
+		}
+
+		return result;
+	}
+
+	/**
+	 * Processes document with HeidelTime and streams the formatted result to
+	 * <code>writer</code> instead of building it as a string first
+	 * 
+	 * @param document
+	 * @param documentCreationTime
+	 *            Date when document was created - especially important if
+	 *            document is of type {@link DocumentType#NEWS}
+	 * @param resultFormatter
+	 * @param writer
+	 *            Target of the formatted result
+	 * @return <code>true</code> if the result could be written
+	 * @throws DocumentCreationTimeMissingException
+	 *             If document creation time is missing when processing a
+	 *             document of type {@link DocumentType#NEWS}
+	 */
+	public boolean process(String document, Date documentCreationTime, ResultFormatter resultFormatter, Writer writer)
+			throws DocumentCreationTimeMissingException {
+		JCas jcas = annotate(document, documentCreationTime);
+
+		logger.log(Level.FINE, "Formatting result...");
+		try {
+			resultFormatter.format(jcas, writer);
+			logger.log(Level.INFO, "Result formatted");
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			logger.log(Level.WARNING, "Result could not be formatted");
+			return false;
+		}
+	}
+
+	/**
+	 * Processes document with HeidelTime and writes the result as a binary CAS
+	 * to <code>out</code>
+	 * 
+	 * @param document
+	 * @param documentCreationTime
+	 *            Date when document was created - especially important if
+	 *            document is of type {@link DocumentType#NEWS}
+	 * @param resultFormatter
+	 * @param out
+	 *            Target of the serialized CAS
+	 * @return <code>true</code> if the result could be written
+	 * @throws DocumentCreationTimeMissingException
+	 *             If document creation time is missing when processing a
+	 *             document of type {@link DocumentType#NEWS}
+	 */
+	public boolean process(String document, Date documentCreationTime, BinaryCasResultFormatter resultFormatter, OutputStream out)
+			throws DocumentCreationTimeMissingException {
+		JCas jcas = annotate(document, documentCreationTime);
+
+		logger.log(Level.FINE, "Serializing result...");
+		try {
+			resultFormatter.format(jcas, out);
+			logger.log(Level.INFO, "Result serialized");
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			logger.log(Level.WARNING, "Result could not be serialized");
+			return false;
+		}
+	}
+
+	/**
+	 * Runs the preprocessing, HeidelTime and (if enabled) the interval tagger
+	 * 
+	 * @param document
+	 * @param documentCreationTime
+	 * @return Annotated CAS
+	 * @throws DocumentCreationTimeMissingException
+	 */
+	private JCas annotate(String document, Date documentCreationTime)
+			throws DocumentCreationTimeMissingException {
 		logger.log(Level.INFO, "Processing started");
 
 		// Generate jcas object ----------
@@ -527,20 +638,8 @@ public class HeidelTimeStandalone {
 		// process interval tagging ---
 		if(doIntervalTagging)
 			runIntervalTagger(jcas);
-		
-		// Process results ---------------
-		logger.log(Level.FINE, "Formatting result...");
-		// PrintAnnotations.printAnnotations(jcas.getCas(), System.out);
-		String result = null;
-		try {
-			result = resultFormatter.format(jcas);
-			logger.log(Level.INFO, "Result formatted");
-		} catch (Exception e) {
-			e.printStackTrace();
-			logger.log(Level.WARNING, "Result could not be formatted");
-		}
 
-		return result;
+		return jcas;
 	}
 	
 	/**
@@ -779,11 +878,19 @@ public class HeidelTimeStandalone {
 			String input = new String(new String(inArr, encodingType).getBytes("UTF-8"), "UTF-8");
 			
 			HeidelTimeStandalone standalone = new HeidelTimeStandalone(language, type, outputType, null, posTagger, doIntervalTagging);
-			String out = standalone.process(input, dct);
 			
 			// Print output always as UTF-8
 			pwOut = new PrintWriter(new OutputStreamWriter(System.out, "UTF-8"));
-			pwOut.println(out);
+			if (outputType == OutputType.BINARY) {
+				// binary output must not go through the character writer
+				standalone.process(input, dct, new BinaryCasResultFormatter(), System.out);
+			} else if (outputType == OutputType.JSON || outputType == OutputType.JSONL) {
+				// stream compact formats straight to the output
+				standalone.process(input, dct, standalone.getFormatter(), pwOut);
+			} else {
+				String out = standalone.process(input, dct);
+				pwOut.println(out);
+			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		} finally {
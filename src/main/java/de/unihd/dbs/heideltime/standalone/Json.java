@@ -0,0 +1,257 @@
+package de.unihd.dbs.heideltime.standalone;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer for the JSON result formatters and the
+ * tagging service. Parses into plain
+ * {@link Map}, {@link List}, {@link String}, {@link Double}, {@link Boolean}
+ * and <code>null</code> so that the service does not need any dependency
+ * beyond the JDK.
+ */
+public final class Json {
+
+	private final String text;
+	private int pos = 0;
+
+	private Json(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * Parses a JSON document.
+	 *
+	 * @param text JSON text
+	 * @return parsed value
+	 * @throws IllegalArgumentException if the text is not valid JSON
+	 */
+	public static Object parse(String text) {
+		Json json = new Json(text);
+		json.skipWhitespace();
+		Object value = json.readValue();
+		json.skipWhitespace();
+		if (json.pos != text.length())
+			throw json.error("Unexpected trailing content");
+		return value;
+	}
+
+	/**
+	 * Appends a JSON string literal for <code>value</code> to <code>out</code>.
+	 *
+	 * @param out target to append to
+	 * @param value string to quote, <code>null</code> is written as JSON null
+	 */
+	public static void quote(Appendable out, String value) throws IOException {
+		if (value == null) {
+			out.append("null");
+			return;
+		}
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				default:
+					if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+						out.append(String.format("\\u%04x", (int) c));
+					} else {
+						out.append(c);
+					}
+			}
+		}
+		out.append('"');
+	}
+
+	/**
+	 * @param value string to quote
+	 * @return JSON string literal for <code>value</code>
+	 */
+	public static String quote(String value) {
+		StringBuilder sb = new StringBuilder(value == null ? 4 : value.length() + 2);
+		try {
+			quote(sb, value);
+		} catch (IOException e) {
+			// StringBuilder does not throw
+		}
+		return sb.toString();
+	}
+
+	private Object readValue() {
+		if (pos >= text.length())
+			throw error("Unexpected end of input");
+		char c = text.charAt(pos);
+		switch (c) {
+			case '{':
+				return readObject();
+			case '[':
+				return readArray();
+			case '"':
+				return readString();
+			case 't':
+				expect("true");
+				return Boolean.TRUE;
+			case 'f':
+				expect("false");
+				return Boolean.FALSE;
+			case 'n':
+				expect("null");
+				return null;
+			default:
+				if (c == '-' || (c >= '0' && c <= '9'))
+					return readNumber();
+				throw error("Unexpected character '" + c + "'");
+		}
+	}
+
+	private Map<String, Object> readObject() {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		pos++; // '{'
+		skipWhitespace();
+		if (peek() == '}') {
+			pos++;
+			return map;
+		}
+		while (true) {
+			skipWhitespace();
+			if (peek() != '"')
+				throw error("Expected object key");
+			String key = readString();
+			skipWhitespace();
+			if (peek() != ':')
+				throw error("Expected ':'");
+			pos++;
+			skipWhitespace();
+			map.put(key, readValue());
+			skipWhitespace();
+			char c = peek();
+			pos++;
+			if (c == '}')
+				return map;
+			if (c != ',')
+				throw error("Expected ',' or '}'");
+		}
+	}
+
+	private List<Object> readArray() {
+		List<Object> list = new ArrayList<Object>();
+		pos++; // '['
+		skipWhitespace();
+		if (peek() == ']') {
+			pos++;
+			return list;
+		}
+		while (true) {
+			skipWhitespace();
+			list.add(readValue());
+			skipWhitespace();
+			char c = peek();
+			pos++;
+			if (c == ']')
+				return list;
+			if (c != ',')
+				throw error("Expected ',' or ']'");
+		}
+	}
+
+	private String readString() {
+		StringBuilder sb = new StringBuilder();
+		pos++; // opening quote
+		while (pos < text.length()) {
+			char c = text.charAt(pos++);
+			if (c == '"')
+				return sb.toString();
+			if (c != '\\') {
+				sb.append(c);
+				continue;
+			}
+			if (pos >= text.length())
+				break;
+			char e = text.charAt(pos++);
+			switch (e) {
+				case '"':
+				case '\\':
+				case '/':
+					sb.append(e);
+					break;
+				case 'b':
+					sb.append('\b');
+					break;
+				case 'f':
+					sb.append('\f');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				case 't':
+					sb.append('\t');
+					break;
+				case 'u':
+					if (pos + 4 > text.length())
+						throw error("Truncated unicode escape");
+					try {
+						sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+					} catch (NumberFormatException ex) {
+						throw error("Invalid unicode escape");
+					}
+					pos += 4;
+					break;
+				default:
+					throw error("Invalid escape '\\" + e + "'");
+			}
+		}
+		throw error("Unterminated string");
+	}
+
+	private Double readNumber() {
+		int start = pos;
+		while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0)
+			pos++;
+		try {
+			return Double.valueOf(text.substring(start, pos));
+		} catch (NumberFormatException e) {
+			throw error("Invalid number");
+		}
+	}
+
+	private void expect(String literal) {
+		if (!text.startsWith(literal, pos))
+			throw error("Expected " + literal);
+		pos += literal.length();
+	}
+
+	private char peek() {
+		if (pos >= text.length())
+			throw error("Unexpected end of input");
+		return text.charAt(pos);
+	}
+
+	private void skipWhitespace() {
+		while (pos < text.length() && Character.isWhitespace(text.charAt(pos)))
+			pos++;
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at position " + pos);
+	}
+}
@@ -30,5 +30,20 @@ public enum OutputType {
 		public String toString() {
 			return "xmi";
 		}
+	},
+	JSON {
+		public String toString() {
+			return "json";
+		}
+	},
+	JSONL {
+		public String toString() {
+			return "jsonl";
+		}
+	},
+	BINARY {
+		public String toString() {
+			return "binary";
+		}
 	}
 }
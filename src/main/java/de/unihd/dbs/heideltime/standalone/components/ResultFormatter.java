@@ -14,6 +14,8 @@
 
 package de.unihd.dbs.heideltime.standalone.components;
 
+import java.io.Writer;
+
 import org.apache.uima.jcas.JCas;
 
 /**
@@ -31,4 +33,15 @@ public interface ResultFormatter {
 	 * @return Formatted result
 	 */
 	public String format(JCas jcas) throws Exception;
+
+	/**
+	 * Formats result directly to a writer
+	 * 
+	 * @param jcas JCas object containing annotations - result
+	 * @param writer Target of the formatted result
+	 */
+	public default void format(JCas jcas, Writer writer) throws Exception {
+		writer.write(format(jcas));
+		writer.flush();
+	}
 }
@@ -0,0 +1,55 @@
+package de.unihd.dbs.heideltime.standalone.components.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.jcas.JCas;
+
+import de.unihd.dbs.heideltime.standalone.components.ResultFormatter;
+import de.unihd.dbs.uima.consumer.binarycaswriter.BinaryCasFormat;
+
+/**
+ * Result formatter producing a compressed binary CAS restricted to tokens,
+ * sentences, DCT and temporal annotations (see {@link BinaryCasFormat}). The
+ * output can be read by the BinaryCasReader of a downstream UIMA pipeline.
+ *
+ * Since the output is binary, {@link #format(JCas)} returns it Base64
+ * encoded; use {@link #format(JCas, OutputStream)} to write the raw bytes.
+ */
+public class BinaryCasResultFormatter implements ResultFormatter {
+	private TypeSystem typeSystem;
+	private TypeSystem filteredTypeSystem;
+
+	@Override
+	public String format(JCas jcas) throws Exception {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		format(jcas, outStream);
+		return Base64.getEncoder().encodeToString(outStream.toByteArray());
+	}
+
+	/**
+	 * Writes the binary CAS to <code>out</code>
+	 *
+	 * @param jcas JCas object containing annotations - result
+	 * @param out Target of the serialized CAS
+	 */
+	public void format(JCas jcas, OutputStream out) throws Exception {
+		BinaryCasFormat.serialize(jcas.getCas(), getFilteredTypeSystem(jcas.getTypeSystem()), out);
+		out.flush();
+	}
+
+	private synchronized TypeSystem getFilteredTypeSystem(TypeSystem current) throws IOException {
+		if (filteredTypeSystem == null || typeSystem != current) {
+			try {
+				filteredTypeSystem = BinaryCasFormat.createFilteredTypeSystem(current);
+			} catch (Exception e) {
+				throw new IOException(e);
+			}
+			typeSystem = current;
+		}
+		return filteredTypeSystem;
+	}
+}
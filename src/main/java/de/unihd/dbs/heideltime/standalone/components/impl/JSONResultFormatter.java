@@ -0,0 +1,145 @@
+package de.unihd.dbs.heideltime.standalone.components.impl;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.jcas.JCas;
+
+import de.unihd.dbs.heideltime.standalone.Json;
+import de.unihd.dbs.heideltime.standalone.components.ResultFormatter;
+import de.unihd.dbs.uima.types.heideltime.Dct;
+import de.unihd.dbs.uima.types.heideltime.Timex3;
+import de.unihd.dbs.uima.types.heideltime.Timex3Interval;
+
+/**
+ * Result formatter writing only the temporal annotations as compact JSON:
+ * character offsets, covered text and the TIMEX3 attributes of every
+ * {@link Timex3} and {@link Timex3Interval}. Empty attributes are left out.
+ *
+ * In JSON mode the whole document is one object
+ * <code>{"dct": ..., "timexes": [...], "intervals": [...]}</code>; in JSON lines
+ * mode every annotation is written as a single line object with a
+ * <code>"kind"</code> field of either <code>timex</code> or <code>interval</code>.
+ */
+public class JSONResultFormatter implements ResultFormatter {
+	private final boolean lines;
+
+	/**
+	 * @param lines <code>true</code> to write one JSON object per line (JSONL)
+	 */
+	public JSONResultFormatter(boolean lines) {
+		this.lines = lines;
+	}
+
+	public JSONResultFormatter() {
+		this(false);
+	}
+
+	@Override
+	public String format(JCas jcas) throws Exception {
+		StringWriter writer = new StringWriter();
+		format(jcas, writer);
+		return writer.toString();
+	}
+
+	@Override
+	public void format(JCas jcas, Writer writer) throws IOException {
+		if (lines) {
+			formatLines(jcas, writer);
+		} else {
+			formatDocument(jcas, writer);
+		}
+		writer.flush();
+	}
+
+	private void formatDocument(JCas jcas, Writer writer) throws IOException {
+		writer.write("{\"dct\":");
+		FSIterator<?> iterDct = jcas.getAnnotationIndex(Dct.type).iterator();
+		Json.quote(writer, iterDct.hasNext() ? ((Dct) iterDct.next()).getValue() : null);
+
+		writer.write(",\"timexes\":[");
+		FSIterator<?> iterTimex = jcas.getAnnotationIndex(Timex3.type).iterator();
+		boolean first = true;
+		while (iterTimex.hasNext()) {
+			Timex3 timex = (Timex3) iterTimex.next();
+			// the index of Timex3 includes its subtype Timex3Interval
+			if (timex instanceof Timex3Interval)
+				continue;
+			if (!first)
+				writer.write(',');
+			writeTimex(writer, timex, false);
+			first = false;
+		}
+
+		writer.write("],\"intervals\":[");
+		FSIterator<?> iterIntervals = jcas.getAnnotationIndex(Timex3Interval.type).iterator();
+		for (first = true; iterIntervals.hasNext(); first = false) {
+			if (!first)
+				writer.write(',');
+			writeInterval(writer, (Timex3Interval) iterIntervals.next(), false);
+		}
+		writer.write("]}\n");
+	}
+
+	private void formatLines(JCas jcas, Writer writer) throws IOException {
+		FSIterator<?> iterTimex = jcas.getAnnotationIndex(Timex3.type).iterator();
+		while (iterTimex.hasNext()) {
+			Timex3 timex = (Timex3) iterTimex.next();
+			if (timex instanceof Timex3Interval)
+				continue;
+			writeTimex(writer, timex, true);
+			writer.write('\n');
+		}
+		FSIterator<?> iterIntervals = jcas.getAnnotationIndex(Timex3Interval.type).iterator();
+		while (iterIntervals.hasNext()) {
+			writeInterval(writer, (Timex3Interval) iterIntervals.next(), true);
+			writer.write('\n');
+		}
+	}
+
+	private static void writeTimex(Writer writer, Timex3 timex, boolean withKind) throws IOException {
+		writer.write('{');
+		if (withKind)
+			writer.write("\"kind\":\"timex\",");
+		writeOffsets(writer, timex.getBegin(), timex.getEnd(), timex.getCoveredText());
+		writeAttribute(writer, "tid", timex.getTimexId());
+		writeAttribute(writer, "type", timex.getTimexType());
+		writeAttribute(writer, "value", timex.getTimexValue());
+		writeAttribute(writer, "quant", timex.getTimexQuant());
+		writeAttribute(writer, "freq", timex.getTimexFreq());
+		writeAttribute(writer, "mod", timex.getTimexMod());
+		writer.write('}');
+	}
+
+	private static void writeInterval(Writer writer, Timex3Interval interval, boolean withKind) throws IOException {
+		writer.write('{');
+		if (withKind)
+			writer.write("\"kind\":\"interval\",");
+		writeOffsets(writer, interval.getBegin(), interval.getEnd(), interval.getCoveredText());
+		writeAttribute(writer, "earliestBegin", interval.getTimexValueEB());
+		writeAttribute(writer, "latestBegin", interval.getTimexValueLB());
+		writeAttribute(writer, "earliestEnd", interval.getTimexValueEE());
+		writeAttribute(writer, "latestEnd", interval.getTimexValueLE());
+		writer.write('}');
+	}
+
+	private static void writeOffsets(Writer writer, int begin, int end, String text) throws IOException {
+		writer.write("\"begin\":");
+		writer.write(Integer.toString(begin));
+		writer.write(",\"end\":");
+		writer.write(Integer.toString(end));
+		writer.write(",\"text\":");
+		Json.quote(writer, text);
+	}
+
+	private static void writeAttribute(Writer writer, String name, String value) throws IOException {
+		if (value == null || value.isEmpty())
+			return;
+		writer.write(",\"");
+		writer.write(name);
+		writer.write("\":");
+		Json.quote(writer, value);
+	}
+}
@@ -0,0 +1,90 @@
+package de.unihd.dbs.heideltime.standalone.server;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.unihd.dbs.heideltime.standalone.DocumentType;
+import de.unihd.dbs.heideltime.standalone.HeidelTimeStandalone;
+import de.unihd.dbs.heideltime.standalone.Json;
+import de.unihd.dbs.heideltime.standalone.OutputType;
+import de.unihd.dbs.heideltime.standalone.POSTagger;
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+
+/**
+ * Pool of initialized {@link HeidelTimeStandalone} instances, keyed by
+ * language and document type. Instances are expensive to set up (rule and
+ * resource loading, type system parsing), so they are created once and then
+ * handed out to the batch workers one at a time.
+ */
+public class AnnotatorPool {
+	private static Logger logger = Logger.getLogger("HeidelTimeServer");
+
+	/**
+	 * The resource managers behind HeidelTime are lazily initialized singletons
+	 * which are not safe to build concurrently, so instance creation is serialized.
+	 */
+	private static final Object CREATION_LOCK = new Object();
+
+	private final Map<String, BlockingQueue<HeidelTimeStandalone>> idle = new ConcurrentHashMap<String, BlockingQueue<HeidelTimeStandalone>>();
+	private final String configPath;
+	private final POSTagger posTagger;
+	private final Boolean doIntervalTagging;
+
+	public AnnotatorPool(String configPath, POSTagger posTagger, Boolean doIntervalTagging) {
+		this.configPath = configPath;
+		this.posTagger = posTagger;
+		this.doIntervalTagging = doIntervalTagging;
+	}
+
+	static String key(Language language, DocumentType type) {
+		return language.getName().toLowerCase(Locale.ROOT) + ":" + type.toString().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Takes an idle annotator for the given configuration, creating a new one if
+	 * none is available. Must be paired with {@link #release(Language, DocumentType, HeidelTimeStandalone)}.
+	 */
+	public HeidelTimeStandalone borrow(Language language, DocumentType type) {
+		HeidelTimeStandalone annotator = queue(language, type).poll();
+		if (annotator != null)
+			return annotator;
+
+		synchronized (CREATION_LOCK) {
+			logger.log(Level.INFO, "Creating annotator for " + key(language, type));
+			return new HeidelTimeStandalone(language, type, OutputType.TIMEML, configPath, posTagger, doIntervalTagging);
+		}
+	}
+
+	public void release(Language language, DocumentType type, HeidelTimeStandalone annotator) {
+		queue(language, type).offer(annotator);
+	}
+
+	/**
+	 * Creates one annotator for the given configuration ahead of the first request.
+	 */
+	public void preload(Language language, DocumentType type) {
+		release(language, type, borrow(language, type));
+	}
+
+	/**
+	 * @return number of idle annotators per configuration
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder("{");
+		for (Map.Entry<String, BlockingQueue<HeidelTimeStandalone>> entry : idle.entrySet()) {
+			if (sb.length() > 1)
+				sb.append(',');
+			sb.append(Json.quote(entry.getKey())).append(':').append(entry.getValue().size());
+		}
+		return sb.append('}').toString();
+	}
+
+	private BlockingQueue<HeidelTimeStandalone> queue(Language language, DocumentType type) {
+		return idle.computeIfAbsent(key(language, type), k -> new LinkedBlockingQueue<HeidelTimeStandalone>());
+	}
+}
@@ -0,0 +1,209 @@
+package de.unihd.dbs.heideltime.standalone.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.unihd.dbs.heideltime.standalone.HeidelTimeStandalone;
+import de.unihd.dbs.heideltime.standalone.exceptions.DocumentCreationTimeMissingException;
+
+/**
+ * Collects incoming documents into small batches and runs them on a fixed set
+ * of worker threads. A worker waits at most <code>batchWaitMillis</code> for a
+ * batch to fill up, groups it by language and document type and processes
+ * each group with a single annotator borrowed from the {@link AnnotatorPool}.
+ * <p>
+ * The documents of a batch are still processed one after the other by their
+ * worker; a batch only saves the pool round trip per document. Documents are
+ * processed in parallel by the different workers, so throughput scales with
+ * <code>serverWorkers</code>, not with <code>serverBatchSize</code>.
+ */
+public class BatchDispatcher {
+	private static Logger logger = Logger.getLogger("HeidelTimeServer");
+
+	private final BlockingQueue<TaggingRequest> queue;
+	private final AnnotatorPool pool;
+	private final ServerMetrics metrics;
+	private final int batchSize;
+	private final long batchWaitNanos;
+	private final List<Thread> workers = new ArrayList<Thread>();
+	private volatile boolean running = true;
+
+	public BatchDispatcher(AnnotatorPool pool, ServerMetrics metrics, int workerCount, int batchSize,
+			long batchWaitMillis, int queueCapacity) {
+		this.pool = pool;
+		this.metrics = metrics;
+		this.batchSize = Math.max(1, batchSize);
+		this.batchWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, batchWaitMillis));
+		this.queue = new ArrayBlockingQueue<TaggingRequest>(Math.max(1, queueCapacity));
+
+		for (int i = 0; i < Math.max(1, workerCount); i++) {
+			Thread worker = new Thread(this::work, "heideltime-worker-" + i);
+			worker.setDaemon(true);
+			workers.add(worker);
+		}
+	}
+
+	public void start() {
+		for (Thread worker : workers)
+			worker.start();
+	}
+
+	/**
+	 * Enqueues a document.
+	 *
+	 * @return <code>false</code> if the queue is full or the dispatcher is shutting down
+	 */
+	public boolean submit(TaggingRequest request) {
+		return running && queue.offer(request);
+	}
+
+	/**
+	 * Enqueues the documents of one request, either all or none of them. If one
+	 * of them does not fit, the ones enqueued before are withdrawn again.
+	 *
+	 * @return <code>false</code> if not all documents could be enqueued
+	 */
+	public boolean submitAll(List<TaggingRequest> requests) {
+		for (int i = 0; i < requests.size(); i++) {
+			if (!submit(requests.get(i))) {
+				for (int j = 0; j < i; j++)
+					withdraw(requests.get(j));
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes a document from the queue and cancels its result. A document that a
+	 * worker has already taken is skipped unless its processing has begun.
+	 */
+	public void withdraw(TaggingRequest request) {
+		queue.remove(request);
+		request.result.cancel(false);
+	}
+
+	public int queueDepth() {
+		return queue.size();
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Stops accepting documents, lets the workers finish what is queued and waits
+	 * for them up to the given time.
+	 */
+	public void shutdown(long timeoutMillis) {
+		running = false;
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		for (Thread worker : workers) {
+			try {
+				worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void work() {
+		List<TaggingRequest> batch = new ArrayList<TaggingRequest>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				TaggingRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null)
+					continue;
+				batch.add(first);
+				fill(batch);
+				process(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void fill(List<TaggingRequest> batch) throws InterruptedException {
+		queue.drainTo(batch, batchSize - batch.size());
+		long deadline = System.nanoTime() + batchWaitNanos;
+		while (batch.size() < batchSize) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0)
+				break;
+			TaggingRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null)
+				break;
+			batch.add(next);
+			queue.drainTo(batch, batchSize - batch.size());
+		}
+	}
+
+	private void process(List<TaggingRequest> batch) {
+		// withdrawn documents
+		batch.removeIf(request -> request.result.isDone());
+		if (batch.isEmpty())
+			return;
+		metrics.batchProcessed(batch.size());
+
+		Map<String, List<TaggingRequest>> groups = new LinkedHashMap<String, List<TaggingRequest>>();
+		for (TaggingRequest request : batch)
+			groups.computeIfAbsent(request.poolKey(), k -> new ArrayList<TaggingRequest>()).add(request);
+
+		for (List<TaggingRequest> group : groups.values()) {
+			TaggingRequest head = group.get(0);
+			HeidelTimeStandalone annotator;
+			try {
+				annotator = pool.borrow(head.language, head.type);
+			} catch (Exception e) {
+				logger.log(Level.WARNING, "Annotator could not be created for " + head.poolKey(), e);
+				for (TaggingRequest request : group)
+					complete(request, null, e);
+				continue;
+			}
+			try {
+				for (TaggingRequest request : group) {
+					if (!request.result.isDone())
+						processOne(annotator, request);
+				}
+			} finally {
+				pool.release(head.language, head.type, annotator);
+			}
+		}
+	}
+
+	private void processOne(HeidelTimeStandalone annotator, TaggingRequest request) {
+		try {
+			String result = annotator.process(request.text, request.documentCreationTime,
+					HeidelTimeStandalone.getFormatter(request.outputType));
+			if (result == null)
+				complete(request, null, new IllegalStateException("Processing failed"));
+			else
+				complete(request, result, null);
+		} catch (DocumentCreationTimeMissingException e) {
+			complete(request, null, e);
+		} catch (RuntimeException e) {
+			logger.log(Level.WARNING, "Processing failed", e);
+			complete(request, null, e);
+		}
+	}
+
+	private void complete(TaggingRequest request, String result, Throwable error) {
+		long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.enqueuedAt);
+		metrics.documentProcessed(millis, error != null);
+		if (error != null)
+			request.result.completeExceptionally(error);
+		else
+			request.result.complete(result);
+	}
+}
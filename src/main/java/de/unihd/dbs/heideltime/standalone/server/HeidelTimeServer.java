@@ -0,0 +1,412 @@
+package de.unihd.dbs.heideltime.standalone.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.unihd.dbs.heideltime.standalone.CLISwitch;
+import de.unihd.dbs.heideltime.standalone.Config;
+import de.unihd.dbs.heideltime.standalone.DocumentType;
+import de.unihd.dbs.heideltime.standalone.HeidelTimeStandalone;
+import de.unihd.dbs.heideltime.standalone.Json;
+import de.unihd.dbs.heideltime.standalone.OutputType;
+import de.unihd.dbs.heideltime.standalone.POSTagger;
+import de.unihd.dbs.heideltime.standalone.exceptions.DocumentCreationTimeMissingException;
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+
+/**
+ * Local HTTP tagging service. Keeps initialized HeidelTime instances in memory
+ * and serves them over a small JSON API, so that callers do not pay the start-up
+ * cost of {@link HeidelTimeStandalone} for every document. Everything runs
+ * in-process on the JDK HTTP server; by default it only binds to the loopback
+ * interface.
+ *
+ * <ul>
+ * <li><code>POST /tag</code>: either a single document
+ * <code>{"text": "...", "dct": "yyyy-MM-dd", "language": "english", "type": "news", "output": "timeml"}</code>
+ * or several at once as <code>{"documents": [ ... ]}</code>. All fields except
+ * <code>text</code> are optional and default to the server settings.</li>
+ * <li><code>GET /health</code>: liveness</li>
+ * <li><code>GET /ready</code>: 200 once preloading is done, 503 before and during shutdown</li>
+ * <li><code>GET /metrics</code>: request counts, queue depth, batch sizes and latency percentiles</li>
+ * </ul>
+ */
+public class HeidelTimeServer {
+	private static Logger logger = Logger.getLogger("HeidelTimeServer");
+
+	private static final long REQUEST_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+	private final HttpServer server;
+	private final ExecutorService httpExecutor;
+	private final AnnotatorPool pool;
+	private final BatchDispatcher dispatcher;
+	private final ServerMetrics metrics = new ServerMetrics();
+
+	private final Language defaultLanguage;
+	private final DocumentType defaultType;
+	private final OutputType defaultOutputType;
+
+	private volatile boolean ready = false;
+
+	public HeidelTimeServer(String host, int port, AnnotatorPool pool, int workers, int batchSize,
+			long batchWaitMillis, int queueCapacity, Language defaultLanguage, DocumentType defaultType,
+			OutputType defaultOutputType) throws IOException {
+		this.pool = pool;
+		this.defaultLanguage = defaultLanguage;
+		this.defaultType = defaultType;
+		this.defaultOutputType = defaultOutputType;
+		this.dispatcher = new BatchDispatcher(pool, metrics, workers, batchSize, batchWaitMillis, queueCapacity);
+
+		this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+		this.httpExecutor = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "heideltime-http");
+			t.setDaemon(true);
+			return t;
+		});
+		server.setExecutor(httpExecutor);
+		server.createContext("/tag", this::handleTag);
+		server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"UP\"}"));
+		server.createContext("/ready", exchange -> {
+			boolean isReady = ready && dispatcher.isRunning();
+			respond(exchange, isReady ? 200 : 503, "{\"ready\":" + isReady + "}");
+		});
+		server.createContext("/metrics", exchange -> respond(exchange, 200,
+				"{\"server\":" + metrics.toJson(dispatcher.queueDepth()) + ",\"idleAnnotators\":" + pool.toJson() + "}"));
+	}
+
+	/**
+	 * Starts the workers and the HTTP listener, then initializes the given
+	 * language/type combinations before reporting readiness.
+	 */
+	public void start(List<String> preload) {
+		dispatcher.start();
+		server.start();
+		logger.log(Level.INFO, "Listening on " + server.getAddress());
+
+		for (String entry : preload) {
+			String[] parts = entry.split(":");
+			Language language = parseLanguage(parts[0].trim());
+			DocumentType type = parts.length > 1 ? parseType(parts[1].trim()) : defaultType;
+			if (language == null || type == null) {
+				logger.log(Level.WARNING, "Ignoring unknown preload entry: " + entry);
+				continue;
+			}
+			pool.preload(language, type);
+		}
+		ready = true;
+		logger.log(Level.INFO, "Ready");
+	}
+
+	public void stop() {
+		ready = false;
+		dispatcher.shutdown(10000);
+		server.stop(1);
+		httpExecutor.shutdownNow();
+	}
+
+	private void handleTag(HttpExchange exchange) throws IOException {
+		metrics.requestReceived();
+		if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+			respondError(exchange, 405, "Use POST");
+			return;
+		}
+
+		Object body;
+		try {
+			body = Json.parse(readBody(exchange.getRequestBody()));
+		} catch (IllegalArgumentException e) {
+			respondError(exchange, 400, "Invalid JSON: " + e.getMessage());
+			return;
+		}
+		if (!(body instanceof Map)) {
+			respondError(exchange, 400, "Expected a JSON object");
+			return;
+		}
+		Map<?, ?> json = (Map<?, ?>) body;
+
+		boolean multi = json.containsKey("documents");
+		List<Object> documents = new ArrayList<Object>();
+		if (multi) {
+			if (!(json.get("documents") instanceof List)) {
+				respondError(exchange, 400, "\"documents\" must be an array");
+				return;
+			}
+			documents.addAll((List<?>) json.get("documents"));
+		} else {
+			documents.add(json);
+		}
+
+		// validate all documents before any is enqueued, and enqueue them all before
+		// waiting, so that the documents of one request can end up in the same batch
+		List<TaggingRequest> requests;
+		try {
+			requests = toRequests(documents);
+		} catch (IllegalArgumentException e) {
+			respondError(exchange, 400, e.getMessage());
+			return;
+		}
+		if (!dispatcher.submitAll(requests)) {
+			respondError(exchange, 503, "Server busy");
+			return;
+		}
+
+		long deadline = System.currentTimeMillis() + REQUEST_TIMEOUT_MILLIS;
+		StringBuilder sb = new StringBuilder();
+		int status = 200;
+		if (multi)
+			sb.append("{\"results\":[");
+		for (int i = 0; i < requests.size(); i++) {
+			if (i > 0)
+				sb.append(',');
+			try {
+				String result = requests.get(i).getResult()
+						.get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+				sb.append("{\"result\":");
+				Json.quote(sb, result);
+				sb.append('}');
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				respondError(exchange, 500, "Interrupted");
+				return;
+			} catch (TimeoutException e) {
+				status = 504;
+				sb.append("{\"error\":\"Timed out\"}");
+			} catch (ExecutionException | CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof DocumentCreationTimeMissingException) {
+					status = multi ? status : 400;
+					sb.append("{\"error\":\"Document creation time is required for this document type\"}");
+				} else {
+					status = multi ? status : 500;
+					sb.append("{\"error\":");
+					Json.quote(sb, cause == null ? e.toString() : cause.toString());
+					sb.append('}');
+				}
+			}
+		}
+		if (multi)
+			sb.append("]}");
+		respond(exchange, status, sb.toString());
+	}
+
+	/**
+	 * Validates the documents of a request.
+	 *
+	 * @throws IllegalArgumentException for the first invalid document
+	 */
+	List<TaggingRequest> toRequests(List<Object> documents) {
+		List<TaggingRequest> requests = new ArrayList<TaggingRequest>(documents.size());
+		for (Object document : documents)
+			requests.add(toRequest(document));
+		return requests;
+	}
+
+	private TaggingRequest toRequest(Object document) {
+		if (!(document instanceof Map))
+			throw new IllegalArgumentException("Each document must be a JSON object");
+		Map<?, ?> json = (Map<?, ?>) document;
+
+		Object text = json.get("text");
+		if (!(text instanceof String))
+			throw new IllegalArgumentException("Missing \"text\"");
+
+		Language language = defaultLanguage;
+		if (json.get("language") != null) {
+			language = parseLanguage(json.get("language").toString());
+			if (language == null)
+				throw new IllegalArgumentException("Unsupported language: " + json.get("language"));
+		}
+
+		DocumentType type = defaultType;
+		if (json.get("type") != null) {
+			type = parseType(json.get("type").toString());
+			if (type == null)
+				throw new IllegalArgumentException("Unsupported type: " + json.get("type"));
+		}
+
+		OutputType outputType = defaultOutputType;
+		if (json.get("output") != null) {
+			try {
+				outputType = OutputType.valueOf(json.get("output").toString().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unsupported output: " + json.get("output"));
+			}
+		}
+
+		Date dct = null;
+		if (json.get("dct") != null) {
+			dct = parseDct(json.get("dct").toString());
+			if (dct == null)
+				throw new IllegalArgumentException("Invalid dct, expected yyyy-MM-dd: " + json.get("dct"));
+		}
+
+		return new TaggingRequest((String) text, dct, language, type, outputType);
+	}
+
+	/**
+	 * Resolves one of the built-in languages. Unlike {@link Language#getLanguageFromString(String)}
+	 * this never falls back to the shared {@link Language#WILDCARD} instance, which
+	 * cannot serve different languages concurrently.
+	 */
+	private static Language parseLanguage(String name) {
+		for (Language l : Language.values())
+			if (l != Language.WILDCARD && l.getName().equalsIgnoreCase(name))
+				return l;
+		return null;
+	}
+
+	/**
+	 * Parses a document creation time strictly, so that e.g. 2012-13-45 or
+	 * 2012-05-01x are rejected instead of being rolled over or cut off.
+	 */
+	private static Date parseDct(String value) {
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.ROOT);
+		format.setLenient(false);
+		ParsePosition position = new ParsePosition(0);
+		Date dct = format.parse(value, position);
+		return position.getIndex() == value.length() ? dct : null;
+	}
+
+	private static DocumentType parseType(String name) {
+		if (name.equalsIgnoreCase("narrative")) // same redirect as the command line
+			name = "narratives";
+		try {
+			return DocumentType.valueOf(name.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static String readBody(InputStream in) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+		while ((read = in.read(chunk)) != -1)
+			buffer.write(chunk, 0, read);
+		return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static void respondError(HttpExchange exchange, int status, String message) throws IOException {
+		respond(exchange, status, "{\"error\":" + Json.quote(message) + "}");
+	}
+
+	private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static int intConfig(String key, int defaultValue) {
+		String value = Config.get(key);
+		if (value == null || value.isEmpty())
+			return defaultValue;
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			logger.log(Level.WARNING, "Invalid value for " + key + ": " + value + "; using " + defaultValue);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Usage: <code>HeidelTimeServer [-c config.props] [-port n] [-l language] [-t type] [-o output] [-pos tagger] [-it]</code>
+	 */
+	public static void main(String[] args) throws IOException {
+		String configPath = CLISwitch.CONFIGFILE.getValue().toString();
+		Integer port = null;
+		Language language = Language.ENGLISH;
+		DocumentType type = DocumentType.NARRATIVES;
+		OutputType outputType = OutputType.TIMEML;
+		POSTagger posTagger = POSTagger.TREETAGGER;
+		boolean doIntervalTagging = false;
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.equals("-it")) {
+				doIntervalTagging = true;
+				continue;
+			}
+			if (i + 1 >= args.length) {
+				logger.log(Level.SEVERE, "Missing value for " + arg);
+				System.exit(-1);
+			}
+			String value = args[++i];
+			switch (arg) {
+				case "-c":
+					configPath = value;
+					break;
+				case "-port":
+					port = Integer.valueOf(value);
+					break;
+				case "-l":
+					language = parseLanguage(value);
+					break;
+				case "-t":
+					type = parseType(value);
+					break;
+				case "-o":
+					outputType = OutputType.valueOf(value.toUpperCase(Locale.ROOT));
+					break;
+				case "-pos":
+					posTagger = POSTagger.valueOf(value.toUpperCase(Locale.ROOT));
+					break;
+				default:
+					logger.log(Level.SEVERE, "Unsupported switch: " + arg);
+					System.exit(-1);
+			}
+		}
+		if (language == null || type == null) {
+			logger.log(Level.SEVERE, "Unsupported default language or type");
+			System.exit(-1);
+		}
+
+		HeidelTimeStandalone.readConfigFile(configPath);
+
+		String host = Config.get(Config.SERVER_HOST);
+		if (host == null || host.isEmpty())
+			host = "127.0.0.1";
+		if (port == null)
+			port = intConfig(Config.SERVER_PORT, 8432);
+
+		List<String> preload = new ArrayList<String>();
+		String preloadConfig = Config.get(Config.SERVER_PRELOAD);
+		if (preloadConfig != null)
+			for (String entry : preloadConfig.split(","))
+				if (!entry.trim().isEmpty())
+					preload.add(entry.trim());
+
+		AnnotatorPool pool = new AnnotatorPool(configPath, posTagger, doIntervalTagging);
+		HeidelTimeServer server = new HeidelTimeServer(host, port, pool,
+				intConfig(Config.SERVER_WORKERS, 2),
+				intConfig(Config.SERVER_BATCH_SIZE, 16),
+				intConfig(Config.SERVER_BATCH_WAIT_MILLIS, 5),
+				intConfig(Config.SERVER_QUEUE_CAPACITY, 1024),
+				language, type, outputType);
+		Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+		server.start(preload);
+	}
+}
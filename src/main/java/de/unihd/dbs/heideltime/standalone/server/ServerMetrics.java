@@ -0,0 +1,98 @@
+package de.unihd.dbs.heideltime.standalone.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counters and a latency histogram for the tagging service.
+ * Latencies are recorded into exponentially growing millisecond buckets
+ * (1, 2, 4, ... ms) so that percentiles can be reported without keeping
+ * individual samples.
+ */
+public class ServerMetrics {
+	private static final int BUCKETS = 24;
+
+	private final long startedAt = System.currentTimeMillis();
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong documents = new AtomicLong();
+	private final AtomicLong failedDocuments = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong batchedDocuments = new AtomicLong();
+
+	private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong latencyCount = new AtomicLong();
+	private final AtomicLong latencySumMillis = new AtomicLong();
+	private final AtomicLong latencyMaxMillis = new AtomicLong();
+
+	public void requestReceived() {
+		requests.incrementAndGet();
+	}
+
+	public void documentProcessed(long millis, boolean failed) {
+		documents.incrementAndGet();
+		if (failed)
+			failedDocuments.incrementAndGet();
+
+		latencyCount.incrementAndGet();
+		latencySumMillis.addAndGet(millis);
+		latencyMaxMillis.accumulateAndGet(millis, Math::max);
+		latencyBuckets.incrementAndGet(bucketOf(millis));
+	}
+
+	public void batchProcessed(int size) {
+		batches.incrementAndGet();
+		batchedDocuments.addAndGet(size);
+	}
+
+	/**
+	 * Upper bound (in milliseconds) of the bucket the given percentile falls into.
+	 */
+	long percentile(double p) {
+		long total = latencyCount.get();
+		if (total == 0)
+			return 0;
+		long threshold = (long) Math.ceil(total * p);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += latencyBuckets.get(i);
+			if (seen >= threshold)
+				return 1L << i;
+		}
+		return latencyMaxMillis.get();
+	}
+
+	private static int bucketOf(long millis) {
+		if (millis <= 1)
+			return 0;
+		int bucket = 64 - Long.numberOfLeadingZeros(millis - 1);
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	/**
+	 * @param queueDepth number of documents currently waiting for a worker
+	 * @return the metrics as a JSON object
+	 */
+	public String toJson(int queueDepth) {
+		long count = latencyCount.get();
+		long batchCount = batches.get();
+		StringBuilder sb = new StringBuilder();
+		sb.append('{');
+		sb.append("\"uptimeMillis\":").append(System.currentTimeMillis() - startedAt);
+		sb.append(",\"requests\":").append(requests.get());
+		sb.append(",\"documents\":").append(documents.get());
+		sb.append(",\"failedDocuments\":").append(failedDocuments.get());
+		sb.append(",\"queueDepth\":").append(queueDepth);
+		sb.append(",\"batches\":").append(batchCount);
+		sb.append(",\"averageBatchSize\":")
+				.append(batchCount == 0 ? 0.0 : (double) batchedDocuments.get() / batchCount);
+		sb.append(",\"latencyMillis\":{");
+		sb.append("\"mean\":").append(count == 0 ? 0.0 : (double) latencySumMillis.get() / count);
+		sb.append(",\"p50\":").append(percentile(0.50));
+		sb.append(",\"p90\":").append(percentile(0.90));
+		sb.append(",\"p99\":").append(percentile(0.99));
+		sb.append(",\"max\":").append(latencyMaxMillis.get());
+		sb.append("}}");
+		return sb.toString();
+	}
+}
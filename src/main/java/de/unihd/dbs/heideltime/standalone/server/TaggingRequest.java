@@ -0,0 +1,38 @@
+package de.unihd.dbs.heideltime.standalone.server;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+import de.unihd.dbs.heideltime.standalone.DocumentType;
+import de.unihd.dbs.heideltime.standalone.OutputType;
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+
+/**
+ * A single document waiting to be tagged, together with the future its
+ * result is delivered through.
+ */
+public class TaggingRequest {
+	final String text;
+	final Date documentCreationTime;
+	final Language language;
+	final DocumentType type;
+	final OutputType outputType;
+	final long enqueuedAt = System.nanoTime();
+	final CompletableFuture<String> result = new CompletableFuture<String>();
+
+	public TaggingRequest(String text, Date documentCreationTime, Language language, DocumentType type, OutputType outputType) {
+		this.text = text;
+		this.documentCreationTime = documentCreationTime;
+		this.language = language;
+		this.type = type;
+		this.outputType = outputType;
+	}
+
+	String poolKey() {
+		return AnnotatorPool.key(language, type);
+	}
+
+	public CompletableFuture<String> getResult() {
+		return result;
+	}
+}
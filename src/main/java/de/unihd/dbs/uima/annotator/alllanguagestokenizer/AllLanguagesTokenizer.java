@@ -1,8 +1,9 @@
 package de.unihd.dbs.uima.annotator.alllanguagestokenizer;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.uima.analysis_component.JCasAnnotator_ImplBase;
@@ -14,213 +15,420 @@ import de.unihd.dbs.uima.types.heideltime.Sentence;
 import de.unihd.dbs.uima.types.heideltime.Token;
 
 
+/**
+ * Language independent tokenizer and sentence splitter, used as fallback for
+ * languages without dedicated preprocessing.
+ *
+ * The tokenizer scans each line once and classifies its characters instead of
+ * rewriting the line with a cascade of regular expressions. The segmentation
+ * is the same as that of the original regex based implementation, including
+ * its oddities: U+00FE and U+00FF used to serve as internal markers, so a
+ * literal "þ" still separates tokens and a literal "ÿ" is treated like a blank
+ * within a segment.
+ */
 public class AllLanguagesTokenizer extends JCasAnnotator_ImplBase {
-	private String PChar = "\\[¿¡\\{\\(\\`\"‚„†‡‹‘’“”•–—›'";
-	private String FChar = "\\]\\}\\'\\`\"\\),;:\\!\\?\\%‚„…†‡‰‹‘’“”•–—›";
-	private String FClitic = "";
-	private String PClitic = "";
-	
-	public AllLanguagesTokenizer() {
-		FClitic += "'(s|re|ve|d|m|em|ll)|n't";
-		PClitic += "[dD][ae]ll'|[nN]ell'|[Aa]ll'|[lLDd]'|[Ss]ull'|[Qq]uest'|[Uu]n'|[Ss]enz'|[Tt]utt'";
-		PClitic += "|[dcjlmnstDCJLNMST]'|[Qq]u'|[Jj]usqu'|[Ll]orsqu'";
-		FClitic += "|-t-elles?|-t-ils?|-t-on|-ce|-elles?|-ils?|-je|-la|-les?|-leur|-lui|-mmes?|-m'|-moi|-nous|-on|-toi|-tu|-t'|-vous|-en|-y|-ci|-l";
-		FClitic += "|-la|-las|-lo|-los|-nos";
-	}
+	// preceding and following punctuation
+	private static final String PCHAR = "[¿¡{(`\"‚„†‡‹‘’“”•–—›'";
+	private static final String FCHAR = "]}'`\"),;:!?%‚„…†‡‰‹‘’“”•–—›";
+
+	// preceding clitics; all alternatives end in the first apostrophe of the token
+	private static final Pattern PCLITIC = Pattern.compile("[dD][ae]ll'|[nN]ell'|[Aa]ll'|[lLDd]'|[Ss]ull'|[Qq]uest'|[Uu]n'|[Ss]enz'|[Tt]utt'"
+			+ "|[dcjlmnstDCJLNMST]'|[Qq]u'|[Jj]usqu'|[Ll]orsqu'");
+	private static final int MAX_PCLITIC_APOSTROPHE = 6;
+
+	// following clitics
+	private static final String[] FCLITICS = {
+			"'s", "'re", "'ve", "'d", "'m", "'em", "'ll", "n't",
+			"-t-elle", "-t-elles", "-t-il", "-t-ils", "-t-on", "-ce", "-elle", "-elles", "-il", "-ils", "-je", "-la",
+			"-le", "-les", "-leur", "-lui", "-mme", "-mmes", "-m'", "-moi", "-nous", "-on", "-toi", "-tu", "-t'",
+			"-vous", "-en", "-y", "-ci", "-l", "-las", "-lo", "-los", "-nos" };
+	private static final int MAX_FCLITIC_LENGTH = 8;
+
+	// character flags of the line scanner
+	private static final byte SEPARATOR = 1;
+	private static final byte CUT_BEFORE = 2;
 
 	public void process(JCas jcas) throws AnalysisEngineProcessException {
 		tokenize(jcas);
-		
+
 		sentenceTokenize(jcas);
 	}
 
-	
+
 	public List<Token> tokenize(JCas jcas) {
-		StringBuilder outBuf = new StringBuilder();
-		
-		for(String text : jcas.getDocumentText().split("\n")) {
-			// replace newlines and tab characters with blanks
-			text = text.replaceAll("[\r\n\t]", " ");
-			// replace blanks within SGML tags
-			text = text.replaceAll("(<[^<> ]*) ([^<>]*>)", "$1\377$2");
-			// replace whitespace with a special character
-			text = text.replaceAll("[\\u2000-\\u200A \\u202F\\u205F\\u3000\\u00A0\\u1680\\u180E]", "\376");
-			// restore SGML tags
-			text = text.replaceAll("\377", " ");
-			text = text.replaceAll("\376", "\377");
-			// prepare SGML-Tags for tokenization
-			text = text.replaceAll("(<[^<>]*>)", "\377$1\377");
-			text = text.replaceAll("^\377", "");
-			text = text.replaceAll("\377$", "");
-			text = text.replaceAll("\377\377\377*", "\377");
-			
-			String[] texts = text.split("\377");
-			
-			for(String line : texts) {
-				if(line.matches("^<.*>$")) {
-					// SGML tag
-					outBuf.append(line + "\n");
-				} else {
-					// add a blank at the beginning and the end of each segment
-					line = " " + line + " ";
-					
-					// insert missing blanks after punctuation
-					line = line.replaceAll("\\.\\.\\.", " ... ");
-					line = line.replaceAll("([;\\!\\?])([^ ])", "$1 $2");
-					line = line.replaceAll("([.,:])([^ 0-9.])", "$1 $2");
-					
-					String[] lines = line.split(" ");
-					
-					for(String token : lines) {
-						// remove some whitespaces that \s doesn't catch
-						if(token.equals(""))
-							continue;
-						
-						String suffix = "";
-						
-						// separate punctuation and parentheses from words
-						Boolean finished = false;
-						Matcher m;
-						do {
-							finished = true;
-							
-							// cut off preceding punctuation
-							m = Pattern.compile("^([" + PChar + "])(.)").matcher(token);
-							if(m.find()) {
-								token = token.replaceAll("^([" + PChar + "])(.)", "$2");
-								outBuf.append(m.group(1) + "\n");
-								finished = false;
-							}
-							
-							// cut off trailing punctuation
-							m = Pattern.compile("(.)([" + FChar + "])$").matcher(token);
-							if(m.find()) {
-								token = token.replaceAll("(.)([" + FChar + "])$", "$1");
-								suffix = m.group(2) + "\n" + suffix;
-								finished = false;
-							}
-							
-							// cut off trailing periods if punctuation precedes
-							m = Pattern.compile("([" + FChar + "])\\.$").matcher(token);
-							if(m.find()) {
-								token = token.replaceAll("([" + FChar + "])\\.$", "");
-								suffix = ".\n" + suffix;
-								
-								if(token.equals("")) {
-									token = m.group(1);
-								} else {
-									suffix = m.group(1) + "\n" + suffix;
-								}
-								
-								finished = false;
-							}
-						} while(!finished);
-						/* TODO:commented out because those are language-specific
-						// handle explicitly listed tokens
-						if(abbreviations.contains(token)) {
-							outBuf.append(token + "\n" + suffix);
-							continue;
-						}*/
-						
-						// abbreviations of the form A. or U.S.A.
-						if(token.matches("^([A-Za-z-]\\.)+$")) {
-							outBuf.append(token + "\n" + suffix);
-							continue;
-						}
-						
-						// disambiguate periods
-						m = Pattern.compile("^(..*)\\.$").matcher(token);
-						if(m.matches() && !line.equals("...") 
-								/* TODO:commented out because those are language-specific: && !(flags.contains(Flag.GALICIAN) && token.matches("^[0-9]+\\.$"))*/) {
-							token = m.group(1);
-							suffix = ".\n" + suffix;
-							/* TODO:commented out because those are language-specific
-							if(abbreviations.contains(token)) {
-								outBuf.append(token + "\n" + suffix);
-								continue;
-							}*/
-						}
-						
-						// cut off clitics
-						while(true) {
-							m = Pattern.compile("^(--)(.)").matcher(token);
-							
-							if(!m.find()) {
-								break;
-							}
-							
-							token = token.replaceAll("^(--)(.)", "$2");
-							outBuf.append(m.group(1) + "\n");
-						}
-						if(!PClitic.equals("")) {
-							while(true) {
-								m = Pattern.compile("^(" + PClitic + ")(.)").matcher(token);
-								
-								if(!m.find()) {
-									break;
-								}
-								
-								token = token.replaceAll("^(" + PClitic + ")(.)", "$2");
-								outBuf.append(m.group(1) + "\n");
-							}
-						}
-	
-						while(true) {
-							m = Pattern.compile("^(--)(.)").matcher(token);
-							
-							if(!m.find()) {
-								break;
-							}
-							
-							token = token.replaceAll("^(--)(.)", "$1");
-							suffix = m.group(2) + "\n" + suffix;
-						}
-						if(!FClitic.equals("")) {
-							while(true) {
-								m = Pattern.compile("(.)(" + FClitic + ")$").matcher(token);
-								
-								if(!m.find()) {
-									break;
-								}
-								
-								token = token.replaceAll("(.)(" + FClitic + ")$", "$1");
-								suffix = m.group(2) + "\n" + suffix;
-							}
-						}
-						outBuf.append(token + "\n" + suffix);
-					}
-				}
-			}
-		}
-		
-		// find the tokens in the original text and create token annotations
-		LinkedList<Token> outList = new LinkedList<Token>();
 		String origText = jcas.getDocumentText();
-		Integer origTextOffset = 0;
-		
-		for(String s : outBuf.toString().split("\n")) {
-			Integer begin = origText.indexOf(s, origTextOffset);
-			Integer end = begin + s.length();
-			
+		List<String> tokens = splitTokens(origText);
+
+		// find the tokens in the original text and create token annotations
+		List<Token> outList = new ArrayList<Token>(tokens.size());
+		int origTextOffset = 0;
+
+		for(String s : tokens) {
+			int begin = origText.indexOf(s, origTextOffset);
+			int end = begin + s.length();
+
 			Token t = new Token(jcas);
 			t.setBegin(begin);
 			t.setPos("");
 			t.setEnd(end);
-			
+
 			t.addToIndexes();
-			
-			origTextOffset = t.getEnd();
-			
+
+			origTextOffset = end;
+
 			outList.add(t);
 		}
-		
+
 		return outList;
 	}
-	
+
+	/**
+	 * Splits a text into its token strings. The offsets of the tokens are
+	 * resolved by {@link #tokenize(JCas)}.
+	 */
+	public static List<String> splitTokens(String text) {
+		int length = text.length();
+		char[] chars = new char[length];
+		byte[] flags = new byte[length + 1];
+		List<String> out = new ArrayList<String>(length / 4 + 1);
+		ArrayDeque<String> suffix = new ArrayDeque<String>();
+
+		int lineStart = 0;
+		while(lineStart < length) {
+			int lineEnd = text.indexOf('\n', lineStart);
+			if(lineEnd < 0)
+				lineEnd = length;
+
+			classifyLine(text, lineStart, lineEnd, chars, flags);
+
+			// split the line into segments at separators and SGML tag boundaries
+			int segStart = -1;
+			for(int i = lineStart; i <= lineEnd; i++) {
+				if(segStart >= 0 && (i == lineEnd || (flags[i] & (SEPARATOR | CUT_BEFORE)) != 0)) {
+					splitSegment(chars, segStart, i, out, suffix);
+					segStart = -1;
+				}
+				if(i < lineEnd && segStart < 0 && (flags[i] & SEPARATOR) == 0)
+					segStart = i;
+			}
+
+			lineStart = lineEnd + 1;
+		}
+
+		// an empty output used to be split into a single empty token
+		if(out.isEmpty())
+			out.add("");
+
+		return out;
+	}
+
+	/**
+	 * Copies a line into <code>chars</code> and marks its separators and SGML
+	 * tag boundaries in <code>flags</code>. Whitespace separates segments, except
+	 * for the first blank within an SGML tag which becomes part of the tag.
+	 */
+	private static void classifyLine(String text, int start, int end, char[] chars, byte[] flags) {
+		for(int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			chars[i] = (c == '\r' || c == '\t') ? ' ' : c;
+			flags[i] = 0;
+		}
+		flags[end] = 0;
+
+		// find the first blank of each SGML tag, which is kept
+		int i = start;
+		while(i < end) {
+			if(chars[i] != '<') {
+				i++;
+				continue;
+			}
+			int blank = i + 1;
+			while(blank < end && chars[blank] != '<' && chars[blank] != '>' && chars[blank] != ' ')
+				blank++;
+			if(blank < end && chars[blank] == ' ') {
+				int close = blank + 1;
+				while(close < end && chars[close] != '<' && chars[close] != '>')
+					close++;
+				if(close < end && chars[close] == '>') {
+					chars[blank] = '\377';
+					i = close + 1;
+					continue;
+				}
+			}
+			i++;
+		}
+
+		for(i = start; i < end; i++) {
+			char c = chars[i];
+			if(c == '\377') {
+				// kept blanks of SGML tags and literal U+00FF
+				chars[i] = ' ';
+			} else if(c == '\376' || isWhitespace(c)) {
+				flags[i] = SEPARATOR;
+			}
+		}
+
+		// SGML tags are segments of their own
+		i = start;
+		while(i < end) {
+			if(chars[i] != '<') {
+				i++;
+				continue;
+			}
+			int close = i + 1;
+			while(close < end && chars[close] != '<' && chars[close] != '>')
+				close++;
+			if(close < end && chars[close] == '>') {
+				flags[i] |= CUT_BEFORE;
+				flags[close + 1] |= CUT_BEFORE;
+				i = close + 1;
+			} else {
+				i = close;
+			}
+		}
+
+		// a single separator right before a final line terminator used to be
+		// stripped like a trailing one, since "$" also matches in front of it
+		int last = end - 1;
+		if(last - start >= 1 && isLineTerminator(chars[last])) {
+			if((flags[last] & CUT_BEFORE) != 0) {
+				flags[last] = 0;
+			} else if(flags[last - 1] == SEPARATOR && (last - 1 == start || (flags[last - 2] & SEPARATOR) == 0)) {
+				chars[last - 1] = chars[last];
+				flags[last - 1] = 0;
+				flags[last] = SEPARATOR;
+			}
+		}
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || (c >= '\u2000' && c <= '\u200A') || c == '\u202F' || c == '\u205F' || c == '\u3000'
+				|| c == '\u00A0' || c == '\u1680' || c == '\u180E';
+	}
+
+	/**
+	 * Characters that regular expressions treat as line terminators; they are
+	 * not matched by "." and "$" also matches right before a final one.
+	 */
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	/**
+	 * @return the position at which "$" matches in the token
+	 */
+	private static int effectiveEnd(String token) {
+		int length = token.length();
+		return (length > 0 && isLineTerminator(token.charAt(length - 1))) ? length - 1 : length;
+	}
+
+	private static void splitSegment(char[] chars, int start, int end, List<String> out, ArrayDeque<String> suffix) {
+		int length = end - start;
+		if(isSgmlTag(chars, start, end)) {
+			out.add(new String(chars, start, length));
+			return;
+		}
+
+		String line = new String(chars, start, length);
+
+		// insert missing blanks after punctuation
+		if(line.indexOf("...") >= 0)
+			line = line.replace("...", " ... ");
+		line = insertBlanks(line, ";!?", "");
+		line = insertBlanks(line, ".,:", "0123456789.");
+
+		int tokenStart = 0;
+		for(int i = 0; i <= line.length(); i++) {
+			if(i == line.length() || line.charAt(i) == ' ') {
+				if(i > tokenStart)
+					splitToken(line.substring(tokenStart, i), out, suffix);
+				tokenStart = i + 1;
+			}
+		}
+	}
+
+	private static boolean isSgmlTag(char[] chars, int start, int end) {
+		if(end - start < 2 || chars[start] != '<' || chars[end - 1] != '>')
+			return false;
+		for(int i = start + 1; i < end - 1; i++)
+			if(isLineTerminator(chars[i]))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Inserts a blank after each character of <code>punctuation</code> that is
+	 * followed by a character that is neither a blank nor in <code>exceptions</code>.
+	 * The following character is consumed, so it is not checked itself.
+	 */
+	private static String insertBlanks(String line, String punctuation, String exceptions) {
+		StringBuilder sb = null;
+		int copied = 0;
+		int length = line.length();
+		for(int i = 0; i < length - 1; i++) {
+			if(punctuation.indexOf(line.charAt(i)) < 0)
+				continue;
+			char next = line.charAt(i + 1);
+			if(next == ' ' || exceptions.indexOf(next) >= 0)
+				continue;
+			if(sb == null)
+				sb = new StringBuilder(length + 8);
+			sb.append(line, copied, i + 1).append(' ').append(next);
+			copied = i + 2;
+			i++;
+		}
+		if(sb == null)
+			return line;
+		return sb.append(line, copied, length).toString();
+	}
+
+	private static void splitToken(String token, List<String> out, ArrayDeque<String> suffix) {
+		suffix.clear();
+
+		// separate punctuation and parentheses from words
+		boolean finished;
+		do {
+			finished = true;
+
+			// cut off preceding punctuation
+			if(token.length() > 1 && PCHAR.indexOf(token.charAt(0)) >= 0 && !isLineTerminator(token.charAt(1))) {
+				out.add(token.substring(0, 1));
+				token = token.substring(1);
+				finished = false;
+			}
+
+			// cut off trailing punctuation
+			int end = effectiveEnd(token);
+			if(end > 1 && FCHAR.indexOf(token.charAt(end - 1)) >= 0 && !isLineTerminator(token.charAt(end - 2))) {
+				suffix.addFirst(token.substring(end - 1, end));
+				token = token.substring(0, end - 1) + token.substring(end);
+				finished = false;
+			}
+
+			// cut off trailing periods if punctuation precedes
+			end = effectiveEnd(token);
+			if(end > 1 && token.charAt(end - 1) == '.' && FCHAR.indexOf(token.charAt(end - 2)) >= 0) {
+				String punctuation = token.substring(end - 2, end - 1);
+				token = token.substring(0, end - 2) + token.substring(end);
+				suffix.addFirst(".");
+
+				if(token.equals("")) {
+					token = punctuation;
+				} else {
+					suffix.addFirst(punctuation);
+				}
+
+				finished = false;
+			}
+		} while(!finished);
+		/* TODO:commented out because those are language-specific
+		// handle explicitly listed tokens
+		if(abbreviations.contains(token)) {
+			outBuf.append(token + "\n" + suffix);
+			continue;
+		}*/
+
+		// abbreviations of the form A. or U.S.A.
+		if(isAbbreviation(token)) {
+			out.add(token);
+			out.addAll(suffix);
+			return;
+		}
+
+		// disambiguate periods
+		int length = token.length();
+		if(length > 1 && token.charAt(length - 1) == '.' && !containsLineTerminator(token, 0, length - 1)
+				/* TODO:commented out because those are language-specific: && !(flags.contains(Flag.GALICIAN) && token.matches("^[0-9]+\\.$"))*/) {
+			token = token.substring(0, length - 1);
+			suffix.addFirst(".");
+			/* TODO:commented out because those are language-specific
+			if(abbreviations.contains(token)) {
+				outBuf.append(token + "\n" + suffix);
+				continue;
+			}*/
+		}
+
+		// cut off clitics
+		while(startsWithDashes(token)) {
+			out.add("--");
+			token = token.substring(2);
+		}
+		while(true) {
+			int apostrophe = token.indexOf('\'');
+			if(apostrophe < 1 || apostrophe > MAX_PCLITIC_APOSTROPHE || apostrophe + 1 >= token.length()
+					|| isLineTerminator(token.charAt(apostrophe + 1))
+					|| !PCLITIC.matcher(token.substring(0, apostrophe + 1)).matches()) {
+				break;
+			}
+
+			out.add(token.substring(0, apostrophe + 1));
+			token = token.substring(apostrophe + 1);
+		}
+
+		while(startsWithDashes(token)) {
+			suffix.addFirst(token.substring(2, 3));
+			token = "--" + token.substring(3);
+		}
+		while(true) {
+			int end = effectiveEnd(token);
+			int cliticStart = findFollowingClitic(token, end);
+			if(cliticStart < 0)
+				break;
+
+			suffix.addFirst(token.substring(cliticStart, end));
+			token = token.substring(0, cliticStart) + token.substring(end);
+		}
+
+		out.add(token);
+		out.addAll(suffix);
+	}
+
+	private static boolean isAbbreviation(String token) {
+		int length = token.length();
+		if(length < 2 || length % 2 != 0)
+			return false;
+		for(int i = 0; i < length; i += 2) {
+			char c = token.charAt(i);
+			if(!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '-') || token.charAt(i + 1) != '.')
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean containsLineTerminator(String s, int start, int end) {
+		for(int i = start; i < end; i++)
+			if(isLineTerminator(s.charAt(i)))
+				return true;
+		return false;
+	}
+
+	private static boolean startsWithDashes(String token) {
+		return token.length() > 2 && token.charAt(0) == '-' && token.charAt(1) == '-' && !isLineTerminator(token.charAt(2));
+	}
+
+	/**
+	 * @return start of the leftmost following clitic that ends at <code>end</code>
+	 *         and is preceded by at least one character, or -1
+	 */
+	private static int findFollowingClitic(String token, int end) {
+		for(int start = Math.max(1, end - MAX_FCLITIC_LENGTH); start < end; start++) {
+			char first = token.charAt(start);
+			if((first != '\'' && first != '-' && first != 'n') || isLineTerminator(token.charAt(start - 1)))
+				continue;
+			int length = end - start;
+			for(String clitic : FCLITICS) {
+				if(clitic.length() == length && token.regionMatches(start, clitic, 0, length))
+					return start;
+			}
+		}
+		return -1;
+	}
+
 	public List<Sentence> sentenceTokenize(JCas jcas) {
 		List<Sentence> outList = new LinkedList<Sentence>();
 		FSIterator tokIt = jcas.getAnnotationIndex(Token.type).iterator();
-		
+		String docText = jcas.getDocumentText();
+
 		Sentence s = new Sentence(jcas);
 		Boolean sentenceStarted = false;
 		Token tOld = null;
@@ -230,21 +438,21 @@ public class AllLanguagesTokenizer extends JCasAnnotator_ImplBase {
 				tOld = t;
 			}
 			t = (Token) tokIt.next();
-			
+
 			// set sentence beginning
 			if(sentenceStarted == false) {
 				sentenceStarted = true;
-				
+
 				s.setBegin(t.getBegin());
 			}
-			
+
 			/* detect sentence ends
 			 * second character class taken from: http://en.wikipedia.org/wiki/Quotation_mark#Curved_quotes_and_Unicode
 			 */
 			if(!tokIt.hasNext() ||
-					(t.getCoveredText().matches("[.:!\\?]+") && 
-							(!((tOld != null && tOld.getCoveredText().matches("[\\d]+")) ||
-							((jcas.getDocumentText().substring(t.getEnd()).length() > 2) && (jcas.getDocumentText().substring(t.getEnd(),t.getEnd()+3)).matches(" [A-Z][.-]")))))){
+					(consistsOf(docText, t.getBegin(), t.getEnd(), ".:!?") &&
+							(!((tOld != null && consistsOf(docText, tOld.getBegin(), tOld.getEnd(), "0123456789")) ||
+							((docText.length() - t.getEnd() > 2) && isInitialAhead(docText, t.getEnd())))))){
 //							((!(tOld.getCoveredText().matches("[\\d]+")))) && (!((jcas.getDocumentText().substring(t.getEnd())).matches("^[\\s]*"))))) {
 //					(t.getCoveredText().matches("[.:!\\?]+") && (!(tOld.getCoveredText().matches("[\\d]+"))))) { // das funktioniert ok
 				sentenceStarted = false;
@@ -253,22 +461,45 @@ public class AllLanguagesTokenizer extends JCasAnnotator_ImplBase {
 				// check for whether the punctuation mark is followed by a closing quotation mark
 				if(tokIt.hasNext()) {
 					Token tNext = (Token) tokIt.next();
-					
-					if(tNext.getCoveredText().matches("[»’'\"‛”‟›〞』」﹄＂＇｣﹂]+")) {
+
+					if(consistsOf(docText, tNext.getBegin(), tNext.getEnd(), "»’'\"‛”‟›〞』」﹄＂＇｣﹂")) {
 						s.setEnd(tNext.getEnd());
 					} else {
 						tokIt.moveToPrevious();
 					}
 				}
-				
+
 				s.addToIndexes();
-				
+
 				outList.add(s);
-				
+
 				s = new Sentence(jcas);
 			}
 		}
-		
+
 		return outList;
 	}
+
+	/**
+	 * @return whether the text between <code>begin</code> and <code>end</code>
+	 *         is not empty and consists of characters of <code>chars</code> only
+	 */
+	private static boolean consistsOf(String text, int begin, int end, String chars) {
+		if(end <= begin)
+			return false;
+		for(int i = begin; i < end; i++)
+			if(chars.indexOf(text.charAt(i)) < 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return whether the text at <code>offset</code> continues with a blank and an
+	 *         initial such as " A." or " B-"
+	 */
+	private static boolean isInitialAhead(String text, int offset) {
+		char c = text.charAt(offset + 1);
+		char d = text.charAt(offset + 2);
+		return text.charAt(offset) == ' ' && c >= 'A' && c <= 'Z' && (d == '.' || d == '-');
+	}
 }
@@ -81,6 +81,8 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 	public static final String PARAM_LOCALE			   = "locale";
 	// supported types (2012-05-19): news (english, german, dutch), narrative (english, german, dutch), colloquial
 	private Language language       = Language.ENGLISH;
+	// locale that defines how weeks are counted
+	private Locale locale           = Locale.UK;
 	private String typeToProcess  = "news";
 	
 	// INPUT PARAMETER HANDLING WITH UIMA (which types shall be extracted)
@@ -120,10 +122,11 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 		/////////////////////////////////
 		String requestedLocale = (String) aContext.getConfigParameterValue(PARAM_LOCALE);
 		if(requestedLocale == null || requestedLocale.length() == 0) { // if the PARAM_LOCALE setting was left empty, 
-			Locale.setDefault(Locale.UK); // use a default, the ISO8601-adhering UK locale (equivalent to "en_GB")
+			locale = Locale.UK; // use a default, the ISO8601-adhering UK locale (equivalent to "en_GB")
+			Locale.setDefault(locale);
 		} else { // otherwise, check if the desired locale exists in the JVM's available locale repertoire
 			try {
-				Locale locale = DateCalculator.getLocaleFromString(requestedLocale);
+				locale = DateCalculator.getLocaleFromString(requestedLocale);
 				Locale.setDefault(locale); // sets it for the entire JVM session
 			} catch (LocaleException e) {
 				Logger.printError("Supplied locale parameter couldn't be resolved to a working locale. Try one of these:");
@@ -193,7 +196,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 		}
 		
 		// run preprocessing processors
-		procMan.executeProcessors(jcas, Priority.PREPROCESSING);
+		procMan.executeProcessors(jcas, Priority.PREPROCESSING, locale);
 		
 		RuleManager rulem = RuleManager.getInstance(language, find_temponyms);
 		
@@ -312,13 +315,13 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 			deleteOverlappedTimexesPostprocessing(jcas);
 		
 		// run arbitrary processors
-		procMan.executeProcessors(jcas, Priority.ARBITRARY);
+		procMan.executeProcessors(jcas, Priority.ARBITRARY, locale);
 		
 		// remove invalid timexes
 		removeInvalids(jcas);
 		
 		// run postprocessing processors
-		procMan.executeProcessors(jcas, Priority.POSTPROCESSING);
+		procMan.executeProcessors(jcas, Priority.POSTPROCESSING, locale);
 
 		timex_counter_global = timex_counter_global + timex_counter;
 		Logger.printDetail(component, "Number of Timexes added to CAS: "+timex_counter + "(global: "+timex_counter_global+")");
@@ -585,7 +588,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 					+ norm.getFromNormNumber(dctDay + ""));
 			dctWeek = DateCalculator.getWeekOfDate(dctYear + "-"
 					+ norm.getFromNormNumber(dctMonth + "") + "-"
-					+ norm.getFromNormNumber(dctDay + ""));
+					+ norm.getFromNormNumber(dctDay + ""), locale);
 
 			Logger.printDetail("dctQuarter:" + dctQuarter);
 			Logger.printDetail("dctSeason:" + dctSeason);
@@ -704,7 +707,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				}
 				// WITHOUT DOCUMENT CREATION TIME
 				else {
-					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language, locale);
 				}
 			}
 			// vi has quaurter
@@ -745,7 +748,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				}
 				// WITHOUT DOCUMENT CREATION TIME
 				else {
-					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language, locale);
 				}
 			}
 			// vi has half
@@ -786,7 +789,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				}
 				// WITHOUT DOCUMENT CREATION TIME
 				else {
-					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language, locale);
 				}
 			}
 			
@@ -799,7 +802,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				}
 				// WITHOUT DOCUMENT CREATION TIME
 				else {
-					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language, locale);
 				}
 			}
 			// vi has week
@@ -810,7 +813,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				}
 				// WITHOUT DOCUMENT CREATION TIME
 				else {
-					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+					newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language, locale);
 				}
 			}
 
@@ -857,7 +860,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 			}
 			// NARRATIVE DOCUMENTS
 			else {
-				newCenturyValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language);
+				newCenturyValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language, locale);
 				if (!(newCenturyValue.startsWith("BC"))){
 					if ((newCenturyValue.matches("^\\d\\d.*")) && (Integer.parseInt(newCenturyValue.substring(0, 2)) < 10)){
 						newCenturyValue = "00";
@@ -1014,7 +1017,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 						
 						// check for REFUNIT (only allowed for "year")
 						if ((ltn.equals("REFUNIT")) && (unit.equals("year"))) {
-							String dateWithYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "dateYear", language);
+							String dateWithYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "dateYear", language, locale);
 							String year = dateWithYear;
 							if (dateWithYear.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX");
@@ -1046,7 +1049,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								}
 								valueNew = valueNew.replace(checkUndef, century+"");
 							} else {
-								String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language);
+								String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language, locale);
 								if (lmCentury.equals("")) {
 									valueNew = valueNew.replace(checkUndef, "XX");
 								} else {
@@ -1068,7 +1071,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								}
 								valueNew = valueNew.replace(checkUndef, decade+"X");
 							} else {
-								String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates, i, "decade", language);
+								String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates, i, "decade", language, locale);
 								if (lmDecade.equals("")) {
 									valueNew = valueNew.replace(checkUndef, "XXX");
 								} else {
@@ -1089,7 +1092,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								}
 								valueNew = valueNew.replace(checkUndef, intValue + "");
 							} else {
-								String lmYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+								String lmYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language, locale);
 								if (lmYear.equals("")) {
 									valueNew = valueNew.replace(checkUndef, "XXXX");
 								} else {
@@ -1116,7 +1119,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								intQuarter = intQuarter + diffQuarters; 
 								valueNew = valueNew.replace(checkUndef, intYear+"-Q"+intQuarter);
 							} else {
-								String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+								String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language, locale);
 								if (lmQuarter.equals("")) {
 									valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 								} else {
@@ -1141,7 +1144,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								}
 								valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextMonth(dctYear + "-" + norm.getFromNormNumber(dctMonth+""), diff));
 							} else {
-								String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month", language);
+								String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month", language, locale);
 								if (lmMonth.equals("")) {
 									valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 								} else {
@@ -1158,9 +1161,9 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								} else if (op.equals("PLUS")) {
 									// diff = diff * 7;
 								}
-								valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear+"-W"+norm.getFromNormNumber(dctWeek+""), diff, language));
+								valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear+"-W"+norm.getFromNormNumber(dctWeek+""), diff, language, locale));
 							} else {
-								String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+								String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language, locale);
 								if (lmDay.equals("")) {
 									valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 								} else {
@@ -1179,7 +1182,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								}
 								valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + norm.getFromNormNumber(dctMonth+"") + "-"	+ dctDay, diff));
 							} else {
-								String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+								String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language, locale);
 								if (lmDay.equals("")) {
 									valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 								} else {
@@ -1200,7 +1203,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, norm.getFromNormNumber(dctCentury - 1 +""));
 				} else {
-					String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates,i,"century", language);
+					String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates,i,"century", language, locale);
 					if (lmCentury.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XX");
 					} 
@@ -1214,7 +1217,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, norm.getFromNormNumber(dctCentury+""));
 				} else {
-					String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates,i,"century", language);
+					String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates,i,"century", language, locale);
 					if (lmCentury.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XX");
 					} else {
@@ -1226,7 +1229,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, norm.getFromNormNumber(dctCentury + 1+""));
 				} else {
-					String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates,i,"century", language);
+					String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates,i,"century", language, locale);
 					if (lmCentury.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XX");
 					} else {
@@ -1242,7 +1245,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, (dctYear - 10+"").substring(0,3));
 				} else {
-					String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates,i,"decade", language);
+					String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates,i,"decade", language, locale);
 					if (lmDecade.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX");
 					} else {
@@ -1255,7 +1258,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, (dctYear+"").substring(0,3));
 				} else {
-					String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates,i,"decade", language);
+					String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates,i,"decade", language, locale);
 					if (lmDecade.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX");
 					} else {
@@ -1267,7 +1270,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, (dctYear + 10+"").substring(0,3));
 				} else {
-					String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates,i,"decade", language);
+					String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates,i,"decade", language, locale);
 					if (lmDecade.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX");
 					} else {
@@ -1283,7 +1286,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, dctYear -1 +"");
 				} else {
-					String lmYear = ContextAnalyzer.getLastMentionedX(linearDates,i,"year", language);
+					String lmYear = ContextAnalyzer.getLastMentionedX(linearDates,i,"year", language, locale);
 					if (lmYear.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX");
 					} else {
@@ -1299,7 +1302,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, dctYear +"");
 				} else {
-					String lmYear = ContextAnalyzer.getLastMentionedX(linearDates,i,"year", language);
+					String lmYear = ContextAnalyzer.getLastMentionedX(linearDates,i,"year", language, locale);
 					if (lmYear.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX");
 					} else {
@@ -1314,7 +1317,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, dctYear +1 +"");	
 				} else {
-					String lmYear = ContextAnalyzer.getLastMentionedX(linearDates,i,"year", language);
+					String lmYear = ContextAnalyzer.getLastMentionedX(linearDates,i,"year", language, locale);
 					if (lmYear.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX");
 					} else {
@@ -1333,7 +1336,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextMonth(dctYear + "-" + norm.getFromNormNumber(dctMonth+""), -1));
 				} else {
-					String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates,i,"month", language);
+					String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates,i,"month", language, locale);
 					if (lmMonth.equals("")) {
 						valueNew =  valueNew.replace(checkUndef, "XXXX-XX");
 					} else {
@@ -1345,7 +1348,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, dctYear + "-" + norm.getFromNormNumber(dctMonth+""));
 				} else {
-					String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates,i,"month", language);
+					String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates,i,"month", language, locale);
 					if (lmMonth.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 					} else { 
@@ -1358,7 +1361,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextMonth(dctYear + "-" + norm.getFromNormNumber(dctMonth+""), 1));
 				} else {
-					String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates,i,"month", language);
+					String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates,i,"month", language, locale);
 					if (lmMonth.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 					} else {
@@ -1373,7 +1376,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + norm.getFromNormNumber(dctMonth+"") + "-"+ dctDay, -1));
 				} else {
-					String lmDay = ContextAnalyzer.getLastMentionedX(linearDates,i,"day", language);
+					String lmDay = ContextAnalyzer.getLastMentionedX(linearDates,i,"day", language, locale);
 					if (lmDay.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 					} else {
@@ -1385,7 +1388,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, dctYear + "-" + norm.getFromNormNumber(dctMonth+"") + "-"+ norm.getFromNormNumber(dctDay+""));
 				} else {
-					String lmDay = ContextAnalyzer.getLastMentionedX(linearDates,i,"day", language);
+					String lmDay = ContextAnalyzer.getLastMentionedX(linearDates,i,"day", language, locale);
 					if (lmDay.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 					} else {
@@ -1401,7 +1404,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + norm.getFromNormNumber(dctMonth+"") + "-"+ dctDay, 1));
 				} else {
-					String lmDay = ContextAnalyzer.getLastMentionedX(linearDates,i,"day", language);
+					String lmDay = ContextAnalyzer.getLastMentionedX(linearDates,i,"day", language, locale);
 					if (lmDay.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 					} else {
@@ -1414,13 +1417,13 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 			else if (ambigString.startsWith("UNDEF-last-week")) {
 				String checkUndef = "UNDEF-last-week";
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
-					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear+"-W"+norm.getFromNormNumber(dctWeek+""),-1, language));
+					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear+"-W"+norm.getFromNormNumber(dctWeek+""),-1, language, locale));
 				} else {
-					String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates,i,"week", language);
+					String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates,i,"week", language, locale);
 					if (lmWeek.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-WXX");
 					} else {
-						valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek,-1, language));
+						valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek,-1, language, locale));
 					}
 				}
 			} else if (ambigString.startsWith("UNDEF-this-week")) {
@@ -1428,7 +1431,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef,dctYear+"-W"+norm.getFromNormNumber(dctWeek+""));
 				} else {
-					String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates,i,"week", language);
+					String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates,i,"week", language, locale);
 					if (lmWeek.equals("")) {
 						valueNew = valueNew.replace(checkUndef,"XXXX-WXX");
 					} else {
@@ -1438,13 +1441,13 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 			} else if (ambigString.startsWith("UNDEF-next-week")) {
 				String checkUndef = "UNDEF-next-week";
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
-					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear+"-W"+norm.getFromNormNumber(dctWeek+""),1, language));
+					valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear+"-W"+norm.getFromNormNumber(dctWeek+""),1, language, locale));
 				} else {
-					String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates,i,"week", language);
+					String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates,i,"week", language, locale);
 					if (lmWeek.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-WXX");
 					} else {
-						valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek,1, language));
+						valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek,1, language, locale));
 					}
 				}
 			}
@@ -1460,7 +1463,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 						valueNew = valueNew.replace(checkUndef, dctYear+"-Q"+newQuarter);
 					}
 				} else {
-					String lmQuarter  = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+					String lmQuarter  = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language, locale);
 					if (lmQuarter.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-QX");
 					} else {
@@ -1479,7 +1482,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 				if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 					valueNew = valueNew.replace(checkUndef, dctYear+"-"+dctQuarter);
 				} else {
-					String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+					String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language, locale);
 					if (lmQuarter.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-QX");
 					} else {
@@ -1496,7 +1499,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 						valueNew = valueNew.replace(checkUndef, dctYear+"-Q"+newQuarter);
 					}						
 				} else {
-					String lmQuarter  = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+					String lmQuarter  = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language, locale);
 					if (lmQuarter.equals("")) {
 						valueNew = valueNew.replace(checkUndef, "XXXX-QX");
 					} else {
@@ -1541,7 +1544,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								valueNew = valueNew.replace(checkUndef, dctYear+"-"+newMonth);
 							}
 						} else {
-							String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month-with-details", language);
+							String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month-with-details", language, locale);
 							if (lmMonth.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 							} else {
@@ -1570,7 +1573,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 						if ((documentTypeNews||documentTypeColloquial||documentTypeScientific) && (dctAvailable)) {
 							valueNew = valueNew.replace(checkUndef, dctYear+"-"+newMonth);
 						} else {
-							String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month-with-details", language);
+							String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month-with-details", language, locale);
 							if (lmMonth.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 							} else {
@@ -1594,7 +1597,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								valueNew = valueNew.replace(checkUndef, dctYear+"-"+newMonth);
 							}
 						} else {
-							String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month-with-details", language);
+							String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month-with-details", language, locale);
 							if (lmMonth.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 							} else {
@@ -1646,7 +1649,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								}
 							}
 						} else { // NARRATVIE DOCUMENT
-							String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language);
+							String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language, locale);
 							if (lmSeason.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 							} else {
@@ -1679,7 +1682,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 							valueNew = valueNew.replace(checkUndef, dctYear+"-"+newSeason);
 						} else {
 							// TODO include tense of sentence?
-							String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language);
+							String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language, locale);
 							if (lmSeason.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 							} else {
@@ -1710,7 +1713,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 								valueNew = valueNew.replace(checkUndef, dctYear+1+"-"+newSeason);
 							}
 						} else { // NARRATIVE DOCUMENT
-							String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language);
+							String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language, locale);
 							if (lmSeason.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX");
 							} else {
@@ -1758,7 +1761,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 							}
 							valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + dctMonth + "-" + dctDay, diff));
 						} else {
-							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language, locale);
 							if (lmDay.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 							} else {
@@ -1784,7 +1787,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 							valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + dctMonth + "-"+ dctDay, diff));
 						} else {
 							// TODO tense should be included?!
-							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language, locale);
 							if (lmDay.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 							} else {
@@ -1807,7 +1810,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 							}
 							valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + dctMonth + "-"+ dctDay, diff));
 						} else {
-							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language, locale);
 							if (lmDay.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 							} else {
@@ -1840,7 +1843,7 @@ public class HeidelTime extends JCasAnnotator_ImplBase {
 							valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + dctMonth + "-"+ dctDay, diff));
 						} else {
 							// TODO tense should be included?!
-							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+							String lmDay     = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language, locale);
 							if (lmDay.equals("")) {
 								valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
 							} else {
@@ -2,6 +2,7 @@ package de.unihd.dbs.uima.annotator.heideltime;
 
 import java.util.EnumMap;
 import java.util.LinkedList;
+import java.util.Locale;
 
 import org.apache.uima.UimaContext;
 import org.apache.uima.jcas.JCas;
@@ -90,6 +91,15 @@ public class ProcessorManager {
 	 * @param jcas
 	 */
 	public void executeProcessors(JCas jcas, ProcessorManager.Priority prio) {
+		executeProcessors(jcas, prio, null);
+	}
+	
+	/**
+	 * Executes all of the registered Processors for a document in the given locale.
+	 * @param jcas
+	 * @param locale locale of the document, or null for the one the processors were initialized with
+	 */
+	public void executeProcessors(JCas jcas, ProcessorManager.Priority prio, Locale locale) {
 		if(!this.initialized) {
 			Logger.printError(component, "Unable to execute Processors; initialization was not concluded successfully.");
 			System.exit(-1);
@@ -98,7 +108,10 @@ public class ProcessorManager {
 		LinkedList<GenericProcessor> myList = processors.get(prio);
 		for(GenericProcessor gp : myList) {
 			try {
-				gp.process(jcas);
+				if(locale == null)
+					gp.process(jcas);
+				else
+					gp.process(jcas, locale);
 			} catch (Exception exception) {
 				exception.printStackTrace();
 				Logger.printError(component, "Unable to process registered Processor " + gp.getClass().getName() + ", got: " + exception.toString());
@@ -1,5 +1,7 @@
 package de.unihd.dbs.uima.annotator.heideltime.processors;
 
+import java.util.Locale;
+
 import org.apache.uima.UimaContext;
 import org.apache.uima.jcas.JCas;
 /**
@@ -33,4 +35,14 @@ public abstract class GenericProcessor {
 	 * @param jcas
 	 */
 	public abstract void process(JCas jcas) throws ProcessorProcessingException;
+	
+	/**
+	 * starts the processing of a document in the given locale. Processors that do
+	 * not depend on the locale ignore it.
+	 * @param jcas
+	 * @param locale locale of the document
+	 */
+	public void process(JCas jcas, Locale locale) throws ProcessorProcessingException {
+		process(jcas);
+	}
 }
@@ -1,11 +1,10 @@
 package de.unihd.dbs.uima.annotator.heideltime.processors;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -13,6 +12,9 @@ import org.apache.uima.UimaContext;
 import org.apache.uima.cas.FSIterator;
 import org.apache.uima.jcas.JCas;
 
+import de.unihd.dbs.uima.annotator.heideltime.HeidelTime;
+import de.unihd.dbs.uima.annotator.heideltime.utilities.DateCalculator;
+import de.unihd.dbs.uima.annotator.heideltime.utilities.LocaleException;
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
 import de.unihd.dbs.uima.types.heideltime.Timex3;
 /**
@@ -23,6 +25,38 @@ import de.unihd.dbs.uima.types.heideltime.Timex3;
  */
 public class HolidayProcessor extends GenericProcessor {
 
+	// regex patterns for validating commands/arguments
+	private static final Pattern cmd_p = Pattern.compile("((\\w\\w\\w\\w)-(\\w\\w)-(\\w\\w))\\s+funcDateCalc\\((\\w+)\\((.+)\\)\\)");
+	private static final Pattern year_p = Pattern.compile("(\\d\\d\\d\\d)");
+	private static final Pattern date_p = Pattern.compile("(\\d\\d\\d\\d)-(0[1-9]|1[012])-(0[1-9]|[12][0-9]|3[01])");
+	private static final Pattern args_p = Pattern.compile("\\s*,\\s*");
+	
+	/**
+	 * Easter dates of the years {@link #FIRST_YEAR} to {@link #LAST_YEAR} as epoch days.
+	 * The table is computed when it is first used and shared by all instances.
+	 */
+	private static final class EasterTable {
+		static final int FIRST_YEAR = 1;
+		static final int LAST_YEAR = 3000;
+		
+		static final int[] gregorian = new int[LAST_YEAR - FIRST_YEAR + 1];
+		static final int[] orthodox = new int[LAST_YEAR - FIRST_YEAR + 1];
+		
+		static {
+			for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+				gregorian[year - FIRST_YEAR] = (int) computeEasterSunday(year).toEpochDay();
+				orthodox[year - FIRST_YEAR] = (int) computeEasterSundayOrthodox(year).toEpochDay();
+			}
+		}
+		
+		static boolean contains(int year) {
+			return year >= FIRST_YEAR && year <= LAST_YEAR;
+		}
+	}
+
+	// locale that defines how weeks are counted, if the document's locale is not given
+	private Locale locale = Locale.UK;
+
 	/**
 	 * Constructor just calls the parent constructor here.
 	 */
@@ -32,17 +66,32 @@ public class HolidayProcessor extends GenericProcessor {
 	
 
 	/**
-	 * not needed here 
+	 * reads the locale parameter of the annotator, the ISO8601-adhering UK locale is used if it is not set
 	 */
 	public void initialize(UimaContext aContext) {
-		return;
+		String requestedLocale = aContext == null ? null : (String) aContext.getConfigParameterValue(HeidelTime.PARAM_LOCALE);
+		if(requestedLocale != null && requestedLocale.length() > 0) {
+			try {
+				locale = DateCalculator.getLocaleFromString(requestedLocale);
+			} catch (LocaleException e) {
+				Logger.printError(component, "Unknown locale " + requestedLocale + ", counting weeks as in " + locale);
+			}
+		}
 	}
 	
 	/**
 	 * all the functionality was put into evaluateCalculationFunctions().
 	 */
 	public void process(JCas jcas) {
-		evaluateCalculationFunctions(jcas);
+		evaluateCalculationFunctions(jcas, locale);
+	}
+	
+	/**
+	 * all the functionality was put into evaluateCalculationFunctions().
+	 */
+	@Override
+	public void process(JCas jcas, Locale locale) {
+		evaluateCalculationFunctions(jcas, locale);
 	}
 	
 	
@@ -53,15 +102,26 @@ public class HolidayProcessor extends GenericProcessor {
 	 * @param jcas
 	 */
 	public void evaluateCalculationFunctions(JCas jcas) {
+		evaluateCalculationFunctions(jcas, locale);
+	}
+	
+	/**
+	 * This function replaces function calls from the resource files with their TIMEX value.
+	 * 
+	 * @param jcas
+	 * @param locale locale that defines how weeks are counted
+	 */
+	public void evaluateCalculationFunctions(JCas jcas, Locale locale) {
 
-		// build up a list with all found TIMEX expressions
+		// build up a list with all TIMEX expressions that contain a function call
 		List<Timex3> linearDates = new ArrayList<Timex3>();
 		FSIterator iterTimex = jcas.getAnnotationIndex(Timex3.type).iterator();
 
 		// Create List of all Timexes of types "date" and "time"
 		while (iterTimex.hasNext()) {
 			Timex3 timex = (Timex3) iterTimex.next();
-			if ((timex.getTimexType().equals("DATE")) || (timex.getTimexType().equals("TIME"))) {
+			if (((timex.getTimexType().equals("DATE")) || (timex.getTimexType().equals("TIME")))
+					&& timex.getTimexValue().contains("funcDateCalc")) {
 				linearDates.add(timex);
 			}
 		}
@@ -70,10 +130,6 @@ public class HolidayProcessor extends GenericProcessor {
 		//////////////////////////////////////////////
 		// go through list of Date and Time timexes //
 		//////////////////////////////////////////////
-		//compile regex pattern for validating commands/arguments
-		Pattern cmd_p = Pattern.compile("((\\w\\w\\w\\w)-(\\w\\w)-(\\w\\w))\\s+funcDateCalc\\((\\w+)\\((.+)\\)\\)");
-		Pattern year_p = Pattern.compile("(\\d\\d\\d\\d)");
-		Pattern date_p = Pattern.compile("(\\d\\d\\d\\d)-(0[1-9]|1[012])-(0[1-9]|[12][0-9]|3[01])");
 		Matcher cmd_m;
 		Matcher year_m;
 		Matcher date_m;
@@ -89,7 +145,6 @@ public class HolidayProcessor extends GenericProcessor {
 			Timex3 t_i = (Timex3) linearDates.get(i);
 			String value_i = t_i.getTimexValue();
 			cmd_m = cmd_p.matcher(value_i);
-			valueNew = value_i;
 		
 			if(cmd_m.matches()) {
 				date = cmd_m.group(1);
@@ -97,7 +152,7 @@ public class HolidayProcessor extends GenericProcessor {
 				month = cmd_m.group(3);
 				day = cmd_m.group(4);
 				function = cmd_m.group(5);
-				args = cmd_m.group(6).split("\\s*,\\s*");
+				args = args_p.split(cmd_m.group(6));
 				
 				//replace keywords in function with actual values
 				for(int j=0; j<args.length; j++) {
@@ -161,7 +216,7 @@ public class HolidayProcessor extends GenericProcessor {
 					if(year_m.matches()) {
 
 						//System.err.println("correct format");
-						valueNew = this.getShroveTideWeekOrthodox(Integer.valueOf(args[0]));
+						valueNew = this.getShroveTideWeekOrthodox(Integer.valueOf(args[0]), locale);
 
 					}
 					else{
@@ -176,12 +231,11 @@ public class HolidayProcessor extends GenericProcessor {
 					Logger.printError("command not found");
 					valueNew = "XXXX-XX-XX";
 				}
+				
+				t_i.removeFromIndexes();
+				t_i.setTimexValue(valueNew);
+				t_i.addToIndexes();
 			}
-						
-			t_i.removeFromIndexes();
-			t_i.setTimexValue(valueNew);
-			t_i.addToIndexes();
-			linearDates.set(i, t_i);
 		}
 	}
 	
@@ -194,6 +248,17 @@ public class HolidayProcessor extends GenericProcessor {
 	 * @return date
 	 */
 	public String getEasterSunday(int year, int days) {
+		return formatDate(easterSunday(year).plusDays(days));
+	}
+	
+	private static LocalDate easterSunday(int year) {
+		if (EasterTable.contains(year)) {
+			return LocalDate.ofEpochDay(EasterTable.gregorian[year - EasterTable.FIRST_YEAR]);
+		}
+		return computeEasterSunday(year);
+	}
+	
+	private static LocalDate computeEasterSunday(int year) {
 		int K = year / 100;
 		int M = 15 + ( ( 3 * K + 3 ) / 4 ) - ( ( 8 * K + 13 ) / 25 );
 		int S = 2 - ( (3 * K + 3) / 4 );
@@ -205,24 +270,8 @@ public class HolidayProcessor extends GenericProcessor {
 		int OE = 7 - ( OG - SZ ) % 7;
 		int OS = OG + OE;
 		
-		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-		Calendar c = Calendar.getInstance();
-		String date;
-		
-		if( OS <= 31 ) {
-			date = String.format("%04d-03-%02d", year, OS);
-		}
-		else{
-			date = String.format("%04d-04-%02d", year, ( OS - 31 ) );
-		}		
-		try{
-			c.setTime(formatter.parse(date));
-			c.add(Calendar.DAY_OF_MONTH, days);
-			date = formatter.format(c.getTime());
-		} catch (ParseException e) {
-			e.printStackTrace();
-		}
-		return date;
+		// OS is the day of march, values above 31 fall into april
+		return LocalDate.of(year, 3, 1).plusDays(OS - 1);
 	}
 	
 	/**
@@ -245,6 +294,17 @@ public class HolidayProcessor extends GenericProcessor {
      * @return date
      */
     public String getEasterSundayOrthodox(int year, int days) {
+        return formatDate(easterSundayOrthodox(year).plusDays(days));
+    }
+
+    private static LocalDate easterSundayOrthodox(int year) {
+        if (EasterTable.contains(year)) {
+            return LocalDate.ofEpochDay(EasterTable.orthodox[year - EasterTable.FIRST_YEAR]);
+        }
+        return computeEasterSundayOrthodox(year);
+    }
+
+    private static LocalDate computeEasterSundayOrthodox(int year) {
         int A = year%4;
         int B = year%7;
         int C = year%19;
@@ -253,35 +313,8 @@ public class HolidayProcessor extends GenericProcessor {
         int Month = (int)(Math.floor ((D + E + 114) / 31));
         int Day = ((D + E + 114)% 31) +1;
 
-        /*
-
-        int K = year / 100;
-        int M = 15 + ( ( 3 * K + 3 ) / 4 ) - ( ( 8 * K + 13 ) / 25 );
-        int S = 2 - ( (3 * K + 3) / 4 );
-        int A = year % 19;
-        int D = ( 19 * A + M ) % 30;
-        int R = ( D / 29) + ( ( D / 28 ) - ( D / 29 ) * ( A / 11 ) );
-        int OG = 21 + D - R;
-        int SZ = 7 - ( year + ( year / 4 ) + S ) % 7;
-        int OE = 7 - ( OG - SZ ) % 7;
-        int OS = OG + OE; */
-
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-        Calendar c = Calendar.getInstance();
-        String date;
-
-
-        date = String.format("%04d-%02d-%02d", year, Month, Day );
-
-        try{
-            c.setTime(formatter.parse(date));
-            c.add(Calendar.DAY_OF_MONTH, days);
-            c.add(Calendar.DAY_OF_MONTH, getJulianDifference(year));
-            date = formatter.format(c.getTime());
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-        return date;
+        // the date is in the julian calendar, shift it to the gregorian one
+        return LocalDate.of(year, Month, Day).plusDays(getJulianDifference(year));
     }
 
 
@@ -305,23 +338,23 @@ public class HolidayProcessor extends GenericProcessor {
      */
 
     public String getShroveTideWeekOrthodox(int year){
-        String easterOrthodox = getEasterSundayOrthodox(year);
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-        try{
-            Calendar calendar = Calendar.getInstance();
-            Date date = formatter.parse(easterOrthodox);
-            calendar.setTime(date);
-            calendar.add(Calendar.DAY_OF_MONTH, -49);
-            int shroveTideWeek =  calendar.get(Calendar.WEEK_OF_YEAR);
-            if(shroveTideWeek<10){
-                return year+"-W0"+shroveTideWeek;
-            }
-            return year+"-W"+shroveTideWeek;
-        }
-        catch (ParseException pe){
-            Logger.printError("ParseException:"+pe.getMessage());
-            return "unknown";
+        return getShroveTideWeekOrthodox(year, locale);
+    }
+
+    /**
+     * Get the date of the Shrove-Tide week in a given year
+     *
+     * @param year
+     * @param locale locale that defines how weeks are counted
+     * @return date
+     */
+    public String getShroveTideWeekOrthodox(int year, Locale locale){
+        LocalDate shroveTide = easterSundayOrthodox(year).minusDays(49);
+        int shroveTideWeek = shroveTide.get(WeekFields.of(locale).weekOfWeekBasedYear());
+        if(shroveTideWeek<10){
+            return year+"-W0"+shroveTideWeek;
         }
+        return year+"-W"+shroveTideWeek;
     }
 	
 	
@@ -337,53 +370,44 @@ public class HolidayProcessor extends GenericProcessor {
 	 * @return
 	 */
 	public String getWeekdayRelativeTo(String date, int weekday, int number, boolean count_itself) {
-		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-		Calendar c = Calendar.getInstance();
-				
+		LocalDate d = parseDate(date);
+		if (d == null) {
+			Logger.printError("wrong format");
+			return date;
+		}
+		
 		int day;
 		int add;
 		
 		if(number == 0) {
-			try{
-				c.setTime(formatter.parse(date));
-				date = formatter.format(c.getTime());
-			} catch (ParseException e) {
-				e.printStackTrace();
-			}
-			return date;			
+			return formatDate(d);
 		}
 		else{
 			
 			if(number<0) {
 				number+=1;
 			}
-						
-			try{
-				c.setTime(formatter.parse(date));
-				day = c.get(Calendar.DAY_OF_WEEK);
-				if((count_itself && number>0) || (!count_itself && number <= 0)) {
-					if(day<=weekday) {
-						add = weekday - day;
-					}
-					else{
-						add = weekday - day + 7;
-					}	
+			
+			// day of week as in java.util.Calendar, 1 (Sunday) to 7 (Saturday)
+			day = d.getDayOfWeek().getValue() % 7 + 1;
+			if((count_itself && number>0) || (!count_itself && number <= 0)) {
+				if(day<=weekday) {
+					add = weekday - day;
 				}
 				else{
-					if(day<weekday) {
-						add = weekday - day;
-					}
-					else{
-						add = weekday - day + 7;
-					}	
+					add = weekday - day + 7;
+				}	
+			}
+			else{
+				if(day<weekday) {
+					add = weekday - day;
 				}
-				add += (( number - 1) * 7);
-				c.add(Calendar.DAY_OF_MONTH, add);
-				date = formatter.format(c.getTime());
-			} catch (ParseException e) {
-				e.printStackTrace();
+				else{
+					add = weekday - day + 7;
+				}	
 			}
-			return date;
+			add += (( number - 1) * 7);
+			return formatDate(d.plusDays(add));
 		}
 	}
 	
@@ -402,7 +426,7 @@ public class HolidayProcessor extends GenericProcessor {
 		return getWeekdayRelativeTo(String.format("%04d-%02d-01", year, month), weekday, number, true);
 	}
 
-    private int getJulianDifference(int year){
+    private static int getJulianDifference(int year){
         //TODO: this is not entirely correct!
         int century = year/100 + 1;
         if(century<18){
@@ -422,5 +446,39 @@ public class HolidayProcessor extends GenericProcessor {
         }
         return 15;
     }
+	
+	/**
+	 * Reads a date in the format yyyy-MM-dd, days beyond the end of the month
+	 * fall into the next month.
+	 * 
+	 * @param date
+	 * @return date or null if it is not in the expected format
+	 */
+	private static LocalDate parseDate(String date) {
+		Matcher m = date_p.matcher(date);
+		if (!m.matches()) {
+			return null;
+		}
+		return LocalDate.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), 1)
+				.plusDays(Integer.parseInt(m.group(3)) - 1);
+	}
+	
+	private static String formatDate(LocalDate date) {
+		StringBuilder sb = new StringBuilder(10);
+		int year = date.getYear();
+		if (year >= 0 && year < 1000) {
+			sb.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+		}
+		sb.append(year).append('-');
+		if (date.getMonthValue() < 10) {
+			sb.append('0');
+		}
+		sb.append(date.getMonthValue()).append('-');
+		if (date.getDayOfMonth() < 10) {
+			sb.append('0');
+		}
+		sb.append(date.getDayOfMonth());
+		return sb.toString();
+	}
 
 }
@@ -1,6 +1,7 @@
 package de.unihd.dbs.uima.annotator.heideltime.processors;
 
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
@@ -57,9 +58,9 @@ public class TemponymPostprocessing {
 					ti.setTimexValueLE(mr.group(4));	
 				}
 				//System.err.println("temponym: " + t.getTimexValue());				
-				if ((ti.getTimexValueEB() == ti.getTimexValueLB()) && 
-						(ti.getTimexValueLB() == ti.getTimexValueEE()) &&
-						(ti.getTimexValueEE() == ti.getTimexValueLE())) {
+				if (Objects.equals(ti.getTimexValueEB(), ti.getTimexValueLB()) && 
+						Objects.equals(ti.getTimexValueLB(), ti.getTimexValueEE()) &&
+						Objects.equals(ti.getTimexValueEE(), ti.getTimexValueLE())) {
 					ti.setTimexValue(ti.getTimexValueEB());
 					t.setTimexValue(ti.getTimexValueEB());
 				}
@@ -1,9 +1,10 @@
 package de.unihd.dbs.uima.annotator.heideltime.resources;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
@@ -88,9 +89,6 @@ public class NormalizationManager extends GenericResourceManager {
 	 */
 	public void readNormalizationResources(ResourceMap hmResourcesNormalization, Boolean load_temponym_resources) {
 
-		InputStream is = null;
-		InputStreamReader isr = null;
-		BufferedReader br = null;
 		try {
 			for (String resource : hmResourcesNormalization.keySet()) {
 				// read normalization resources with "Temponym" only if temponym tagging is selected
@@ -98,30 +96,10 @@ public class NormalizationManager extends GenericResourceManager {
 						((load_temponym_resources) && (resource.contains("Temponym")))){
 					
 					Logger.printDetail(component, "Adding normalization resource: "+resource);
-					// create a buffered reader for every normalization resource file
-					is = hmResourcesNormalization.getInputStream(resource);
-					isr = new InputStreamReader(is, "UTF-8");
-					br = new BufferedReader(isr);
-					for ( String line; (line=br.readLine()) != null; ) {
-						if (line.startsWith("//")) continue; // ignore comments
-						
-						// check each line for the normalization format (defined in paReadNormalizations)
-						boolean correctLine = false;
-						for (MatchResult r : Toolbox.findMatches(paReadNormalizations, line)) {
-							correctLine = true;
-							String resource_word   = replaceSpaces(r.group(1));
-							String normalized_word = r.group(2);
-							for (String which : hmAllNormalization.keySet()) {
-								if (resource.equals(which)) {
-									hmAllNormalization.get(which).put(resource_word,normalized_word);
-								}
-							}
-							if ((correctLine == false) && (!(line.matches("")))) {
-								Logger.printError("["+component+"] Cannot read one of the lines of normalization resource "+resource);
-								Logger.printError("["+component+"] Line: "+line);
-							}
-						}
-					}
+					// resources with the same content share one table, across languages
+					byte[] content = ResourceStore.read(hmResourcesNormalization.getInputStream(resource));
+					hmAllNormalization.put(resource, ResourceStore.getParsed("normalization", content,
+							c -> parseNormalizationResource(resource, c)));
 				}
 				else {
 					Logger.printDetail(component, "No Temponym Tagging selected. Skipping normalization resource: "+resource);
@@ -129,21 +107,40 @@ public class NormalizationManager extends GenericResourceManager {
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
-		} finally {
-			try {
-				if(br != null) {
-					br.close();
-				}
-				if(isr != null) {
-					isr.close();
-				}
-				if(is != null) {
-					is.close();
+		}
+	}
+
+	/**
+	 * Parse the content of a normalization resource file.
+	 * @param resource name of the resource, for error messages
+	 * @param content content of the resource file
+	 * @return the normalizations of the resource
+	 */
+	private RegexHashMap<String> parseNormalizationResource(String resource, byte[] content) {
+		RegexHashMap<String> normalization = new RegexHashMap<String>();
+		try {
+			BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content), "UTF-8"));
+			for ( String line; (line=br.readLine()) != null; ) {
+				if (line.startsWith("//")) continue; // ignore comments
+				
+				// check each line for the normalization format (defined in paReadNormalizations)
+				boolean correctLine = false;
+				for (MatchResult r : Toolbox.findMatches(paReadNormalizations, line)) {
+					correctLine = true;
+					String resource_word   = replaceSpaces(r.group(1));
+					String normalized_word = r.group(2);
+					normalization.put(resource_word,normalized_word);
+					if ((correctLine == false) && (!(line.matches("")))) {
+						Logger.printError("["+component+"] Cannot read one of the lines of normalization resource "+resource);
+						Logger.printError("["+component+"] Line: "+line);
+					}
 				}
-			} catch(Exception e) {
-				e.printStackTrace();
 			}
+		} catch (IOException e) {
+			// cannot happen when reading from memory
+			throw new UncheckedIOException(e);
 		}
+		return normalization;
 	}
 
 	
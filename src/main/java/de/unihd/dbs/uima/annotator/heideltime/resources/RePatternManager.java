@@ -1,13 +1,15 @@
 package de.unihd.dbs.uima.annotator.heideltime.resources;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.TreeMap;
 
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
@@ -24,6 +26,8 @@ public class RePatternManager extends GenericResourceManager {
 	
 	// STORE PATTERNS AND NORMALIZATIONS
 	private TreeMap<String, String> hmAllRePattern;
+	// the lines of every repattern file, in the order of the alternation
+	private TreeMap<String, List<String>> hmAllRePatternLines;
 
 	/**
 	 * Constructor calls the parent constructor that sets language/resource
@@ -36,6 +40,7 @@ public class RePatternManager extends GenericResourceManager {
 		super("repattern", language);
 		// initialize the member map of all repatterns
 		hmAllRePattern = new TreeMap<String, String>();
+		hmAllRePatternLines = new TreeMap<String, List<String>>();
 
 		//////////////////////////////////////////////////////
 		// READ PATTERN RESOURCES FROM FILES AND STORE THEM //
@@ -72,96 +77,90 @@ public class RePatternManager extends GenericResourceManager {
 		//////////////////////////////////////
 		// READ REGULAR EXPRESSION PATTERNS //
 		//////////////////////////////////////
-		InputStream is = null;
-		InputStreamReader isr = null;
-		BufferedReader br = null;
 		try {
 			for (String resource : hmResourcesRePattern.keySet()) {
 				// read pattern resources with "Temponym" only if temponym tagging is selected
 				if ( (!(resource.contains("Temponym"))) ||
 						((load_temponym_resources) && (resource.contains("Temponym")))){
 					Logger.printDetail(component, "Adding pattern resource: "+resource);
-					// create a buffered reader for every repattern resource file
-					is = hmResourcesRePattern.getInputStream(resource);
-					isr = new InputStreamReader(is, "UTF-8");
-					br = new BufferedReader(isr);
-					LinkedList<String> patterns = new LinkedList<String>();
-					for (String line; (line = br.readLine()) != null; ) {
-						// disregard comments
-						if (!line.startsWith("//") && !line.equals("")) {
-							patterns.add(replaceSpaces(line));
-						}
-					}
-				
-				
-					
-					// sort the repatterns by length in ascending order
-					Collections.sort(patterns, new Comparator<String>() {
-						@Override
-						public int compare(String o1, String o2) {
-							String o1effective = o1.replaceAll("\\[[^\\]]*\\]", "X")
-									.replaceAll("\\?", "")
-									.replaceAll("\\\\.(?:\\{([^\\}])+\\})?", "X$1");
-							String o2effective = o2.replaceAll("\\[[^\\]]*\\]", "X")
-									.replaceAll("\\?", "")
-									.replaceAll("\\\\.(?:\\{([^\\}])+\\})?", "X$1");
-							
-							if(o1effective.length() < o2effective.length())
-								return 1;
-							else if(o1effective.length() > o2effective.length())
-								return -1;
-							else
-								return 0;
-						}
-					});
-										
-					StringBuilder sb = new StringBuilder();
-					String devPattern = "";
-					for(String pat : patterns) {
-						sb.append("|");
-						sb.append(pat);
-					}
-					devPattern = sb.toString();
-					hmAllRePattern.put(resource, devPattern);
+					// resources with the same content share one pattern, across languages
+					byte[] content = ResourceStore.read(hmResourcesRePattern.getInputStream(resource));
+					RePatternResource rePattern = ResourceStore.getParsed("repattern", content,
+							c -> parseRePatternResource(resource, c));
+					hmAllRePattern.put(resource, rePattern.pattern);
+					hmAllRePatternLines.put(resource, rePattern.lines);
 				}
 				else {
 					Logger.printDetail(component, "No Temponym Tagging selected. Skipping pattern resource: "+resource);
 				}
 			}
-			////////////////////////////
-			// FINALIZE THE REPATTERN //
-			////////////////////////////
-			for (String which : hmAllRePattern.keySet()) {
-				if ( (!(which.contains("Temponym"))) ||
-						((load_temponym_resources) && (which.contains("Temponym")))){
-					finalizeRePattern(which, hmAllRePattern.get(which));
-				}
-			}
 		} catch (IOException e) {
 			e.printStackTrace();
-		} finally {
-			try {
-				if(br != null) {
-					br.close();
-				}
-				if(isr != null) {
-					isr.close();
-				}
-				if(is != null) {
-					is.close();
+		}
+	}
+
+	/**
+	 * Parse the content of a repattern resource file.
+	 * @param resource name of the resource, for log messages
+	 * @param content content of the resource file
+	 * @return the sorted lines and the finalized pattern of the resource
+	 */
+	private RePatternResource parseRePatternResource(String resource, byte[] content) {
+		LinkedList<String> patterns = new LinkedList<String>();
+		try {
+			BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(content), "UTF-8"));
+			for (String line; (line = br.readLine()) != null; ) {
+				// disregard comments
+				if (!line.startsWith("//") && !line.equals("")) {
+					patterns.add(replaceSpaces(line));
 				}
-			} catch(Exception e) {
-				e.printStackTrace();
 			}
+		} catch (IOException e) {
+			// cannot happen when reading from memory
+			throw new UncheckedIOException(e);
 		}
+		
+		// sort the repatterns by length in ascending order
+		Collections.sort(patterns, new Comparator<String>() {
+			@Override
+			public int compare(String o1, String o2) {
+				String o1effective = o1.replaceAll("\\[[^\\]]*\\]", "X")
+						.replaceAll("\\?", "")
+						.replaceAll("\\\\.(?:\\{([^\\}])+\\})?", "X$1");
+				String o2effective = o2.replaceAll("\\[[^\\]]*\\]", "X")
+						.replaceAll("\\?", "")
+						.replaceAll("\\\\.(?:\\{([^\\}])+\\})?", "X$1");
+				
+				if(o1effective.length() < o2effective.length())
+					return 1;
+				else if(o1effective.length() > o2effective.length())
+					return -1;
+				else
+					return 0;
+			}
+		});
+							
+		// share common beginnings of the repatterns where this does not change the matches
+		String devPattern = RePatternTrie.compile(patterns);
+		if (devPattern == null) {
+			StringBuilder sb = new StringBuilder();
+			for(String pat : patterns) {
+				sb.append("|");
+				sb.append(pat);
+			}
+			devPattern = sb.toString();
+		} else {
+			Logger.printDetail(component, "Compiled pattern resource "+resource+" into a trie");
+		}
+		return new RePatternResource(Collections.unmodifiableList(patterns), finalizeRePattern(devPattern));
 	}
 	
 	/**
-	 * Pattern containing regular expression is finalized, i.e., created correctly and added to hmAllRePattern.
-	 * @param name key name
+	 * Pattern containing regular expression is finalized, i.e., created correctly.
 	 * @param rePattern repattern value
+	 * @return the finalized repattern
 	 */
-	private void finalizeRePattern(String name, String rePattern) {
+	private String finalizeRePattern(String rePattern) {
 		// create correct regular expression
 		rePattern = rePattern.replaceFirst("\\|", "");
 		/* this was added to reduce the danger of getting unusable groups from user-made repattern
@@ -169,8 +168,20 @@ public class RePatternManager extends GenericResourceManager {
 		rePattern = rePattern.replaceAll("\\(([^\\?])", "(?:$1");
 		rePattern = "(" + rePattern + ")";
 		rePattern = rePattern.replaceAll("\\\\", "\\\\\\\\");
-		// add rePattern to hmAllRePattern
-		hmAllRePattern.put(name, rePattern);
+		return rePattern;
+	}
+	
+	/**
+	 * The sorted lines and the finalized pattern of a repattern resource.
+	 */
+	private static class RePatternResource {
+		final List<String> lines;
+		final String pattern;
+
+		RePatternResource(List<String> lines, String pattern) {
+			this.lines = lines;
+			this.pattern = pattern;
+		}
 	}
 	
 	/**
@@ -191,4 +202,14 @@ public class RePatternManager extends GenericResourceManager {
 		return hmAllRePattern.get(key);
 	}
 
+	/**
+	 * access the single lines of a repattern resource, with spaces replaced
+	 * and sorted in the order in which the finalized pattern tries them
+	 * @param key Key to retrieve data from
+	 * @return the lines, or null if the resource was not read
+	 */
+	public List<String> getLines(String key) {
+		return hmAllRePatternLines.get(key);
+	}
+
 }
@@ -0,0 +1,395 @@
+package de.unihd.dbs.uima.annotator.heideltime.resources;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the lines of a repattern file into a prefix trie, so that lines
+ * with a common beginning share it in the regular expression, e.g.
+ * <code>[Jj]an(?:uary|\.)?</code> instead of
+ * <code>[Jj]anuary|[Jj]an\.|[Jj]an</code>. The regex engine then reads the
+ * common beginning once per position instead of once per line.
+ * <p>
+ * The trie is only built when it matches exactly what the flat alternation
+ * matches, in the same order of preference. The lines may only consist of
+ * single characters, escaped characters, predefined classes and character
+ * classes, optionally followed by <code>+</code>, and the following holds:
+ * <ul>
+ * <li>if two atoms that follow the same beginning can match the same
+ * character, the lines below the first one come before the lines below the
+ * second one that they could match together with;</li>
+ * <li>a line that is a beginning of another line comes later in the sorted
+ * list, so the longer line is tried first, as in the alternation;</li>
+ * <li>an atom with <code>+</code> is followed by an atom that cannot match
+ * the same character, so it can only match one way.</li>
+ * </ul>
+ * Otherwise {@link #compile(List)} returns null and the flat alternation is
+ * used.
+ */
+class RePatternTrie {
+	private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+
+	/**
+	 * One character matcher of a line, with the set of code points it matches
+	 * as sorted, disjoint, inclusive ranges.
+	 */
+	private static class Atom {
+		final String text;
+		final int[] ranges;
+		final boolean plus;
+
+		Atom(String text, int[] ranges, boolean plus) {
+			this.text = text;
+			this.ranges = ranges;
+			this.plus = plus;
+		}
+
+		boolean intersects(Atom other) {
+			int i = 0, j = 0;
+			while (i < ranges.length && j < other.ranges.length) {
+				if (ranges[i + 1] < other.ranges[j])
+					i += 2;
+				else if (other.ranges[j + 1] < ranges[i])
+					j += 2;
+				else
+					return true;
+			}
+			return false;
+		}
+	}
+
+	private static class Node {
+		final Map<String, Node> children = new LinkedHashMap<String, Node>();
+		final Map<String, Atom> atoms = new LinkedHashMap<String, Atom>();
+		// indexes of the lines ending in the subtree
+		final List<Integer> lines = new ArrayList<Integer>();
+		// index of the line ending here in the sorted list, -1 if none
+		int line = -1;
+	}
+
+	private RePatternTrie() {
+	}
+
+	/**
+	 * @param patterns lines of a repattern file, sorted in the order in which
+	 *        the alternation would try them
+	 * @return the lines as one alternation with common beginnings factored
+	 *         out, each line preceded by "|" like the flat alternation, or null
+	 *         if the trie would not be equivalent
+	 */
+	static String compile(List<String> patterns) {
+		List<List<Atom>> lines = new ArrayList<List<Atom>>();
+		Node root = new Node();
+		for (int i = 0; i < patterns.size(); i++) {
+			List<Atom> atoms = parse(patterns.get(i));
+			if (atoms == null || atoms.isEmpty())
+				return null;
+			lines.add(atoms);
+
+			List<Node> path = new ArrayList<Node>();
+			Node node = root;
+			for (int a = 0; a < atoms.size(); a++) {
+				Atom atom = atoms.get(a);
+				if (atom.plus && (a + 1 == atoms.size() || atom.intersects(atoms.get(a + 1))))
+					return null;
+
+				Node child = node.children.get(atom.text);
+				if (child == null) {
+					child = new Node();
+					node.children.put(atom.text, child);
+					node.atoms.put(atom.text, atom);
+				}
+				node = child;
+				path.add(node);
+			}
+			// a repeated line can never be the first one that matches
+			if (node.line < 0) {
+				node.line = i;
+				for (Node n : path)
+					n.lines.add(i);
+			}
+		}
+
+		if (!checkOrder(root, lines))
+			return null;
+
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, Node> entry : root.children.entrySet()) {
+			sb.append("|").append(entry.getKey());
+			render(entry.getValue(), sb);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Checks that the trie tries the lines that can match at the same position
+	 * in the same order as the sorted list.
+	 */
+	private static boolean checkOrder(Node node, List<List<Atom>> lines) {
+		List<Atom> atoms = new ArrayList<Atom>(node.atoms.values());
+		List<Node> children = new ArrayList<Node>(node.children.values());
+		for (int j = 0; j < children.size(); j++) {
+			Node child = children.get(j);
+			// longer lines below a line ending here are tried first
+			if (child.line >= 0)
+				for (int line : child.lines)
+					if (line > child.line)
+						return false;
+
+			// the lines below an earlier sibling are tried first
+			for (int k = j + 1; k < children.size(); k++) {
+				if (!atoms.get(j).intersects(atoms.get(k)))
+					continue;
+				for (int first : child.lines)
+					for (int second : children.get(k).lines)
+						if (first > second && overlap(lines.get(first), lines.get(second)))
+							return false;
+			}
+
+			if (!checkOrder(child, lines))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return false if the lines can never match at the same position
+	 */
+	private static boolean overlap(List<Atom> first, List<Atom> second) {
+		for (int a = 0; a < first.size() && a < second.size(); a++) {
+			if (!first.get(a).intersects(second.get(a)))
+				return false;
+			// after a repetition the atoms no longer line up
+			if (first.get(a).plus || second.get(a).plus)
+				return true;
+		}
+		return true;
+	}
+
+	private static void render(Node node, StringBuilder sb) {
+		if (node.children.isEmpty())
+			return;
+
+		boolean group = node.line >= 0 || node.children.size() > 1;
+		if (group)
+			sb.append("(?:");
+		boolean first = true;
+		for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+			if (!first)
+				sb.append("|");
+			first = false;
+			sb.append(entry.getKey());
+			render(entry.getValue(), sb);
+		}
+		if (group)
+			sb.append(node.line >= 0 ? ")?" : ")");
+	}
+
+	/**
+	 * Splits a line into atoms.
+	 *
+	 * @return the atoms, or null if the line contains other constructs
+	 */
+	private static List<Atom> parse(String line) {
+		List<Atom> atoms = new ArrayList<Atom>();
+		int i = 0;
+		while (i < line.length()) {
+			int start = i;
+			int[] ranges;
+			char c = line.charAt(i);
+			if (c == '\\') {
+				if (i + 1 >= line.length())
+					return null;
+				ranges = escape(line, i + 1);
+				if (ranges == null)
+					return null;
+				i += line.charAt(i + 1) == 'u' ? 6 : 2;
+			} else if (c == '[') {
+				int end = classEnd(line, i);
+				if (end < 0)
+					return null;
+				ranges = charClass(line, i + 1, end);
+				if (ranges == null)
+					return null;
+				i = end + 1;
+			} else if (".()|*+?{}^$".indexOf(c) >= 0 || Character.isSurrogate(c)) {
+				return null;
+			} else {
+				ranges = new int[] { c, c };
+				i++;
+			}
+
+			boolean plus = false;
+			if (i < line.length() && line.charAt(i) == '+') {
+				plus = true;
+				i++;
+			}
+			if (i < line.length() && "*+?{".indexOf(line.charAt(i)) >= 0)
+				return null;
+			atoms.add(new Atom(line.substring(start, i), ranges, plus));
+		}
+		return atoms;
+	}
+
+	/**
+	 * @return the ranges of the escape sequence whose letter is at index i,
+	 *         or null if it is not supported
+	 */
+	private static int[] escape(String line, int i) {
+		char c = line.charAt(i);
+		switch (c) {
+		case 'd':
+			return new int[] { '0', '9' };
+		case 'D':
+			return complement(new int[] { '0', '9' });
+		case 's':
+			return new int[] { '\t', '\r', ' ', ' ' };
+		case 'S':
+			return complement(new int[] { '\t', '\r', ' ', ' ' });
+		case 'w':
+			return new int[] { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+		case 'W':
+			return complement(new int[] { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' });
+		case 't':
+			return new int[] { '\t', '\t' };
+		case 'n':
+			return new int[] { '\n', '\n' };
+		case 'r':
+			return new int[] { '\r', '\r' };
+		case 'f':
+			return new int[] { '\f', '\f' };
+		case 'u':
+			if (i + 5 > line.length())
+				return null;
+			try {
+				int cp = Integer.parseInt(line.substring(i + 1, i + 5), 16);
+				return Character.isSurrogate((char) cp) ? null : new int[] { cp, cp };
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		default:
+			// escaped metacharacters and punctuation stand for themselves
+			if (Character.isLetterOrDigit(c) || c == '(' || Character.isSurrogate(c))
+				return null;
+			return new int[] { c, c };
+		}
+	}
+
+	/**
+	 * @return the index of the ']' that closes the class opened at index i, or
+	 *         -1 if there is none
+	 */
+	private static int classEnd(String line, int i) {
+		int j = i + 1;
+		if (j < line.length() && line.charAt(j) == '^')
+			j++;
+		// a ']' right after the opening bracket is a member
+		if (j < line.length() && line.charAt(j) == ']')
+			j++;
+		while (j < line.length()) {
+			char c = line.charAt(j);
+			if (c == '\\')
+				j += 2;
+			else if (c == ']')
+				return j;
+			else
+				j++;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the ranges of the class with the members between begin and end,
+	 *         or null if the class uses unsupported constructs
+	 */
+	private static int[] charClass(String line, int begin, int end) {
+		boolean negated = begin < end && line.charAt(begin) == '^';
+		if (negated)
+			begin++;
+
+		List<int[]> members = new ArrayList<int[]>();
+		int i = begin;
+		while (i < end) {
+			char c = line.charAt(i);
+			int[] member;
+			if (c == '[' || c == '(' || c == '&' || Character.isSurrogate(c)) {
+				return null;
+			} else if (c == '\\') {
+				member = escape(line, i + 1);
+				if (member == null)
+					return null;
+				i += line.charAt(i + 1) == 'u' ? 6 : 2;
+			} else {
+				member = new int[] { c, c };
+				i++;
+			}
+
+			// a range between two single characters
+			if (i + 1 < end && line.charAt(i) == '-' && member.length == 2 && member[0] == member[1]) {
+				char to = line.charAt(i + 1);
+				int toCp;
+				if (to == '\\') {
+					int[] toMember = escape(line, i + 2);
+					if (toMember == null || toMember.length != 2 || toMember[0] != toMember[1])
+						return null;
+					toCp = toMember[0];
+					i += line.charAt(i + 2) == 'u' ? 7 : 3;
+				} else if (to == '[' || Character.isSurrogate(to)) {
+					return null;
+				} else {
+					toCp = to;
+					i += 2;
+				}
+				if (toCp < member[0])
+					return null;
+				member = new int[] { member[0], toCp };
+			}
+			members.add(member);
+		}
+
+		int[] ranges = normalize(members);
+		return negated ? complement(ranges) : ranges;
+	}
+
+	/**
+	 * @return the union of the ranges as sorted, disjoint ranges
+	 */
+	private static int[] normalize(List<int[]> members) {
+		List<int[]> ranges = new ArrayList<int[]>();
+		for (int[] member : members)
+			for (int k = 0; k < member.length; k += 2)
+				ranges.add(new int[] { member[k], member[k + 1] });
+		ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+		List<int[]> merged = new ArrayList<int[]>();
+		for (int[] range : ranges) {
+			int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+			if (last != null && range[0] <= last[1] + 1)
+				last[1] = Math.max(last[1], range[1]);
+			else
+				merged.add(range.clone());
+		}
+
+		int[] result = new int[merged.size() * 2];
+		for (int k = 0; k < merged.size(); k++) {
+			result[2 * k] = merged.get(k)[0];
+			result[2 * k + 1] = merged.get(k)[1];
+		}
+		return result;
+	}
+
+	private static int[] complement(int[] ranges) {
+		List<int[]> result = new ArrayList<int[]>();
+		int next = 0;
+		for (int k = 0; k < ranges.length; k += 2) {
+			if (ranges[k] > next)
+				result.add(new int[] { next, ranges[k] - 1 });
+			next = ranges[k + 1] + 1;
+		}
+		if (next <= MAX_CODE_POINT)
+			result.add(new int[] { next, MAX_CODE_POINT });
+		return normalize(result);
+	}
+}
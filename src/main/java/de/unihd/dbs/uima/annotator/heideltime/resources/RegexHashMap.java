@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -17,7 +18,8 @@ import java.util.regex.Pattern;
 public class RegexHashMap<T> implements Map<String, T> {
 	
 	private HashMap<String, T> container = new HashMap<String, T>();
-	private HashMap<String, T> cache = new HashMap<String, T>();
+	// the cache is filled lazily during lookups, which may happen concurrently
+	private Map<String, T> cache = new ConcurrentHashMap<String, T>();
 	
 	/**
 	 * clears both the container and the cache hashmaps
@@ -32,6 +34,8 @@ public class RegexHashMap<T> implements Map<String, T> {
 	 * container's keys as regexes and checks whether they match the specific key.
 	 */
 	public boolean containsKey(Object key) {
+		if(key == null)
+			return container.containsKey(key);
 		// the key is a direct hit from our cache
 		if(cache.containsKey(key))
 			return true;
@@ -55,7 +59,7 @@ public class RegexHashMap<T> implements Map<String, T> {
 	 */
 	public boolean containsValue(Object value) {
 		// the value is a direct hit from our cache
-		if(cache.containsValue(value))
+		if(value != null && cache.containsValue(value))
 			return true;
 		// the value is a direct hit from our hashmap
 		if(container.containsValue(value))
@@ -150,6 +154,8 @@ public class RegexHashMap<T> implements Map<String, T> {
 	 * @return previous value associated with the key, or null if unassociated before
 	 */
 	public T putCache(String key, T value) {
+		if(key == null || value == null)
+			return null;
 		return cache.put(key, value);
 	}
 
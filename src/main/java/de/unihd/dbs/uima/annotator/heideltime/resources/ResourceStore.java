@@ -0,0 +1,80 @@
+package de.unihd.dbs.uima.annotator.heideltime.resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Shares what is read from resource files between the resource managers of all languages.
+ * Many resource files have the same content in several languages, e.g. the normalization
+ * files of the auto-* languages. They are parsed once per distinct content, which is
+ * identified by its SHA-256 digest, and the managers of these languages use the same
+ * parsed table. Rule patterns that are the same in several languages are compiled once.
+ * <p>
+ * The shared objects must not be modified after they have been parsed.
+ */
+public class ResourceStore {
+	private static ConcurrentHashMap<String, Object> parsed = new ConcurrentHashMap<String, Object>();
+	private static ConcurrentHashMap<String, Pattern> patterns = new ConcurrentHashMap<String, Pattern>();
+
+	private ResourceStore() {
+	}
+
+	/**
+	 * reads the content of a resource file and closes the stream
+	 * @param is stream of the resource file
+	 * @return content of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	public static byte[] read(InputStream is) throws IOException {
+		try {
+			return is.readAllBytes();
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * returns the object parsed from a resource content, parsing it only if no resource
+	 * of the same kind with the same content has been parsed before
+	 * @param kind kind of resource, e.g. "normalization", as the same content may be parsed differently
+	 * @param content content of the resource file
+	 * @param parser parses the content
+	 * @return the shared parsed object
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getParsed(String kind, byte[] content, Function<byte[], T> parser) {
+		return (T) parsed.computeIfAbsent(kind + ":" + digest(content), key -> parser.apply(content));
+	}
+
+	/**
+	 * compiles a regular expression, or returns the pattern compiled from the same expression before
+	 * @param regex regular expression
+	 * @return the shared pattern
+	 */
+	public static Pattern compile(String regex) {
+		Pattern pattern = patterns.get(regex);
+		if (pattern == null) {
+			// compile outside of computeIfAbsent so that syntax errors reach the caller unchanged
+			pattern = Pattern.compile(regex);
+			Pattern previous = patterns.putIfAbsent(regex, pattern);
+			if (previous != null)
+				pattern = previous;
+		}
+		return pattern;
+	}
+
+	private static String digest(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform has to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
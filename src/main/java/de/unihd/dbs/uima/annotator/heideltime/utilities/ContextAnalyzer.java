@@ -1,6 +1,7 @@
 package de.unihd.dbs.uima.annotator.heideltime.utilities;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.TreeMap;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
@@ -27,9 +28,10 @@ public class ContextAnalyzer {
 	 * @param linearDates list of previous linear dates
 	 * @param i index for the previous date entry
 	 * @param x type to search for
+	 * @param locale locale that defines how weeks are counted
 	 * @return last mentioned entry
 	 */
-	public static String getLastMentionedX(List<Timex3> linearDates, int i, String x, Language language) {
+	public static String getLastMentionedX(List<Timex3> linearDates, int i, String x, Language language, Locale locale) {
 		NormalizationManager nm = NormalizationManager.getInstance(language, true);
 		
 		// Timex for which to get the last mentioned x (i.e., Timex i)
@@ -138,7 +140,7 @@ public class ContextAnalyzer {
 						else if (x.equals("week")) {
 							if (value.matches("^[0-9][0-9][0-9][0-9]-[0-9][0-9]-[0-9][0-9].*")) {
 								for (MatchResult r : Toolbox.findMatches(Pattern.compile("^(([0-9][0-9][0-9][0-9])-[0-9][0-9]-[0-9][0-9]).*"), value)) {
-									xValue = r.group(2)+"-W"+DateCalculator.getWeekOfDate(r.group(1));
+									xValue = r.group(2)+"-W"+DateCalculator.getWeekOfDate(r.group(1), locale);
 									break;
 								}
 								break;
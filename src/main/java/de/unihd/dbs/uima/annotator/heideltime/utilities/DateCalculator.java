@@ -1,8 +1,9 @@
 package de.unihd.dbs.uima.annotator.heideltime.utilities;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
 import java.util.Locale;
 
 import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
@@ -10,39 +11,25 @@ import de.unihd.dbs.uima.annotator.heideltime.resources.NormalizationManager;
 /**
  * 
  * This class contains methods that rely on calendar functions to calculate data.
+ * 
+ * Dates are read leniently (a month 13 is January of the next year), calculated
+ * with plain year/month numbers or java.time in the proleptic Gregorian calendar
+ * and written in the TIMEX3 format. Years before 1 AD are handled as proleptic
+ * years (0 is 1 BC) and written with a "BC" prefix. All methods are thread-safe.
  * @author jannik stroetgen
  *
  */
 public class DateCalculator {
 	
+	private static final String BC = "BC";
+	private static final String AD = "AD";
+	
 	public static String getXNextYear(String date, Integer x){
-		
-		// two formatters depending if BC or not
-		SimpleDateFormat formatter   = new SimpleDateFormat("yyyy");
-		SimpleDateFormat formatterBC = new SimpleDateFormat("GGyyyy");
-		
 		String newDate = "";
-		Calendar c = Calendar.getInstance();
-		
 		try {
-			// read the original date
-			if (date.matches("^\\d.*")){
-				c.setTime(formatter.parse(date));
-			}
-			else{
-				c.setTime(formatterBC.parse(date));
-			}
-			// make calucaltion
-			c.add(Calendar.YEAR, x);
-			c.getTime();
-			// check if new date is BC or AD for choosing formatter or formatterBC
-			int newEra = c.get(Calendar.ERA);
-			if (newEra > 0){
-				newDate = formatter.format(c.getTime());
-			}
-			else{
-				newDate = formatterBC.format(c.getTime());
-			}
+			// read the original date and make calculation
+			int year = new DateReader(date).eraYear() + x;
+			newDate = formatEraYear(year);
 		}
 		catch (ParseException e) {
 			Logger.printError(
@@ -56,35 +43,13 @@ public class DateCalculator {
 	public static String getXNextDecade(String date, Integer x) {
 		date = date + "0"; // deal with years not with centuries
 		
-		// two formatters depending if BC or not
-		SimpleDateFormat formatter   = new SimpleDateFormat("yyyy");
-		SimpleDateFormat formatterBC = new SimpleDateFormat("GGyyyy");
-		
 		String newDate = "";
-		Calendar c = Calendar.getInstance();
-		
 		try {
-			// read the original date
-			if (date.matches("^\\d.*")){
-				c.setTime(formatter.parse(date));
-			}
-			else{
-				c.setTime(formatterBC.parse(date));
-			}
-			
-			// make calucaltion
-			c.add(Calendar.YEAR, x*10);
-			c.getTime();
-			
-			// check if new date is BC or AD for choosing formatter or formatterBC
-			int newEra = c.get(Calendar.ERA);
-			if (newEra > 0){
-				newDate = formatter.format(c.getTime()).substring(0, 3);
-			}
-			else{
-				newDate = formatterBC.format(c.getTime()).substring(0, 5);
-			}
+			// read the original date and make calculation
+			int year = new DateReader(date).eraYear() + x*10;
 			
+			// keep the era and the first three digits of the year
+			newDate = formatEraYear(year).substring(0, year > 0 ? 3 : 5);
 		} catch (ParseException e) {
 			Logger.printError(
 					DateCalculator.class,
@@ -96,49 +61,28 @@ public class DateCalculator {
 	
 	
 	public static String getXNextCentury(String date, Integer x) {
-		date = date + "00"; // deal with years not with centuries
-		int oldEra = 0;     // 0 if BC date, 1 if AD date
-		
-		// two formatters depending if BC or not
-		SimpleDateFormat formatter   = new SimpleDateFormat("yyyy");
-		SimpleDateFormat formatterBC = new SimpleDateFormat("GGyyyy");
-		
 		String newDate = "";
-		Calendar c = Calendar.getInstance();
-		
 		try {
-			// read the original date
-			if (date.matches("^\\d.*")){
-				c.setTime(formatter.parse(date));
-				oldEra = 1;
-			}
-			else{
-				c.setTime(formatterBC.parse(date));
+			// read the original date, counting centuries without a gap: 0 is 0000-0099, -1 is BC0001-BC0099
+			DateReader reader = new DateReader(date);
+			int century;
+			if (reader.skip(BC)) {
+				century = -reader.number() - 1;
+			} else {
+				reader.skip(AD);
+				century = reader.number();
 			}
 			
-			// make calucaltion
-			c.add(Calendar.YEAR, x*100);
-			c.getTime();
+			// make calculation
+			century += x;
 			
-			// check if new date is BC or AD for choosing formatter or formatterBC
-			int newEra = c.get(Calendar.ERA);
-			if (newEra > 0){
-				if (oldEra == 0){
-					// -100 if from BC to AD
-					c.add(Calendar.YEAR, -100);
-					c.getTime();
-				}
-				newDate = formatter.format(c.getTime()).substring(0, 2);
+			// check if new date is BC or AD
+			if (century >= 0){
+				newDate = padYear(century * 100).substring(0, 2);
 			}
 			else{
-				if (oldEra > 0){
-					// +100 if from AD to BC
-					c.add(Calendar.YEAR, 100);
-					c.getTime();
-				}
-				newDate = formatterBC.format(c.getTime()).substring(0, 4);
+				newDate = (BC + padYear((-century - 1) * 100)).substring(0, 4);
 			}
-			
 		} catch (ParseException e) {
 			Logger.printError(
 					DateCalculator.class,
@@ -156,14 +100,15 @@ public class DateCalculator {
 	 * @return
 	 */
 	public static String getXNextDay(String date, Integer x) {
-		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
 		String newDate = "";
-		Calendar c = Calendar.getInstance();
 		try {
-			c.setTime(formatter.parse(date));
-			c.add(Calendar.DAY_OF_MONTH, x);
-			c.getTime();
-			newDate = formatter.format(c.getTime());
+			LocalDate d = parseDate(date).plusDays(x);
+			StringBuilder sb = new StringBuilder(10);
+			sb.append(padYear(yearOfEra(d.getYear()))).append('-');
+			appendTwoDigits(sb, d.getMonthValue());
+			sb.append('-');
+			appendTwoDigits(sb, d.getDayOfMonth());
+			newDate = sb.toString();
 		} catch (ParseException e) {
 			Logger.printError(
 					DateCalculator.class,
@@ -181,34 +126,23 @@ public class DateCalculator {
 	 * @return new month
 	 */
 	public static String getXNextMonth(String date, Integer x) {
-
-		// two formatters depending if BC or not
-		SimpleDateFormat formatter   = new SimpleDateFormat("yyyy-MM");
-		SimpleDateFormat formatterBC = new SimpleDateFormat("GGyyyy-MM");
 		String newDate = "";
-		Calendar c = Calendar.getInstance();
-
 		try {
 			// read the original date
-			if (date.matches("^\\d.*")){
-				c.setTime(formatter.parse(date));
-			}
-			else{
-				c.setTime(formatterBC.parse(date));
-			}
-			// make calucaltion
-			c.add(Calendar.MONTH, x);
-			c.getTime();
+			DateReader reader = new DateReader(date);
+			int year = reader.eraYear();
+			reader.expect('-');
+			int month = reader.number();
 			
-			// check if new date is BC or AD for choosing formatter or formatterBC
-			int newEra = c.get(Calendar.ERA);
-			if (newEra > 0){
-				newDate = formatter.format(c.getTime());
-			}
-			else{
-				newDate = formatterBC.format(c.getTime());
-			}
+			// make calculation on months since year 0
+			long months = year * 12L + (month - 1) + x;
+			year = (int) Math.floorDiv(months, 12L);
+			month = (int) Math.floorMod(months, 12L) + 1;
 			
+			StringBuilder sb = new StringBuilder(10);
+			sb.append(formatEraYear(year)).append('-');
+			appendTwoDigits(sb, month);
+			newDate = sb.toString();
 		}
 		catch (ParseException e) {
 			Logger.printError(
@@ -223,20 +157,27 @@ public class DateCalculator {
 	 * get the x-next week of date
 	 * @param date current date
 	 * @param x amount of weeks to go forward
+	 * @param locale locale that defines how weeks are counted
 	 * @return new week
 	 */
-	public static String getXNextWeek(String date, Integer x, Language language) {
+	public static String getXNextWeek(String date, Integer x, Language language, Locale locale) {
 		NormalizationManager nm = NormalizationManager.getInstance(language, false);
 		String date_no_W = date.replace("W", "");
-		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-w");
 		String newDate = "";
-		Calendar c = Calendar.getInstance();
 		try {
-			c.setTime(formatter.parse(date_no_W));
-			c.add(Calendar.WEEK_OF_YEAR, x);
-			c.getTime();
-			newDate = formatter.format(c.getTime());
-			newDate = newDate.substring(0,4)+"-W"+nm.getFromNormNumber(newDate.substring(5));
+			DateReader reader = new DateReader(date_no_W);
+			int year = reader.number();
+			reader.expect('-');
+			int week = reader.number();
+			
+			// first day of the requested week, weeks are counted as in the given locale
+			WeekFields weekFields = WeekFields.of(locale);
+			LocalDate d = LocalDate.of(year, 1, weekFields.getMinimalDaysInFirstWeek())
+					.with(weekFields.dayOfWeek(), 1)
+					.plusWeeks(week - 1L + x);
+			
+			newDate = padYear(d.get(weekFields.weekBasedYear())).substring(0,4)+"-W"
+					+nm.getFromNormNumber(String.valueOf(d.get(weekFields.weekOfWeekBasedYear())));
 		} catch (ParseException e) {
 			Logger.printError(
 					DateCalculator.class,
@@ -250,15 +191,13 @@ public class DateCalculator {
 	 * Get the weekday of date
 	 * 
 	 * @param date current date
-	 * @return day of week
+	 * @return day of week, 1 (Sunday) to 7 (Saturday) as in java.util.Calendar
 	 */
 	public static int getWeekdayOfDate(String date) {
-		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
 		int weekday = 0;
-		Calendar c = Calendar.getInstance();
 		try {
-			c.setTime(formatter.parse(date));
-			weekday = c.get(Calendar.DAY_OF_WEEK);
+			DayOfWeek dayOfWeek = parseDate(date).getDayOfWeek();
+			weekday = dayOfWeek.getValue() % 7 + 1;
 		} catch (ParseException e) {
 			Logger.printError(
 					DateCalculator.class,
@@ -272,16 +211,13 @@ public class DateCalculator {
 	 * Get the week of date
 	 * 
 	 * @param date current date
+	 * @param locale locale that defines how weeks are counted
 	 * @return week of year
 	 */
-	public static int getWeekOfDate(String date) {
-		SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+	public static int getWeekOfDate(String date, Locale locale) {
 		int week = 0;
-		;
-		Calendar c = Calendar.getInstance();
 		try {
-			c.setTime(formatter.parse(date));
-			week = c.get(Calendar.WEEK_OF_YEAR);
+			week = parseDate(date).get(WeekFields.of(locale).weekOfWeekBasedYear());
 		} catch (ParseException e) {
 			Logger.printError(
 					DateCalculator.class,
@@ -291,6 +227,105 @@ public class DateCalculator {
 		return week;
 	}
 	
+	/**
+	 * Reads a date of the form yyyy-MM-dd. Out of range months and days roll over into
+	 * the following months and years; anything after the day is ignored.
+	 */
+	private static LocalDate parseDate(String date) throws ParseException {
+		DateReader reader = new DateReader(date);
+		int year = reader.number();
+		reader.expect('-');
+		int month = reader.number();
+		reader.expect('-');
+		int day = reader.number();
+		return LocalDate.of(year, 1, 1).plusMonths(month - 1L).plusDays(day - 1L);
+	}
+	
+	/**
+	 * @return the year within its era for a proleptic year, e.g. 1 for 0 (1 BC)
+	 */
+	private static int yearOfEra(int year) {
+		return year > 0 ? year : 1 - year;
+	}
+	
+	/**
+	 * @return a proleptic year as yyyy, prefixed by the era if it is BC
+	 */
+	private static String formatEraYear(int year) {
+		return year > 0 ? padYear(year) : BC + padYear(1 - year);
+	}
+	
+	/**
+	 * @return the year with at least four digits
+	 */
+	private static String padYear(int year) {
+		if (year >= 1000 || year < 0)
+			return String.valueOf(year);
+		StringBuilder sb = new StringBuilder(4);
+		for (int i = year < 10 ? 3 : year < 100 ? 2 : 1; i > 0; i--)
+			sb.append('0');
+		return sb.append(year).toString();
+	}
+	
+	private static void appendTwoDigits(StringBuilder sb, int value) {
+		if (value < 10)
+			sb.append('0');
+		sb.append(value);
+	}
+	
+	/**
+	 * Reads the numbers of a date from left to right
+	 */
+	private static final class DateReader {
+		private final String s;
+		private int pos = 0;
+		
+		DateReader(String s) {
+			this.s = s;
+		}
+		
+		/**
+		 * Reads a year with an optional era ("BC0500", "AD0500", "0500")
+		 * @return the proleptic year, i.e. 0 for 1 BC
+		 */
+		int eraYear() throws ParseException {
+			if (skip(BC))
+				return 1 - number();
+			skip(AD);
+			return number();
+		}
+		
+		/**
+		 * Skips <code>prefix</code> if the remaining input starts with it
+		 */
+		boolean skip(String prefix) {
+			if (!s.startsWith(prefix, pos))
+				return false;
+			pos += prefix.length();
+			return true;
+		}
+		
+		int number() throws ParseException {
+			int start = pos;
+			long value = 0;
+			while (pos < s.length() && s.charAt(pos) >= '0' && s.charAt(pos) <= '9') {
+				value = value * 10 + (s.charAt(pos) - '0');
+				if (value > Integer.MAX_VALUE / 100)
+					throw new ParseException("Number too large: \"" + s + "\"", start);
+				pos++;
+			}
+			if (pos == start)
+				throw new ParseException("Unparseable date: \"" + s + "\"", pos);
+			return (int) value;
+		}
+		
+		void expect(char c) throws ParseException {
+			if (pos >= s.length() || s.charAt(pos) != c)
+				throw new ParseException("Unparseable date: \"" + s + "\"", pos);
+			pos++;
+		}
+	}
+	
 	/**
 	 * takes a desired locale input string, iterates through available locales, returns a locale object
 	 * @param locale String to grab a locale for, i.e. en_US, en_GB, de_DE
@@ -6,7 +6,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.regex.MatchResult;
@@ -50,8 +49,45 @@ public class IntervalTagger extends JCasAnnotator_ImplBase {
 	private Boolean find_intervals = true;
 	private Boolean find_interval_candidates = true;
 	
-	private HashMap<Pattern, String> hmIntervalPattern = new HashMap<Pattern, String>();
-	private HashMap<String, String> hmIntervalNormalization = new HashMap<String, String>();
+	// interval rules in the order of the resource file
+	private List<IntervalRule> intervalRules = new ArrayList<IntervalRule>();
+	
+	private static final Pattern paIntervalNorm = Pattern.compile("group\\(([1-9]+)\\)-group\\(([1-9]+)\\)");
+	
+	// granularity of timex values: year(1), month(2), day(3), T(4), hour(5), minute(6), second(7)
+	private static final Pattern paGranularity = Pattern.compile("(\\d{1,4})?-?(\\d{2})?-?(\\d{2})?(T)?(\\d{2})?:?(\\d{2})?:?(\\d{2})?");
+	
+	// timex value patterns for building intervals from timexes
+	private static final Pattern pDate = Pattern.compile("(?:BC)?(\\d\\d\\d\\d)(-(\\d+))?(-(\\d+))?(T(\\d+))?(:(\\d+))?(:(\\d+))?");
+	private static final Pattern pCentury = Pattern.compile("(\\d\\d)");
+	private static final Pattern pDecate = Pattern.compile("(\\d\\d\\d)");
+	private static final Pattern pQuarter = Pattern.compile("(\\d+)-Q([1-4])");
+	private static final Pattern pHalf = Pattern.compile("(\\d+)-H([1-2])");
+	private static final Pattern pSeason = Pattern.compile("(\\d+)-(SP|SU|FA|WI)");
+	private static final Pattern pWeek = Pattern.compile("(\\d+)-W(\\d+)");
+	private static final Pattern pWeekend = Pattern.compile("(\\d+)-W(\\d+)-WE");
+	private static final Pattern pTimeOfDay = Pattern.compile("(\\d+)-(\\d+)-(\\d+)T(AF|DT|MI|MO|EV|NI)");
+	
+	/**
+	 * An interval rule with the groups of its start and end timex, resolved
+	 * from the rule's normalization when the resources are read.
+	 */
+	private static class IntervalRule {
+		final String name;
+		final Pattern pattern;
+		final int startGroup;
+		final int endGroup;
+		// number of timexes a sentence needs to contain for the rule to match
+		final int minTimexes;
+		
+		IntervalRule(String name, Pattern pattern, int startGroup, int endGroup) {
+			this.name = name;
+			this.pattern = pattern;
+			this.startGroup = startGroup;
+			this.endGroup = endGroup;
+			this.minTimexes = startGroup == endGroup ? 1 : 2;
+		}
+	}
 	
 	/**
 	 * initialization: read configuration parameters and resources
@@ -139,8 +175,13 @@ public class IntervalTagger extends JCasAnnotator_ImplBase {
 						// READ INTERVAL RULES AND MAKE THEM AVAILABLE //
 						/////////////////////////////////////////////////
 						if(resource.equals("intervalrules")){
-							hmIntervalPattern.put(pattern,rule_name);
-							hmIntervalNormalization.put(rule_name, rule_normalization);
+							Matcher mNorm = paIntervalNorm.matcher(rule_normalization);
+							if(!mNorm.matches()) {
+								Logger.printError(component, "Problem with the Norm in rule "+rule_name+", ignoring the rule.");
+								continue;
+							}
+							intervalRules.add(new IntervalRule(rule_name, pattern,
+									Integer.parseInt(mNorm.group(1)), Integer.parseInt(mNorm.group(2))));
 						}
 					}
 				}
@@ -178,98 +219,82 @@ public class IntervalTagger extends JCasAnnotator_ImplBase {
 		FSIterator iterSentence = jcas.getAnnotationIndex(Sentence.type).iterator();
 		while (iterSentence.hasNext()) {
 			Sentence s=(Sentence)iterSentence.next();
-			String sString=s.getCoveredText();
 			FSIterator iterInter = jcas.getAnnotationIndex(Timex3Interval.type).subiterator(s);
-			int count=0;
-			List<Timex3Interval> txes=new ArrayList<Timex3Interval>();
-			List<Timex3Interval> sentenceTxes=new ArrayList<Timex3Interval>();
+			if(!iterInter.hasNext())
+				continue;
 			
+			// project the sentence onto a string in which every interval is replaced
+			// by a placeholder <TX3_n>, n being the interval's index in txes.
+			// intervals overlapping a previous one cannot be projected and are left out.
+			String sText=s.getCoveredText();
+			StringBuilder projection=new StringBuilder(sText.length());
+			List<Timex3Interval> txes=new ArrayList<Timex3Interval>();
+			int cursor=0;
 			while(iterInter.hasNext()){
 				Timex3Interval t=(Timex3Interval)iterInter.next();
-				sString=sString.replace(t.getCoveredText(), "<TX3_"+count+">");
-				count++;
+				int begin=t.getBegin()-s.getBegin();
+				if(begin<cursor)
+					continue;
+				projection.append(sText, cursor, begin).append("<TX3_").append(txes.size()).append('>');
+				cursor=t.getEnd()-s.getBegin();
 				txes.add(t);
 			}
+			projection.append(sText, cursor, sText.length());
+			String sString=projection.toString();
 
-			if(count>0){
-
-				if (find_interval_candidates){
-					IntervalCandidateSentence sI=new IntervalCandidateSentence(jcas);
-					sI.setBegin(s.getBegin());
-					sI.setEnd(s.getEnd());
-					sI.addToIndexes();
-				}
-				for(Pattern p: hmIntervalPattern.keySet()){
-					
-					String name=hmIntervalPattern.get(p);
-					List<MatchResult>results=(List<MatchResult>)Toolbox.findMatches(p,sString);
-					if(results.size()>0){
-						//Interval in Sentence s found by Pattern p!
-						for(MatchResult r: results){
-							Pattern pNorm=Pattern.compile("group\\(([1-9]+)\\)-group\\(([1-9]+)\\)");
-							String norm=hmIntervalNormalization.get(name);
-							
-							Matcher mNorm=pNorm.matcher(norm);
-							if(!mNorm.matches()){
-								System.err.println("Problem with the Norm in rule "+name);
-							}
-							Timex3Interval startTx=null,endTx=null;
-							try{
-								int startId=Integer.parseInt(mNorm.group(1));
-								int endId=Integer.parseInt(mNorm.group(2));
-								
-								startTx=txes.get(Integer.parseInt(r.group(startId)));
-								endTx=txes.get(Integer.parseInt(r.group(endId)));
-							}catch(Exception e){
-								e.printStackTrace();
-								return;
-							}
-							Timex3Interval annotation=new Timex3Interval(jcas);
-							annotation.setBegin(startTx.getBegin()>endTx.getBegin()?endTx.getBegin():startTx.getBegin());
-							annotation.setEnd(startTx.getEnd()>endTx.getEnd()?startTx.getEnd():endTx.getEnd());
-							
-							//Does the interval already exist,
-							//found by another pattern?
-							boolean duplicate=false;
-							for(Timex3Interval tx:sentenceTxes){
-								if(tx.getBegin()==annotation.getBegin() &&
-										tx.getEnd()==annotation.getEnd()){
-									duplicate=true;
-									break;
-								}
-							}
-							
-							if(!duplicate){
-								annotation.setTimexValueEB(startTx.getTimexValueEB());
-								annotation.setTimexValueLB(startTx.getTimexValueLE());
-								annotation.setTimexValueEE(endTx.getTimexValueEB());
-								annotation.setTimexValueLE(endTx.getTimexValueLE());
-								annotation.setTimexType(startTx.getTimexType());
-								annotation.setFoundByRule(name);
-								
-								
-								// create emptyvalue value
-								String emptyValue = createEmptyValue(startTx, endTx, jcas);
-								annotation.setEmptyValue(emptyValue);
-								annotation.setBeginTimex(startTx.getBeginTimex());
-								annotation.setEndTimex(endTx.getEndTimex());
-								
-								try {
-									sentenceTxes.add(annotation);
-								} catch(NumberFormatException e) {
-									Logger.printError(component, "Couldn't do emptyValue calculation on accont of a faulty normalization in " 
-											+ annotation.getTimexValueEB() + " or " + annotation.getTimexValueEE());
-								}
-								
-								// prepare tx3intervals to remove
-								timexesToRemove.add(startTx);
-								timexesToRemove.add(endTx);
-								
-								annotation.addToIndexes();
-//								System.out.println(emptyValue);
-							}
-						}
+			if (find_interval_candidates){
+				IntervalCandidateSentence sI=new IntervalCandidateSentence(jcas);
+				sI.setBegin(s.getBegin());
+				sI.setEnd(s.getEnd());
+				sI.addToIndexes();
+			}
+			
+			// spans of the intervals found in this sentence, as (begin << 32 | end)
+			HashSet<Long> sentenceSpans=new HashSet<Long>();
+			for(IntervalRule rule: intervalRules){
+				if(txes.size()<rule.minTimexes)
+					continue;
+				
+				Matcher m=rule.pattern.matcher(sString);
+				while(m.find()){
+					//Interval in Sentence s found by rule!
+					Timex3Interval startTx=null,endTx=null;
+					try{
+						startTx=txes.get(Integer.parseInt(m.group(rule.startGroup)));
+						endTx=txes.get(Integer.parseInt(m.group(rule.endGroup)));
+					}catch(Exception e){
+						e.printStackTrace();
+						return;
 					}
+					int begin=startTx.getBegin()>endTx.getBegin()?endTx.getBegin():startTx.getBegin();
+					int end=startTx.getEnd()>endTx.getEnd()?startTx.getEnd():endTx.getEnd();
+					
+					//Does the interval already exist,
+					//found by another pattern?
+					if(!sentenceSpans.add(((long) begin<<32)|(end&0xFFFFFFFFL)))
+						continue;
+					
+					Timex3Interval annotation=new Timex3Interval(jcas);
+					annotation.setBegin(begin);
+					annotation.setEnd(end);
+					annotation.setTimexValueEB(startTx.getTimexValueEB());
+					annotation.setTimexValueLB(startTx.getTimexValueLE());
+					annotation.setTimexValueEE(endTx.getTimexValueEB());
+					annotation.setTimexValueLE(endTx.getTimexValueLE());
+					annotation.setTimexType(startTx.getTimexType());
+					annotation.setFoundByRule(rule.name);
+					
+					// create emptyvalue value
+					String emptyValue = createEmptyValue(startTx, endTx, jcas);
+					annotation.setEmptyValue(emptyValue);
+					annotation.setBeginTimex(startTx.getBeginTimex());
+					annotation.setEndTimex(endTx.getEndTimex());
+					
+					// prepare tx3intervals to remove
+					timexesToRemove.add(startTx);
+					timexesToRemove.add(endTx);
+					
+					annotation.addToIndexes();
 				}
 			}
 		}
@@ -283,10 +308,8 @@ public class IntervalTagger extends JCasAnnotator_ImplBase {
 		String dateStr = "", timeStr = "";
 
 		// find granularity for start/end timex values
-		Pattern p = Pattern.compile("(\\d{1,4})?-?(\\d{2})?-?(\\d{2})?(T)?(\\d{2})?:?(\\d{2})?:?(\\d{2})?");
-		//							 1            2          3        4   5          6          7
-		Matcher mStart = p.matcher(startTx.getTimexValue());
-		Matcher mEnd = p.matcher(endTx.getTimexValue());
+		Matcher mStart = paGranularity.matcher(startTx.getTimexValue());
+		Matcher mEnd = paGranularity.matcher(endTx.getTimexValue());
 		Integer granularityStart = -1;
 		Integer granularityEnd = -2;
 		Integer granularity = -1;
@@ -415,17 +438,6 @@ public class IntervalTagger extends JCasAnnotator_ImplBase {
 			Timex3Interval annotation=new Timex3Interval(jcas);
 			Timex3 timex3 = (Timex3) iterTimex3.next();
 			
-			//DATE Pattern
-			Pattern pDate = Pattern.compile("(?:BC)?(\\d\\d\\d\\d)(-(\\d+))?(-(\\d+))?(T(\\d+))?(:(\\d+))?(:(\\d+))?");
-			Pattern pCentury = Pattern.compile("(\\d\\d)");
-			Pattern pDecate = Pattern.compile("(\\d\\d\\d)");
-			Pattern pQuarter = Pattern.compile("(\\d+)-Q([1-4])");
-			Pattern pHalf = Pattern.compile("(\\d+)-H([1-2])");
-			Pattern pSeason = Pattern.compile("(\\d+)-(SP|SU|FA|WI)");
-			Pattern pWeek = Pattern.compile("(\\d+)-W(\\d+)");
-			Pattern pWeekend = Pattern.compile("(\\d+)-W(\\d+)-WE");
-			Pattern pTimeOfDay = Pattern.compile("(\\d+)-(\\d+)-(\\d+)T(AF|DT|MI|MO|EV|NI)");
-			
 			Matcher mDate   = pDate.matcher(timex3.getTimexValue());
 			Matcher mCentury= pCentury.matcher(timex3.getTimexValue());
 			Matcher mDecade = pDecate.matcher(timex3.getTimexValue());
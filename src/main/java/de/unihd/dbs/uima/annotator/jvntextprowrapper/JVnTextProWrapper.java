@@ -5,8 +5,11 @@
 package de.unihd.dbs.uima.annotator.jvntextprowrapper;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jmaxent.Classification;
 import jvnpostag.POSContextGenerator;
@@ -53,6 +56,13 @@ public class JVnTextProWrapper extends JCasAnnotator_ImplBase {
 	private String wordModelPath = null;
 	private String posModelPath = null;
 	
+	// models loaded so far, by path. they are only read after loading, so all
+	// instances of the wrapper in this JVM can share them, also across threads
+	private static final Map<String, JVnSenSegmenter> senSegmenters = new ConcurrentHashMap<String, JVnSenSegmenter>();
+	private static final Map<String, CRFSegmenter> segmenters = new ConcurrentHashMap<String, CRFSegmenter>();
+	private static final Map<String, TaggingData> posTaggers = new ConcurrentHashMap<String, TaggingData>();
+	private static final Map<String, Classification> posClassifiers = new ConcurrentHashMap<String, Classification>();
+	
 	// private jvntextpro objects
 	JVnSenSegmenter vnSenSegmenter = new JVnSenSegmenter();
 	CRFSegmenter vnSegmenter = new CRFSegmenter();
@@ -73,27 +83,49 @@ public class JVnTextProWrapper extends JCasAnnotator_ImplBase {
 		posModelPath = (String) aContext.getConfigParameterValue(PARAM_POSMODEL_PATH);
 		
 		if(sentModelPath != null)
-			if(!vnSenSegmenter.init(sentModelPath)) {
-				Logger.printError(component, "Error initializing the sentence segmenter model: " + sentModelPath);
-				System.exit(-1);
-			}
+			vnSenSegmenter = senSegmenters.computeIfAbsent(sentModelPath, path -> {
+				JVnSenSegmenter senSegmenter = new JVnSenSegmenter();
+				if(!senSegmenter.init(path)) {
+					Logger.printError(component, "Error initializing the sentence segmenter model: " + path);
+					System.exit(-1);
+				}
+				return senSegmenter;
+			});
 		
 		if(wordModelPath != null) 
-			try {
-				vnSegmenter.init(wordModelPath);
-			} catch(Exception e) {
-				Logger.printError(component, "Error initializing the word segmenter model: " + wordModelPath);
-				System.exit(-1);
-			}
+			vnSegmenter = segmenters.computeIfAbsent(wordModelPath, path -> {
+				CRFSegmenter segmenter = new CRFSegmenter();
+				try {
+					segmenter.init(path);
+				} catch(Exception e) {
+					Logger.printError(component, "Error initializing the word segmenter model: " + path);
+					System.exit(-1);
+				}
+				return segmenter;
+			});
 		
-		if(posModelPath != null) 
-			try {
-				dataTagger.addContextGenerator(new POSContextGenerator(posModelPath + File.separator + "featuretemplate.xml"));
-				classifier = new Classification(posModelPath);	
-			} catch(Exception e) {
-				Logger.printError(component, "Error initializing the POS tagging model: " + posModelPath);
-				System.exit(-1);
-			}
+		if(posModelPath != null) {
+			dataTagger = posTaggers.computeIfAbsent(posModelPath, path -> {
+				TaggingData tagger = new TaggingData();
+				try {
+					tagger.addContextGenerator(new POSContextGenerator(path + File.separator + "featuretemplate.xml"));
+				} catch(Exception e) {
+					Logger.printError(component, "Error initializing the POS tagging model: " + path);
+					System.exit(-1);
+				}
+				return tagger;
+			});
+			classifier = posClassifiers.computeIfAbsent(posModelPath, path -> {
+				Classification posClassifier = null;
+				try {
+					posClassifier = new Classification(path);
+				} catch(Exception e) {
+					Logger.printError(component, "Error initializing the POS tagging model: " + path);
+					System.exit(-1);
+				}
+				return posClassifier;
+			});
+		}
 	}
 	
 	/**
@@ -303,12 +335,18 @@ public class JVnTextProWrapper extends JCasAnnotator_ImplBase {
 	 */
 	public List<jvntextpro.data.Sentence> jvnTagging(String instr) {
 		List<jvntextpro.data.Sentence> data = reader.readString(instr);
-		for (int i = 0; i < data.size(); ++i) {
-        	
-			jvntextpro.data.Sentence sent = data.get(i);
+		
+		// classify all words of the document in one batch
+		List<String[]> contexts = new ArrayList<String[]>();
+		for (jvntextpro.data.Sentence sent : data)
+			for (int j = 0; j < sent.size(); ++j)
+				contexts.add(dataTagger.getContext(sent, j));
+		String[] labels = classifier.classify(contexts.toArray(new String[contexts.size()][]));
+		
+		int k = 0;
+		for (jvntextpro.data.Sentence sent : data) {
     		for (int j = 0; j < sent.size(); ++j) {
-    			String [] cps = dataTagger.getContext(sent, j);
-    			String label = classifier.classify(cps);
+    			String label = labels[k++];
     			
     			if (label.equalsIgnoreCase("Mrk")) {
     				if (StringUtils.isPunc(sent.getWordAt(j)))
@@ -14,9 +14,7 @@
 package de.unihd.dbs.uima.consumer.aceternwriter;
 
 import java.util.List;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -33,7 +31,9 @@ import org.apache.uima.collection.CasConsumer_ImplBase;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.ResourceProcessException;
+import org.apache.uima.util.ProcessTrace;
 
+import de.unihd.dbs.uima.consumer.output.AsyncOutputWriter;
 import de.unihd.dbs.uima.types.heideltime.Timex3;
 import de.unihd.dbs.uima.types.heideltime.SourceDocInfo;
 
@@ -44,11 +44,15 @@ import de.unihd.dbs.uima.types.heideltime.SourceDocInfo;
  *
  */
 public class ACETernWriter extends CasConsumer_ImplBase {
+	private Class<?> component = this.getClass();
 
 	public static final String PARAM_OUTPUTDIR = "OutputDir";
 	public static final String PARAM_CONVERTTIMEX3TO2 = "ConvertTimex3To2";
+	public static final String PARAM_OUTPUT_ARCHIVE = "OutputArchive";
+	public static final String PARAM_OUTPUT_QUEUE_SIZE = "OutputQueueSize";
 
 	private File mOutputDir;
+	private AsyncOutputWriter mOutput;
  
 	private int mDocNum;
 	
@@ -67,6 +71,14 @@ public class ACETernWriter extends CasConsumer_ImplBase {
 		if (!mOutputDir.exists()) {
 			mOutputDir.mkdirs();
 		} 
+		
+		Integer queueSize = (Integer) getConfigParameterValue(PARAM_OUTPUT_QUEUE_SIZE);
+		try {
+			mOutput = new AsyncOutputWriter(mOutputDir, (String) getConfigParameterValue(PARAM_OUTPUT_ARCHIVE),
+					queueSize == null ? AsyncOutputWriter.DEFAULT_QUEUE_SIZE : queueSize, component);
+		} catch (IOException e) {
+			throw new ResourceInitializationException(e);
+		}
 	}
 
 
@@ -88,10 +100,10 @@ public class ACETernWriter extends CasConsumer_ImplBase {
 	
 	
 	
-	public void printTimexAnnotationsInline(JCas jcas){
+	public void printTimexAnnotationsInline(JCas jcas) throws ResourceProcessException {
 		// retrieve the filename of the input file from the CAS
 	    FSIterator it = jcas.getAnnotationIndex(SourceDocInfo.type).iterator();
-	    File outFile = null;
+	    String outFile = null;
 	    File inFile = null;
 	    if (it.hasNext()) {
 	      SourceDocInfo fileLoc = (SourceDocInfo) it.next();
@@ -102,20 +114,19 @@ public class ACETernWriter extends CasConsumer_ImplBase {
 	          outFileName += ("_" + fileLoc.getOffsetInSource());
 	        }
 	        outFileName += ".xmi";
-	        outFile = new File(mOutputDir, outFileName);
+	        outFile = outFileName;
 	      } catch (MalformedURLException e1) {
 	        // invalid URL, use default processing below
 	      }
 	    }
 	    if (outFile == null) {
-	      outFile = new File(mOutputDir, "doc" + mDocNum++);
+	      outFile = "doc" + mDocNum++;
 	    }
 	    
 	    // what has to be printed?
-	    String toprint = "";
-	    
 	    // document text
 	    String doctext    = jcas.getDocumentText();
+	    StringBuilder toprint = new StringBuilder(doctext.length() + 1024);
 	    int startposition = 0;
 	    int endposition   = doctext.length();
 	    boolean anyTimex  = false;
@@ -142,29 +153,42 @@ public class ACETernWriter extends CasConsumer_ImplBase {
 						timexvalue = translatetimex3timex2set(timexvalue); 
 					}
 				}
-				toprint = toprint + doctext.substring(startposition, endposition); // text from begin or last timex to begin of new timex
-				toprint = toprint + "<TIMEX2 val=\"" + timexvalue + "\">";         // timex opening tag
-				toprint = toprint + t.getCoveredText();                            // timex text
-				toprint = toprint + "</TIMEX2>";
+				toprint.append(doctext, startposition, endposition);     // text from begin or last timex to begin of new timex
+				toprint.append("<TIMEX2 val=\"").append(timexvalue).append("\">"); // timex opening tag
+				toprint.append(t.getCoveredText());                            // timex text
+				toprint.append("</TIMEX2>");
 				startposition = t.getEnd();
 			}
 		}
 		if (anyTimex == true){
             // text from last timex to end
-			toprint = toprint + doctext.substring(startposition);
+			toprint.append(doctext, startposition, doctext.length());
 		}
 		if (anyTimex == false){
 			// whole document text
-			toprint = toprint + doctext;
+			toprint.append(doctext);
 		}
 		
-		// print toprint text
+		// hand toprint text over to the output thread
 		try {
-			BufferedWriter bf = new BufferedWriter(new FileWriter(outFile));
-			bf.append(toprint);
-			bf.close();
+			mOutput.write(outFile, toprint.toString());
 		} catch (IOException e1) {
-			e1.printStackTrace();
+			throw new ResourceProcessException(e1);
+		}
+	}
+	
+	/**
+	 * wait for the pending documents to be written
+	 */
+	public void collectionProcessComplete(ProcessTrace aTrace) throws ResourceProcessException, IOException {
+		mOutput.flush();
+	}
+	
+	public void destroy() {
+		try {
+			mOutput.close();
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 	}
 	
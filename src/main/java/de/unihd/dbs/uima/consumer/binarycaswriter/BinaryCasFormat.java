@@ -0,0 +1,112 @@
+package de.unihd.dbs.uima.consumer.binarycaswriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.cas.impl.Serialization;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.metadata.FeatureDescription;
+import org.apache.uima.resource.metadata.TypeDescription;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
+import org.apache.uima.util.CasCreationUtils;
+import org.apache.uima.util.TypeSystemUtil;
+
+import de.unihd.dbs.uima.types.heideltime.Dct;
+import de.unihd.dbs.uima.types.heideltime.Sentence;
+import de.unihd.dbs.uima.types.heideltime.Timex3;
+import de.unihd.dbs.uima.types.heideltime.Timex3Interval;
+import de.unihd.dbs.uima.types.heideltime.Token;
+
+/**
+ * Compressed binary (form 6) CAS serialization restricted to the types that
+ * downstream stages need from HeidelTime: {@link Token}, {@link Sentence},
+ * {@link Timex3}, {@link Timex3Interval} and {@link Dct}. All other
+ * annotations are dropped while writing, which keeps the output small and
+ * avoids the cost of XMI.
+ *
+ * Writer and reader both derive the filtered type system from the type system
+ * of their own CAS, so they agree on the format as long as they use the
+ * HeidelTime type system.
+ */
+public final class BinaryCasFormat {
+	/**
+	 * File extension used for serialized CASes
+	 */
+	public static final String EXTENSION = ".bcas";
+
+	private static final Set<String> KEPT_TYPES = new HashSet<String>(Arrays.asList(
+			Token.class.getName(),
+			Sentence.class.getName(),
+			Timex3.class.getName(),
+			Timex3Interval.class.getName(),
+			Dct.class.getName()));
+
+	private BinaryCasFormat() {
+	}
+
+	/**
+	 * Builds the type system describing the serialized form: the built-in
+	 * types plus the kept HeidelTime types with all features whose range is
+	 * still available.
+	 *
+	 * @param typeSystem full type system of the CAS to be written or read
+	 * @return the filtered target type system
+	 */
+	public static TypeSystem createFilteredTypeSystem(TypeSystem typeSystem) throws ResourceInitializationException {
+		TypeSystemDescription full = TypeSystemUtil.typeSystem2TypeSystemDescription(typeSystem);
+
+		Set<String> keptNames = new HashSet<String>();
+		List<TypeDescription> kept = new ArrayList<TypeDescription>();
+		for (TypeDescription type : full.getTypes()) {
+			if (type.getName().startsWith("uima.") || KEPT_TYPES.contains(type.getName())) {
+				kept.add(type);
+				keptNames.add(type.getName());
+			}
+		}
+
+		// drop features that point to types which are not serialized
+		for (TypeDescription type : kept) {
+			List<FeatureDescription> features = new ArrayList<FeatureDescription>();
+			for (FeatureDescription feature : type.getFeatures()) {
+				String range = feature.getRangeTypeName();
+				if (range.startsWith("uima.") || keptNames.contains(range))
+					features.add(feature);
+			}
+			type.setFeatures(features.toArray(new FeatureDescription[features.size()]));
+		}
+		full.setTypes(kept.toArray(new TypeDescription[kept.size()]));
+
+		return CasCreationUtils.createCas(full, null, null).getTypeSystem();
+	}
+
+	/**
+	 * Writes <code>cas</code> in compressed form 6, restricted to <code>filteredTypeSystem</code>.
+	 */
+	public static void serialize(CAS cas, TypeSystem filteredTypeSystem, OutputStream out) throws IOException {
+		try {
+			Serialization.serializeWithCompression(cas, out, filteredTypeSystem);
+		} catch (ResourceInitializationException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Reads a CAS written by {@link #serialize(CAS, TypeSystem, OutputStream)} into
+	 * <code>cas</code>, which is expected to be empty.
+	 */
+	public static void deserialize(CAS cas, TypeSystem filteredTypeSystem, InputStream in) throws IOException {
+		try {
+			Serialization.deserializeCAS(cas, in, filteredTypeSystem, null);
+		} catch (ResourceInitializationException e) {
+			throw new IOException(e);
+		}
+	}
+}
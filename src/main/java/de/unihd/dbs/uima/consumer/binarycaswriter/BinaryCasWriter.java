@@ -0,0 +1,74 @@
+package de.unihd.dbs.uima.consumer.binarycaswriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.collection.CasConsumer_ImplBase;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceProcessException;
+
+import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
+import de.unihd.dbs.uima.types.heideltime.Dct;
+
+/**
+ * Writes each CAS as a type-filtered, compressed binary file (see
+ * {@link BinaryCasFormat}) for consumption by a later UIMA process through
+ * the BinaryCasReader.
+ */
+public class BinaryCasWriter extends CasConsumer_ImplBase {
+	private Class<?> component = this.getClass();
+
+	private static final String PARAM_OUTPUTDIR = "OutputDir";
+
+	// counter for outputting documents. gets increased in case there is no DCT/filename info
+	private static final AtomicInteger outCount = new AtomicInteger();
+
+	private File mOutputDir;
+
+	private TypeSystem filteredTypeSystem;
+
+	public void initialize() throws ResourceInitializationException {
+		mOutputDir = new File((String) getConfigParameterValue(PARAM_OUTPUTDIR));
+
+		if (!mOutputDir.exists()) {
+			if(!mOutputDir.mkdirs()) {
+				Logger.printError(component, "Couldn't create non-existant folder "+mOutputDir.getAbsolutePath());
+				throw new ResourceInitializationException();
+			}
+		}
+
+		if(!mOutputDir.canWrite()) {
+			Logger.printError(component, "Folder "+mOutputDir.getAbsolutePath()+" is not writable.");
+			throw new ResourceInitializationException();
+		}
+	}
+
+	public void typeSystemInit(TypeSystem typeSystem) throws ResourceInitializationException {
+		filteredTypeSystem = BinaryCasFormat.createFilteredTypeSystem(typeSystem);
+	}
+
+	public void processCas(CAS aCAS) throws ResourceProcessException {
+		String filename = null;
+		try {
+			FSIterator<?> dcts = aCAS.getJCas().getAnnotationIndex(Dct.type).iterator();
+			filename = new File(((Dct) dcts.next()).getFilename()).getName();
+		} catch(Exception e) {
+			filename = "doc_" + outCount.incrementAndGet();
+		}
+
+		File outFile = new File(mOutputDir, filename + BinaryCasFormat.EXTENSION);
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+			BinaryCasFormat.serialize(aCAS, filteredTypeSystem, out);
+		} catch(IOException e) {
+			Logger.printError(component, "Could not write to output file: "+outFile.getAbsolutePath());
+			throw new ResourceProcessException(e);
+		}
+	}
+}
@@ -14,10 +14,9 @@
 
 package de.unihd.dbs.uima.consumer.eventi2014writer;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
@@ -30,8 +29,10 @@ import org.apache.uima.collection.CasConsumer_ImplBase;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.ResourceProcessException;
+import org.apache.uima.util.ProcessTrace;
 
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
+import de.unihd.dbs.uima.consumer.output.AsyncOutputWriter;
 import de.unihd.dbs.uima.types.heideltime.Dct;
 import de.unihd.dbs.uima.types.heideltime.Timex3;
 import de.unihd.dbs.uima.types.heideltime.Timex3Interval;
@@ -41,11 +42,16 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 	private Class<?> component = this.getClass();
 
 	private static final String PARAM_OUTPUTDIR = "OutputDir";
+	private static final String PARAM_OUTPUT_ARCHIVE = "OutputArchive";
+	private static final String PARAM_OUTPUT_QUEUE_SIZE = "OutputQueueSize";
+	
+	private static final Pattern MARKABLE_ID = Pattern.compile("m_id=\"([^\"]*)\"");
 	
 	// counter for outputting documents. gets increased in case there is no DCT/filename info 
 	private static volatile Integer outCount = 0;
 
 	private File mOutputDir;
+	private AsyncOutputWriter mOutput;
 
 	public void initialize() throws ResourceInitializationException {
 		mOutputDir = new File((String) getConfigParameterValue(PARAM_OUTPUTDIR));
@@ -61,6 +67,14 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 			Logger.printError(component, "Folder "+mOutputDir.getAbsolutePath()+" is not writable.");
 			throw new ResourceInitializationException();
 		}
+		
+		Integer queueSize = (Integer) getConfigParameterValue(PARAM_OUTPUT_QUEUE_SIZE);
+		try {
+			mOutput = new AsyncOutputWriter(mOutputDir, (String) getConfigParameterValue(PARAM_OUTPUT_ARCHIVE),
+					queueSize == null ? AsyncOutputWriter.DEFAULT_QUEUE_SIZE : queueSize, component);
+		} catch (IOException e) {
+			throw new ResourceInitializationException(e);
+		}
 	}
 	
 	public void processCas(CAS aCAS) throws ResourceProcessException {
@@ -72,7 +86,7 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 		}
 		
 		// prepare everything for document
-		String fullDocument = "";
+		StringBuilder fullDocument = new StringBuilder(jcas.getDocumentText().length() * 4 + 1024);
 		
 		// get the DCT
 		Dct dct = null;
@@ -91,15 +105,16 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 		// create the document according to the formatting requirements of EVENTI 2014
 
 		// first line: <Document doc_name="FILENAME">
-		String firstLine = "<Document doc_name=\"FILENAME\">\n";
-		fullDocument = firstLine.replaceAll("FILENAME", filename);
+		fullDocument.append("<Document doc_name=\"").append(filename).append("\">\n");
 		
 		// get the tokens and add them to fullDocument
+		ArrayList<Token> tokens = new ArrayList<Token>();
 		FSIterator itToken = jcas.getAnnotationIndex(Token.type).iterator();
 		int oldTokNum = 0;
 		int oldTokID  = 0;
 		while (itToken.hasNext()){
 			Token t = (Token) itToken.next();
+			tokens.add(t);
 			
 			String[] parts = t.getFilename().split("---");
 			String sentNum = parts[1];
@@ -109,29 +124,18 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 				
 				oldTokNum++;
 				oldTokID++;
-				String tokenLine = "<token t_id=\"TOKENID\" sentence=\"SENTENCEID\" number=\"TOKENNUMBER\">TOKENSTRING</token>\n";
-				tokenLine = tokenLine.replace("TOKENID", oldTokID+"");
-				tokenLine = tokenLine.replace("SENTENCEID", sentNum);
-				tokenLine = tokenLine.replace("TOKENNUMBER", oldTokNum+"");
-				tokenLine = tokenLine.replace("TOKENSTRING", "");
-				fullDocument = fullDocument + tokenLine;
+				appendToken(fullDocument, oldTokID+"", sentNum, oldTokNum+"", "");
 			}
 			
-			String tokenLine = "<token t_id=\"TOKENID\" sentence=\"SENTENCEID\" number=\"TOKENNUMBER\">TOKENSTRING</token>\n";
-			tokenLine = tokenLine.replace("TOKENID", t.getTokenId()+"");
-			tokenLine = tokenLine.replace("SENTENCEID", sentNum);
-			tokenLine = tokenLine.replace("TOKENNUMBER", tokNum);
-			tokenLine = tokenLine.replace("TOKENSTRING", t.getCoveredText());
+			appendToken(fullDocument, t.getTokenId()+"", sentNum, tokNum, t.getCoveredText());
 			oldTokNum = Integer.parseInt(tokNum);
 			oldTokID  = t.getTokenId();
 			
 //			System.err.println("TOKEN FOUND....-->" + t.getCoveredText() + "<--");
-			
-			fullDocument = fullDocument + tokenLine;
 		}
 		
 		// add opening markable tag
-		fullDocument = fullDocument + "\n\n<Markables>\n";
+		fullDocument.append("\n\n<Markables>\n");
 		
 		// collection for timexes which have an emptyValue attribute
 		HashMap<Timex3, Integer> emptyValueTimexes = new HashMap<Timex3, Integer>();
@@ -150,36 +154,25 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 			
 			// full tag - probably not required
 //			String open  = "<TIMEX3 m_id=\"MARKABLEID\" temporalFunction=\"FALSE\" functionInDocument=\"\" endPoint=\"\" anchorTimeID=\"\" mod=\"\" beginPoint=\"\" quant=\"\" freq=\"\" value=\"1985\" type=\"DATE\" comment=\"\"  >";
-			String open  = "<TIMEX3 m_id=\"MARKABLEID\" mod=\"MODSTRING\" "+
-								"quant=\"QUANTSTRING\" freq=\"FREQSTRING\" "+
-								"value=\"VALUESTRING\" type=\"TYPESTRING\"  >\n";
-			String tokenInfoSingle = "<token_anchor t_id=\"TOKENID\"/>\n";
-			String close = "</TIMEX3>\n";
-			
 			// set the attributes of the TIMEX3 annotations
-			open = open.replace("MARKABLEID", markableCounter+"");
-			open = open.replace("MODSTRING", t.getTimexMod());
-			open = open.replace("QUANTSTRING", t.getTimexQuant());
-			open = open.replace("FREQSTRING", t.getTimexFreq());
-			open = open.replace("VALUESTRING", t.getTimexValue());
-			open = open.replace("TYPESTRING", t.getTimexType());
-			fullDocument = fullDocument + open;
+			fullDocument.append("<TIMEX3 m_id=\"").append(markableCounter)
+				.append("\" mod=\"").append(t.getTimexMod())
+				.append("\" quant=\"").append(t.getTimexQuant())
+				.append("\" freq=\"").append(t.getTimexFreq())
+				.append("\" value=\"").append(t.getTimexValue())
+				.append("\" type=\"").append(t.getTimexType()).append("\"  >\n");
 			
-			// get the ids of the tokens which are involved
-
-			FSIterator tokenIt = jcas.getAnnotationIndex(Token.type).iterator();
-			while (tokenIt.hasNext())
-			{
-				Token tok = (Token) tokenIt.next();
-				if ((tok.getBegin() >= t.getBegin()) && (tok.getEnd() <= t.getEnd())){
-					int tokID = tok.getTokenId();
-					String line = tokenInfoSingle;
-					line = line.replace("TOKENID", tokID+"");
-					fullDocument = fullDocument + line;
-				}
+			// get the ids of the tokens which are involved. tokens are sorted by their
+			// begin, so only those starting within the timex have to be looked at
+			for (int i = firstTokenFrom(tokens, t.getBegin()); i < tokens.size(); i++) {
+				Token tok = tokens.get(i);
+				if (tok.getBegin() > t.getEnd())
+					break;
+				if (tok.getEnd() <= t.getEnd())
+					fullDocument.append("<token_anchor t_id=\"").append(tok.getTokenId()).append("\"/>\n");
 			}
 			
-			fullDocument = fullDocument + close;
+			fullDocument.append("</TIMEX3>\n");
 			
 			idTranslation.put(t.getTimexId(), markableCounter+"");
 			
@@ -187,17 +180,15 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 		}
 		
 		// add document creation time tag
-		Pattern p = Pattern.compile("m_id=\"([^\"]*)\"");
-		Matcher m = p.matcher(dctTag);
+		Matcher m = MARKABLE_ID.matcher(dctTag);
 		if(m.find())
 			dctTag = dctTag.substring(0, m.start(1)) + (markableCounter++) + dctTag.substring(m.end(1), dctTag.length());
-		fullDocument = fullDocument + dctTag + "\n";
+		fullDocument.append(dctTag).append('\n');
 		
 		// add empty tags
 		for(Entry<Timex3, Integer> entry : emptyValueTimexes.entrySet()) {
-			String open  = "<TIMEX3 m_id=\""+(markableCounter++)+"\" TAG_DESCRIPTOR=\"Empty_Mark\" anchorTimeID=\""+entry.getValue()+"\" value=\""+entry.getKey().getEmptyValue()+"\" type=\"DATE\" />\n";
-
-			fullDocument = fullDocument + open;
+			fullDocument.append("<TIMEX3 m_id=\"").append(markableCounter++).append("\" TAG_DESCRIPTOR=\"Empty_Mark\" anchorTimeID=\"").append(entry.getValue())
+				.append("\" value=\"").append(entry.getKey().getEmptyValue()).append("\" type=\"DATE\" />\n");
 		}
 		
 		// add empty tags from timex3intervals
@@ -207,42 +198,56 @@ public class Eventi2014Writer extends CasConsumer_ImplBase {
 			if(tx3i.getEmptyValue() != null && !tx3i.getEmptyValue().equals("")) {
 				String beginMarkable = idTranslation.get(tx3i.getBeginTimex());
 				String endMarkable = idTranslation.get(tx3i.getEndTimex());
-				fullDocument += "<TIMEX3 m_id=\""+(markableCounter++)+"\" TAG_DESCRIPTOR=\"Empty_Mark\" beginPoint=\""+beginMarkable+"\" endPoint=\""+endMarkable+"\" anchorTimeID=\""+beginMarkable+"\" value=\""+tx3i.getEmptyValue()+"\" type=\"DURATION\" />\n";
+				fullDocument.append("<TIMEX3 m_id=\"").append(markableCounter++).append("\" TAG_DESCRIPTOR=\"Empty_Mark\" beginPoint=\"").append(beginMarkable)
+					.append("\" endPoint=\"").append(endMarkable).append("\" anchorTimeID=\"").append(beginMarkable)
+					.append("\" value=\"").append(tx3i.getEmptyValue()).append("\" type=\"DURATION\" />\n");
 			}
 		}
 		
 		// add closing tag for markables
-		fullDocument += "</Markables>\n<Relations>\n</Relations>\n</Document>";
+		fullDocument.append("</Markables>\n<Relations>\n</Relations>\n</Document>");
 		
-		writeDocument(fullDocument, filename);
+		// hand the document over to the output thread
+		try {
+			mOutput.write(filename+".xml", fullDocument.toString());
+		} catch (IOException e) {
+			throw new ResourceProcessException(e);
+		}
+	}
+	
+	private static void appendToken(StringBuilder sb, String tokenId, String sentenceId, String tokenNumber, String text) {
+		sb.append("<token t_id=\"").append(tokenId).append("\" sentence=\"").append(sentenceId)
+			.append("\" number=\"").append(tokenNumber).append("\">").append(text).append("</token>\n");
+	}
+	
+	/**
+	 * @return index of the first token in <code>tokens</code> (sorted by begin) that begins at or after <code>begin</code>
+	 */
+	private static int firstTokenFrom(ArrayList<Token> tokens, int begin) {
+		int lo = 0, hi = tokens.size();
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (tokens.get(mid).getBegin() < begin)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
 	}
 
 
 	/**
-	 * writes a populated DOM xml(timeml) document to a given directory/file 
-	 * @param xmlDoc xml dom object
-	 * @param filename name of the file that gets appended to the set output path
+	 * wait for the pending documents to be written
 	 */
-	private void writeDocument(String fullDocument, String filename) {
-		// create output file handle
-		File outFile = new File(mOutputDir, filename+".xml"); 
-		
-		BufferedWriter bw = null;
+	public void collectionProcessComplete(ProcessTrace aTrace) throws ResourceProcessException, IOException {
+		mOutput.flush();
+	}
+	
+	public void destroy() {
 		try {
-			// create a buffered writer for the output file
-			bw = new BufferedWriter(new FileWriter(outFile));
-			bw.append(fullDocument);
-			
-		} catch (IOException e) { // something went wrong with the bufferedwriter
+			mOutput.close();
+		} catch (IOException e) {
 			e.printStackTrace();
-			Logger.printError(component, "File "+outFile.getAbsolutePath()+" could not be written.");
-		} finally { // clean up for the bufferedwriter
-			try {
-				bw.close();
-			} catch(IOException e) {
-				e.printStackTrace();
-				Logger.printError(component, "File "+outFile.getAbsolutePath()+" could not be closed.");
-			}
 		}
 	}
 
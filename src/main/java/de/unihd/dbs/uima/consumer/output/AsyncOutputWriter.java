@@ -0,0 +1,284 @@
+package de.unihd.dbs.uima.consumer.output;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
+
+/**
+ * Writes the output of the corpus writers on a background thread, so that
+ * the thread running the pipeline only has to serialize a document and can
+ * continue with the next CAS. Documents are passed through a bounded queue;
+ * when the disk cannot keep up, {@link #write(String, String)} blocks.
+ *
+ * Output goes either to individual files in the output directory, written
+ * through NIO file channels, or into a single zip archive. Files that are
+ * appended to over the course of a collection stay open until
+ * {@link #close()}; in archive mode they are collected in memory and added to
+ * the archive when it is closed.
+ */
+public class AsyncOutputWriter implements Closeable {
+	/**
+	 * Default number of documents that may wait for the writer thread
+	 */
+	public static final int DEFAULT_QUEUE_SIZE = 64;
+
+	/**
+	 * Interval in which blocked callers check whether the writer thread is still alive
+	 */
+	private static final long POLL_MILLIS = 100;
+
+	private static final Item STOP = new Item(null, null, false, null);
+
+	private static class Item {
+		final String name;
+		final byte[] content;
+		final boolean append;
+		final CountDownLatch flushed;
+
+		Item(String name, byte[] content, boolean append, CountDownLatch flushed) {
+			this.name = name;
+			this.content = content;
+			this.append = append;
+			this.flushed = flushed;
+		}
+	}
+
+	private final Class<?> component;
+	private final File outputDir;
+	private final BlockingQueue<Item> queue;
+	private final Thread thread;
+
+	private ZipOutputStream archive;
+	private final Map<String, FileChannel> appendChannels = new LinkedHashMap<String, FileChannel>();
+	private final Map<String, ByteArrayOutputStream> appendBuffers = new LinkedHashMap<String, ByteArrayOutputStream>();
+
+	private volatile IOException error;
+	private boolean closed = false;
+
+	/**
+	 * @param outputDir directory to write to
+	 * @param archiveName if not null or empty, name of a zip archive within
+	 *        <code>outputDir</code> that receives all documents
+	 * @param queueSize number of documents that may be queued
+	 * @param component component to report errors for
+	 */
+	public AsyncOutputWriter(File outputDir, String archiveName, int queueSize, Class<?> component) throws IOException {
+		this.component = component;
+		this.outputDir = outputDir;
+		this.queue = new ArrayBlockingQueue<Item>(Math.max(1, queueSize));
+
+		if (archiveName != null && !archiveName.isEmpty()) {
+			FileChannel channel = FileChannel.open(new File(outputDir, archiveName).toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			archive = new ZipOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+		}
+
+		thread = new Thread(this::run, component.getSimpleName() + "-output");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Queues <code>content</code> to be written to the file <code>name</code>,
+	 * replacing an existing file of that name.
+	 */
+	public void write(String name, String content) throws IOException {
+		put(new Item(name, content.getBytes(StandardCharsets.UTF_8), false, null));
+	}
+
+	/**
+	 * Queues <code>content</code> to be appended to the file <code>name</code>.
+	 */
+	public void append(String name, String content) throws IOException {
+		put(new Item(name, content.getBytes(StandardCharsets.UTF_8), true, null));
+	}
+
+	/**
+	 * Waits until everything queued so far has been written.
+	 *
+	 * @throws IOException if writing any of the documents failed
+	 */
+	public void flush() throws IOException {
+		CountDownLatch latch = new CountDownLatch(1);
+		put(new Item(null, null, false, latch));
+		try {
+			while (!latch.await(POLL_MILLIS, TimeUnit.MILLISECONDS))
+				checkAlive();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		checkError();
+	}
+
+	/**
+	 * Writes all queued documents, closes open files and finishes the archive.
+	 */
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			while (thread.isAlive() && !queue.offer(STOP, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				// the queue stays full if the writer thread has ended
+			}
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		checkError();
+	}
+
+	private void put(Item item) throws IOException {
+		checkError();
+		if (closed)
+			throw new IOException("Output writer is already closed");
+		try {
+			while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS))
+				checkAlive();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+	}
+
+	private void checkError() throws IOException {
+		if (error != null)
+			throw error;
+	}
+
+	/**
+	 * Fails if the writer thread has ended, as nothing would take from the queue anymore.
+	 */
+	private void checkAlive() throws IOException {
+		if (!thread.isAlive()) {
+			checkError();
+			throw new IOException("Output writer thread has stopped");
+		}
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				Item item = queue.take();
+				if (item == STOP)
+					break;
+				if (item.flushed != null) {
+					flushFiles();
+					item.flushed.countDown();
+					continue;
+				}
+				try {
+					if (archive != null)
+						writeToArchive(item);
+					else
+						writeToFile(item);
+				} catch (IOException | RuntimeException e) {
+					fail(item.name, e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Throwable e) {
+			fail(null, e);
+		} finally {
+			finish();
+		}
+	}
+
+	private void writeToFile(Item item) throws IOException {
+		if (item.append) {
+			FileChannel channel = appendChannels.get(item.name);
+			if (channel == null) {
+				channel = FileChannel.open(new File(outputDir, item.name).toPath(),
+						StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+				appendChannels.put(item.name, channel);
+			}
+			writeFully(channel, item.content);
+		} else {
+			try (FileChannel channel = FileChannel.open(new File(outputDir, item.name).toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				writeFully(channel, item.content);
+			}
+		}
+	}
+
+	private static void writeFully(FileChannel channel, byte[] content) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(content);
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+
+	private void writeToArchive(Item item) throws IOException {
+		if (item.append) {
+			// zip entries cannot be reopened, so appended files are added when closing
+			appendBuffers.computeIfAbsent(item.name, k -> new ByteArrayOutputStream()).write(item.content);
+		} else {
+			archive.putNextEntry(new ZipEntry(item.name));
+			archive.write(item.content);
+			archive.closeEntry();
+		}
+	}
+
+	private void flushFiles() {
+		try {
+			if (archive != null)
+				archive.flush();
+			for (FileChannel channel : appendChannels.values())
+				channel.force(false);
+		} catch (IOException e) {
+			fail(null, e);
+		}
+	}
+
+	private void finish() {
+		for (Map.Entry<String, FileChannel> entry : appendChannels.entrySet()) {
+			try {
+				entry.getValue().close();
+			} catch (IOException e) {
+				fail(entry.getKey(), e);
+			}
+		}
+		appendChannels.clear();
+
+		if (archive != null) {
+			try {
+				for (Map.Entry<String, ByteArrayOutputStream> entry : appendBuffers.entrySet()) {
+					archive.putNextEntry(new ZipEntry(entry.getKey()));
+					entry.getValue().writeTo(archive);
+					archive.closeEntry();
+				}
+				archive.close();
+			} catch (IOException e) {
+				fail(null, e);
+			}
+			appendBuffers.clear();
+		}
+	}
+
+	private void fail(String name, Throwable e) {
+		e.printStackTrace();
+		Logger.printError(component, (name == null ? "Output" : "File " + new File(outputDir, name).getAbsolutePath())
+				+ " could not be written.");
+		if (error == null)
+			error = e instanceof IOException ? (IOException) e : new IOException(e);
+	}
+}
@@ -14,9 +14,7 @@
 
 package de.unihd.dbs.uima.consumer.tempeval2writer;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 
 import org.apache.uima.cas.CAS;
@@ -27,7 +25,9 @@ import org.apache.uima.collection.CasConsumer_ImplBase;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.ResourceProcessException;
+import org.apache.uima.util.ProcessTrace;
 
+import de.unihd.dbs.uima.consumer.output.AsyncOutputWriter;
 import de.unihd.dbs.uima.types.heideltime.Timex3;
 
 /**
@@ -36,9 +36,14 @@ import de.unihd.dbs.uima.types.heideltime.Timex3;
  *
  */
 public class Tempeval2Writer extends CasConsumer_ImplBase {
+	private Class<?> component = this.getClass();
+
 	public static final String PARAM_OUTPUTDIR = "OutputDir";
+	public static final String PARAM_OUTPUT_ARCHIVE = "OutputArchive";
+	public static final String PARAM_OUTPUT_QUEUE_SIZE = "OutputQueueSize";
 
 	private File mOutputDir;
+	private AsyncOutputWriter mOutput;
 	
 	/**
 	 * initialize
@@ -48,6 +53,14 @@ public class Tempeval2Writer extends CasConsumer_ImplBase {
 		if (!mOutputDir.exists()) {
 			mOutputDir.mkdirs();
 		}
+		
+		Integer queueSize = (Integer) getConfigParameterValue(PARAM_OUTPUT_QUEUE_SIZE);
+		try {
+			mOutput = new AsyncOutputWriter(mOutputDir, (String) getConfigParameterValue(PARAM_OUTPUT_ARCHIVE),
+					queueSize == null ? AsyncOutputWriter.DEFAULT_QUEUE_SIZE : queueSize, component);
+		} catch (IOException e) {
+			throw new ResourceInitializationException(e);
+		}
 	}
 
 	/**
@@ -66,9 +79,9 @@ public class Tempeval2Writer extends CasConsumer_ImplBase {
 	}
 	
 	
-	public void printTimexAnnotations(JCas jcas) {
-		File outExtents = new File(mOutputDir, "timex-extents.tab");
-		File outAttributes = new File(mOutputDir, "timex-attributes.tab");
+	public void printTimexAnnotations(JCas jcas) throws ResourceProcessException {
+		StringBuilder toPrintExtents = new StringBuilder();
+		StringBuilder toPrintAttributes = new StringBuilder();
 		
 		// get timex index
 		FSIndex indexTimex   = jcas.getAnnotationIndex(Timex3.type);
@@ -79,35 +92,42 @@ public class Tempeval2Writer extends CasConsumer_ImplBase {
 			if (!((t.getType().toString().equals("de.unihd.dbs.uima.heidopp.types.tempeval2.GoldTimex3")))){
 				
 				// output extents
-				String toPrintExtents    = "";
 				String[] allTokList = t.getAllTokIds().split("<-->");
 				for (int i=1; i < allTokList.length; i++){
-					toPrintExtents    = toPrintExtents+t.getFilename()+"\t"+t.getSentId()+"\t"+allTokList[i]+
-					"\ttimex3\t"+t.getTimexId()+"\t1\n";					
-				}
-				
-				try {
-					BufferedWriter bf = new BufferedWriter(new FileWriter(outExtents, true));
-					bf.write(toPrintExtents);
-					bf.close();
-				} catch (IOException e) {
-					e.printStackTrace();
+					toPrintExtents.append(t.getFilename()).append('\t').append(t.getSentId()).append('\t').append(allTokList[i])
+						.append("\ttimex3\t").append(t.getTimexId()).append("\t1\n");
 				}
 
 				// output attributes
-				String toPrintAttributes = t.getFilename()+"\t"+t.getSentId()+"\t"+t.getFirstTokId()+
-											"\ttimex3\t"+t.getTimexId()+"\t1\ttype\t"+t.getTimexType()+"\n";
-				toPrintAttributes += t.getFilename()+"\t"+t.getSentId()+"\t"+t.getFirstTokId()+
-											"\ttimex3\t"+t.getTimexId()+"\t1\tvalue\t"+t.getTimexValue()+"\n";
-	
-				try {
-					BufferedWriter bf = new BufferedWriter(new FileWriter(outAttributes, true));
-					bf.write(toPrintAttributes);
-					bf.close();
-				} catch (IOException e1) {
-					e1.printStackTrace();
-				}
+				toPrintAttributes.append(t.getFilename()).append('\t').append(t.getSentId()).append('\t').append(t.getFirstTokId())
+					.append("\ttimex3\t").append(t.getTimexId()).append("\t1\ttype\t").append(t.getTimexType()).append('\n');
+				toPrintAttributes.append(t.getFilename()).append('\t').append(t.getSentId()).append('\t').append(t.getFirstTokId())
+					.append("\ttimex3\t").append(t.getTimexId()).append("\t1\tvalue\t").append(t.getTimexValue()).append('\n');
 			}
 		}
+		
+		try {
+			if (toPrintExtents.length() > 0)
+				mOutput.append("timex-extents.tab", toPrintExtents.toString());
+			if (toPrintAttributes.length() > 0)
+				mOutput.append("timex-attributes.tab", toPrintAttributes.toString());
+		} catch (IOException e) {
+			throw new ResourceProcessException(e);
+		}
+	}
+	
+	/**
+	 * wait for the pending output to be written
+	 */
+	public void collectionProcessComplete(ProcessTrace aTrace) throws ResourceProcessException, IOException {
+		mOutput.flush();
+	}
+	
+	public void destroy() {
+		try {
+			mOutput.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 	}
 }
@@ -1,20 +1,13 @@
 package de.unihd.dbs.uima.consumer.tempeval3writer;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.HashSet;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.uima.cas.CAS;
 import org.apache.uima.cas.CASException;
@@ -23,10 +16,10 @@ import org.apache.uima.collection.CasConsumer_ImplBase;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.ResourceProcessException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import org.apache.uima.util.ProcessTrace;
 
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
+import de.unihd.dbs.uima.consumer.output.AsyncOutputWriter;
 import de.unihd.dbs.uima.types.heideltime.Dct;
 import de.unihd.dbs.uima.types.heideltime.Timex3;
 
@@ -34,11 +27,17 @@ public class TempEval3Writer extends CasConsumer_ImplBase {
 	private Class<?> component = this.getClass();
 
 	private static final String PARAM_OUTPUTDIR = "OutputDir";
+	private static final String PARAM_OUTPUT_ARCHIVE = "OutputArchive";
+	private static final String PARAM_OUTPUT_QUEUE_SIZE = "OutputQueueSize";
+	
+	// XMLOutputFactory instances are thread-safe once configured
+	private static final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
 	
 	// counter for outputting documents. gets increased in case there is no DCT/filename info 
 	private static volatile Integer outCount = 0;
 
 	private File mOutputDir;
+	private AsyncOutputWriter mOutput;
 
 	public void initialize() throws ResourceInitializationException {
 		mOutputDir = new File((String) getConfigParameterValue(PARAM_OUTPUTDIR));
@@ -54,6 +53,14 @@ public class TempEval3Writer extends CasConsumer_ImplBase {
 			Logger.printError(component, "Folder "+mOutputDir.getAbsolutePath()+" is not writable.");
 			throw new ResourceInitializationException();
 		}
+		
+		Integer queueSize = (Integer) getConfigParameterValue(PARAM_OUTPUT_QUEUE_SIZE);
+		try {
+			mOutput = new AsyncOutputWriter(mOutputDir, (String) getConfigParameterValue(PARAM_OUTPUT_ARCHIVE),
+					queueSize == null ? AsyncOutputWriter.DEFAULT_QUEUE_SIZE : queueSize, component);
+		} catch (IOException e) {
+			throw new ResourceInitializationException(e);
+		}
 	}
 	
 	public void processCas(CAS aCAS) throws ResourceProcessException {
@@ -75,71 +82,68 @@ public class TempEval3Writer extends CasConsumer_ImplBase {
 		}
 
 		// assemble an XML document
-		Document xmlDoc = buildTimeMLDocument(jcas, dct, filename);
+		String xmlDoc;
+		try {
+			xmlDoc = buildTimeMLDocument(jcas, dct, filename);
+		} catch (XMLStreamException e) {
+			e.printStackTrace();
+			Logger.printError(component, "XML document for "+filename+" could not be created.");
+			throw new ResourceProcessException(e);
+		}
 		
-		// write the document to file
-		writeTimeMLDocument(xmlDoc, filename);
+		// hand the document over to the output thread
+		try {
+			mOutput.write(filename+".tml", xmlDoc);
+		} catch (IOException e) {
+			throw new ResourceProcessException(e);
+		}
 	}
 
 	/**
-	 * Creates a DOM Document filled with all of the timex3s that are in the jcas.
+	 * Serializes all of the timex3s that are in the jcas into a TimeML document.
 	 * @param jcas
 	 * @param dct the document's DCT
 	 * @return
 	 */
 	@SuppressWarnings("rawtypes")
-	private Document buildTimeMLDocument(JCas jcas, Dct dct, String filename) {
-		DocumentBuilderFactory dbf = null;
-		DocumentBuilder db = null;
-		Document doc = null;
-		
-		try {
-			dbf = DocumentBuilderFactory.newInstance();
-			dbf.setNamespaceAware(true);
-			db = dbf.newDocumentBuilder();
-			doc = db.newDocument();
-		} catch (ParserConfigurationException e) {
-			e.printStackTrace();
-			Logger.printError(component, "XML Builder could not be instantiated");
-		}
+	private String buildTimeMLDocument(JCas jcas, Dct dct, String filename) throws XMLStreamException {
+		StringWriter out = new StringWriter(jcas.getDocumentText().length() + 1024);
+		XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(out);
+		xml.writeStartDocument("UTF-8", "1.0");
 		
 		// create the TimeML root element
-		Element rootEl = doc.createElement("TimeML");
-		rootEl.setAttributeNS("xmlns", "xsi", "http://www.w3.org/2001/XMLSchema-instance");
-		rootEl.setAttributeNS("xsi", "noNamespaceSchemaLocation", "http://timeml.org/timeMLdocs/TimeML_1.2.1.xsd");
-		doc.appendChild(rootEl);
+		xml.writeStartElement("TimeML");
+		xml.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+		xml.writeAttribute("xsi", "http://www.w3.org/2001/XMLSchema-instance", "noNamespaceSchemaLocation", "http://timeml.org/timeMLdocs/TimeML_1.2.1.xsd");
 		
 		// create DOCID tag
-		Element docidEl = doc.createElement("DOCID");
-		docidEl.appendChild(doc.createTextNode(filename));
-		rootEl.appendChild(docidEl);
+		xml.writeStartElement("DOCID");
+		xml.writeCharacters(filename);
+		xml.writeEndElement();
 		
 		// create DCT tag
 		if(dct != null) {
-			Element dctEl = doc.createElement("DCT");
-	
-			Element timexForDCT = doc.createElement("TIMEX3");
-			timexForDCT.setAttribute("tid", "t0");
-			timexForDCT.setAttribute("type", "DATE");
-			timexForDCT.setAttribute("value", dct.getValue());
-			timexForDCT.setAttribute("temporalFunction", "false");
-			timexForDCT.setAttribute("functionInDocument", "CREATION_TIME");
-			timexForDCT.appendChild(doc.createTextNode(dct.getValue()));
-			
-			dctEl.appendChild(timexForDCT); // NEW		
-			rootEl.appendChild(dctEl);
+			xml.writeStartElement("DCT");
+			xml.writeStartElement("TIMEX3");
+			xml.writeAttribute("tid", "t0");
+			xml.writeAttribute("type", "DATE");
+			xml.writeAttribute("value", dct.getValue());
+			xml.writeAttribute("temporalFunction", "false");
+			xml.writeAttribute("functionInDocument", "CREATION_TIME");
+			xml.writeCharacters(dct.getValue());
+			xml.writeEndElement();
+			xml.writeEndElement();
 		}
 		
 		// create and fill the TEXT tag
 		Integer offset = 0;
-		Element textEl = doc.createElement("TEXT");
-		rootEl.appendChild(textEl);
+		xml.writeStartElement("TEXT");
 		
 		FSIterator it = jcas.getAnnotationIndex(Timex3.type).iterator();
 		// if there are no timexes, just add one text node as a child. otherwise, iterate through timexes
 		String docText = jcas.getDocumentText();
 		if(!it.hasNext()) {
-			textEl.appendChild(doc.createTextNode(docText));
+			xml.writeCharacters(docText);
 		} else {
 			HashSet<Timex3> timexesToSkip = new HashSet<Timex3>();
 			Timex3 prevT = null;
@@ -180,7 +184,7 @@ public class TempEval3Writer extends CasConsumer_ImplBase {
 			}
 			
 			it.moveToFirst(); // reset iterator for another loop
-			// iterate over timexes to write the DOM tree.
+			// iterate over timexes to write the document.
 			while(it.hasNext()) {
 				Timex3 t = (Timex3) it.next();
 				if((Class) t.getClass() != (Class) Timex3.class) // disregard types that inherit from Timex3
@@ -191,31 +195,29 @@ public class TempEval3Writer extends CasConsumer_ImplBase {
 					continue;
 				
 				if(t.getBegin() > offset) { 
-					// add a textnode that contains the text before the timex
-					textEl.appendChild(doc.createTextNode(docText.substring(offset, t.getBegin())));
+					// add the text before the timex
+					xml.writeCharacters(docText.substring(offset, t.getBegin()));
 				}
 				
 				// create the TIMEX3 element
-				Element newTimex = doc.createElement("TIMEX3");
+				xml.writeStartElement("TIMEX3");
 				
 				// set its required attributes
-				newTimex.setAttribute("tid", t.getTimexId());
-				newTimex.setAttribute("type", t.getTimexType());
-				newTimex.setAttribute("value", t.getTimexValue());
+				xml.writeAttribute("tid", t.getTimexId());
+				xml.writeAttribute("type", t.getTimexType());
+				xml.writeAttribute("value", t.getTimexValue());
 				
 				// set its optional attributes
 				if(!t.getTimexMod().equals(""))
-					newTimex.setAttribute("mod", t.getTimexMod());
+					xml.writeAttribute("mod", t.getTimexMod());
 				if(!t.getTimexQuant().equals(""))
-					newTimex.setAttribute("quant", t.getTimexQuant());
+					xml.writeAttribute("quant", t.getTimexQuant());
 				if(!t.getTimexFreq().equals(""))
-					newTimex.setAttribute("freq", t.getTimexFreq());
+					xml.writeAttribute("freq", t.getTimexFreq());
 				
 				// set text
-				newTimex.appendChild(doc.createTextNode(t.getCoveredText()));
-				
-				// add the timex tag to the text tag
-				textEl.appendChild(newTimex);
+				xml.writeCharacters(t.getCoveredText());
+				xml.writeEndElement();
 				
 				// set cursor to the end of the timex
 				offset = t.getEnd();
@@ -223,48 +225,29 @@ public class TempEval3Writer extends CasConsumer_ImplBase {
 			
 			// append the rest of the document text
 			if(offset < docText.length())
-				textEl.appendChild(doc.createTextNode(docText.substring(offset)));
+				xml.writeCharacters(docText.substring(offset));
 		}
 		
-		return doc;
+		xml.writeEndElement(); // TEXT
+		xml.writeEndElement(); // TimeML
+		xml.writeEndDocument();
+		xml.close();
+		
+		return out.toString();
 	}
 
 	/**
-	 * writes a populated DOM xml(timeml) document to a given directory/file 
-	 * @param xmlDoc xml dom object
-	 * @param filename name of the file that gets appended to the set output path
+	 * wait for the pending documents to be written
 	 */
-	private void writeTimeMLDocument(Document xmlDoc, String filename) {
-		// create output file handle
-		File outFile = new File(mOutputDir, filename+".tml"); 
-		
-		BufferedWriter bw = null;
+	public void collectionProcessComplete(ProcessTrace aTrace) throws ResourceProcessException, IOException {
+		mOutput.flush();
+	}
+	
+	public void destroy() {
 		try {
-			// create a buffered writer for the output file
-			bw = new BufferedWriter(new FileWriter(outFile));
-			
-			// prepare the transformer to convert from the xml doc to output text
-			Transformer transformer = TransformerFactory.newInstance().newTransformer();
-			// some pretty printing
-			transformer.setOutputProperty(OutputKeys.INDENT, "no");
-			DOMSource source = new DOMSource(xmlDoc);
-			StreamResult result = new StreamResult(bw);
-			
-			// transform
-			transformer.transform(source, result);
-		} catch (IOException e) { // something went wrong with the bufferedwriter
-			e.printStackTrace();
-			Logger.printError(component, "File "+outFile.getAbsolutePath()+" could not be written.");
-		} catch (TransformerException e) { // the transformer malfunctioned (call optimus prime)
+			mOutput.close();
+		} catch (IOException e) {
 			e.printStackTrace();
-			Logger.printError(component, "XML transformer could not be properly initialized.");
-		} finally { // clean up for the bufferedwriter
-			try {
-				bw.close();
-			} catch(IOException e) {
-				e.printStackTrace();
-				Logger.printError(component, "File "+outFile.getAbsolutePath()+" could not be closed.");
-			}
 		}
 	}
 
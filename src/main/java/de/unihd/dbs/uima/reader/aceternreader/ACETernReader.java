@@ -16,9 +16,10 @@ package de.unihd.dbs.uima.reader.aceternreader;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URL;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -30,12 +31,14 @@ import org.apache.uima.collection.CollectionReader_ImplBase;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceConfigurationException;
 import org.apache.uima.resource.ResourceInitializationException;
-import org.apache.uima.util.FileUtils;
 import org.apache.uima.util.Level;
 import org.apache.uima.util.Logger;
 import org.apache.uima.util.Progress;
 import org.apache.uima.util.ProgressImpl;
 
+import de.unihd.dbs.uima.reader.corpus.CorpusEntry;
+import de.unihd.dbs.uima.reader.corpus.CorpusFiles;
+import de.unihd.dbs.uima.reader.corpus.DocumentPrefetcher;
 import de.unihd.dbs.uima.types.heideltime.Dct;
 import de.unihd.dbs.uima.types.heideltime.SourceDocInfo;
 
@@ -60,19 +63,29 @@ public class ACETernReader extends CollectionReader_ImplBase {
 	 */
 	public static final String PARAM_INPUTDIR = "InputDirectory";
 	public static final String PARAM_DCT      = "AnnotateCreationTime";
+	public static final String PARAM_PREFETCH = "PrefetchCount";
 	public Boolean annotateDCT = false; 
 
 	/**
-	 * List containing all filenames of "documents"
+	 * All "documents" of the input directory or archive
 	 */
-	private ArrayList<File> mFiles;
-    
+	private CorpusFiles corpus;
+	
 	/**
-	 * Current file number
+	 * Reads and prepares the next documents in the background
 	 */
-	private int currentIndex;
-
-  
+	private DocumentPrefetcher<ACEDocument> documents;
+	
+	private static final Pattern paQuote = Pattern.compile("(?s)<QUOTE PREVIOUSPOST=.*?/>");
+	
+	/**
+	 * Document text and DCT of one file, computed before the CAS is filled
+	 */
+	static class ACEDocument {
+		String text;
+		String uri;
+		String dct;
+	}
 
 	
 	/**
@@ -85,23 +98,25 @@ public class ACETernReader extends CollectionReader_ImplBase {
 		
 		annotateDCT = (Boolean) getConfigParameterValue(PARAM_DCT);
 		
+		Integer prefetch = (Integer) getConfigParameterValue(PARAM_PREFETCH);
+		if (prefetch == null)
+			prefetch = DocumentPrefetcher.DEFAULT_PREFETCH;
+		
 		File directory = new File(((String) getConfigParameterValue(PARAM_INPUTDIR)).trim());
-		currentIndex = 0;
 		
-		// if input directory does not exist or is not a directory, throw exception
-		if (!directory.exists() || !directory.isDirectory()) {
+		// if input directory does not exist, throw exception
+		if (!directory.exists()) {
 			throw new ResourceInitializationException(ResourceConfigurationException.DIRECTORY_NOT_FOUND,
 					new Object[] { PARAM_INPUTDIR, this.getMetaData().getName(), directory.getPath() });
 		}
 
-		// get list of files (without subdirectories) in the specified directory
-		mFiles = new ArrayList<File>();
-		File[] files = directory.listFiles();
-		for (int i = 0; i < files.length; i++) {
-			if (!files[i].isDirectory()) {
-				mFiles.add(files[i]);
-			}
+		// get list of files (without subdirectories) in the specified directory or archive
+		try {
+			corpus = new CorpusFiles(directory, this.getClass());
+		} catch (IOException e) {
+			throw new ResourceInitializationException(e);
 		}
+		documents = new DocumentPrefetcher<ACEDocument>(corpus.getEntries(), this::parse, prefetch);
 	}
 
 	
@@ -109,7 +124,7 @@ public class ACETernReader extends CollectionReader_ImplBase {
 	 * @see org.apache.uima.collection.CollectionReader#hasNext()
 	 */
 	public boolean hasNext() {
-		return currentIndex < mFiles.size();
+		return documents.hasNext();
 	}
 
 	/**
@@ -124,24 +139,25 @@ public class ACETernReader extends CollectionReader_ImplBase {
 			throw new CollectionException(e);
 		}
 
-		// open input stream to file
-	    File file = (File) mFiles.get(currentIndex++);
+		CorpusEntry file = documents.peekEntry();
 		logger.log(Level.INFO, "getNext(CAS) - Reading file " + file.getName());
-	    
-
-	    String text = "";   
-	    String xml = FileUtils.file2String(file);
-	    text = xml;
+		ACEDocument doc;
+		try {
+			doc = documents.next();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CollectionException(e);
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
 
 	    // put document into CAS
-	    text = text.replaceAll("(?s)<QUOTE PREVIOUSPOST=.*?/>", "");
-	    jcas.setDocumentText(text);
+	    jcas.setDocumentText(doc.text);
 
 
 	    // Keep Source document information
 	    SourceDocInfo srcDocInfo = new SourceDocInfo(jcas);
-	    URL url = file.getAbsoluteFile().toURI().toURL();
-		srcDocInfo.setUri(url.toString());
+		srcDocInfo.setUri(doc.uri);
 	    srcDocInfo.addToIndexes();
 	    
 
@@ -151,12 +167,48 @@ public class ACETernReader extends CollectionReader_ImplBase {
 			 * if DCT shall be set, set it now
 			 */
 
-			setDCT(xml, jcas, url.toString());
+			addDCT(jcas, doc.dct, doc.uri);
 		}
 	}
+	
+	/**
+	 * Reads a file and does the text clean-up and DCT search, which only
+	 * depend on the raw file content
+	 */
+	private ACEDocument parse(CorpusEntry file) throws IOException {
+		ACEDocument doc = new ACEDocument();
+	    String xml = CorpusFiles.readString(file, Charset.defaultCharset());
+	    doc.uri = file.getUri();
+	    doc.text = paQuote.matcher(xml).replaceAll("");
+	    if (annotateDCT)
+	    	doc.dct = extractDCT(xml, doc.uri);
+	    return doc;
+	}
 
-	@SuppressWarnings("unused")
 	public void setDCT(String xml, JCas jcas, String filename){
+		addDCT(jcas, extractDCT(xml, filename), filename);
+	}
+	
+	private void addDCT(JCas jcas, String value, String filename){
+		if (value == null)
+			return;
+		Dct dct = new Dct(jcas);
+		dct.setBegin(0);
+		dct.setEnd(1);
+		dct.setFilename(filename);
+		dct.setTimexId("dct");
+		dct.setValue(value);
+		dct.addToIndexes();
+	}
+	
+	/**
+	 * Finds the document creation time in the raw document. Does not touch
+	 * the CAS, so it can run on a prefetching thread.
+	 * 
+	 * @return the DCT value or null if none was found
+	 */
+	@SuppressWarnings("unused")
+	public String extractDCT(String xml, String filename){
 		
 		// SET DOCUMENT CREATION TIME!!!!
 		// possible tags for DCT:
@@ -251,24 +303,12 @@ public class ACETernReader extends CollectionReader_ImplBase {
 				System.err.println("["+compontent_id+"] cannot set dct with datetimetag: "+datetimetag);
 			}
 			if (!(date_value == null)){
-				Dct dct = new Dct(jcas);
-				dct.setBegin(0);
-				dct.setEnd(1);
-				dct.setFilename(filename);
-				dct.setTimexId("dct");
 				if (!(time_value == null)){
-					dct.setValue(time_value);
-//					System.err.println("["+compontent_id+"] set dct to: "+time_value);
-				}else if (!(date_value == null)){
-					dct.setValue(date_value);
-//					System.err.println("["+compontent_id+"] set dct to: "+date_value);
-				}
-				else{
-					System.err.println();
-					System.err.println("["+compontent_id+"] something wrong with setting DCT of : "+datetimetag);
+					return time_value;
 				}
-				dct.addToIndexes();
+				return date_value;
 			}
+			return null;
 		}
 		else{
 			if (date_value == null){
@@ -366,15 +406,7 @@ public class ACETernReader extends CollectionReader_ImplBase {
 				System.err.println();
 				System.err.println("["+compontent_id+"] Cannot set Document Creation Time - no datetimetag found in "+filename+"!");
 			}
-			else{
-				Dct dct = new Dct(jcas);
-				dct.setBegin(0);
-				dct.setEnd(1);
-				dct.setFilename(filename);
-				dct.setTimexId("dct");
-				dct.setValue(date_value);
-				dct.addToIndexes();
-			}
+			return date_value;
 		}
 	}
 	
@@ -456,13 +488,15 @@ public class ACETernReader extends CollectionReader_ImplBase {
 	 * @see org.apache.uima.collection.base_cpm.BaseCollectionReader#close()
 	 */
 	public void close() throws IOException {
+		documents.close();
+		corpus.close();
 	}
 
 	/**
 	 * @see org.apache.uima.collection.base_cpm.BaseCollectionReader#getProgress()
 	 */
 	public Progress[] getProgress() {
-		return new Progress[] { new ProgressImpl(currentIndex, mFiles.size(), Progress.ENTITIES) };
+		return new Progress[] { new ProgressImpl(documents.getConsumed(), documents.size(), Progress.ENTITIES) };
 	}
 
 	/**
@@ -472,7 +506,7 @@ public class ACETernReader extends CollectionReader_ImplBase {
 	 * @return the number of documents in the collection
 	 */
 	public int getNumberOfDocuments() {
-		return mFiles.size();
+		return documents.size();
 	}
   
 	/**
@@ -0,0 +1,86 @@
+package de.unihd.dbs.uima.reader.binarycasreader;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.collection.CollectionException;
+import org.apache.uima.collection.CollectionReader_ImplBase;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.util.Progress;
+import org.apache.uima.util.ProgressImpl;
+
+import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
+import de.unihd.dbs.uima.consumer.binarycaswriter.BinaryCasFormat;
+
+/**
+ * Reads the files written by the BinaryCasWriter (or by the standalone
+ * binary output mode) back into CASes.
+ */
+public class BinaryCasReader extends CollectionReader_ImplBase {
+	private Class<?> component = this.getClass();
+
+	// uima descriptor parameter name
+	private String PARAM_INPUTDIR = "InputDirectory";
+
+	private Integer numberOfDocuments = 0;
+
+	private Queue<File> files = new LinkedList<File>();
+
+	private TypeSystem filteredTypeSystem;
+
+	public void initialize() throws ResourceInitializationException {
+		String dirPath = (String) getConfigParameterValue(PARAM_INPUTDIR);
+		dirPath = dirPath.trim();
+
+		File dir = new File(dirPath);
+		if(!dir.exists() || !dir.isDirectory())
+			throw new ResourceInitializationException();
+
+		File[] myFiles = dir.listFiles();
+		Arrays.sort(myFiles);
+		for(File f : myFiles) {
+			if(!f.isFile() || !f.canRead() || !f.getName().endsWith(BinaryCasFormat.EXTENSION)) {
+				Logger.printDetail(component, "File \""+f.getAbsolutePath()+"\" was ignored because it either wasn't a readable file or isn't a binary CAS.");
+			} else {
+				files.add(f);
+			}
+		}
+
+		numberOfDocuments = files.size();
+	}
+
+	public void getNext(CAS aCAS) throws IOException, CollectionException {
+		if(filteredTypeSystem == null) {
+			try {
+				filteredTypeSystem = BinaryCasFormat.createFilteredTypeSystem(aCAS.getTypeSystem());
+			} catch (ResourceInitializationException e) {
+				throw new CollectionException(e);
+			}
+		}
+
+		File f = files.poll();
+		try (InputStream in = new BufferedInputStream(new FileInputStream(f))) {
+			BinaryCasFormat.deserialize(aCAS, filteredTypeSystem, in);
+		}
+	}
+
+	public boolean hasNext() throws IOException, CollectionException {
+		return files.size() > 0;
+	}
+
+	public Progress[] getProgress() {
+		return new Progress[] { new ProgressImpl(numberOfDocuments-files.size(), numberOfDocuments, Progress.ENTITIES) };
+	}
+
+	public void close() throws IOException {
+		files.clear();
+	}
+}
@@ -0,0 +1,50 @@
+package de.unihd.dbs.uima.reader.corpus;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A single document of a corpus, either a plain file, a gzip compressed file
+ * or an entry of a zip archive.
+ */
+public class CorpusEntry {
+	/**
+	 * Opens a fresh stream on the (uncompressed) document content
+	 */
+	public interface Opener {
+		InputStream open() throws IOException;
+	}
+
+	private final String name;
+	private final String uri;
+	private final Opener opener;
+
+	public CorpusEntry(String name, String uri, Opener opener) {
+		this.name = name;
+		this.uri = uri;
+		this.opener = opener;
+	}
+
+	/**
+	 * @return file name of the document without directories and without a
+	 *         trailing <code>.gz</code>
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return location of the document, a <code>jar:</code> URI for archive entries
+	 */
+	public String getUri() {
+		return uri;
+	}
+
+	public InputStream open() throws IOException {
+		return opener.open();
+	}
+
+	public String toString() {
+		return uri;
+	}
+}
@@ -0,0 +1,120 @@
+package de.unihd.dbs.uima.reader.corpus;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
+
+/**
+ * Enumerates the documents of a corpus. The input may be a directory, a zip
+ * archive or a mix of both: plain files are read as they are, files ending in
+ * <code>.gz</code> are decompressed on the fly and <code>.zip</code> archives
+ * contribute all of their file entries. Archives stay open until
+ * {@link #close()} is called.
+ */
+public class CorpusFiles implements Closeable {
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Class<?> component;
+	private final List<CorpusEntry> entries = new ArrayList<CorpusEntry>();
+	private final List<ZipFile> archives = new ArrayList<ZipFile>();
+
+	/**
+	 * @param input directory or zip archive
+	 * @param component component to report skipped files for
+	 * @throws IOException if the input does not exist or an archive cannot be opened
+	 */
+	public CorpusFiles(File input, Class<?> component) throws IOException {
+		this.component = component;
+
+		if (input.isDirectory()) {
+			File[] files = input.listFiles();
+			if (files == null)
+				throw new IOException("Cannot list directory " + input.getAbsolutePath());
+			for (File f : files)
+				add(f);
+		} else if (input.isFile() && isZip(input)) {
+			add(input);
+		} else {
+			throw new IOException("Input " + input.getAbsolutePath() + " is neither a directory nor a zip archive");
+		}
+	}
+
+	public List<CorpusEntry> getEntries() {
+		return entries;
+	}
+
+	private void add(final File f) throws IOException {
+		if (!f.exists() || !f.isFile() || !f.canRead()) {
+			Logger.printDetail(component, "File \"" + f.getAbsolutePath() + "\" was ignored because it either didn't exist, wasn't a file or wasn't readable.");
+			return;
+		}
+
+		final String uri = f.getAbsoluteFile().toURI().toString();
+		if (isZip(f)) {
+			final ZipFile zip = new ZipFile(f);
+			archives.add(zip);
+			Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+			while (zipEntries.hasMoreElements()) {
+				final ZipEntry zipEntry = zipEntries.nextElement();
+				if (zipEntry.isDirectory())
+					continue;
+				String name = stripGz(new File(zipEntry.getName()).getName());
+				final boolean gz = zipEntry.getName().endsWith(".gz");
+				entries.add(new CorpusEntry(name, "jar:" + uri + "!/" + zipEntry.getName(), () -> {
+					InputStream in = new BufferedInputStream(zip.getInputStream(zipEntry), BUFFER_SIZE);
+					return gz ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+				}));
+			}
+		} else if (f.getName().endsWith(".gz")) {
+			entries.add(new CorpusEntry(stripGz(f.getName()), uri,
+					() -> new GZIPInputStream(new FileInputStream(f), BUFFER_SIZE)));
+		} else {
+			entries.add(new CorpusEntry(f.getName(), uri,
+					() -> new BufferedInputStream(new FileInputStream(f), BUFFER_SIZE)));
+		}
+	}
+
+	private static boolean isZip(File f) {
+		return f.getName().toLowerCase(Locale.ROOT).endsWith(".zip");
+	}
+
+	private static String stripGz(String name) {
+		return name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+	}
+
+	/**
+	 * Reads the complete content of an entry
+	 */
+	public static String readString(CorpusEntry entry, Charset charset) throws IOException {
+		try (Reader reader = new InputStreamReader(entry.open(), charset)) {
+			StringBuilder sb = new StringBuilder();
+			char[] buffer = new char[BUFFER_SIZE];
+			int read;
+			while ((read = reader.read(buffer)) != -1)
+				sb.append(buffer, 0, read);
+			return sb.toString();
+		}
+	}
+
+	public void close() throws IOException {
+		for (ZipFile zip : archives)
+			zip.close();
+		archives.clear();
+		entries.clear();
+	}
+}
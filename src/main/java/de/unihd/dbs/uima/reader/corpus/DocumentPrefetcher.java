@@ -0,0 +1,128 @@
+package de.unihd.dbs.uima.reader.corpus;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parses the documents of a corpus ahead of time. While the pipeline works on
+ * the current document, up to <code>prefetch</code> following documents are
+ * read and parsed on background threads; documents are still handed out in
+ * corpus order. Only the reader-specific intermediate representation is built
+ * in the background, filling the CAS stays on the calling thread.
+ *
+ * @param <T> parsed representation of a document
+ */
+public class DocumentPrefetcher<T> implements Closeable {
+	/**
+	 * Turns a corpus entry into its parsed representation. Must be thread-safe.
+	 */
+	public interface Parser<T> {
+		T parse(CorpusEntry entry) throws Exception;
+	}
+
+	/**
+	 * Default number of documents parsed ahead
+	 */
+	public static final int DEFAULT_PREFETCH = 4;
+
+	private final List<CorpusEntry> entries;
+	private final Parser<T> parser;
+	private final int prefetch;
+	private final ExecutorService executor;
+	private final Deque<Future<T>> pending = new ArrayDeque<Future<T>>();
+	private int submitted = 0;
+	private int consumed = 0;
+
+	/**
+	 * @param entries documents to parse, in output order
+	 * @param parser parser for a single document
+	 * @param prefetch number of documents to parse ahead; 0 parses each document on demand
+	 */
+	public DocumentPrefetcher(List<CorpusEntry> entries, Parser<T> parser, int prefetch) {
+		this.entries = entries;
+		this.parser = parser;
+		this.prefetch = Math.max(0, prefetch);
+		if (this.prefetch > 0) {
+			int threads = Math.min(this.prefetch, Runtime.getRuntime().availableProcessors());
+			executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+				Thread t = new Thread(r, "corpus-prefetch");
+				t.setDaemon(true);
+				return t;
+			});
+		} else {
+			executor = null;
+		}
+	}
+
+	public boolean hasNext() {
+		return consumed < entries.size();
+	}
+
+	/**
+	 * @return the entry that the next call to {@link #next()} returns the content of
+	 */
+	public CorpusEntry peekEntry() {
+		return entries.get(consumed);
+	}
+
+	/**
+	 * Returns the next parsed document, waiting for it if it is not ready yet.
+	 *
+	 * @throws ExecutionException wrapping the parser's exception if the document
+	 *         could not be parsed
+	 */
+	public T next() throws ExecutionException, InterruptedException {
+		fill();
+		Future<T> head = pending.poll();
+		consumed++;
+		if (executor != null)
+			fill(); // keep the background threads busy while the caller waits
+		return head.get();
+	}
+
+	/**
+	 * @return number of documents handed out so far
+	 */
+	public int getConsumed() {
+		return consumed;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private void fill() {
+		int window = Math.max(1, prefetch);
+		while (submitted < entries.size() && pending.size() < window) {
+			final CorpusEntry entry = entries.get(submitted++);
+			Callable<T> task = () -> parser.parse(entry);
+			if (executor != null) {
+				pending.add(executor.submit(task));
+			} else {
+				CompletableFuture<T> future = new CompletableFuture<T>();
+				try {
+					future.complete(task.call());
+				} catch (Exception e) {
+					future.completeExceptionally(e);
+				}
+				pending.add(future);
+			}
+		}
+	}
+
+	public void close() {
+		for (Future<T> future : pending)
+			future.cancel(true);
+		pending.clear();
+		if (executor != null)
+			executor.shutdownNow();
+	}
+}
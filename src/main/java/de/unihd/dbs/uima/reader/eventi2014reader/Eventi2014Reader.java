@@ -14,13 +14,15 @@
 
 package de.unihd.dbs.uima.reader.eventi2014reader;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
@@ -30,12 +32,14 @@ import org.apache.uima.collection.CollectionException;
 import org.apache.uima.collection.CollectionReader_ImplBase;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
-import org.apache.uima.util.FileUtils;
 import org.apache.uima.util.Progress;
 import org.apache.uima.util.ProgressImpl;
 
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Toolbox;
+import de.unihd.dbs.uima.reader.corpus.CorpusEntry;
+import de.unihd.dbs.uima.reader.corpus.CorpusFiles;
+import de.unihd.dbs.uima.reader.corpus.DocumentPrefetcher;
 import de.unihd.dbs.uima.types.heideltime.Dct;
 import de.unihd.dbs.uima.types.heideltime.Sentence;
 import de.unihd.dbs.uima.types.heideltime.Token;
@@ -48,8 +52,11 @@ public class Eventi2014Reader extends CollectionReader_ImplBase {
 	
 	// uima descriptor parameter name
 	private String PARAM_INPUTDIR = "InputDirectory";
+	private String PARAM_PREFETCH = "PrefetchCount";
 	
-	private Integer numberOfDocuments = 0;
+	private static final Pattern paDocument = Pattern.compile("<Document doc_name=\"(.*?)\">");
+	private static final Pattern paToken = Pattern.compile("<token t_id=\"(.*?)\" sentence=\"(.*?)\" number=\"(.*?)\">(.*?)</token>");
+	private static final Pattern paDct = Pattern.compile("(<TIMEX3 .*? TAG_DESCRIPTOR=\"D[CP]T\" .*? value=\"(.*?)\".*?/>)");
 	
 	// For improving the formatting of the documentText 
 	// -> to not have a space between all the tokens
@@ -57,12 +64,56 @@ public class Eventi2014Reader extends CollectionReader_ImplBase {
 	private HashSet<String> hsNoSpaceBefore = new HashSet<String>();
 	private HashSet<String> hsNoSpaceBehind = new HashSet<String>();
 	
-	private Queue<File> files = new LinkedList<File>();
+	private CorpusFiles corpus;
+	
+	private DocumentPrefetcher<EventiDocument> documents;
+	
+	/**
+	 * Document text and annotation offsets of one Eventi file, computed in the
+	 * background before the CAS is filled
+	 */
+	static class EventiDocument {
+		StringBuilder text = new StringBuilder();
+		String filename = "";
+		String fullDctTag = "";
+		String dct = "";
+		List<SentenceSpan> sentences = new ArrayList<SentenceSpan>();
+		List<TokenSpan> tokens = new ArrayList<TokenSpan>();
+	}
+	
+	static class SentenceSpan {
+		final int begin, end;
+		final String filename;
+		
+		SentenceSpan(int begin, int end, String filename) {
+			this.begin = begin;
+			this.end = end;
+			this.filename = filename;
+		}
+	}
+	
+	static class TokenSpan {
+		final int begin, end, tokID, sentNum, tokNum;
+		final String filename;
+		
+		TokenSpan(int begin, int end, int tokID, String filename, int sentNum, int tokNum) {
+			this.begin = begin;
+			this.end = end;
+			this.tokID = tokID;
+			this.filename = filename;
+			this.sentNum = sentNum;
+			this.tokNum = tokNum;
+		}
+	}
 	
 	public void initialize() throws ResourceInitializationException {
 		String dirPath = (String) getConfigParameterValue(PARAM_INPUTDIR);
 		dirPath = dirPath.trim();
 		
+		Integer prefetch = (Integer) getConfigParameterValue(PARAM_PREFETCH);
+		if(prefetch == null)
+			prefetch = DocumentPrefetcher.DEFAULT_PREFETCH;
+		
 		hsNoSpaceBefore.add(".");
 		hsNoSpaceBefore.add(",");
 		hsNoSpaceBefore.add(":");
@@ -73,7 +124,12 @@ public class Eventi2014Reader extends CollectionReader_ImplBase {
 		
 		hsNoSpaceBehind.add("(");
 		
-		populateFileList(dirPath);
+		try {
+			corpus = new CorpusFiles(new File(dirPath), component);
+		} catch(IOException e) {
+			throw new ResourceInitializationException(e);
+		}
+		documents = new DocumentPrefetcher<EventiDocument>(corpus.getEntries(), this::parse, prefetch);
 	}
 
 	public void getNext(CAS aCAS) throws IOException, CollectionException {
@@ -100,122 +156,154 @@ public class Eventi2014Reader extends CollectionReader_ImplBase {
 
 	private void fillJCas(JCas jcas) throws IOException, CollectionException {
 		// grab a file to process
-		File f = files.poll();
+		CorpusEntry f = documents.peekEntry();
+		EventiDocument doc;
+		try {
+			doc = documents.next();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CollectionException(e);
+		} catch(ExecutionException e) {
+			Logger.printError(component, "File "+f.getUri()+" could not be read.");
+			throw new IOException(e.getCause());
+		}
 		
-	    String text = "";   
-	    String xml = FileUtils.file2String(f);
-	    
-	    String[] lines = xml.split("\n");
-	    
-	    String fullDctTag = "";
-	    String dct = "";
-	    String filename = "";
-	    String lastTok = "";
-	    int sentBegin = 0;
-	    int sentEnd  = -1;
+		for (SentenceSpan s : doc.sentences)
+			addSentenceAnnotation(jcas, s.begin, s.end, s.filename);
+		for (TokenSpan t : doc.tokens)
+			addTokenAnnotation(jcas, t.begin, t.end, t.tokID, t.filename, t.sentNum, t.tokNum);
+		
+		String text = doc.text.toString();
+		jcas.setDocumentText(text);
 	    
-	    for (String line : lines) {
-	    	
-	    	// get document name
-			if (line.startsWith("<Document doc_name=")){
-				Pattern paConstraint = Pattern.compile("<Document doc_name=\"(.*?)\">");
-				for (MatchResult mr : Toolbox.findMatches(paConstraint,line)) {
-					filename = mr.group(1);
+	    // add DCT to jcas
+	    if (!(doc.dct.equals(""))){
+		    Dct dctAnnotation  = new Dct(jcas);
+		    dctAnnotation.setBegin(0);
+		    dctAnnotation.setEnd(text.length());
+		    dctAnnotation.setFilename(doc.filename + "---" + doc.fullDctTag);
+		    dctAnnotation.setValue(doc.dct);
+		    dctAnnotation.addToIndexes();
+	    }
+	}
+	
+	/**
+	 * Reads an Eventi file line by line and computes the document text and the
+	 * token and sentence offsets.
+	 */
+	private EventiDocument parse(CorpusEntry entry) throws IOException {
+		EventiDocument doc = new EventiDocument();
+		
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(entry.open(), Charset.defaultCharset()))) {
+			LineState state = new LineState();
+			StringBuilder line = new StringBuilder();
+			int c;
+			while ((c = reader.read()) != -1) {
+				if (c == '\n') {
+					parseLine(line.toString(), doc, state);
+					line.setLength(0);
+				} else {
+					line.append((char) c);
 				}
 			}
+			if (line.length() > 0)
+				parseLine(line.toString(), doc, state);
 			
-			// handle the tokens
-			if (line.startsWith("<token")){
-				
-				// get token text, token ID, token number, sentence number
-				Pattern paConstraint = Pattern.compile("<token t_id=\"(.*?)\" sentence=\"(.*?)\" number=\"(.*?)\">(.*?)</token>");
-				for (MatchResult mr : Toolbox.findMatches(paConstraint,line)) {
+			// add the very last sentence annotation
+			doc.sentences.add(new SentenceSpan(state.sentBegin, state.sentEnd, state.filename));
+			doc.filename = state.filename;
+		}
+		
+		return doc;
+	}
+	
+	/**
+	 * Running state while walking through the lines of a file
+	 */
+	private static class LineState {
+		String filename = "";
+		String lastTok = "";
+		int sentBegin = 0;
+		int sentEnd  = -1;
+	}
+	
+	private void parseLine(String line, EventiDocument doc, LineState state) {
+		StringBuilder text = doc.text;
+		
+    	// get document name
+		if (line.startsWith("<Document doc_name=")){
+			for (MatchResult mr : Toolbox.findMatches(paDocument,line)) {
+				state.filename = mr.group(1);
+			}
+		}
+		
+		// handle the tokens
+		if (line.startsWith("<token")){
+			
+			// get token text, token ID, token number, sentence number
+			for (MatchResult mr : Toolbox.findMatches(paToken,line)) {
 
-					String token   = mr.group(4); 
-//					System.err.println("INPUT: -->" + token + "<--");
-					int tokID   = Integer.parseInt(mr.group(1));
-					int sentNum = Integer.parseInt(mr.group(2));
-					int tokNum  = Integer.parseInt(mr.group(3));
-					
-					// prepare token annotation
-					int tokBegin;
-					int tokEnd;
-					
-					// first token in sentence
-					if (text.equals("")){
-						tokBegin = 0;
-						tokEnd   = token.length();
-						text  = token;
-						lastTok = token;
+				String token   = mr.group(4); 
+				int tokID   = Integer.parseInt(mr.group(1));
+				int sentNum = Integer.parseInt(mr.group(2));
+				int tokNum  = Integer.parseInt(mr.group(3));
+				
+				// prepare token annotation
+				int tokBegin;
+				int tokEnd;
+				
+				// first token in sentence
+				if (text.length() == 0){
+					tokBegin = 0;
+					tokEnd   = token.length();
+					text.append(token);
+					state.lastTok = token;
+				}
+				else{
+					// tokens without space before the tokens
+					if (hsNoSpaceBefore.contains(token)){
+						tokBegin = text.length();
+						tokEnd   = tokBegin + token.length();
+						text.append(token);
+						state.lastTok = token;
 					}
 					else{
-						// tokens without space before the tokens
-						if (hsNoSpaceBefore.contains(token)){
-							tokBegin = text.length();
-							tokEnd   = tokBegin + token.length();
-							text  = text + token;
-							lastTok = token;
+						// tokens without space behind the tokens
+						if (!(hsNoSpaceBehind.contains(state.lastTok))){
+							tokBegin = text.length()+ 1;
+							text.append(' ').append(token);
 						}
-//						// empty tokens
-//						else if (token.equals("")){
-//							tokBegin = text.length();
-//							tokEnd   = tokBegin + token.length();
-//							text  = text + token;
-//							lastTok = token;
-//						}
+						// all other tokens
 						else{
-							// tokens without space behind the tokens
-							if (!(hsNoSpaceBehind.contains(lastTok))){
-								tokBegin = text.length()+ 1;
-								text  = text + " " + token;
-							}
-							// all other tokens
-							else{
-								tokBegin = text.length();
-								text = text + token;
-							}
-							tokEnd   = tokBegin + token.length();
-							lastTok = token;
-						}
-					}
-					// check for new sentences
-					if (tokNum == 0){
-						if (sentEnd >= 0){
-							// add sentence annotation, once a new sentence starts
-							addSentenceAnnotation(jcas, sentBegin, sentEnd, filename);
+							tokBegin = text.length();
+							text.append(token);
 						}
-						sentBegin = tokBegin;
+						tokEnd   = tokBegin + token.length();
+						state.lastTok = token;
 					}
-					// add the token annotation
-					addTokenAnnotation(jcas, tokBegin, tokEnd, tokID, filename, sentNum, tokNum);
-					sentEnd = tokEnd;
 				}
-			}
-			
-			// get the document creation time
-			if (line.startsWith("<TIMEX3")){
-				Pattern paConstraint = Pattern.compile("(<TIMEX3 .*? TAG_DESCRIPTOR=\"D[CP]T\" .*? value=\"(.*?)\".*?/>)");
-				for (MatchResult mr : Toolbox.findMatches(paConstraint,line)) {
-					fullDctTag = mr.group(1); 
-					dct = mr.group(2);
-					System.err.println("DCT: " + dct);
+				// check for new sentences
+				if (tokNum == 0){
+					if (state.sentEnd >= 0){
+						// add sentence annotation, once a new sentence starts
+						doc.sentences.add(new SentenceSpan(state.sentBegin, state.sentEnd, state.filename));
+					}
+					state.sentBegin = tokBegin;
 				}
+				// add the token annotation
+				doc.tokens.add(new TokenSpan(tokBegin, tokEnd, tokID, state.filename, sentNum, tokNum));
+				state.sentEnd = tokEnd;
 			}
-	    }
-	    // add the very last sentence annotation
-	    addSentenceAnnotation(jcas, sentBegin, sentEnd, filename);
-	    jcas.setDocumentText(text);
-	    
-	    // add DCT to jcas
-	    if (!(dct.equals(""))){
-		    Dct dctAnnotation  = new Dct(jcas);
-		    dctAnnotation.setBegin(0);
-		    dctAnnotation.setEnd(text.length());
-		    dctAnnotation.setFilename(filename + "---" + fullDctTag);
-		    dctAnnotation.setValue(dct);
-		    dctAnnotation.addToIndexes();
-	    }
+		}
 		
+		// get the document creation time
+		if (line.startsWith("<TIMEX3")){
+			for (MatchResult mr : Toolbox.findMatches(paDct,line)) {
+				doc.fullDctTag = mr.group(1); 
+				doc.dct = mr.group(2);
+				System.err.println("DCT: " + doc.dct);
+			}
+		}
 	}
 	
 	public void addSentenceAnnotation(JCas jcas, int begin, int end, String filename){
@@ -236,42 +324,15 @@ public class Eventi2014Reader extends CollectionReader_ImplBase {
 	}
 
 	public boolean hasNext() throws IOException, CollectionException {
-	    return files.size() > 0;
+	    return documents.hasNext();
 	}
 	
 	public Progress[] getProgress() {
-		return new Progress[] { new ProgressImpl(numberOfDocuments-files.size(), numberOfDocuments , Progress.ENTITIES) };
+		return new Progress[] { new ProgressImpl(documents.getConsumed(), documents.size(), Progress.ENTITIES) };
 	}
 	
 	public void close() throws IOException {
-		files.clear();
-	}
-
-	private void populateFileList(String dirPath) throws ResourceInitializationException {
-		ArrayList<File> myFiles = new ArrayList<File>();
-		File dir = new File(dirPath);
-		
-		// check if the given directory path is valid
-		if(!dir.exists() || !dir.isDirectory())
-			throw new ResourceInitializationException();
-		else
-			myFiles.addAll(Arrays.asList(dir.listFiles()));
-		
-		// check for existence and readability; add handle to the list
-		for(File f : myFiles) {
-			if(!f.exists() || !f.isFile() || !f.canRead()) {
-				Logger.printDetail(component, "File \""+f.getAbsolutePath()+"\" was ignored because it either didn't exist, wasn't a file or wasn't readable.");
-			} else {
-				files.add(f);
-			}
-		}
-		
-		numberOfDocuments = files.size();
+		documents.close();
+		corpus.close();
 	}
-	
-	
-	
 }
-
-
-
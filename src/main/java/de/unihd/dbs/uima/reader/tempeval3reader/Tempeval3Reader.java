@@ -5,13 +5,12 @@ package de.unihd.dbs.uima.reader.tempeval3reader;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.uima.cas.CAS;
 import org.apache.uima.cas.CASException;
@@ -21,16 +20,18 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.util.Progress;
 import org.apache.uima.util.ProgressImpl;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
+import de.unihd.dbs.uima.reader.corpus.CorpusEntry;
+import de.unihd.dbs.uima.reader.corpus.CorpusFiles;
+import de.unihd.dbs.uima.reader.corpus.DocumentPrefetcher;
 import de.unihd.dbs.uima.types.heideltime.Dct;
 
 /**
+ * Reads TempEval-3 TimeML files from a directory, a zip archive or gzip
+ * compressed files. Documents are parsed with StAX by a
+ * {@link DocumentPrefetcher} while the previous ones are being annotated.
+ * 
  * @author Julian Zell
  *
  */
@@ -39,16 +40,42 @@ public class Tempeval3Reader extends CollectionReader_ImplBase {
 	
 	// uima descriptor parameter name
 	private String PARAM_INPUTDIR = "InputDirectory";
+	private String PARAM_PREFETCH = "PrefetchCount";
+	
+	// shared by all parser threads; configured once, so safe to use concurrently
+	private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+	static {
+		xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+	
+	private CorpusFiles corpus;
 	
-	private Integer numberOfDocuments = 0;
+	private DocumentPrefetcher<TimeMLDocument> documents;
 	
-	private Queue<File> files = new LinkedList<File>();
+	/**
+	 * The parts of a TimeML file the reader needs
+	 */
+	static class TimeMLDocument {
+		String text;
+		String dct;
+		String docId;
+	}
 	
 	public void initialize() throws ResourceInitializationException {
 		String dirPath = (String) getConfigParameterValue(PARAM_INPUTDIR);
 		dirPath = dirPath.trim();
 		
-		populateFileList(dirPath);
+		Integer prefetch = (Integer) getConfigParameterValue(PARAM_PREFETCH);
+		if(prefetch == null)
+			prefetch = DocumentPrefetcher.DEFAULT_PREFETCH;
+		
+		try {
+			corpus = new CorpusFiles(new File(dirPath), component);
+		} catch(IOException e) {
+			throw new ResourceInitializationException(e);
+		}
+		documents = new DocumentPrefetcher<TimeMLDocument>(corpus.getEntries(), Tempeval3Reader::parse, prefetch);
 	}
 
 	public void getNext(CAS aCAS) throws IOException, CollectionException {
@@ -66,106 +93,143 @@ public class Tempeval3Reader extends CollectionReader_ImplBase {
 		System.err.print(".");
 	}
 
-	private void fillJCas(JCas jcas) {
+	private void fillJCas(JCas jcas) throws CollectionException {
 		// grab a file to process
-		File f = files.poll();
+		CorpusEntry f = documents.peekEntry();
+		TimeMLDocument doc;
 		try {
-			// create xml parsing facilities
-			DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-			// parse input xml file
-			Document doc = db.parse(f);
-			
-			doc.getDocumentElement().normalize();
-			
-			// get the <text> tag's content to set the document text
-			NodeList nList = doc.getElementsByTagName("TEXT");
-			Node textNode = nList.item(0);
-			String text = textNode.getTextContent();
-			
-			jcas.setDocumentText(text);
-			
-			// get the <dct> timex tag's value attribute for the dct
-			Boolean gotDCT = false;
-			String dctText = null;
+			doc = documents.next();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CollectionException(e);
+		} catch(ExecutionException e) {
+			e.getCause().printStackTrace();
+			Logger.printError(component, "File "+f.getUri()+" could not be properly parsed.");
+			return;
+		}
+		
+		jcas.setDocumentText(doc.text);
+		
+		// get the document id
+		String filename = doc.docId;
+		if(filename == null)
+			filename = f.getName().replaceAll("\\.[^\\.]+$", "");
+
+		Dct dct = new Dct(jcas);
+		dct.setBegin(0);
+		dct.setEnd(doc.text.length());
+		dct.setFilename(filename);
+		dct.setValue(doc.dct);
+		dct.setTimexId("t0");
+		dct.addToIndexes();
+	}
+	
+	/**
+	 * Streams through a TimeML file once and collects the document text (the
+	 * content of the first TEXT element), the document id and the DCT. The
+	 * DCT is taken from the first TIMEX3 within DCT or, failing that, from the
+	 * first TIMEX3 within TEXT if it is marked as the creation time.
+	 */
+	static TimeMLDocument parse(CorpusEntry entry) throws Exception {
+		TimeMLDocument doc = new TimeMLDocument();
+		
+		StringBuilder text = null, docId = null;
+		int textDepth = 0, docIdDepth = 0, dctDepth = 0;
+		boolean textSeen = false, docIdSeen = false, dctSeen = false;
+		boolean dctTimexSeen = false, textTimexSeen = false;
+		String dctTimexValue = null, textTimexValue = null, textTimexFunction = null;
+		
+		try (InputStream in = entry.open()) {
+			XMLStreamReader xml = xmlInputFactory.createXMLStreamReader(in);
 			try {
-				nList = doc.getDocumentElement().getElementsByTagName("DCT");
-				nList = ((Element) nList.item(0)).getElementsByTagName("TIMEX3"); // timex3 tag
-				Node dctTimex = nList.item(0);
-				NamedNodeMap dctTimexAttr = dctTimex.getAttributes();
-				Node dctValue = dctTimexAttr.getNamedItem("value");
-				dctText = dctValue.getTextContent();
-				gotDCT = true;
-			} catch(Exception e) {
-				gotDCT = false;
-			}
-			
-			if(!gotDCT) 
-				try { // try a different location for the DCT timex element
-					nList = doc.getDocumentElement().getElementsByTagName("TEXT");
-					nList = ((Element) nList.item(0)).getElementsByTagName("TIMEX3"); // timex3 tag
-					Node dctTimex = nList.item(0);
-					NamedNodeMap dctTimexAttr = dctTimex.getAttributes();
-					if(dctTimexAttr.getNamedItem("functionInDocument") != null && dctTimexAttr.getNamedItem("functionInDocument").getTextContent().equals("CREATION_TIME")) {
-						Node dctValue = dctTimexAttr.getNamedItem("value");
-						dctText = dctValue.getTextContent();
+				int depth = 0;
+				while(xml.hasNext()) {
+					switch(xml.next()) {
+					case XMLStreamConstants.START_ELEMENT:
+						depth++;
+						String name = xml.getLocalName();
+						if(textDepth > 0) {
+							textDepth++;
+						} else if(!textSeen && name.equals("TEXT")) {
+							textSeen = true;
+							textDepth = 1;
+							text = new StringBuilder();
+						}
+						if(docIdDepth > 0) {
+							docIdDepth++;
+						} else if(!docIdSeen && name.equals("DOCID")) {
+							docIdSeen = true;
+							docIdDepth = 1;
+							docId = new StringBuilder();
+						}
+						if(dctDepth > 0) {
+							dctDepth++;
+						} else if(!dctSeen && depth > 1 && name.equals("DCT")) {
+							dctSeen = true;
+							dctDepth = 1;
+						}
+						
+						if(name.equals("TIMEX3")) {
+							if(dctDepth > 1 && !dctTimexSeen) {
+								dctTimexSeen = true;
+								dctTimexValue = xml.getAttributeValue(null, "value");
+							}
+							if(textDepth > 1 && !textTimexSeen && depth > 1) {
+								textTimexSeen = true;
+								textTimexValue = xml.getAttributeValue(null, "value");
+								textTimexFunction = xml.getAttributeValue(null, "functionInDocument");
+							}
+						}
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						depth--;
+						if(textDepth > 0)
+							textDepth--;
+						if(docIdDepth > 0)
+							docIdDepth--;
+						if(dctDepth > 0)
+							dctDepth--;
+						break;
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+					case XMLStreamConstants.SPACE:
+						if(textDepth > 0)
+							text.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+						if(docIdDepth > 0)
+							docId.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+						break;
 					}
-					gotDCT = true;
-				} catch(Exception e) {
-					gotDCT = false;
 				}
-			
-			// get the document id
-			nList = doc.getElementsByTagName("DOCID");
-			String filename = null;
-			if(nList != null && nList.getLength() > 0)
-				filename = nList.item(0).getTextContent();
-			else
-				filename = f.getName().replaceAll("\\.[^\\.]+$", "");
-
-			Dct dct = new Dct(jcas);
-			dct.setBegin(0);
-			dct.setEnd(text.length());
-			dct.setFilename(filename);
-			dct.setValue(dctText);
-			dct.setTimexId("t0");
-			dct.addToIndexes();
-		} catch(Exception e) {
-			  e.printStackTrace();
-			  Logger.printError(component, "File "+f.getAbsolutePath()+" could not be properly parsed.");
+			} finally {
+				xml.close();
+			}
 		}
+		
+		if(text == null)
+			throw new IOException("No TEXT element found in "+entry.getUri());
+		doc.text = text.toString();
+		doc.docId = docId == null ? null : docId.toString();
+		
+		if(dctTimexValue != null) {
+			doc.dct = dctTimexValue;
+		} else if(textTimexSeen && "CREATION_TIME".equals(textTimexFunction)) {
+			// try a different location for the DCT timex element
+			doc.dct = textTimexValue;
+		}
+		
+		return doc;
 	}
 
 	public boolean hasNext() throws IOException, CollectionException {
-	    return files.size() > 0;
+	    return documents.hasNext();
 	}
 	
 	public Progress[] getProgress() {
-		return new Progress[] { new ProgressImpl(numberOfDocuments-files.size(), numberOfDocuments , Progress.ENTITIES) };
+		return new Progress[] { new ProgressImpl(documents.getConsumed(), documents.size(), Progress.ENTITIES) };
 	}
 	
 	public void close() throws IOException {
-		files.clear();
-	}
-
-	private void populateFileList(String dirPath) throws ResourceInitializationException {
-		ArrayList<File> myFiles = new ArrayList<File>();
-		File dir = new File(dirPath);
-		
-		// check if the given directory path is valid
-		if(!dir.exists() || !dir.isDirectory())
-			throw new ResourceInitializationException();
-		else
-			myFiles.addAll(Arrays.asList(dir.listFiles()));
-		
-		// check for existence and readability; add handle to the list
-		for(File f : myFiles) {
-			if(!f.exists() || !f.isFile() || !f.canRead()) {
-				Logger.printDetail(component, "File \""+f.getAbsolutePath()+"\" was ignored because it either didn't exist, wasn't a file or wasn't readable.");
-			} else {
-				files.add(f);
-			}
-		}
-		
-		numberOfDocuments = files.size();
+		documents.close();
+		corpus.close();
 	}
 }
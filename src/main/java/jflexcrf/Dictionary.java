@@ -27,8 +27,12 @@
 package jflexcrf;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+import jvntextpro.util.IntObjMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Dictionary.
@@ -36,13 +40,13 @@ import java.util.*;
 public class Dictionary {
     
     /** The dict. */
-    public Map dict = null;			// map between context predicate and element
+    public IntObjMap<Element> dict = null;	// map between context predicate and element
     
     /**
      * Instantiates a new dictionary.
      */
     Dictionary() {
-	dict = new HashMap();
+	dict = new IntObjMap<Element>();
     }
     
     // read dictionary from model file
@@ -111,15 +115,85 @@ public class Dictionary {
 	    }
 
 	    // insert the element to the dictionary
-	    dict.put(new Integer(cp), elem);
+	    dict.put(cp, elem);
 	}
 	
+	dict.trim();
+	
 	System.out.println("Reading dictionary (" + Integer.toString(dict.size()) + " entries) completed!");
 	
 	// read the line ###...
 	line = fin.readLine();
     }
     
+    // read dictionary from binary model file
+    /**
+     * Read dict.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readDict(ByteBuffer buf) throws IOException {
+	int dictSize = buf.getInt();
+	dict = new IntObjMap<Element>(dictSize);
+	
+	for (int i = 0; i < dictSize; i++) {
+	    int cp = buf.getInt();
+	    
+	    // create a new element
+	    Element elem = new Element();
+	    elem.count = buf.getInt();
+	    elem.chosen = 1;
+	    
+	    // only first-order entries are stored
+	    int numLabels = buf.getInt();
+	    for (int j = 0; j < numLabels; j++) {
+		int label = buf.getInt();
+		int count = buf.getInt();
+		int fidx = buf.getInt();
+		
+		elem.lbCntFidxes.put(Integer.valueOf(label), new CountFeatureIdx(count, fidx));
+	    }
+	    
+	    // insert the element to the dictionary
+	    dict.put(cp, elem);
+	}
+	
+	System.out.println("Reading dictionary (" + Integer.toString(dict.size()) + " entries) completed!");
+	
+	BinaryModel.readSectionEnd(buf);
+    }
+    
+    // write dictionary to binary model file
+    /**
+     * Write dict.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeDict(DataOutputStream out) throws IOException {
+	int[] cpInts = dict.keys();
+	
+	out.writeInt(cpInts.length);
+	for (int i = 0; i < cpInts.length; i++) {
+	    Element elem = dict.get(cpInts[i]);
+	    
+	    out.writeInt(cpInts[i]);
+	    out.writeInt(elem.count);
+	    out.writeInt(elem.lbCntFidxes.size());
+	    for (Iterator lbIt = elem.lbCntFidxes.keySet().iterator(); lbIt.hasNext(); ) {
+		Integer labelInt = (Integer)lbIt.next();
+		CountFeatureIdx cntFeaIdx = (CountFeatureIdx)elem.lbCntFidxes.get(labelInt);
+		
+		out.writeInt(labelInt);
+		out.writeInt(cntFeaIdx.count);
+		out.writeInt(cntFeaIdx.fidx);
+	    }
+	}
+	
+	BinaryModel.writeSectionEnd(out);
+    }
+    
     /**
      * Size.
      *
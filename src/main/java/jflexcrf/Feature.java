@@ -29,6 +29,9 @@ package jflexcrf;
 import java.io.*;
 import java.util.*;
 
+import jvntextpro.util.IntObjMap;
+import jvntextpro.util.StrIntMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Feature.
@@ -93,7 +96,7 @@ public class Feature {
      * @param yp the yp
      * @param fmap the fmap
      */
-    public void eFeature1Init(int y, int yp, Map fmap) {
+    public void eFeature1Init(int y, int yp, StrIntMap fmap) {
 	eFeature1Init(y, yp);
 	strId2IdxAdd(fmap);
     }    
@@ -122,7 +125,7 @@ public class Feature {
      * @param yp the yp
      * @param fmap the fmap
      */
-    public void sFeature1Init(int y, int yp, Map fmap) {
+    public void sFeature1Init(int y, int yp, StrIntMap fmap) {
 	sFeature1Init(y, cp);
 	strId2IdxAdd(fmap);
     }
@@ -141,7 +144,7 @@ public class Feature {
      * @param cpStr2Int the cp str2 int
      * @param lbStr2Int the lb str2 int
      */
-    public Feature(String line, Map cpStr2Int, Map lbStr2Int) {
+    public Feature(String line, StrIntMap cpStr2Int, StrIntMap lbStr2Int) {
 
 	StringTokenizer strTok = new StringTokenizer(line, " \t\r\n");
 	int len = strTok.countTokens();
@@ -157,20 +160,20 @@ public class Feature {
 	
 	if (prefix.compareToIgnoreCase("e1") == 0) {
 	    // edge feature type 1
-	    Integer yInt = (Integer)lbStr2Int.get(strIdTok.nextToken());
-	    Integer ypInt = (Integer)lbStr2Int.get(strIdTok.nextToken());
+	    int yInt = lbStr2Int.get(strIdTok.nextToken());
+	    int ypInt = lbStr2Int.get(strIdTok.nextToken());
 	    
-	    if (yInt != null && ypInt != null) {
-		eFeature1Init(yInt.intValue(), ypInt.intValue());
+	    if (yInt != StrIntMap.NOT_FOUND && ypInt != StrIntMap.NOT_FOUND) {
+		eFeature1Init(yInt, ypInt);
 	    }
 	
 	} else if (prefix.compareToIgnoreCase("s1") == 0) {
 	    // state feature type 1
-	    Integer yInt = (Integer)lbStr2Int.get(strIdTok.nextToken());
-	    Integer cpInt = (Integer)cpStr2Int.get(strIdTok.nextToken());
+	    int yInt = lbStr2Int.get(strIdTok.nextToken());
+	    int cpInt = cpStr2Int.get(strIdTok.nextToken());
 	    
-	    if (yInt != null && cpInt != null) {
-		sFeature1Init(yInt.intValue(), cpInt.intValue());
+	    if (yInt != StrIntMap.NOT_FOUND && cpInt != StrIntMap.NOT_FOUND) {
+		sFeature1Init(yInt, cpInt);
 	    }
 			    
 	} 
@@ -189,7 +192,7 @@ public class Feature {
      * @param lbStr2Int the lb str2 int
      * @param fmap the fmap
      */
-    public Feature(String line, Map cpStr2Int, Map lbStr2Int, Map fmap) {
+    public Feature(String line, StrIntMap cpStr2Int, StrIntMap lbStr2Int, StrIntMap fmap) {
 
 	StringTokenizer strTok = new StringTokenizer(line, " \t\r\n");
 	int len = strTok.countTokens();
@@ -205,20 +208,20 @@ public class Feature {
 	
 	if (prefix.compareToIgnoreCase("e1") == 0) {
 	    // edge feature type 1
-	    Integer yInt = (Integer)lbStr2Int.get(strIdTok.nextToken());
-	    Integer ypInt = (Integer)lbStr2Int.get(strIdTok.nextToken());
+	    int yInt = lbStr2Int.get(strIdTok.nextToken());
+	    int ypInt = lbStr2Int.get(strIdTok.nextToken());
 	    
-	    if (yInt != null && ypInt != null) {
-		eFeature1Init(yInt.intValue(), ypInt.intValue());
+	    if (yInt != StrIntMap.NOT_FOUND && ypInt != StrIntMap.NOT_FOUND) {
+		eFeature1Init(yInt, ypInt);
 	    }
 	
 	} else if (prefix.compareToIgnoreCase("s1") == 0) {
 	    // state feature type 1
-	    Integer yInt = (Integer)lbStr2Int.get(strIdTok.nextToken());
-	    Integer cpInt = (Integer)cpStr2Int.get(strIdTok.nextToken());
+	    int yInt = lbStr2Int.get(strIdTok.nextToken());
+	    int cpInt = cpStr2Int.get(strIdTok.nextToken());
 	    
-	    if (yInt != null && cpInt != null) {
-		sFeature1Init(yInt.intValue(), cpInt.intValue());
+	    if (yInt != StrIntMap.NOT_FOUND && cpInt != StrIntMap.NOT_FOUND) {
+		sFeature1Init(yInt, cpInt);
 	    }
 	    
 	}
@@ -237,10 +240,10 @@ public class Feature {
      * @param fmap the fmap
      * @return the int
      */
-    public int strId2Idx(Map fmap) {
-	Integer idxInt = (Integer)fmap.get(strId);
-	if (idxInt != null) {
-	    this.idx = idxInt.intValue();
+    public int strId2Idx(StrIntMap fmap) {
+	int idxInt = fmap.get(strId);
+	if (idxInt != StrIntMap.NOT_FOUND) {
+	    this.idx = idxInt;
 	}
 	
 	return this.idx;
@@ -254,12 +257,12 @@ public class Feature {
      * @param fmap the fmap
      * @return the int
      */
-    public int strId2IdxAdd(Map fmap) {
+    public int strId2IdxAdd(StrIntMap fmap) {
 	strId2Idx(fmap);
 	
 	if (idx < 0) {
 	    idx = fmap.size();
-	    fmap.put(strId, new Integer(idx));
+	    fmap.put(strId, idx);
 	}    
 	
 	return idx;
@@ -282,7 +285,7 @@ public class Feature {
      * @param fmap the fmap
      * @return the int
      */
-    public int index(Map fmap) {
+    public int index(StrIntMap fmap) {
 	return strId2Idx(fmap);
     }
     
@@ -294,19 +297,19 @@ public class Feature {
      * @param lbInt2Str the lb int2 str
      * @return the string
      */
-    public String toString(Map cpInt2Str, Map lbInt2Str) {
+    public String toString(IntObjMap<String> cpInt2Str, IntObjMap<String> lbInt2Str) {
 	String str = "";
 	
 	if (ftype == EDGE_FEATURE1) {
 	    // edge feature type 1
 	    str = "e1_";
 	    
-	    String yStr = (String)lbInt2Str.get(new Integer(y));
+	    String yStr = lbInt2Str.get(y);
 	    if (yStr != null) {
 		str += yStr + "_";
 	    }
 	    
-	    String  ypStr = (String)lbInt2Str.get(new Integer(yp));
+	    String  ypStr = lbInt2Str.get(yp);
 	    if (ypStr != null) {
 		str += ypStr;
 	    }	    
@@ -315,12 +318,12 @@ public class Feature {
 	    // state feature type 1
 	    str = "s1_";
 	    
-	    String yStr = (String)lbInt2Str.get(new Integer(y));
+	    String yStr = lbInt2Str.get(y);
 	    if (yStr != null) {
 		str += yStr + "_";
 	    }
 	    
-	    String cpStr = (String)cpInt2Str.get(new Integer(cp));
+	    String cpStr = cpInt2Str.get(cp);
 	    if (cpStr != null) {
 		str += cpStr;
 	    }
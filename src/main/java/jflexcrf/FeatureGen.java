@@ -27,8 +27,12 @@
 package jflexcrf;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+import jvntextpro.util.StrIntMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class FeatureGen.
@@ -39,7 +43,7 @@ public class FeatureGen {
     List features = null;	// list of features
     
     /** The fmap. */
-    Map fmap = null;		// feature map
+    StrIntMap fmap = null;	// feature map
     
     /** The maps. */
     Maps maps = null;		// context predicate and label maps
@@ -98,7 +102,7 @@ public class FeatureGen {
 	if (fmap != null) {
 	    fmap.clear(); 
 	} else {
-	    fmap = new HashMap();
+	    fmap = new StrIntMap();
 	}
 	
 	if (eFeatures != null) {
@@ -146,23 +150,7 @@ public class FeatureGen {
 	    // create a new feature by parsing the line
 	    Feature f = new Feature(line, maps.cpStr2Int, maps.lbStr2Int);
 	    
-	    Integer fidx = (Integer)fmap.get(f.strId);
-	    if (fidx == null) {
-		// insert the feature into the feature map
-        //        System.out.println("\tinsert into the feature map");
-		fmap.put(f.strId, new Integer(f.idx));
-		features.add(f);
-		
-		if (f.ftype == Feature.EDGE_FEATURE1) {
-		    eFeatures.add(f);
-		}
-	    }
-	
-            else {
-            	features.add(f);
-                  //System.out.println(line + "-----------> [" + f.strId + "]");            
-            }      
-            
+	    addReadFeature(f);
 	}
 	
 	System.out.println("Reading " + Integer.toString(features.size()) + " features completed!");
@@ -171,6 +159,83 @@ public class FeatureGen {
 	line = fin.readLine();
     }
     
+    /**
+     * Read features from a binary model. The weights are stored separately,
+     * see {@link Model#init()}.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readFeatures(ByteBuffer buf) throws IOException {
+	int numFeatures = buf.getInt();
+	features = new ArrayList(numFeatures);
+	fmap = new StrIntMap(numFeatures);
+	eFeatures = new ArrayList();
+	sFeatures = new ArrayList();
+	
+	for (int i = 0; i < numFeatures; i++) {
+	    int ftype = buf.getInt();
+	    int y = buf.getInt();
+	    int yp = buf.getInt();
+	    int cp = buf.getInt();
+	    
+	    Feature f = new Feature();
+	    if (ftype == Feature.EDGE_FEATURE1) {
+		f.eFeature1Init(y, yp);
+	    } else if (ftype == Feature.STAT_FEATURE1) {
+		f.sFeature1Init(y, cp);
+	    }
+	    f.idx = buf.getInt();
+	    
+	    addReadFeature(f);
+	}
+	
+	System.out.println("Reading " + Integer.toString(features.size()) + " features completed!");
+	
+	BinaryModel.readSectionEnd(buf);
+    }
+    
+    /**
+     * Write features to a binary model, without their weights.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeFeatures(DataOutputStream out) throws IOException {
+	out.writeInt(features.size());
+	
+	for (int i = 0; i < features.size(); i++) {
+	    Feature f = (Feature)features.get(i);
+	    out.writeInt(f.ftype);
+	    out.writeInt(f.y);
+	    out.writeInt(f.yp);
+	    out.writeInt(f.cp);
+	    out.writeInt(f.idx);
+	}
+	
+	BinaryModel.writeSectionEnd(out);
+    }
+    
+    /**
+     * Adds a feature read from the model file. Of several features with the
+     * same string identifier, only the first one is mapped.
+     *
+     * @param f the f
+     */
+    private void addReadFeature(Feature f) {
+	if (!fmap.containsKey(f.strId)) {
+	    // insert the feature into the feature map
+	    fmap.put(f.strId, f.idx);
+	    features.add(f);
+	    
+	    if (f.ftype == Feature.EDGE_FEATURE1) {
+		eFeatures.add(f);
+	    }
+	} else {
+	    features.add(f);
+	}
+    }
+    
     // start to scan features at a particular position in a data sequence
     /**
      * Start scan features at.
@@ -232,36 +297,55 @@ public class FeatureGen {
 	    
 	// scan over all context predicates
 	for (int i = 0; i < obsr.cps.length; i++) {
-	    Element elem = (Element)dict.dict.get(new Integer(obsr.cps[i]));
-	    if (elem == null) {
+	    List cpFeatures = stateFeatures(obsr.cps[i]);
+	    if (cpFeatures == null) {
 		continue;
 	    }
 	    
-	    if (!(elem.isScanned)) {
-		// scan all labels for state feature
-		Iterator it = elem.lbCntFidxes.keySet().iterator();
-		while (it.hasNext()) {
-		    Integer label = (Integer)it.next();
-		    CountFeatureIdx cntFidx = (CountFeatureIdx)elem.lbCntFidxes.get(label);
-
-		    if (cntFidx.fidx >= 0) {
-			Feature sF = new Feature();
-			sF.sFeature1Init(label.intValue(), obsr.cps[i]);
-			sF.idx = cntFidx.fidx;
-			
-			elem.cpFeatures.add(sF);
-		    }	    
-		}		
-		
-		elem.isScanned = true;
-	    }
-	    
-	    for (int j = 0; j < elem.cpFeatures.size(); j++) {
-		sFeatures.add(elem.cpFeatures.get(j));
-	    }
+	    sFeatures.addAll(cpFeatures);
 	}		
     }    
     
+    /**
+     * Gets the state features of a context predicate, collecting them from the
+     * dictionary when the context predicate is seen for the first time. Can be
+     * called by several threads at once, the feature list is only published
+     * once it is complete.
+     *
+     * @param cp the context predicate
+     * @return the features, or null if the context predicate is not in the dictionary
+     */
+    List stateFeatures(int cp) {
+	Element elem = dict.dict.get(cp);
+	if (elem == null) {
+	    return null;
+	}
+	
+	if (!(elem.isScanned)) {
+	    // scan all labels for state feature
+	    List cpFeatures = new ArrayList();
+	    Iterator it = elem.lbCntFidxes.keySet().iterator();
+	    while (it.hasNext()) {
+		Integer label = (Integer)it.next();
+		CountFeatureIdx cntFidx = (CountFeatureIdx)elem.lbCntFidxes.get(label);
+
+		if (cntFidx.fidx >= 0) {
+		    Feature sF = new Feature();
+		    sF.sFeature1Init(label.intValue(), cp);
+		    sF.idx = cntFidx.fidx;
+		    
+		    cpFeatures.add(sF);
+		}	    
+	    }		
+	    
+	    elem.cpFeatures = cpFeatures;
+	    elem.isScanned = true;
+	    return cpFeatures;
+	}
+	
+	return elem.cpFeatures;
+    }
+    
     /**
      * Checks for next s feature.
      *
@@ -27,12 +27,15 @@
 package jflexcrf;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import jvntextpro.data.DataReader;
 import jvntextpro.data.DataWriter;
 import jvntextpro.data.Sentence;
 import jvntextpro.data.TaggingData;
+import jvntextpro.util.StrIntMap;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -118,6 +121,20 @@ public class Labeling {
 		return true;
 	}
 	
+	/**
+	 * Writes the loaded model to a binary model file.
+	 *
+	 * @param file the file
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void writeBinaryModel(File file) throws IOException {
+		if (taggerModel == null || taggerModel.lambda == null) {
+			throw new IOException("No model loaded from " + modelDir);
+		}
+		
+		taggerModel.writeBinaryModel(file);
+	}
+	
 	/**
 	 * Sets the data reader.
 	 *
@@ -218,20 +235,18 @@ public class Labeling {
 				
 				String [] strCps = dataTagger.getContext(sentence, j);
 				
-				ArrayList<Integer> tempCpsInt = new ArrayList<Integer>();
+				int[] tempCpsInt = new int[strCps.length];
+				int numCps = 0;
 
 				for (int k = 0; k < strCps.length; k++) {
-					Integer cpInt = (Integer) taggerMaps.cpStr2Int.get(strCps[k]);
-					if (cpInt == null) {
+					int cpInt = taggerMaps.cpStr2Int.get(strCps[k]);
+					if (cpInt == StrIntMap.NOT_FOUND) {
 						continue;
 					}
-					tempCpsInt.add(cpInt);
+					tempCpsInt[numCps++] = cpInt;
 				}
 				
-				obsv.cps = new int[tempCpsInt.size()];
-				for (int k = 0; k < tempCpsInt.size(); ++k){
-					obsv.cps[k] = tempCpsInt.get(k).intValue();
-				}
+				obsv.cps = Arrays.copyOf(tempCpsInt, numCps);
 				sequence.add(obsv);
 			}
 			
@@ -247,7 +262,7 @@ public class Labeling {
 			
 			for (int j = 0; j < sent.size(); ++j){
 				Observation obsrv = (Observation) seq.get(j);			
-				String label = (String) taggerMaps.lbInt2Str.get(obsrv.modelLabel);
+				String label = taggerMaps.lbInt2Str.get(obsrv.modelLabel);
 				
 				sent.getTWordAt(j).setTag(label);
 			}
@@ -27,8 +27,13 @@
 package jflexcrf;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+import jvntextpro.util.IntObjMap;
+import jvntextpro.util.StrIntMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Maps.
@@ -36,16 +41,16 @@ import java.util.*;
 public class Maps {
     
     /** The cp str2 int. */
-    public Map cpStr2Int = null;
+    public StrIntMap cpStr2Int = null;
     
     /** The cp int2 str. */
-    public Map cpInt2Str = null;
+    public IntObjMap<String> cpInt2Str = null;
     
     /** The lb str2 int. */
-    public Map lbStr2Int = null;
+    public StrIntMap lbStr2Int = null;
     
     /** The lb int2 str. */
-    public Map lbInt2Str = null;
+    public IntObjMap<String> lbInt2Str = null;
     
     /**
      * Instantiates a new maps.
@@ -63,13 +68,13 @@ public class Maps {
 	if (cpStr2Int != null) {
 	    cpStr2Int.clear();
 	} else {
-	    cpStr2Int = new HashMap();
+	    cpStr2Int = new StrIntMap();
 	}
 	
 	if (cpInt2Str != null) {
 	    cpInt2Str.clear();
 	} else {
-	    cpInt2Str = new HashMap();
+	    cpInt2Str = new IntObjMap<String>();
 	}
 	
 	String line;
@@ -100,12 +105,15 @@ public class Maps {
 	    }
 	    
 	    String cpStr = strTok.nextToken();
-	    String cpInt = strTok.nextToken();
+	    int cpInt = Integer.parseInt(strTok.nextToken());
 	    
-	    cpStr2Int.put(cpStr, new Integer(cpInt));
-	    cpInt2Str.put(new Integer(cpInt), cpStr);
+	    cpStr2Int.put(cpStr, cpInt);
+	    cpInt2Str.put(cpInt, cpStr);
 	}
 	
+	cpStr2Int.trim();
+	cpInt2Str.trim();
+	
 	System.out.println("Reading context predicate maps (" + Integer.toString(cpStr2Int.size()) + 
 		    " entries) completed!");
 	
@@ -123,13 +131,13 @@ public class Maps {
 	if (lbStr2Int != null) {
 	    lbStr2Int.clear();
 	} else {
-	    lbStr2Int = new HashMap();
+	    lbStr2Int = new StrIntMap();
 	}
 	
 	if (lbInt2Str != null) {
 	    lbInt2Str.clear();
 	} else {
-	    lbInt2Str = new HashMap();
+	    lbInt2Str = new IntObjMap<String>();
 	}
 
 	String line;
@@ -160,10 +168,10 @@ public class Maps {
 	    }
 	    
 	    String lbStr = strTok.nextToken();
-	    String lbInt = strTok.nextToken();
+	    int lbInt = Integer.parseInt(strTok.nextToken());
 	    
-	    lbStr2Int.put(lbStr, new Integer(lbInt));
-	    lbInt2Str.put(new Integer(lbInt), lbStr);
+	    lbStr2Int.put(lbStr, lbInt);
+	    lbInt2Str.put(lbInt, lbStr);
 	}
 	
 	System.out.println("Reading label maps (" + Integer.toString(lbStr2Int.size()) + 
@@ -173,6 +181,89 @@ public class Maps {
 	line = fin.readLine();
     }
     
+    /**
+     * Read cp maps from a binary model.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readCpMaps(ByteBuffer buf) throws IOException {
+	int numCps = buf.getInt();
+	cpStr2Int = new StrIntMap(numCps);
+	cpInt2Str = new IntObjMap<String>(numCps);
+	readMap(buf, numCps, cpStr2Int, cpInt2Str);
+	
+	System.out.println("Reading context predicate maps (" + Integer.toString(cpStr2Int.size()) + 
+		    " entries) completed!");
+    }
+    
+    /**
+     * Read lb maps from a binary model.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readLbMaps(ByteBuffer buf) throws IOException {
+	int numLabels = buf.getInt();
+	lbStr2Int = new StrIntMap(numLabels);
+	lbInt2Str = new IntObjMap<String>(numLabels);
+	readMap(buf, numLabels, lbStr2Int, lbInt2Str);
+	
+	System.out.println("Reading label maps (" + Integer.toString(lbStr2Int.size()) + 
+		    " entries) completed!");
+    }
+    
+    /**
+     * Write cp maps to a binary model.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeCpMaps(DataOutputStream out) throws IOException {
+	writeMap(out, cpStr2Int);
+    }
+    
+    /**
+     * Write lb maps to a binary model.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeLbMaps(DataOutputStream out) throws IOException {
+	writeMap(out, lbStr2Int);
+    }
+    
+    /**
+     * Read the entries of a map and the end of its section.
+     */
+    private static void readMap(ByteBuffer buf, int size, StrIntMap str2Int, 
+		IntObjMap<String> int2Str) throws IOException {
+	for (int i = 0; i < size; i++) {
+	    String str = BinaryModel.readString(buf);
+	    int id = buf.getInt();
+	    
+	    str2Int.put(str, id);
+	    int2Str.put(id, str);
+	}
+	
+	BinaryModel.readSectionEnd(buf);
+    }
+    
+    /**
+     * Write a map as a section of a binary model.
+     */
+    private static void writeMap(DataOutputStream out, StrIntMap str2Int) throws IOException {
+	String[] strs = str2Int.keys();
+	
+	out.writeInt(strs.length);
+	for (int i = 0; i < strs.length; i++) {
+	    BinaryModel.writeString(out, strs[i]);
+	    out.writeInt(str2Int.get(strs[i]));
+	}
+	
+	BinaryModel.writeSectionEnd(out);
+    }
+    
     /**
      * Num cps.
      *
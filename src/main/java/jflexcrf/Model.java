@@ -27,8 +27,13 @@
 package jflexcrf;
 
 import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Model.
@@ -51,8 +56,15 @@ public class Model {
     public Viterbi taggerVtb = null;
     
     // feature weight
-    /** The lambda. */
-    double[] lambda = null;
+    /** The lambda, a view of the mapped file for binary models. */
+    DoubleBuffer lambda = null;
+    
+    /** The decoders of the threads using this model, the model itself is read-only after init. */
+    private final ThreadLocal<Viterbi> decoders = ThreadLocal.withInitial(() -> {
+	Viterbi vtb = new Viterbi();
+	vtb.init(this);
+	return vtb;
+    });
     
     /**
      * Instantiates a new model.
@@ -80,11 +92,33 @@ public class Model {
     
     // load the model
     /**
-     * Inits the.
+     * Inits the. A binary model in the model directory is used instead of
+     * the text model, unless it is older.
      *
      * @return true, if successful
      */
     public boolean init() {
+	File binFile = BinaryModel.find(taggerOpt.modelDir, taggerOpt.modelFile);
+	if (binFile == null || !readBinaryModel(binFile)) {
+	    if (!readTextModel()) {
+		return false;
+	    }
+	}
+    
+	// call init method of Viterbi object
+	if (taggerVtb != null) {
+	    taggerVtb.init(this);
+	}
+	
+	return true;
+    }
+    
+    /**
+     * Read the text model.
+     *
+     * @return true, if successful
+     */
+    private boolean readTextModel() {
 	// open model file to load model here ... complete later
 	BufferedReader fin = null;
 	String modelFile = taggerOpt.modelDir + File.separator + taggerOpt.modelFile;
@@ -124,29 +158,76 @@ public class Model {
 	// update feature weights
 	if (lambda == null) {
 	    int numFeatures = taggerFGen.numFeatures();
-	    lambda = new double[numFeatures];
+	    double[] weights = new double[numFeatures];
 	    for (int i = 0; i < numFeatures; i++) {
 		Feature f = (Feature)taggerFGen.features.get(i);
-                //System.out.println(f.idx);
-		lambda[f.idx] = f.wgt;                
+		weights[f.idx] = f.wgt;                
 	    }
+	    lambda = DoubleBuffer.wrap(weights);
 	}
+	
+	return true;
+    }
     
-	// call init method of Viterbi object
-	if (taggerVtb != null) {
-	    taggerVtb.init(this);
+    /**
+     * Read a binary model. The feature weights are not copied, they are read
+     * from the mapped file when decoding.
+     *
+     * @param binFile the binary model file
+     * @return true, if successful
+     */
+    private boolean readBinaryModel(File binFile) {
+	try {
+	    ByteBuffer buf = BinaryModel.map(binFile, BinaryModel.CRF);
+	    
+	    taggerMaps.readCpMaps(buf);
+	    taggerMaps.readLbMaps(buf);
+	    taggerDict.readDict(buf);
+	    taggerFGen.readFeatures(buf);
+	    
+	    lambda = BinaryModel.readDoubles(buf);
+	    for (int i = 0; i < taggerFGen.numFeatures(); i++) {
+		Feature f = (Feature)taggerFGen.features.get(i);
+		f.wgt = lambda.get(f.idx);
+	    }
+	    BinaryModel.readSectionEnd(buf);
+	    
+	} catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+	    System.out.println("Couldn't load the binary model, reading the text model instead");
+	    System.out.println(e.toString());
+	    
+	    lambda = null;
+	    return false;
 	}
 	
 	return true;
     }
     
+    /**
+     * Write the loaded model to a binary model file.
+     *
+     * @param file the file
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeBinaryModel(File file) throws IOException {
+	BinaryModel.write(file, BinaryModel.CRF, out -> {
+	    taggerMaps.writeCpMaps(out);
+	    taggerMaps.writeLbMaps(out);
+	    taggerDict.writeDict(out);
+	    taggerFGen.writeFeatures(out);
+	    
+	    BinaryModel.writeDoubles(out, lambda);
+	    BinaryModel.writeSectionEnd(out);
+	});
+    }
+    
     /**
      * Inference.
      *
      * @param seq the seq
      */
     public void inference(List seq) {
-	taggerVtb.viterbiInference(seq);
+	decoders.get().viterbiInference(seq);
     }
     
     /**
@@ -160,11 +241,7 @@ public class Model {
 	long start, stop, elapsed;
 	start = System.currentTimeMillis();
 	
-	for (int i = 0; i < data.size(); i++) {
-	    System.out.println("sequence " + Integer.toString(i + 1));
-	    List seq = (List)data.get(i);
-	    inference(seq);	    
-	}
+	decoders.get().viterbiInferenceAll(data);
 	
 	stop = System.currentTimeMillis();
 	elapsed = stop - start;
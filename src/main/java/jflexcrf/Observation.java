@@ -29,6 +29,8 @@ package jflexcrf;
 import java.io.*;
 import java.util.*;
 
+import jvntextpro.util.IntObjMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Observation.
@@ -57,10 +59,10 @@ public class Observation {
      * @param lbInt2Str the lb int2 str
      * @return the string
      */
-    public String toString(Map lbInt2Str) {
+    public String toString(IntObjMap<String> lbInt2Str) {
 	String res = originalData;
 	
-	String labelStr = (String)lbInt2Str.get(new Integer(modelLabel));
+	String labelStr = lbInt2Str.get(modelLabel);
 	if (labelStr != null) {
 	    res += Option.outputSeparator + labelStr.toUpperCase();
 	}
@@ -26,12 +26,17 @@
 
 package jflexcrf;
 
-import java.io.*;
 import java.util.*;
 
 // TODO: Auto-generated Javadoc
 /**
  * The Class Viterbi.
+ * 
+ * Decoding works in log space on a flat lattice: scores and back pointers of
+ * position i and label j are stored at index i * numLabels + j. The lattice
+ * grows with the longest sequence seen and is reused for all later sequences.
+ * A Viterbi object is the per-thread state of a decoder, the model it reads
+ * is shared.
  */
 public class Viterbi {
     
@@ -41,29 +46,20 @@ public class Viterbi {
     /** The num labels. */
     int numLabels = 0;
     
-    /** The Mi. */
-    DoubleMatrix Mi = null;
+    /** The log edge potentials, logMiT[y * numLabels + yp] for the transition from yp to y. */
+    double[] logMiT = null;
     
-    /** The Vi. */
-    DoubleVector Vi = null;
+    /** The log state potentials of the current position. */
+    double[] logVi = null;
     
-    /**
-     * The Class PairDblInt.
-     */
-    public class PairDblInt {
-	
-	/** The first. */
-	public double first = 0.0;
-	
-	/** The second. */
-	public int second = -1;
-    } // enf of class PairDblInt    
-
-    /** The memory size. */
+    /** The memory size (number of positions the lattice can hold). */
     public int memorySize = 0;
     
-    /** The memory. */
-    public PairDblInt[][] memory = null;
+    /** The best path scores. */
+    double[] scores = null;
+    
+    /** The back pointers to the best previous label. */
+    int[] backPointers = null;
     
     /**
      * Instantiates a new viterbi.
@@ -81,8 +77,8 @@ public class Viterbi {
 	
 	numLabels = model.taggerMaps.numLabels();
 	
-	Mi = new DoubleMatrix(numLabels, numLabels);
-	Vi = new DoubleVector(numLabels);
+	logMiT = new double[numLabels * numLabels];
+	logVi = new double[numLabels];
 	
 	allocateMemory(100);
 	
@@ -97,120 +93,52 @@ public class Viterbi {
      */
     public void allocateMemory(int memorySize) {
 	this.memorySize = memorySize;
-	memory = new PairDblInt[memorySize][numLabels];
-	
-	for (int i = 0; i < memorySize; i++) {
-	    for (int j = 0; j < numLabels; j++) {
-		memory[i][j] = new PairDblInt();
-	    }
-	}
+	scores = new double[memorySize * numLabels];
+	backPointers = new int[memorySize * numLabels];
     }
     
     /**
      * Compute mi.
      */
     public void computeMi() {
-	Mi.assign(0.0);
+	Arrays.fill(logMiT, 0.0);
 	
-	model.taggerFGen.startScanEFeatures();
-	while (model.taggerFGen.hasNextEFeature()) {
-	    Feature f = model.taggerFGen.nextEFeature();
+	List eFeatures = model.taggerFGen.eFeatures;
+	for (int i = 0; i < eFeatures.size(); i++) {
+	    Feature f = (Feature)eFeatures.get(i);
 	    
 	    if (f.ftype == Feature.EDGE_FEATURE1) {
-		Mi.mtrx[f.yp][f.y] += model.lambda[f.idx] * f.val;
-	    }
-	}
-	
-	for (int i = 0; i < Mi.rows; i++) {
-	    for (int j = 0; j < Mi.cols; j++) {
-		Mi.mtrx[i][j] = Math.exp(Mi.mtrx[i][j]);
+		logMiT[f.y * numLabels + f.yp] += model.lambda.get(f.idx) * f.val;
 	    }
 	}
     }
     
     /**
-     * Compute vi.
+     * Compute the log state potentials.
      *
      * @param seq the seq
      * @param pos the pos
-     * @param Vi the vi
-     * @param isExp the is exp
+     * @param vi receives the log potential of each label
      */
-    public void computeVi(List seq, int pos, DoubleVector Vi, boolean isExp) {
-	Vi.assign(0.0);
-	
-	// start scan features for sequence "seq" at position "pos"
-	model.taggerFGen.startScanSFeaturesAt(seq, pos);
-	// examine all features at position "pos"
-	while (model.taggerFGen.hasNextSFeature()) {
-	    Feature f = model.taggerFGen.nextSFeature();
-	    
-	    if (f.ftype == Feature.STAT_FEATURE1) {
-		Vi.vect[f.y] += model.lambda[f.idx] * f.val;
+    public void computeVi(List seq, int pos, double[] vi) {
+	Arrays.fill(vi, 0, numLabels, 0.0);
+	
+	// examine all state features of the context predicates at position "pos"
+	int[] cps = ((Observation)seq.get(pos)).cps;
+	for (int i = 0; i < cps.length; i++) {
+	    List features = model.taggerFGen.stateFeatures(cps[i]);
+	    if (features == null) {
+		continue;
 	    }
-	}
-	
-	// take exponential operator
-	if (isExp) {
-	    for (int i = 0; i < Vi.len; i++) {
-		Vi.vect[i] = Math.exp(Vi.vect[i]);
-	    }
-	}
-    }
-    
-    // list is a List of PairDblInt    
-    /**
-     * Sum.
-     *
-     * @param cols the cols
-     * @return the double
-     */
-    public double sum(PairDblInt[] cols) {
-	double res = 0.0;
-	
-	for (int i = 0; i < numLabels; i++) {
-	    res += cols[i].first;
-	}
-	
-	if (res < 1 && res > -1) {
-	    res = 1;
-	}
-	
-	return res;
-    }
-    
-    // list is a List of PairDblInt
-    /**
-     * Divide.
-     *
-     * @param cols the cols
-     * @param val the val
-     */
-    public void divide(PairDblInt[] cols, double val) {
-	for (int i = 0; i < numLabels; i++) {
-	    cols[i].first /= val;
-	}
-    }
-    
-    // list is a List of PairDblInt
-    /**
-     * Find max.
-     *
-     * @param cols the cols
-     * @return the int
-     */
-    public int findMax(PairDblInt[] cols) {
-	int maxIdx = 0;
-	double maxVal = -1.0;
-	
-	for (int i = 0; i < numLabels; i++) {
-	    if (cols[i].first > maxVal) {
-		maxVal = cols[i].first;
-		maxIdx = i;
+	    
+	    for (int j = 0; j < features.size(); j++) {
+		Feature f = (Feature)features.get(j);
+		
+		if (f.ftype == Feature.STAT_FEATURE1) {
+		    vi[f.y] += model.lambda.get(f.idx) * f.val;
+		}
 	    }
 	}
-	
-	return maxIdx;
     }
     
     /**
@@ -227,54 +155,67 @@ public class Viterbi {
 	}	
 	
 	if (memorySize < seqLen) {
-	    allocateMemory(seqLen);
+	    allocateMemory(Math.max(seqLen, memorySize * 2));
 	}
 	
-	// compute Vi for the first position in the sequence
-	computeVi(seq, 0, Vi, true);
-	for (j = 0; j < numLabels; j++) {
-	    memory[0][j].first = Vi.vect[j];
-	    memory[0][j].second = j;
-	}	
-	
-	// scaling for the first position
-	divide(memory[0], sum(memory[0]));
+	// scores for the first position in the sequence
+	computeVi(seq, 0, logVi);
+	System.arraycopy(logVi, 0, scores, 0, numLabels);
 	
 	// the main loop
 	for (i = 1; i < seqLen; i++) {
 	    // compute Vi at the position i
-	    computeVi(seq, i, Vi, true);
+	    computeVi(seq, i, logVi);
+	    
+	    int prev = (i - 1) * numLabels;
+	    int cur = i * numLabels;
 	    
 	    // for all possible labels at the position i
 	    for (j = 0; j < numLabels; j++) {
-		memory[i][j].first = 0.0;
-		memory[i][j].second = 0;
+		int edges = j * numLabels;
+		double maxVal = Double.NEGATIVE_INFINITY;
+		int maxK = 0;
 		
-		// find the maximal value and its index and store them in memory
+		// find the maximal value and its index and store them
 		// for later tracing back to find the best path
 		for (k = 0; k < numLabels; k++) {
-		    double tempVal = memory[i - 1][k].first *
-					Mi.mtrx[k][j] * Vi.vect[j];
-		    if (tempVal > memory[i][j].first) {
-			memory[i][j].first = tempVal;
-			memory[i][j].second = k;
+		    double tempVal = scores[prev + k] + logMiT[edges + k];
+		    if (tempVal > maxVal) {
+			maxVal = tempVal;
+			maxK = k;
 		    }
 		}
+		
+		scores[cur + j] = maxVal + logVi[j];
+		backPointers[cur + j] = maxK;
 	    }
-	    
-	    // scaling for memory at position i
-	    divide(memory[i], sum(memory[i]));	    
 	}
 	
 	// viterbi backtrack to find the best label path
-	int maxIdx = findMax(memory[seqLen - 1]);
+	int last = (seqLen - 1) * numLabels;
+	int maxIdx = 0;
+	for (j = 1; j < numLabels; j++) {
+	    if (scores[last + j] > scores[last + maxIdx]) {
+		maxIdx = j;
+	    }
+	}
+	
 	((Observation)seq.get(seqLen - 1)).modelLabel = maxIdx;
 	for (i = seqLen - 2; i >= 0; i--) {
-	    ((Observation)seq.get(i)).modelLabel = 
-			memory[i + 1][maxIdx].second;
-	    maxIdx = ((Observation)seq.get(i)).modelLabel;
+	    maxIdx = backPointers[(i + 1) * numLabels + maxIdx];
+	    ((Observation)seq.get(i)).modelLabel = maxIdx;
+	}
+    }
+    
+    /**
+     * Viterbi inference for a batch of sequences, reusing the lattice.
+     *
+     * @param data a list of sequences
+     */
+    public void viterbiInferenceAll(List data) {
+	for (int i = 0; i < data.size(); i++) {
+	    viterbiInference((List)data.get(i));
 	}
     }
     
 } // end of class Viterbi
-
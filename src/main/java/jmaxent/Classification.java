@@ -28,8 +28,13 @@
 package jmaxent;
 
 import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+import jvntextpro.util.StrIntMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Classification.
@@ -60,11 +65,9 @@ public class Classification {
     /** The fin model. */
     private BufferedReader finModel = null;
     
-    /** The int cps. */
-    List intCps = null;
-    
     /**
-     * Instantiates a new classification.
+     * Instantiates a new classification. Once the model is loaded, the classify
+     * methods can be called by several threads at once.
      *
      * @param modelDir the model dir
      */
@@ -85,9 +88,22 @@ public class Classification {
     }
     
     /**
-     * Inits the.
+     * Inits the. A binary model in the model directory is used instead of
+     * the text model, unless it is older.
      */
     public void init() {    
+	File binFile = BinaryModel.find(option.modelDir, option.modelFile);
+	if (binFile != null) {
+	    try {
+		initBinary(binFile);
+		initialized = true;
+		return;
+	    } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+		System.out.println("Couldn't load the binary model, reading the text model instead");
+		System.out.println(e.toString());
+	    }
+	}
+	
 	try {
 	    // open model file
 	    finModel = option.openModelFile();
@@ -116,6 +132,7 @@ public class Classification {
 	    // create a model object
 	    model = new Model(option, data, dict, feagen, null, inference, null);
 	    model.initInference();
+	    inference.initWeights();
 	    
 	    // close model file
 	    finModel.close();
@@ -125,11 +142,54 @@ public class Classification {
 	    System.out.println(e.toString());
 	}
 	
-	intCps = new ArrayList();
-	
 	initialized = true;
     }
     
+    /**
+     * Inits the model from a binary model file.
+     *
+     * @param binFile the binary model file
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    private void initBinary(File binFile) throws IOException {
+	ByteBuffer buf = BinaryModel.map(binFile, BinaryModel.MAXENT);
+	
+	data = new Data(option);
+	data.readCpMaps(buf);
+	data.readLbMaps(buf);
+	
+	dict = new Dictionary(option, data);
+	dict.readDict(buf);
+	
+	feagen = new FeatureGen(option, data, dict);
+	feagen.readFeatures(buf);
+	
+	inference = new Inference();
+	model = new Model(option, data, dict, feagen, null, inference, null);
+	model.readWeights(buf);
+	inference.initWeights();
+    }
+    
+    /**
+     * Write the loaded model to a binary model file.
+     *
+     * @param file the file
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeBinaryModel(File file) throws IOException {
+	if (model == null) {
+	    throw new IOException("No model loaded from " + option.modelDir);
+	}
+	
+	BinaryModel.write(file, BinaryModel.MAXENT, out -> {
+	    data.writeCpMaps(out);
+	    data.writeLbMaps(out);
+	    dict.writeDict(out);
+	    feagen.writeFeatures(out);
+	    model.writeWeights(out);
+	});
+    }
+    
     /**
      * classify an observation.
      *
@@ -137,36 +197,13 @@ public class Classification {
      * @return label
      */
     public String classify(String cps) {
-		// cps contains a list of context predicates
+	Observation obsr = new Observation(cpIds(cps));
 	
-		String modelLabel = "";
-		int i;
-		
-		intCps.clear();		
-		
-		StringTokenizer strTok = new StringTokenizer(cps, " \t\r\n");	
-		int count = strTok.countTokens();	
-		
-		for (i = 0; i < count; i++) {
-		    String cpStr = strTok.nextToken();
-		    Integer cpInt = (Integer)data.cpStr2Int.get(cpStr);
-		    if (cpInt != null) {
-			intCps.add(cpInt);
-		    }
-		}
-		
-		Observation obsr = new Observation(intCps);
-		
-		// classify
-		inference.classify(obsr);
-		
-		String lbStr = (String)data.lbInt2Str.get(new Integer(obsr.modelLabel));
-		if (lbStr != null) {
-		    modelLabel = lbStr;
-		}
+	// classify
+	inference.classify(obsr);
 	
-		return modelLabel;	
-    }    
+	return label(obsr.modelLabel);
+    }
     
     /**
      * Classify.
@@ -175,10 +212,110 @@ public class Classification {
      * @return the string
      */
     public String classify(String [] cpArr){
-    	String modelLabel = "";
-		//int i;
-		
-		intCps.clear();
+	Observation obsr = observation(cpArr);
+	
+	if (obsr.curWordCp == -1 && obsr.dictLabel >= 0){    	
+	    //not in training data and 
+	    //there is only one corresponding label in dict		
+	    obsr.modelLabel = obsr.dictLabel;
+	} else inference.classify(obsr);
+	
+	return label(obsr.modelLabel);
+    }
+    
+    /**
+     * Classify a batch of observations, like {@link #classify(String[])} does
+     * for each of them. The observations are scored in one pass over the
+     * weights, which is faster than classifying them one by one.
+     *
+     * @param cpArrs the context predicates of each observation
+     * @return the label of each observation
+     */
+    public String[] classify(String[][] cpArrs) {
+	int[] modelLabels = new int[cpArrs.length];
+	int[][] batch = new int[cpArrs.length][];
+	int[] batchIdxes = new int[cpArrs.length];
+	int batchSize = 0;
+	
+	for (int i = 0; i < cpArrs.length; i++) {
+	    Observation obsr = observation(cpArrs[i]);
+	    
+	    if (obsr.curWordCp == -1 && obsr.dictLabel >= 0) {
+		modelLabels[i] = obsr.dictLabel;
+	    } else {
+		batch[batchSize] = obsr.cps;
+		batchIdxes[batchSize++] = i;
+	    }
+	}
+	
+	int[] batchLabels = classify(Arrays.copyOf(batch, batchSize));
+	for (int i = 0; i < batchSize; i++) {
+	    modelLabels[batchIdxes[i]] = batchLabels[i];
+	}
+	
+	String[] labels = new String[cpArrs.length];
+	for (int i = 0; i < labels.length; i++) {
+	    labels[i] = label(modelLabels[i]);
+	}
+	return labels;
+    }
+    
+    /**
+     * Classify a batch of observations, given by the ids of their context
+     * predicates (see {@link #cpIds(String)}).
+     *
+     * @param cps the context predicates of each observation
+     * @return the label id of each observation
+     */
+    public int[] classify(int[][] cps) {
+	int[] labels = new int[cps.length];
+	inference.classify(cps, labels);
+	return labels;
+    }
+    
+    /**
+     * Maps a list of context predicates to their ids, leaving out those that
+     * are not in the model.
+     *
+     * @param cps contains a list of context predicates
+     * @return the ids
+     */
+    public int[] cpIds(String cps) {
+	StringTokenizer strTok = new StringTokenizer(cps, " \t\r\n");	
+	int[] intCps = new int[strTok.countTokens()];
+	int count = 0;
+	
+	while (strTok.hasMoreTokens()) {
+	    int cpInt = data.cpStr2Int.get(strTok.nextToken());
+	    if (cpInt != StrIntMap.NOT_FOUND) {
+		intCps[count++] = cpInt;
+	    }
+	}
+	
+	return Arrays.copyOf(intCps, count);
+    }
+    
+    /**
+     * Gets the string of a label id.
+     *
+     * @param modelLabel the label id
+     * @return the label, or an empty string for unknown ids
+     */
+    public String label(int modelLabel) {
+	String lbStr = data.lbInt2Str.get(modelLabel);
+	return lbStr != null ? lbStr : "";
+    }
+    
+    /**
+     * Creates the observation for a list of context predicates of the POS
+     * tagger, with the ids of the dictionary predicates repeated to raise
+     * their weight.
+     *
+     * @param cpArr the cp arr
+     * @return the observation
+     */
+    private Observation observation(String [] cpArr){
+		List intCps = new ArrayList();
 		
 		int curWordCp = -1;
 		int dictLabel = -2;
@@ -186,9 +323,9 @@ public class Classification {
 		Vector<Integer> dictCps = new Vector<Integer>();		
 		
 		for (String cpStr : cpArr) {
-			Integer cpInt = (Integer)data.cpStr2Int.get(cpStr);
+			int cpInt = data.cpStr2Int.get(cpStr);
 			
-			if (cpInt != null) {
+			if (cpInt != StrIntMap.NOT_FOUND) {
 				intCps.add(cpInt);			
 			
 				if (cpStr.startsWith("w:0")){
@@ -208,7 +345,7 @@ public class Classification {
 						String label = cpStr.substring("dict:0:".length());
 						
 						if (data.lbStr2Int.containsKey(label))
-							dictLabel = (Integer) data.lbStr2Int.get(label);
+							dictLabel = data.lbStr2Int.get(label);
 						else dictLabel = -1;
 					}
 					else {//!=-1 && !=-2
@@ -230,23 +367,12 @@ public class Classification {
 			}
 		}
 		
-		//create observation and start inference
+		//create observation
 		Observation obsr = new Observation(intCps);
 		obsr.curWordCp = curWordCp;
 		obsr.dictLabel = dictLabel;
 		
-		 if (obsr.curWordCp == -1 && obsr.dictLabel >= 0){    	
-		    	//not in training data and 
-		    	//there is only one corresponding label in dict		
-			 obsr.modelLabel = obsr.dictLabel;
-		}else inference.classify(obsr);
-		
-		String lbStr = (String)data.lbInt2Str.get(new Integer(obsr.modelLabel));
-		if (lbStr != null) {
-		    modelLabel = lbStr;
-		}
-	
-		return modelLabel;	
+		return obsr;
     }
     
     /**
@@ -256,14 +382,19 @@ public class Classification {
      * @return the list
      */
     public List classify(List data) {
-		List list = new ArrayList();
-		
+		int[][] cps = new int[data.size()][];
 		for (int i = 0; i < data.size(); i++) {
-		    list.add(classify((String)data.get(i)));
+		    cps[i] = cpIds((String)data.get(i));
+		}
+		
+		int[] labels = classify(cps);
+		
+		List list = new ArrayList();
+		for (int i = 0; i < labels.length; i++) {
+		    list.add(label(labels[i]));
 		}
 		
 		return list;
     }    
     
 } // end of class Classification
-
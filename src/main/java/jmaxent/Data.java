@@ -28,8 +28,12 @@
 package jmaxent;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+import jvntextpro.util.IntObjMap;
+import jvntextpro.util.StrIntMap;
 import jvntextpro.util.StringUtils;
 
 
@@ -43,16 +47,16 @@ public class Data {
     Option option = null;
 
     /** The lb str2 int. */
-    public Map lbStr2Int = null;
+    public StrIntMap lbStr2Int = null;
     
     /** The lb int2 str. */
-    public Map lbInt2Str = null;
+    public IntObjMap<String> lbInt2Str = null;
     
     /** The cp str2 int. */
-    public Map cpStr2Int = null;
+    public StrIntMap cpStr2Int = null;
     
     /** The cp int2 str. */
-    public Map cpInt2Str = null;
+    public IntObjMap<String> cpInt2Str = null;
 
     /** The trn data. */
     public List trnData = null;
@@ -82,13 +86,13 @@ public class Data {
 	if (cpStr2Int != null) {
 	    cpStr2Int.clear();
 	} else {
-	    cpStr2Int = new HashMap();
+	    cpStr2Int = new StrIntMap();
 	}
 	
 	if (cpInt2Str != null) {
 	    cpInt2Str.clear();
 	} else {
-	    cpInt2Str = new HashMap();
+	    cpInt2Str = new IntObjMap<String>();
 	}
 	
 	String line;
@@ -120,12 +124,15 @@ public class Data {
 	    }
 	    
 	    String cpStr = strTok.nextToken();
-	    String cpInt = strTok.nextToken();
+	    int cpInt = Integer.parseInt(strTok.nextToken());
 	    
-	    cpStr2Int.put(cpStr, new Integer(cpInt));
-	    cpInt2Str.put(new Integer(cpInt), cpStr);
+	    cpStr2Int.put(cpStr, cpInt);
+	    cpInt2Str.put(cpInt, cpStr);
 	}
 	
+	cpStr2Int.trim();
+	cpInt2Str.trim();
+	
 	System.out.println("Reading context predicate maps (" + 
 		    Integer.toString(cpStr2Int.size()) + " entries) completed!");
 	
@@ -135,6 +142,33 @@ public class Data {
 	option.numCps = cpStr2Int.size();
     }
     
+    /**
+     * Read cp maps from a binary model.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readCpMaps(ByteBuffer buf) throws IOException {
+	int numCps = buf.getInt();
+	cpStr2Int = new StrIntMap(numCps);
+	cpInt2Str = new IntObjMap<String>(numCps);
+	
+	for (int i = 0; i < numCps; i++) {
+	    String cpStr = BinaryModel.readString(buf);
+	    int cpInt = buf.getInt();
+	    
+	    cpStr2Int.put(cpStr, cpInt);
+	    cpInt2Str.put(cpInt, cpStr);
+	}
+	
+	System.out.println("Reading context predicate maps (" + 
+		    Integer.toString(cpStr2Int.size()) + " entries) completed!");
+	
+	BinaryModel.readSectionEnd(buf);
+	
+	option.numCps = cpStr2Int.size();
+    }
+    
     /**
      * Num cps.
      *
@@ -156,18 +190,16 @@ public class Data {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public void writeCpMaps(Dictionary dict, PrintWriter fout) throws IOException {
-	Iterator it = null;
-    
 	if (cpStr2Int == null) {
 	    return;
 	}
 	
+	String[] cpStrs = cpStr2Int.keys();
 	int count = 0;
-	for (it = cpStr2Int.keySet().iterator(); it.hasNext(); ) {
-	    String cpStr = (String)it.next();
-	    Integer cpInt = (Integer)cpStr2Int.get(cpStr);
+	for (int i = 0; i < cpStrs.length; i++) {
+	    int cpInt = cpStr2Int.get(cpStrs[i]);
 	    
-	    Element elem = (Element)dict.dict.get(cpInt);
+	    Element elem = dict.dict.get(cpInt);
 	    if (elem != null) {
 		if (elem.chosen == 1) {
 		    count++;
@@ -178,14 +210,14 @@ public class Data {
 	// write the map size
 	fout.println(Integer.toString(count));
 	
-	for (it = cpStr2Int.keySet().iterator(); it.hasNext(); ) {
-	    String cpStr = (String)it.next();
-	    Integer cpInt = (Integer)cpStr2Int.get(cpStr);
+	for (int i = 0; i < cpStrs.length; i++) {
+	    String cpStr = cpStrs[i];
+	    int cpInt = cpStr2Int.get(cpStr);
 	    
-	    Element elem = (Element)dict.dict.get(cpInt);
+	    Element elem = dict.dict.get(cpInt);
 	    if (elem != null) {
 		if (elem.chosen == 1) {
-		    fout.println(cpStr + " " + cpInt.toString());
+		    fout.println(cpStr + " " + Integer.toString(cpInt));
 		}
 	    }	    
 	}
@@ -194,6 +226,27 @@ public class Data {
 	fout.println(Option.modelSeparator);
     }
     
+    /**
+     * Write cp maps to a binary model. Unlike the text model written after
+     * training, the map is written as it was read, so that the binary model
+     * knows the same context predicates as the text model it was converted
+     * from.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeCpMaps(DataOutputStream out) throws IOException {
+	String[] cpStrs = cpStr2Int.keys();
+	
+	out.writeInt(cpStrs.length);
+	for (int i = 0; i < cpStrs.length; i++) {
+	    BinaryModel.writeString(out, cpStrs[i]);
+	    out.writeInt(cpStr2Int.get(cpStrs[i]));
+	}
+	
+	BinaryModel.writeSectionEnd(out);
+    }
+    
     /**
      * Read lb maps.
      *
@@ -204,13 +257,13 @@ public class Data {
 	if (lbStr2Int != null) {
 	    lbStr2Int.clear();
 	} else {
-	    lbStr2Int = new HashMap();
+	    lbStr2Int = new StrIntMap();
 	}
 	
 	if (lbInt2Str != null) {
 	    lbInt2Str.clear();
 	} else {
-	    lbInt2Str = new HashMap();
+	    lbInt2Str = new IntObjMap<String>();
 	}
 	
 	String line;
@@ -242,10 +295,10 @@ public class Data {
 	    }
 	    
 	    String lbStr = strTok.nextToken();
-	    String lbInt = strTok.nextToken();
+	    int lbInt = Integer.parseInt(strTok.nextToken());
 	    
-	    lbStr2Int.put(lbStr, new Integer(lbInt));
-	    lbInt2Str.put(new Integer(lbInt), lbStr);
+	    lbStr2Int.put(lbStr, lbInt);
+	    lbInt2Str.put(lbInt, lbStr);
 	}
 	
 	System.out.println("Reading label maps (" + 
@@ -257,6 +310,33 @@ public class Data {
 	option.numLabels = lbStr2Int.size();	    
     }
     
+    /**
+     * Read lb maps from a binary model.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readLbMaps(ByteBuffer buf) throws IOException {
+	int numLabels = buf.getInt();
+	lbStr2Int = new StrIntMap(numLabels);
+	lbInt2Str = new IntObjMap<String>(numLabels);
+	
+	for (int i = 0; i < numLabels; i++) {
+	    String lbStr = BinaryModel.readString(buf);
+	    int lbInt = buf.getInt();
+	    
+	    lbStr2Int.put(lbStr, lbInt);
+	    lbInt2Str.put(lbInt, lbStr);
+	}
+	
+	System.out.println("Reading label maps (" + 
+		    Integer.toString(lbStr2Int.size()) + " entries) completed!");
+	
+	BinaryModel.readSectionEnd(buf);
+	
+	option.numLabels = lbStr2Int.size();
+    }
+    
     /**
      * Num labels.
      *
@@ -284,17 +364,36 @@ public class Data {
 	// write the map size
 	fout.println(Integer.toString(lbStr2Int.size()));
 	
-	for (Iterator it = lbStr2Int.keySet().iterator(); it.hasNext(); ) {
-	    String lbStr = (String)it.next();
-	    Integer lbInt = (Integer)lbStr2Int.get(lbStr);
+	String[] lbStrs = lbStr2Int.keys();
+	for (int i = 0; i < lbStrs.length; i++) {
+	    String lbStr = lbStrs[i];
+	    int lbInt = lbStr2Int.get(lbStr);
 	    
-	    fout.println(lbStr + " " + lbInt.toString());
+	    fout.println(lbStr + " " + Integer.toString(lbInt));
 	}    
 	
 	// write the line ###...
 	fout.println(Option.modelSeparator);	
     }
     
+    /**
+     * Write lb maps to a binary model.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeLbMaps(DataOutputStream out) throws IOException {
+	String[] lbStrs = lbStr2Int.keys();
+	
+	out.writeInt(lbStrs.length);
+	for (int i = 0; i < lbStrs.length; i++) {
+	    BinaryModel.writeString(out, lbStrs[i]);
+	    out.writeInt(lbStr2Int.get(lbStrs[i]));
+	}
+	
+	BinaryModel.writeSectionEnd(out);
+    }
+    
     /**
      * Read trn data.
      *
@@ -304,25 +403,25 @@ public class Data {
 	if (cpStr2Int != null) {
 	    cpStr2Int.clear();
 	} else {
-	    cpStr2Int = new HashMap();
+	    cpStr2Int = new StrIntMap();
 	}
 	
 	if (cpInt2Str != null) {
 	    cpInt2Str.clear();	    
 	} else {
-	    cpInt2Str = new HashMap();
+	    cpInt2Str = new IntObjMap<String>();
 	}
 	
 	if (lbStr2Int != null) {
 	    lbStr2Int.clear();
 	} else {
-	    lbStr2Int = new HashMap();
+	    lbStr2Int = new StrIntMap();
 	}
 	
 	if (lbInt2Str != null) {
 	    lbInt2Str.clear();
 	} else {
-	    lbInt2Str = new HashMap();
+	    lbInt2Str = new IntObjMap<String>();
 	}
 	
 	if (trnData != null) {
@@ -381,19 +480,19 @@ public class Data {
 		
 		for (int i = 0; i < strCps.size(); i++) {	
 		    String cpStr = (String)strCps.get(i);		    
-		    Integer cpInt = (Integer)cpStr2Int.get(cpStr);		    
-		    if (cpInt != null) {
+		    int cpInt = cpStr2Int.get(cpStr);		    
+		    if (cpInt != StrIntMap.NOT_FOUND) {
 			intCps.add(cpInt);
 		    } else {
-			intCps.add(new Integer(cpStr2Int.size()));
-			cpStr2Int.put(cpStr, new Integer(cpStr2Int.size()));
-			cpInt2Str.put(new Integer(cpInt2Str.size()), cpStr);
+			intCps.add(cpStr2Int.size());
+			cpInt2Str.put(cpInt2Str.size(), cpStr);
+			cpStr2Int.put(cpStr, cpStr2Int.size());
 		    }
 		}
 		
-		Integer labelInt = (Integer)lbStr2Int.get(labelStr);
-		if (labelInt == null) {
-		    labelInt = new Integer(lbStr2Int.size());
+		int labelInt = lbStr2Int.get(labelStr);
+		if (labelInt == StrIntMap.NOT_FOUND) {
+		    labelInt = lbStr2Int.size();
 		    
 //		    System.out.println("hey:" + labelStr);
 //		    flog.write(labelStr + "\t" + line + "\n");
@@ -406,7 +505,7 @@ public class Data {
 		    cps[i] = ((Integer)intCps.get(i)).intValue();
 		}
 		
-		Observation obsr = new Observation(labelInt.intValue(), cps);
+		Observation obsr = new Observation(labelInt, cps);
 		
 		// add this observation to the data
 		trnData.add(obsr);
@@ -466,16 +565,16 @@ public class Data {
 		
 		for (int i = 0; i < strCps.size(); i++) {	
 		    String cpStr = (String)strCps.get(i);
-		    Integer cpInt = (Integer)cpStr2Int.get(cpStr);		    
-		    if (cpInt != null) {
+		    int cpInt = cpStr2Int.get(cpStr);		    
+		    if (cpInt != StrIntMap.NOT_FOUND) {
 			intCps.add(cpInt);
 		    } else {
 			// do nothing
 		    }
 		}
 		
-		Integer labelInt = (Integer)lbStr2Int.get(labelStr);
-		if (labelInt == null) {
+		int labelInt = lbStr2Int.get(labelStr);
+		if (labelInt == StrIntMap.NOT_FOUND) {
 		    System.out.println("Reading testing observation, label not found or invalid");
 		    return;
 		}
@@ -485,7 +584,7 @@ public class Data {
 		    cps[i] = ((Integer)intCps.get(i)).intValue();
 		}
 		
-		Observation obsr = new Observation(labelInt.intValue(), cps);
+		Observation obsr = new Observation(labelInt, cps);
 		
 		// add this observation to the data
 		tstData.add(obsr);
@@ -28,8 +28,12 @@
 package jmaxent;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+import jvntextpro.util.IntObjMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Dictionary.
@@ -37,7 +41,7 @@ import java.util.*;
 public class Dictionary {
 
     /** The dict. */
-    public Map dict = null;
+    public IntObjMap<Element> dict = null;
     
     /** The option. */
     public Option option = null; // reference to option object
@@ -49,7 +53,7 @@ public class Dictionary {
      * Instantiates a new dictionary.
      */
     public Dictionary() {
-	dict = new HashMap();
+	dict = new IntObjMap<Element>();
     }
     
     /**
@@ -61,7 +65,7 @@ public class Dictionary {
     public Dictionary(Option option, Data data) {
 	this.option = option;
 	this.data = data;
-	dict = new HashMap();
+	dict = new IntObjMap<Element>();
     }
     
     // read dictionary from model file 
@@ -126,9 +130,11 @@ public class Dictionary {
 	    }
 	    
 	    // insert the element to the dictionary
-	    dict.put(new Integer(cp), elem);
+	    dict.put(cp, elem);
 	}
 	
+	dict.trim();
+	
 	System.out.println("Reading dictionary (" + Integer.toString(dict.size()) +
 		    " entries) completed!");
 		    
@@ -136,6 +142,44 @@ public class Dictionary {
 	line = fin.readLine();
     }
     
+    // read dictionary from binary model file
+    /**
+     * Read dict.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readDict(ByteBuffer buf) throws IOException {
+	int dictSize = buf.getInt();
+	dict = new IntObjMap<Element>(dictSize);
+	
+	for (int i = 0; i < dictSize; i++) {
+	    int cp = buf.getInt();
+	    
+	    // create a new element
+	    Element elem = new Element();
+	    elem.count = buf.getInt();
+	    elem.chosen = 1;
+	    
+	    int numLabels = buf.getInt();
+	    for (int j = 0; j < numLabels; j++) {
+		int label = buf.getInt();
+		int count = buf.getInt();
+		int fidx = buf.getInt();
+		
+		elem.lbCntFidxes.put(Integer.valueOf(label), new CountFIdx(count, fidx));
+	    }
+	    
+	    // insert the element to the dictionary
+	    dict.put(cp, elem);
+	}
+	
+	System.out.println("Reading dictionary (" + Integer.toString(dict.size()) +
+		    " entries) completed!");
+	
+	BinaryModel.readSectionEnd(buf);
+    }
+    
     // write dictionary to model file
     /**
      * Write dict.
@@ -144,12 +188,11 @@ public class Dictionary {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public void writeDict(PrintWriter fout) throws IOException {
-	Iterator it = null;
+	int[] cpInts = dict.keys();
 	int count = 0;
 
-	for (it = dict.keySet().iterator(); it.hasNext(); ) {
-	    Integer cpInt = (Integer)it.next();
-	    Element elem = (Element)dict.get(cpInt);
+	for (int i = 0; i < cpInts.length; i++) {
+	    Element elem = dict.get(cpInts[i]);
 	    
 	    if (elem.chosen == 1) {
 		count++;
@@ -159,17 +202,17 @@ public class Dictionary {
 	// write the dictionary size
 	fout.println(Integer.toString(count));	
 	
-	for (it = dict.keySet().iterator(); it.hasNext(); ) {    
+	for (int i = 0; i < cpInts.length; i++) {    
 	
-	    Integer cpInt = (Integer)it.next();
-	    Element elem = (Element)dict.get(cpInt);
+	    int cpInt = cpInts[i];
+	    Element elem = dict.get(cpInt);
 	    
 	    if (elem.chosen == 0) {
 		continue;
 	    }
 	    
 	    // write the context predicate and its count
-	    fout.print(cpInt.toString() + ":" + Integer.toString(elem.count));
+	    fout.print(Integer.toString(cpInt) + ":" + Integer.toString(elem.count));
 	    
 	    for (Iterator lbIt = elem.lbCntFidxes.keySet().iterator(); lbIt.hasNext(); ) {
 		Integer labelInt = (Integer)lbIt.next();
@@ -191,6 +234,48 @@ public class Dictionary {
 	fout.println(Option.modelSeparator);
     }
     
+    // write dictionary to binary model file
+    /**
+     * Write dict.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeDict(DataOutputStream out) throws IOException {
+	List<Integer> cpInts = new ArrayList<Integer>();
+	int[] keys = dict.keys();
+	for (int i = 0; i < keys.length; i++) {
+	    if (dict.get(keys[i]).chosen == 1) {
+		cpInts.add(keys[i]);
+	    }
+	}
+	
+	out.writeInt(cpInts.size());
+	for (int cpInt : cpInts) {
+	    Element elem = dict.get(cpInt);
+	    
+	    List<Integer> labels = new ArrayList<Integer>();
+	    for (Iterator lbIt = elem.lbCntFidxes.keySet().iterator(); lbIt.hasNext(); ) {
+		Integer labelInt = (Integer)lbIt.next();
+		if (((CountFIdx)elem.lbCntFidxes.get(labelInt)).fidx >= 0) {
+		    labels.add(labelInt);
+		}
+	    }
+	    
+	    out.writeInt(cpInt);
+	    out.writeInt(elem.count);
+	    out.writeInt(labels.size());
+	    for (Integer labelInt : labels) {
+		CountFIdx cntFIdx = (CountFIdx)elem.lbCntFidxes.get(labelInt);
+		out.writeInt(labelInt);
+		out.writeInt(cntFIdx.count);
+		out.writeInt(cntFIdx.fidx);
+	    }
+	}
+	
+	BinaryModel.writeSectionEnd(out);
+    }
+    
     // add a context predicate (and the label it supports) to dictionary
     /**
      * Adds the dict.
@@ -200,7 +285,7 @@ public class Dictionary {
      * @param count the count
      */
     public void addDict(int cp, int label, int count) {
-	Element elem = (Element)dict.get(new Integer(cp));
+	Element elem = dict.get(cp);
 	
 	if (elem == null) {
 	    // if the context predicate is not found
@@ -211,7 +296,7 @@ public class Dictionary {
 	    elem.lbCntFidxes.put(new Integer(label), cntFIdx);
 	    
 	    // insert the new element to the dict
-	    dict.put(new Integer(cp), elem);
+	    dict.put(cp, elem);
 	    
 	} else {
 	    // update the total count
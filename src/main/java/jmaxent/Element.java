@@ -45,10 +45,10 @@ public class Element {
     Map lbCntFidxes = null;	// map of labels to CountFeatureIdxes
     
     /** The cp features. */
-    List cpFeatures = null;	// features associated with this context predicates
+    volatile List cpFeatures = null;	// features associated with this context predicates, published before isScanned
     
     /** The is scanned. */
-    boolean isScanned = false;	// be scanned or not
+    volatile boolean isScanned = false;	// be scanned or not, set after cpFeatures is complete
     
     /**
      * Instantiates a new element.
@@ -174,7 +174,7 @@ public class Evaluation {
 	    }
 	    
 	    String classStr = Integer.toString(i);	    
-	    String labelStr = (String)model.data.lbInt2Str.get(new Integer(i));
+	    String labelStr = model.data.lbInt2Str.get(i);
 	    if (labelStr != null) {
 		classStr = labelStr;
 	    }
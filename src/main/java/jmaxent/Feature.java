@@ -29,6 +29,9 @@ package jmaxent;
 
 import java.util.*;
 
+import jvntextpro.util.IntObjMap;
+import jvntextpro.util.StrIntMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Feature.
@@ -76,7 +79,7 @@ public class Feature {
      * @param cp the cp
      * @param fmap the fmap
      */
-    public Feature(int label, int cp, Map fmap) {
+    public Feature(int label, int cp, StrIntMap fmap) {
 	FeatureInit(label, cp);
 	strId2IdxAdd(fmap);
     }
@@ -89,7 +92,7 @@ public class Feature {
      * @param cpStr2Int the cp str2 int
      * @param lbStr2Int the lb str2 int
      */
-    public Feature(String str, Map cpStr2Int, Map lbStr2Int) {	
+    public Feature(String str, StrIntMap cpStr2Int, StrIntMap lbStr2Int) {	
 	FeatureInit(str, cpStr2Int, lbStr2Int);
     }
     
@@ -102,7 +105,7 @@ public class Feature {
      * @param lbStr2Int the lb str2 int
      * @param fmap the fmap
      */
-    public Feature(String str, Map cpStr2Int, Map lbStr2Int, Map fmap) {
+    public Feature(String str, StrIntMap cpStr2Int, StrIntMap lbStr2Int, StrIntMap fmap) {
 	FeatureInit(str, cpStr2Int, lbStr2Int);
 	strId2IdxAdd(fmap);
     }
@@ -126,7 +129,7 @@ public class Feature {
      * @param cpStr2Int the cp str2 int
      * @param lbStr2Int the lb str2 int
      */
-    public void FeatureInit(String str, Map cpStr2Int, Map lbStr2Int) {
+    public void FeatureInit(String str, StrIntMap cpStr2Int, StrIntMap lbStr2Int) {
 	StringTokenizer strTok = new StringTokenizer(str, " \t\r\n");
 	// <label> <cp> <idx> <wgt>
 	
@@ -141,9 +144,9 @@ public class Feature {
 	float val = 1;
 	double wgt = Double.parseDouble(strTok.nextToken());
 	
-	Integer labelInt = (Integer)lbStr2Int.get(labelStr);
-	Integer cpInt = (Integer)cpStr2Int.get(cpStr);
-	FeatureInit(labelInt.intValue(), cpInt.intValue());
+	int labelInt = lbStr2Int.get(labelStr);
+	int cpInt = cpStr2Int.get(cpStr);
+	FeatureInit(labelInt, cpInt);
 	
 	this.idx = idx;
 	this.val = val;
@@ -157,10 +160,10 @@ public class Feature {
      * @param fmap the fmap
      * @return the int
      */
-    public int strId2Idx(Map fmap) {
-	Integer idxInt = (Integer)fmap.get(strId);
-	if (idxInt != null) {
-	    this.idx = idxInt.intValue();
+    public int strId2Idx(StrIntMap fmap) {
+	int idxInt = fmap.get(strId);
+	if (idxInt != StrIntMap.NOT_FOUND) {
+	    this.idx = idxInt;
 	}
 	
 	return this.idx;
@@ -174,12 +177,12 @@ public class Feature {
      * @param fmap the fmap
      * @return the int
      */
-    public int strId2IdxAdd(Map fmap) {
+    public int strId2IdxAdd(StrIntMap fmap) {
 	strId2Idx(fmap);
 	
 	if (idx < 0) {
 	    idx = fmap.size();
-	    fmap.put(strId, new Integer(idx));
+	    fmap.put(strId, idx);
 	}
 	
 	return idx;
@@ -192,7 +195,7 @@ public class Feature {
      * @param fmap the fmap
      * @return the int
      */
-    public int index(Map fmap) {
+    public int index(StrIntMap fmap) {
 	return strId2Idx(fmap);
     }
     
@@ -204,15 +207,15 @@ public class Feature {
      * @param lbInt2Str the lb int2 str
      * @return the string
      */
-    public String toString(Map cpInt2Str, Map lbInt2Str) {
+    public String toString(IntObjMap<String> cpInt2Str, IntObjMap<String> lbInt2Str) {
 	String str = "";
 	
-	String labelStr = (String)lbInt2Str.get(new Integer(label));
+	String labelStr = lbInt2Str.get(label);
 	if (labelStr != null) {
 	    str += labelStr + " ";
 	}
 	
-	String cpStr = (String)cpInt2Str.get(new Integer(cp));
+	String cpStr = cpInt2Str.get(cp);
 	if (cpStr != null) {
 	    str += cpStr + " ";
 	}
@@ -28,8 +28,12 @@
 package jmaxent;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+import jvntextpro.util.StrIntMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class FeatureGen.
@@ -40,7 +44,7 @@ public class FeatureGen {
     List features = null;	// list of features
     
     /** The fmap. */
-    Map fmap = null;		// feature map
+    StrIntMap fmap = null;	// feature map
     
     /** The option. */
     Option option = null;	// option object
@@ -96,7 +100,7 @@ public class FeatureGen {
 	if (fmap != null) {
 	    fmap.clear(); 
 	} else {
-	    fmap = new HashMap();
+	    fmap = new StrIntMap();
 	}	
 	
 	if (currentFeatures != null) {
@@ -118,7 +122,7 @@ public class FeatureGen {
 		Element elem = null;
 		CountFIdx cntFIdx = null;
 		
-		elem = (Element)dict.dict.get(new Integer(obsr.cps[j]));
+		elem = dict.dict.get(obsr.cps[j]);
 		if (elem != null) {
 		    if (elem.count <= option.cpRareThreshold) {
 			// skip this context predicate, it is too rare
@@ -188,7 +192,7 @@ public class FeatureGen {
 	if (fmap != null) {
 	    fmap.clear(); 
 	} else {
-	    fmap = new HashMap();
+	    fmap = new StrIntMap();
 	}
 	
 	if (currentFeatures != null) {
@@ -230,16 +234,9 @@ public class FeatureGen {
 	    // create a new feature by parsing the line
 	    Feature f = new Feature(line, data.cpStr2Int, data.lbStr2Int);
 	    
-	    Integer fidx = (Integer)fmap.get(f.strId);
-	    if (fidx == null) {
-		// insert the feature into the feature map
-		fmap.put(f.strId, new Integer(f.idx));
-		features.add(f);
-	    }
-	    else {
-	    fmap.put(f.strId, new Integer(f.idx));	    	
-		features.add(f);
-	    }
+	    // insert the feature into the feature map
+	    fmap.put(f.strId, f.idx);
+	    features.add(f);
 	}
 	
 	System.out.println("Reading " + Integer.toString(features.size()) + " features completed!");
@@ -250,6 +247,35 @@ public class FeatureGen {
 	option.numFeatures = features.size();
     }
     
+    /**
+     * Read features from a binary model. The weights are stored separately,
+     * see {@link Model#readWeights(ByteBuffer)}.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readFeatures(ByteBuffer buf) throws IOException {
+	int numFeatures = buf.getInt();
+	features = new ArrayList(numFeatures);
+	fmap = new StrIntMap(numFeatures);
+	currentFeatures = new ArrayList();
+	
+	for (int i = 0; i < numFeatures; i++) {
+	    Feature f = new Feature(buf.getInt(), buf.getInt());
+	    f.idx = buf.getInt();
+	    
+	    // insert the feature into the feature map
+	    fmap.put(f.strId, f.idx);
+	    features.add(f);
+	}
+	
+	System.out.println("Reading " + Integer.toString(features.size()) + " features completed!");
+	
+	BinaryModel.readSectionEnd(buf);
+	
+	option.numFeatures = features.size();
+    }
+    
     /**
      * Write features.
      *
@@ -269,6 +295,25 @@ public class FeatureGen {
 	fout.println(Option.modelSeparator);
     }
     
+    /**
+     * Write features to a binary model, without their weights.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeFeatures(DataOutputStream out) throws IOException {
+	out.writeInt(features.size());
+	
+	for (int i = 0; i < features.size(); i++) {
+	    Feature f = (Feature)features.get(i);
+	    out.writeInt(f.label);
+	    out.writeInt(f.cp);
+	    out.writeInt(f.idx);
+	}
+	
+	BinaryModel.writeSectionEnd(out);
+    }
+    
     /**
      * Scan reset.
      */
@@ -287,34 +332,53 @@ public class FeatureGen {
 	
 	// scan over all context predicates
 	for (int i = 0; i < obsr.cps.length; i++) {
-	    Element elem = (Element)dict.dict.get(new Integer(obsr.cps[i]));
-	    if (elem == null) {//this context predicate doesn't appear in the dictionary of training data
+	    List cpFeatures = cpFeatures(obsr.cps[i]);
+	    if (cpFeatures == null) {//this context predicate doesn't appear in the dictionary of training data
 		continue;
 	    }
 	    
-	    if (!(elem.isScanned)) {
-		// scan all labels for features
-		Iterator it = elem.lbCntFidxes.keySet().iterator();
-		while (it.hasNext()) {
-		    Integer labelInt = (Integer)it.next();
-		    CountFIdx cntFIdx = (CountFIdx)elem.lbCntFidxes.get(labelInt);
+	    currentFeatures.addAll(cpFeatures);
+	}		
+    }    
+    
+    /**
+     * Gets the features of a context predicate, collecting them from the
+     * dictionary when the context predicate is seen for the first time. Can be
+     * called by several threads at once, the feature list is only published
+     * once it is complete.
+     *
+     * @param cp the context predicate
+     * @return the features, or null if the context predicate is not in the dictionary
+     */
+    List cpFeatures(int cp) {
+	Element elem = dict.dict.get(cp);
+	if (elem == null) {
+	    return null;
+	}
+	
+	if (!(elem.isScanned)) {
+	    // scan all labels for features
+	    List cpFeatures = new ArrayList();
+	    Iterator it = elem.lbCntFidxes.keySet().iterator();
+	    while (it.hasNext()) {
+		Integer labelInt = (Integer)it.next();
+		CountFIdx cntFIdx = (CountFIdx)elem.lbCntFidxes.get(labelInt);
 
-		    if (cntFIdx.fidx >= 0) {
-			Feature f = new Feature();
-			f.FeatureInit(labelInt.intValue(), obsr.cps[i]);
-			f.idx = cntFIdx.fidx;
-			
-			elem.cpFeatures.add(f);
-		    }	    
-		}		
-		
-		elem.isScanned = true;
-	    }
+		if (cntFIdx.fidx >= 0) {
+		    Feature f = new Feature();
+		    f.FeatureInit(labelInt.intValue(), cp);
+		    f.idx = cntFIdx.fidx;
+		    
+		    cpFeatures.add(f);
+		}	    
+	    }		
 	    
-	    for (int j = 0; j < elem.cpFeatures.size(); j++) {
-		currentFeatures.add(elem.cpFeatures.get(j));
-	    }
-	}		
+	    elem.cpFeatures = cpFeatures;
+	    elem.isScanned = true;
+	    return cpFeatures;
+	}
+	
+	return elem.cpFeatures;
     }    
     
     /**
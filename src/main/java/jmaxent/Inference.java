@@ -41,9 +41,17 @@ public class Inference {
     /** The num labels. */
     public int numLabels = 0;    
     
-    // for classification
-    /** The temp. */
-    double[] temp = null;
+    /** The largest number of entries of the dense weights, 16 MB of doubles. */
+    public static final int MAX_DENSE_WEIGHTS = 1 << 21;
+    
+    /** The largest number of entries of the dense weights per feature of the model. */
+    public static final int MAX_DENSE_WEIGHTS_PER_FEATURE = 8;
+    
+    /** The dense weights, the weight of label l for context predicate cp is at cp * numLabels + l. */
+    double[] cpWeights = null;
+    
+    /** The number of context predicates in the dense weights. */
+    int numCpRows = 0;
     
     /**
      * Instantiates a new inference.
@@ -57,38 +65,120 @@ public class Inference {
      */
     public void init() {
     	numLabels = model.data.numLabels();
-        temp = new double[numLabels];
     }
     
     /**
-     * Classify.
+     * Inits the dense weights for {@link #classify(int[][], int[])}, to be
+     * called once the feature weights are known. The weights are not built if
+     * the matrix would have more than {@link #MAX_DENSE_WEIGHTS} entries, or
+     * more than {@link #MAX_DENSE_WEIGHTS_PER_FEATURE} entries per feature of a
+     * sparse model, observations are then scored from the feature lists.
+     */
+    public void initWeights() {
+	int[] cps = model.dict.dict.keys();
+	int numRows = 0;
+	long numFeatures = 0;
+	for (int i = 0; i < cps.length; i++) {
+	    numRows = Math.max(numRows, cps[i] + 1);
+	    numFeatures += model.feaGen.cpFeatures(cps[i]).size();
+	}
+	
+	long numWeights = (long)numRows * numLabels;
+	if (numWeights > MAX_DENSE_WEIGHTS || numWeights > numFeatures * MAX_DENSE_WEIGHTS_PER_FEATURE) {
+	    return;
+	}
+	
+	double[] weights = new double[numRows * numLabels];
+	for (int i = 0; i < cps.length; i++) {
+	    List cpFeatures = model.feaGen.cpFeatures(cps[i]);
+	    
+	    for (int j = 0; j < cpFeatures.size(); j++) {
+		Feature f = (Feature)cpFeatures.get(j);
+		
+		// a context predicate has at most one feature per label, so every
+		// entry is the same product the feature lists add to the score
+		weights[cps[i] * numLabels + f.label] = model.lambda[f.idx] * f.val;
+	    }
+	}
+	
+	cpWeights = weights;
+	numCpRows = numRows;
+    }
+    
+    /**
+     * Classify. Only reads the model, so several threads can classify at once.
      *
      * @param obsr the obsr
      */
     public void classify(Observation obsr) {
+	obsr.modelLabel = classify(obsr.cps, new double[numLabels]);
+    }
     
-	int i;	
-	for (i = 0; i < numLabels; i++) {
-	    temp[i] = 0.0;
+    /**
+     * Classify a batch of observations, given by the ids of their context
+     * predicates. Only reads the model, so several threads can classify at once.
+     *
+     * @param cps the context predicates of each observation
+     * @param labels receives the label of each observation
+     */
+    public void classify(int[][] cps, int[] labels) {
+	double[] scores = new double[numLabels];
+	
+	for (int i = 0; i < cps.length; i++) {
+	    Arrays.fill(scores, 0.0);
+	    labels[i] = classify(cps[i], scores);
 	}
+    }
+    
+    /**
+     * Classify an observation.
+     *
+     * @param cps the context predicates of the observation
+     * @param scores receives the score of each label, must be all zero
+     * @return the label with the highest score
+     */
+    private int classify(int[] cps, double[] scores) {
+	int i;
+	double[] weights = cpWeights;
 	
-	model.feaGen.startScanFeatures(obsr);
-	while (model.feaGen.hasNextFeature()) {
-	    Feature f = model.feaGen.nextFeature();
-	    
-	    temp[f.label] += model.lambda[f.idx] * f.val;
+	if (weights != null) {
+	    // add up the weight rows of all context predicates
+	    for (i = 0; i < cps.length; i++) {
+		if (cps[i] >= numCpRows) {
+		    continue;
+		}
+		
+		int row = cps[i] * numLabels;
+		for (int label = 0; label < numLabels; label++) {
+		    scores[label] += weights[row + label];
+		}
+	    }
+	} else {
+	    // examine the features of all context predicates
+	    for (i = 0; i < cps.length; i++) {
+		List cpFeatures = model.feaGen.cpFeatures(cps[i]);
+		if (cpFeatures == null) {
+		    continue;
+		}
+		
+		for (int j = 0; j < cpFeatures.size(); j++) {
+		    Feature f = (Feature)cpFeatures.get(j);
+		    
+		    scores[f.label] += model.lambda[f.idx] * f.val;
+		}
+	    }
 	}
 	
-	double max = temp[0];
+	double max = scores[0];
 	int maxLabel = 0;
 	for (i = 1; i < numLabels; i++) {
-	    if (max < temp[i]) {
-		max = temp[i];
+	    if (max < scores[i]) {
+		max = scores[i];
 		maxLabel = i;
 	    }
 	}
 	
-	obsr.modelLabel = maxLabel;
+	return maxLabel;
     }
     
     /**
@@ -28,8 +28,12 @@
 package jmaxent;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import java.util.*;
 
+import jvntextpro.util.BinaryModel;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Model.
@@ -150,6 +154,40 @@ public class Model {
 	}    
     }
     
+    /**
+     * Read the feature weights from a binary model, instead of taking them
+     * from the feature list as {@link #initInference()} does.
+     *
+     * @param buf the buf
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void readWeights(ByteBuffer buf) throws IOException {
+	// the trainer updates lambda in place, so the weights are copied out of the mapping
+	DoubleBuffer weights = BinaryModel.readDoubles(buf);
+	lambda = new double[weights.remaining()];
+	weights.get(lambda);
+	
+	for (int i = 0; i < feaGen.features.size(); i++) {
+	    Feature f = (Feature)feaGen.features.get(i);
+	    f.wgt = lambda[f.idx];
+	}
+	
+	BinaryModel.readSectionEnd(buf);
+    }
+    
+    /**
+     * Write the feature weights to a binary model.
+     *
+     * @param out the out
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void writeWeights(DataOutputStream out) throws IOException {
+	initInference();
+	
+	BinaryModel.writeDoubles(out, DoubleBuffer.wrap(lambda));
+	BinaryModel.writeSectionEnd(out);
+    }
+    
     /**
      * Do inference.
      *
@@ -29,6 +29,8 @@ package jmaxent;
 
 import java.util.*;
 
+import jvntextpro.util.IntObjMap;
+
 // TODO: Auto-generated Javadoc
 /**
  * The Class Observation.
@@ -112,10 +114,10 @@ public class Observation {
      * @param lbInt2Str the lb int2 str
      * @return the string
      */
-    public String toString(Map lbInt2Str) {
+    public String toString(IntObjMap<String> lbInt2Str) {
 	String res = originalData;
 
-	String modelLabelStr = (String)lbInt2Str.get(new Integer(modelLabel));
+	String modelLabelStr = lbInt2Str.get(modelLabel);
 	if (modelLabelStr != null) {
 	    res += Option.labelSeparator + modelLabelStr;
 	}
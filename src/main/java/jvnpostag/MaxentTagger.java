@@ -28,6 +28,7 @@
 package jvnpostag;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 import jmaxent.Classification;
@@ -57,22 +58,7 @@ public class MaxentTagger implements POSTagger {
 		// TODO Auto-generated method stub
 		System.out.println("tagging ....");
 		List<Sentence> data = reader.readString(instr);
-		for (int i = 0; i < data.size(); ++i){
-        	
-    		Sentence sent = data.get(i);
-    		for (int j = 0; j < sent.size(); ++j){
-    			String [] cps = dataTagger.getContext(sent, j);
-    			String label = classifier.classify(cps);
-    			
-    			if (label.equalsIgnoreCase("Mrk")){
-    				if (StringUtils.isPunc(sent.getWordAt(j)))
-    					label = sent.getWordAt(j);
-    				else label = "X";
-    			}
-    			
-    			sent.getTWordAt(j).setTag(label);
-    		}
-    	}
+		tagging(data);
 		
 		return writer.writeString(data);
 	}
@@ -81,26 +67,39 @@ public class MaxentTagger implements POSTagger {
 	public String tagging(File file) {
 		// TODO Auto-generated method stub
 		List<Sentence> data = reader.readFile(file.getPath());
-		for (int i = 0; i < data.size(); ++i){
-        	
-    		Sentence sent = data.get(i);
-    		for (int j = 0; j < sent.size(); ++j){
-    			String [] cps = dataTagger.getContext(sent, j);
-    			String label = classifier.classify(cps);
-    			
-    			if (label.equalsIgnoreCase("Mrk")){
-    				if (StringUtils.isPunc(sent.getWordAt(j)))
-    					label = sent.getWordAt(j);
-    				else label = "X";
-    			}
-    			
-    			sent.getTWordAt(j).setTag(label);    
-    			//System.out.println(sent.getTagAt(j));
-    		}
-    	}
+		tagging(data);
 		
 		return writer.writeString(data);
 	}
+	
+	/**
+	 * Tags all words of the sentences, classifying them in one batch.
+	 *
+	 * @param data the sentences
+	 */
+	private void tagging(List<Sentence> data) {
+		List<String[]> contexts = new ArrayList<String[]>();
+		for (Sentence sent : data)
+			for (int j = 0; j < sent.size(); ++j)
+				contexts.add(dataTagger.getContext(sent, j));
+		
+		String[] labels = classifier.classify(contexts.toArray(new String[contexts.size()][]));
+		
+		int k = 0;
+		for (Sentence sent : data) {
+			for (int j = 0; j < sent.size(); ++j) {
+				String label = labels[k++];
+				
+				if (label.equalsIgnoreCase("Mrk")){
+					if (StringUtils.isPunc(sent.getWordAt(j)))
+						label = sent.getWordAt(j);
+					else label = "X";
+				}
+				
+				sent.getTWordAt(j).setTag(label);
+			}
+		}
+	}
 
 	public void setDataReader(DataReader reader){
 		this.reader = reader;
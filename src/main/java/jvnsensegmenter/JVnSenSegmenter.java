@@ -55,9 +55,9 @@ public class JVnSenSegmenter {
   
     public boolean init(String modelDir){
     	try {
+	    	// the constructor already loads the model
 	    	classifier = new Classification(modelDir);
 	        feaGen = new FeatureGenerator();
-	        classifier.init();
 	        return true;
     	}
     	catch(Exception e){
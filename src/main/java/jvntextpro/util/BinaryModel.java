@@ -0,0 +1,219 @@
+package jvntextpro.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned binary format for the jmaxent and jflexcrf models. A binary model
+ * holds the same sections as the text model (context predicate map, label map,
+ * dictionary, features) followed by the feature weights, but stores numbers
+ * in binary, so loading does not parse any text. Strings are stored as their
+ * length followed by UTF-8 bytes, every section ends with a marker that is
+ * checked when reading, and the weights are aligned to 8 bytes so that they
+ * can be read directly from the mapped file.
+ * <p>
+ * Binary models are read through a memory mapping. The mapping stays valid
+ * after the file channel is closed, and processes that map the same file
+ * share its pages. A binary model is written next to the text model by
+ * {@link ModelConverter} and used instead of it while it is not older.
+ */
+public class BinaryModel {
+
+    /** The name of the binary model file in a model directory. */
+    public static final String MODEL_FILE = "model.bin";
+
+    /** The kind of a jmaxent model. */
+    public static final int MAXENT = 1;
+
+    /** The kind of a jflexcrf model. */
+    public static final int CRF = 2;
+
+    /** The magic number, "JVNM". */
+    static final int MAGIC = 0x4A564E4D;
+
+    /** The format version, to be increased with every incompatible change. */
+    static final int VERSION = 1;
+
+    /** The marker after each section, "####" like the separator line of the text models. */
+    static final int SECTION_END = 0x23232323;
+
+    /**
+     * Writes the content of a binary model file.
+     */
+    public interface Content {
+
+	/**
+	 * Writes the sections of the model, after the header.
+	 *
+	 * @param out the output
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Gets the binary model file of a model directory, if it can be used
+     * instead of the text model.
+     *
+     * @param modelDir the model dir
+     * @param modelFile the name of the text model file
+     * @return the binary model file, or null if there is none or it is older than the text model
+     */
+    public static File find(String modelDir, String modelFile) {
+	File binFile = new File(modelDir, MODEL_FILE);
+	if (!binFile.isFile()) {
+	    return null;
+	}
+
+	File txtFile = new File(modelDir, modelFile);
+	if (txtFile.isFile() && txtFile.lastModified() > binFile.lastModified()) {
+	    return null;
+	}
+
+	return binFile;
+    }
+
+    /**
+     * Writes a binary model file. The file is written under a temporary name
+     * and then renamed, so that processes which have mapped the old file can
+     * continue to use it.
+     *
+     * @param file the file
+     * @param kind the kind of model, {@link #MAXENT} or {@link #CRF}
+     * @param content the content
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static void write(File file, int kind, Content content) throws IOException {
+	File tmpFile = new File(file.getPath() + ".tmp");
+
+	try (DataOutputStream out = new DataOutputStream(
+		new BufferedOutputStream(new FileOutputStream(tmpFile), 64 * 1024))) {
+	    out.writeInt(MAGIC);
+	    out.writeInt(VERSION);
+	    out.writeInt(kind);
+	    content.write(out);
+	}
+
+	Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+		StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a binary model file and checks its header.
+     *
+     * @param file the file
+     * @param kind the expected kind of model
+     * @return the content, positioned after the header
+     * @throws IOException if the file cannot be read or is not a binary model of this version and kind
+     */
+    public static ByteBuffer map(File file, int kind) throws IOException {
+	ByteBuffer buf;
+	try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+	    buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+	}
+
+	if (buf.remaining() < 12 || buf.getInt() != MAGIC) {
+	    throw new IOException(file + " is not a binary model");
+	}
+	int version = buf.getInt();
+	if (version != VERSION) {
+	    throw new IOException(file + " has format version " + version + ", expected " + VERSION);
+	}
+	if (buf.getInt() != kind) {
+	    throw new IOException(file + " holds a different kind of model");
+	}
+
+	return buf;
+    }
+
+    /**
+     * Writes a string.
+     *
+     * @param out the output
+     * @param str the string
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static void writeString(DataOutputStream out, String str) throws IOException {
+	byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+	out.writeInt(bytes.length);
+	out.write(bytes);
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @param buf the buffer
+     * @return the string
+     */
+    public static String readString(ByteBuffer buf) {
+	byte[] bytes = new byte[buf.getInt()];
+	buf.get(bytes);
+	return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes an array of doubles, aligned to 8 bytes from the start of the file.
+     *
+     * @param out the output, which must have been opened by {@link #write(File, int, Content)}
+     * @param values the values, from index 0 up to the limit
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static void writeDoubles(DataOutputStream out, DoubleBuffer values) throws IOException {
+	out.writeInt(values.limit());
+	while (out.size() % 8 != 0) {
+	    out.writeByte(0);
+	}
+	for (int i = 0; i < values.limit(); i++) {
+	    out.writeDouble(values.get(i));
+	}
+    }
+
+    /**
+     * Reads an array of doubles without copying it.
+     *
+     * @param buf the buffer
+     * @return a read-only view of the doubles in the buffer
+     */
+    public static DoubleBuffer readDoubles(ByteBuffer buf) {
+	int length = buf.getInt();
+	while (buf.position() % 8 != 0) {
+	    buf.get();
+	}
+	DoubleBuffer values = buf.slice(buf.position(), length * 8).asDoubleBuffer();
+	buf.position(buf.position() + length * 8);
+	return values;
+    }
+
+    /**
+     * Writes the end of a section.
+     *
+     * @param out the output
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static void writeSectionEnd(DataOutputStream out) throws IOException {
+	out.writeInt(SECTION_END);
+    }
+
+    /**
+     * Reads the end of a section.
+     *
+     * @param buf the buffer
+     * @throws IOException if the section did not end where expected
+     */
+    public static void readSectionEnd(ByteBuffer buf) throws IOException {
+	if (buf.getInt() != SECTION_END) {
+	    throw new IOException("Corrupt binary model, section end expected at " + (buf.position() - 4));
+	}
+    }
+
+} // end of class BinaryModel
@@ -0,0 +1,158 @@
+package jvntextpro.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive ints to objects, used for the
+ * dictionaries and reverse maps of the jmaxent and jflexcrf models. Lookups
+ * do not box the key. Null values and the removal of entries are not supported.
+ *
+ * @param <V> the value type
+ */
+public class IntObjMap<V> {
+
+    /** The keys. */
+    private int[] keys;
+
+    /** The values, null for free slots. */
+    private Object[] values;
+
+    /** The number of entries. */
+    private int size = 0;
+
+    /**
+     * Instantiates a new empty map.
+     */
+    public IntObjMap() {
+	this(16);
+    }
+
+    /**
+     * Instantiates a new map.
+     *
+     * @param expectedSize the number of entries to make room for
+     */
+    public IntObjMap(int expectedSize) {
+	int capacity = StrIntMap.tableSize(expectedSize);
+	keys = new int[capacity];
+	values = new Object[capacity];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+	return (V)values[slot(keys, values, key)];
+    }
+
+    /**
+     * Checks whether the map contains a key.
+     *
+     * @param key the key
+     * @return true, if the key is in the map
+     */
+    public boolean containsKey(int key) {
+	return values[slot(keys, values, key)] != null;
+    }
+
+    /**
+     * Maps a key to a value, replacing a previous value.
+     *
+     * @param key the key
+     * @param value the value, not null
+     */
+    public void put(int key, V value) {
+	if (value == null) {
+	    throw new NullPointerException("null values are not supported");
+	}
+	int slot = slot(keys, values, key);
+	if (values[slot] == null) {
+	    if ((size + 1) * 4 > keys.length * 3) {
+		resize(keys.length * 2);
+		slot = slot(keys, values, key);
+	    }
+	    keys[slot] = key;
+	    size++;
+	}
+	values[slot] = value;
+    }
+
+    /**
+     * Size.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+	return size;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+	Arrays.fill(values, null);
+	size = 0;
+    }
+
+    /**
+     * Keys.
+     *
+     * @return a new array with all keys, in no particular order
+     */
+    public int[] keys() {
+	int[] res = new int[size];
+	int n = 0;
+	for (int i = 0; i < values.length; i++) {
+	    if (values[i] != null) {
+		res[n++] = keys[i];
+	    }
+	}
+	return res;
+    }
+
+    /**
+     * Shrinks the table to the smallest size that holds the current entries,
+     * to be called once a model is loaded.
+     */
+    public void trim() {
+	int capacity = StrIntMap.tableSize(size);
+	if (capacity < keys.length) {
+	    resize(capacity);
+	}
+    }
+
+    /**
+     * Finds the slot of a key, or the free slot where it would be inserted.
+     */
+    private static int slot(int[] keys, Object[] values, int key) {
+	int mask = keys.length - 1;
+	int h = key * 0x9E3779B9;
+	int i = (h ^ (h >>> 16)) & mask;
+	while (values[i] != null && keys[i] != key) {
+	    i = (i + 1) & mask;
+	}
+	return i;
+    }
+
+    /**
+     * Rehashes all entries into a table of the given capacity.
+     */
+    private void resize(int capacity) {
+	int[] oldKeys = keys;
+	Object[] oldValues = values;
+	keys = new int[capacity];
+	values = new Object[capacity];
+	for (int i = 0; i < oldKeys.length; i++) {
+	    if (oldValues[i] != null) {
+		int slot = slot(keys, values, oldKeys[i]);
+		keys[slot] = oldKeys[i];
+		values[slot] = oldValues[i];
+	    }
+	}
+    }
+
+} // end of class IntObjMap
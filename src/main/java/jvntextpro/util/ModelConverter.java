@@ -0,0 +1,71 @@
+package jvntextpro.util;
+
+import java.io.File;
+import java.io.IOException;
+
+import jflexcrf.Labeling;
+import jmaxent.Classification;
+
+/**
+ * Converts text models of jmaxent and jflexcrf to the binary format of
+ * {@link BinaryModel}. The binary model is written as model.bin into the
+ * model directory, where the loaders pick it up instead of the text model.
+ * The conversion has to be repeated when the text model changes.
+ */
+public class ModelConverter {
+
+    /**
+     * The main method.
+     *
+     * @param args -maxent or -crf, followed by one or more model directories
+     */
+    public static void main(String[] args) {
+	if (!checkArgs(args)) {
+	    displayHelp();
+	    return;
+	}
+
+	boolean crf = args[0].equalsIgnoreCase("-crf");
+	for (int i = 1; i < args.length; i++) {
+	    File binFile = new File(args[i], BinaryModel.MODEL_FILE);
+	    try {
+		if (crf) {
+		    new Labeling(args[i], null, null, null).writeBinaryModel(binFile);
+		} else {
+		    new Classification(args[i]).writeBinaryModel(binFile);
+		}
+		System.out.println("Wrote " + binFile);
+	    } catch (IOException e) {
+		System.out.println("Couldn't convert the model in " + args[i]);
+		System.out.println(e.toString());
+	    }
+	}
+    }
+
+    /**
+     * Check args.
+     *
+     * @param args the args
+     * @return true, if successful
+     */
+    public static boolean checkArgs(String[] args) {
+	if (args.length < 2) {
+	    return false;
+	}
+
+	return args[0].equalsIgnoreCase("-maxent") || args[0].equalsIgnoreCase("-crf");
+    }
+
+    /**
+     * Display help.
+     */
+    public static void displayHelp() {
+	System.out.println("Usage:");
+	System.out.println("\tModelConverter -maxent <model dir> [<model dir> ...]");
+	System.out.println("\tModelConverter -crf <model dir> [<model dir> ...]");
+	System.out.println("Where:");
+	System.out.println("\t-maxent converts maximum entropy models, e.g. the sentence segmenter and POS tagger models");
+	System.out.println("\t-crf converts CRF models, e.g. the word segmenter model");
+    }
+
+} // end of class ModelConverter
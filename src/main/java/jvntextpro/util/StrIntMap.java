@@ -0,0 +1,168 @@
+package jvntextpro.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from strings to primitive ints, used for the
+ * context predicate, label and feature maps of the jmaxent and jflexcrf models.
+ * Keys and values are kept in two parallel arrays, so neither the entries nor
+ * the values are boxed. Entries cannot be removed.
+ */
+public class StrIntMap {
+
+    /** Value returned by {@link #get(String)} for keys that are not in the map. */
+    public static final int NOT_FOUND = -1;
+
+    /** The keys, null for free slots. */
+    private String[] keys;
+
+    /** The values. */
+    private int[] values;
+
+    /** The number of entries. */
+    private int size = 0;
+
+    /**
+     * Instantiates a new empty map.
+     */
+    public StrIntMap() {
+	this(16);
+    }
+
+    /**
+     * Instantiates a new map.
+     *
+     * @param expectedSize the number of entries to make room for
+     */
+    public StrIntMap(int expectedSize) {
+	int capacity = tableSize(expectedSize);
+	keys = new String[capacity];
+	values = new int[capacity];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value, or {@link #NOT_FOUND} if the key is not in the map
+     */
+    public int get(String key) {
+	int slot = slot(keys, key);
+	return keys[slot] == null ? NOT_FOUND : values[slot];
+    }
+
+    /**
+     * Checks whether the map contains a key.
+     *
+     * @param key the key
+     * @return true, if the key is in the map
+     */
+    public boolean containsKey(String key) {
+	return keys[slot(keys, key)] != null;
+    }
+
+    /**
+     * Maps a key to a value, replacing a previous value.
+     *
+     * @param key the key, not null
+     * @param value the value
+     */
+    public void put(String key, int value) {
+	int slot = slot(keys, key);
+	if (keys[slot] == null) {
+	    if ((size + 1) * 4 > keys.length * 3) {
+		resize(keys.length * 2);
+		slot = slot(keys, key);
+	    }
+	    keys[slot] = key;
+	    size++;
+	}
+	values[slot] = value;
+    }
+
+    /**
+     * Size.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+	return size;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+	Arrays.fill(keys, null);
+	size = 0;
+    }
+
+    /**
+     * Keys.
+     *
+     * @return a new array with all keys, in no particular order
+     */
+    public String[] keys() {
+	String[] res = new String[size];
+	int n = 0;
+	for (int i = 0; i < keys.length; i++) {
+	    if (keys[i] != null) {
+		res[n++] = keys[i];
+	    }
+	}
+	return res;
+    }
+
+    /**
+     * Shrinks the table to the smallest size that holds the current entries,
+     * to be called once a model is loaded.
+     */
+    public void trim() {
+	int capacity = tableSize(size);
+	if (capacity < keys.length) {
+	    resize(capacity);
+	}
+    }
+
+    /**
+     * Finds the slot of a key, or the free slot where it would be inserted.
+     */
+    private static int slot(String[] keys, String key) {
+	int mask = keys.length - 1;
+	int h = key.hashCode();
+	int i = (h ^ (h >>> 16)) & mask;
+	while (keys[i] != null && !keys[i].equals(key)) {
+	    i = (i + 1) & mask;
+	}
+	return i;
+    }
+
+    /**
+     * Rehashes all entries into a table of the given capacity.
+     */
+    private void resize(int capacity) {
+	String[] oldKeys = keys;
+	int[] oldValues = values;
+	keys = new String[capacity];
+	values = new int[capacity];
+	for (int i = 0; i < oldKeys.length; i++) {
+	    if (oldKeys[i] != null) {
+		int slot = slot(keys, oldKeys[i]);
+		keys[slot] = oldKeys[i];
+		values[slot] = oldValues[i];
+	    }
+	}
+    }
+
+    /**
+     * Smallest power of two that keeps the load factor at or below 3/4.
+     */
+    static int tableSize(int expectedSize) {
+	int capacity = 16;
+	while (capacity * 3 < Math.max(expectedSize, 1) * 4) {
+	    capacity <<= 1;
+	}
+	return capacity;
+    }
+
+} // end of class StrIntMap
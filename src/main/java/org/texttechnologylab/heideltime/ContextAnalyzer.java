@@ -1,7 +1,10 @@
 package org.texttechnologylab.heideltime;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.TreeMap;
 import java.util.regex.MatchResult;
@@ -19,7 +22,6 @@ import de.unihd.dbs.uima.annotator.heideltime.resources.NormalizationManager;
 import de.unihd.dbs.uima.annotator.heideltime.resources.RePatternManager;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
-import de.unihd.dbs.uima.types.heideltime.Timex3;
 import org.apache.uima.jcas.tcas.Annotation;
 
 /**
@@ -36,25 +38,27 @@ public class ContextAnalyzer {
     /**
      * The value of the x of the last mentioned Timex is calculated.
      *
-     * @param linearDates list of previous linear dates
+     * @param candidates  candidates of the document
+     * @param linearDates indexes of the linear dates in the candidates
      * @param i           index for the previous dates entry
      * @param x           type to search for
+     * @param context     language and locale of the document
      * @return last mentioned entry
      */
-    public static String getLastMentionedX(List<Timex3> linearDates, int i, String x, Language language) {
-        NormalizationManager nm = NormalizationManager.getInstance(language, true);
+    static String getLastMentionedX(TimexCandidates candidates, int[] linearDates, int i, String x, DocumentContext context) {
+        NormalizationManager nm = context.normalization();
 
         // Timex for which to get the last mentioned x (i.e., Timex i)
-        Timex3 t_i = linearDates.get(i);
+        int t_i = linearDates[i];
 
         String xValue = "";
         int j = i - 1;
         while (j >= 0) {
-            Timex3 timex = linearDates.get(j);
+            int timex = linearDates[j];
             // check that the two timexes to compare do not have the same offset:
-            if (!(t_i.getBegin() == timex.getBegin())) {
+            if (!(candidates.begin(t_i) == candidates.begin(timex))) {
 
-                String value = timex.getTimexValue();
+                String value = candidates.value(timex);
                 if (!(value.contains("funcDate"))) {
                     if (x.equals("century")) {
                         if (value.matches("^[0-9][0-9].*")) {
@@ -133,7 +137,7 @@ public class ContextAnalyzer {
                     } else if (x.equals("week")) {
                         if (value.matches("^[0-9][0-9][0-9][0-9]-[0-9][0-9]-[0-9][0-9].*")) {
                             for (MatchResult r : Toolbox.findMatches(Pattern.compile("^(([0-9][0-9][0-9][0-9])-[0-9][0-9]-[0-9][0-9]).*"), value)) {
-                                xValue = r.group(2) + "-W" + DateCalculator.getWeekOfDate(r.group(1));
+                                xValue = r.group(2) + "-W" + DateCalculator.getWeekOfDate(r.group(1), context.locale());
                                 break;
                             }
                             break;
@@ -212,10 +216,11 @@ public class ContextAnalyzer {
     /**
      * Get the last tense used in the sentence
      *
-     * @param timex timex construct to discover tense data for
+     * @param begin begin of the timex to discover tense data for
+     * @param end   end of the timex to discover tense data for
      * @return string that contains the tense
      */
-    public static String getLastTense(Timex3 timex, JCas jcas, Language language) {
+    public static String getLastTense(int begin, int end, JCas jcas, Language language) {
         RePatternManager rpm = RePatternManager.getInstance(language, false);
 
         String lastTense = "";
@@ -225,8 +230,8 @@ public class ContextAnalyzer {
         Sentence s = new Sentence(jcas);
         while (iterSentence.hasNext()) {
             s = (Sentence) iterSentence.next();
-            if ((s.getBegin() <= timex.getBegin())
-                    && (s.getEnd() >= timex.getEnd())) {
+            if ((s.getBegin() <= begin)
+                    && (s.getEnd() >= end)) {
                 break;
             }
         }
@@ -241,7 +246,7 @@ public class ContextAnalyzer {
 
         // Get the last VERB token
         for (Integer tokEnd : tmToken.keySet()) {
-            if (tokEnd < timex.getBegin()) {
+            if (tokEnd < begin) {
                 Token token = tmToken.get(tokEnd);
 
                 Logger.printDetail("GET LAST TENSE: string:" + token.getCoveredText() + " pattern:" + token.getPos());
@@ -274,7 +279,7 @@ public class ContextAnalyzer {
                 }
             }
             if (lastTense.equals("")) {
-                if (tokEnd > timex.getEnd()) {
+                if (tokEnd > end) {
                     Token token = tmToken.get(tokEnd);
 
                     Logger.printDetail("GET NEXT TENSE: string:" + token.getCoveredText() + " pattern:" + token.getPos());
@@ -310,7 +315,7 @@ public class ContextAnalyzer {
                 POS thisPos = token.getPos();
                 String thisPosValue = thisPos == null ? "" : thisPos.getPosValue();
 
-                if (tokEnd < timex.getBegin()) {
+                if (tokEnd < begin) {
                     if (("VHZ".equals(prevPos)) || ("VBZ".equals(prevPos)) || ("VHP".equals(prevPos)) || ("VBP".equals(prevPos))
                             || (prevPos.equals("VER:pres"))) {
                         if ("VVN".equals(thisPosValue) || "VER:pper".equals(thisPosValue)) {
@@ -324,7 +329,7 @@ public class ContextAnalyzer {
                     prevPos = thisPosValue;
                 }
                 if (longTense.equals("")) {
-                    if (tokEnd > timex.getEnd()) {
+                    if (tokEnd > end) {
                         if (("VHZ".equals(prevPos)) || ("VBZ".equals(prevPos)) || ("VHP".equals(prevPos)) || ("VBP".equals(prevPos))
                                 || ("VER:pres".equals(prevPos))) {
                             if ("VVN".equals(thisPosValue) || "VER:pper".equals(thisPosValue)) {
@@ -347,7 +352,7 @@ public class ContextAnalyzer {
                 POS thisPos = token.getPos();
                 String thisPosValue = thisPos == null ? "" : thisPos.getPosValue();
 
-                if (tokEnd < timex.getBegin() || (longTense.isEmpty() && tokEnd > timex.getEnd())) {
+                if (tokEnd < begin || (longTense.isEmpty() && tokEnd > end)) {
                     if (("VER:pres".equals(prevPos)) && ("VER:pper".equals(thisPosValue))) {
                         if (((token.getCoveredText().matches("^prévue?s?$"))) || ((token.getCoveredText().equals("^envisagée?s?$")))) {
                             lastTense = "FUTURE";
@@ -364,7 +369,15 @@ public class ContextAnalyzer {
         return lastTense;
     }
 
-    public record SentenceContainer(String text, int begin, int end, List<Token> tokens) {
+    /**
+     * A sentence with its tokens. The token offsets, POS values and the punctuation of the text are
+     * indexed when the container is built, see {@link TokenIndex}.
+     */
+    public record SentenceContainer(String text, int begin, int end, List<Token> tokens, TokenIndex index) {
+        public SentenceContainer(String text, int begin, int end, List<Token> tokens) {
+            this(text, begin, end, tokens, TokenIndex.of(text, tokens));
+        }
+
         public static SentenceContainer fromSentence(JCas jCas, Sentence sentence) {
             FSIterator<Annotation> subiterator = jCas.getAnnotationIndex(Token.type).subiterator(sentence);
             ArrayList<Token> tokens = new ArrayList<>();
@@ -380,6 +393,87 @@ public class ContextAnalyzer {
         }
     }
 
+    /**
+     * Sorted begin and end offsets and the POS values of the tokens of a sentence, and the punctuation characters
+     * of its text, so that POS and token boundary checks are binary searches and bit lookups.
+     *
+     * @param begins      begin offsets of the tokens in ascending order, tokens with the same begin in document order
+     * @param posValues   POS value of the token at the same index of <code>begins</code>, null if there is none
+     * @param ends        end offsets of the tokens in ascending order
+     * @param punctuation characters of the sentence text that match {@link #PATTERN_PUNCT}
+     */
+    public record TokenIndex(int[] begins, String[] posValues, int[] ends, BitSet punctuation) {
+        public static TokenIndex of(String text, List<Token> tokens) {
+            Token[] sorted = tokens.toArray(new Token[0]);
+            // stable, tokens from the annotation index are already in order
+            Arrays.sort(sorted, Comparator.comparingInt(Token::getBegin));
+
+            int[] begins = new int[sorted.length];
+            String[] posValues = new String[sorted.length];
+            int[] ends = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                begins[i] = sorted[i].getBegin();
+                POS pos = sorted[i].getPos();
+                posValues[i] = pos == null ? "" : pos.getPosValue();
+                ends[i] = sorted[i].getEnd();
+            }
+            Arrays.sort(ends);
+
+            BitSet punctuation = new BitSet(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                if (isPunctuation(text.charAt(i)))
+                    punctuation.set(i);
+            }
+            return new TokenIndex(begins, posValues, ends, punctuation);
+        }
+
+        /**
+         * @return the POS value of the first token beginning at the document offset, "" if there is none
+         */
+        public String posAt(int tokBegin) {
+            int i = firstIndexOf(begins, tokBegin);
+            return i < 0 ? "" : posValues[i];
+        }
+
+        public boolean isTokenBegin(int offset) {
+            return firstIndexOf(begins, offset) >= 0;
+        }
+
+        public boolean isTokenEnd(int offset) {
+            return firstIndexOf(ends, offset) >= 0;
+        }
+
+        /**
+         * Same as matching {@link #PATTERN_PUNCT} against the single character.
+         */
+        static boolean isPunctuation(char c) {
+            switch (Character.getType(c)) {
+                case Character.CONNECTOR_PUNCTUATION:
+                case Character.DASH_PUNCTUATION:
+                case Character.START_PUNCTUATION:
+                case Character.END_PUNCTUATION:
+                case Character.INITIAL_QUOTE_PUNCTUATION:
+                case Character.FINAL_QUOTE_PUNCTUATION:
+                case Character.OTHER_PUNCTUATION:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private static int firstIndexOf(int[] sorted, int key) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < key)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo < sorted.length && sorted[lo] == key ? lo : -1;
+        }
+    }
+
     public static boolean checkSentenceMatch(SentenceContainer sentence, int matchStart, int matchEnd) {
         return ContextAnalyzer.checkPrefixSuffix(sentence.text, matchStart, matchEnd)
                 && ContextAnalyzer.checkTokenBoundaries(sentence, matchStart, matchEnd);
@@ -430,32 +524,21 @@ public class ContextAnalyzer {
                 && ((end == sentence.text.length()) || (sentence.text.charAt(end) == ' '))
         ) {
             return true;
+        } else if (sentence.tokens.isEmpty()) {
+            return false;
         } else {
             // other token boundaries than white-spaces
-            for (Annotation token : sentence.tokens) {
-                // Check begin
-                if ((start + sentence.begin) == token.getBegin() || (
-                        // Tokenizer does not split number from some symbols (".", "/", "-", "–"),
-                        // e.g., "...12 August-24 Augsut..."
-                        start > 0 && PATTERN_PUNCT.matcher(sentence.text.substring(start - 1, start)).matches()
-                )) {
-                    beginOK = true;
-                }
-
-                // Check end
-                if ((end + sentence.begin) == token.getEnd() || (
-                        // Tokenizer does not split number from some symbols (".", "/", "-", "–"),
-                        // e.g., "... in 1990. New Sentence ..."
-                        end < sentence.text.length() && PATTERN_PUNCT.matcher(sentence.text.substring(end, end + 1)).matches()
-                )) {
-                    endOK = true;
-                }
-
-                if (beginOK && endOK)
-                    return true;
-            }
+            TokenIndex index = sentence.index;
+            beginOK = index.isTokenBegin(start + sentence.begin)
+                    // Tokenizer does not split number from some symbols (".", "/", "-", "–"),
+                    // e.g., "...12 August-24 Augsut..."
+                    || (start > 0 && index.punctuation.get(start - 1));
+            endOK = index.isTokenEnd(end + sentence.begin)
+                    // Tokenizer does not split number from some symbols (".", "/", "-", "–"),
+                    // e.g., "... in 1990. New Sentence ..."
+                    || (end < sentence.text.length() && index.punctuation.get(end));
+            return beginOK && endOK;
         }
-        return false;
     }
 
 }
@@ -0,0 +1,23 @@
+package org.texttechnologylab.heideltime;
+
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+import de.unihd.dbs.uima.annotator.heideltime.resources.NormalizationManager;
+
+import java.util.Locale;
+
+/**
+ * The language of the document that is being processed, with the locale and the normalization resources that go
+ * with it.
+ * <p>
+ * The context is resolved once per document and passed to the date calculations and the disambiguation, instead of
+ * setting the JVM-wide default locale, so that annotators can process documents of different languages concurrently.
+ *
+ * @param language      language of the rules and resources used for the document
+ * @param locale        locale that defines how the weeks of a year are counted
+ * @param normalization normalization resources of the language
+ */
+record DocumentContext(Language language, Locale locale, NormalizationManager normalization) {
+    static DocumentContext of(Language language, Locale locale, boolean loadTemponymResources) {
+        return new DocumentContext(language, locale, NormalizationManager.getInstance(language, loadTemponymResources));
+    }
+}
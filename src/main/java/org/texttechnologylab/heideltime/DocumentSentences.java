@@ -0,0 +1,147 @@
+package org.texttechnologylab.heideltime;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import org.apache.uima.jcas.JCas;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The sentences of a document as sorted offset arrays into the document text.
+ * <p>
+ * A rule is matched against the whole document with a single {@link Matcher} whose region is moved from sentence
+ * to sentence. The region bounds are opaque and anchoring, so lookarounds, boundaries and anchors behave exactly
+ * as when matching the covered text of each sentence, but no sentence text is copied. The matches are reported
+ * relative to their sentence like those of {@link Utils#findMatches}. The {@link ContextAnalyzer.SentenceContainer}
+ * of a sentence is only built when a rule matches in it.
+ */
+final class DocumentSentences {
+    private final JCas jcas;
+    private final String text;
+    private final Sentence[] sentences;
+    private final int[] begins;
+    private final int[] ends;
+    private final AtomicReferenceArray<ContextAnalyzer.SentenceContainer> containers;
+
+    DocumentSentences(JCas jcas, Collection<Sentence> sentences) {
+        this.jcas = jcas;
+        this.text = jcas.getDocumentText();
+        this.sentences = sentences.toArray(new Sentence[0]);
+        this.begins = new int[this.sentences.length];
+        this.ends = new int[this.sentences.length];
+        for (int i = 0; i < this.sentences.length; i++) {
+            begins[i] = this.sentences[i].getBegin();
+            ends[i] = this.sentences[i].getEnd();
+        }
+        this.containers = new AtomicReferenceArray<>(this.sentences.length);
+    }
+
+    int size() {
+        return sentences.length;
+    }
+
+    Sentence sentence(int i) {
+        return sentences[i];
+    }
+
+    /**
+     * @return the container of the i-th sentence, built on first use
+     */
+    ContextAnalyzer.SentenceContainer container(int i) {
+        ContextAnalyzer.SentenceContainer container = containers.get(i);
+        if (container == null) {
+            container = ContextAnalyzer.SentenceContainer.fromSentence(jcas, sentences[i]);
+            if (!containers.compareAndSet(i, null, container)) {
+                container = containers.get(i);
+            }
+        }
+        return container;
+    }
+
+    /**
+     * Same as {@link RuleManager.RuleInstance#fastCheck(CharSequence)} on the text of a sentence.
+     * The returned predicate reuses one matcher and must only be used by one thread.
+     *
+     * @param budget bounds the check in every sentence, see {@link TimeBudget#wrap}
+     */
+    IntPredicate fastCheck(RuleManager.RuleInstance rule, TimeBudget budget) {
+        if (rule.patternFast() == null) {
+            return i -> true;
+        }
+        Matcher matcher = rule.patternFast().matcher(text);
+        return i -> !matcher.reset(budget.wrap(text)).region(begins[i], ends[i]).find();
+    }
+
+    /**
+     * Same as {@link Utils#findMatches} on the text of a sentence.
+     * The returned function reuses one matcher and must only be used by one thread.
+     *
+     * @param budget bounds the matching in every sentence, see {@link TimeBudget#wrap}
+     */
+    IntFunction<List<MatchResult>> matcher(Pattern pattern, TimeBudget budget) {
+        Matcher matcher = pattern.matcher(text);
+        return i -> {
+            if (begins[i] == ends[i]) {
+                return Collections.emptyList();
+            }
+            List<MatchResult> results = null;
+            for (matcher.reset(budget.wrap(text)).region(begins[i], ends[i]); matcher.find(); ) {
+                if (results == null) {
+                    results = new ArrayList<>();
+                }
+                results.add(new SentenceMatch(matcher.toMatchResult(), begins[i]));
+            }
+            return results == null ? Collections.emptyList() : results;
+        };
+    }
+
+    /**
+     * A match in the document text with its offsets relative to the begin of its sentence.
+     */
+    private record SentenceMatch(MatchResult match, int shift) implements MatchResult {
+        @Override
+        public int start() {
+            return match.start() - shift;
+        }
+
+        @Override
+        public int start(int group) {
+            int start = match.start(group);
+            return start < 0 ? start : start - shift;
+        }
+
+        @Override
+        public int end() {
+            return match.end() - shift;
+        }
+
+        @Override
+        public int end(int group) {
+            int end = match.end(group);
+            return end < 0 ? end : end - shift;
+        }
+
+        @Override
+        public String group() {
+            return match.group();
+        }
+
+        @Override
+        public String group(int group) {
+            return match.group(group);
+        }
+
+        @Override
+        public int groupCount() {
+            return match.groupCount();
+        }
+    }
+}
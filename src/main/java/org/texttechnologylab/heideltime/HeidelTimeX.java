@@ -18,7 +18,6 @@ import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.unihd.dbs.uima.annotator.heideltime.ProcessorManager;
 import de.unihd.dbs.uima.annotator.heideltime.ProcessorManager.Priority;
-import de.unihd.dbs.uima.annotator.heideltime.processors.TemponymPostprocessing;
 import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
 import de.unihd.dbs.uima.annotator.heideltime.resources.NormalizationManager;
 import de.unihd.dbs.uima.annotator.heideltime.resources.RePatternManager;
@@ -27,7 +26,9 @@ import de.unihd.dbs.uima.annotator.heideltime.utilities.DateCalculator;
 import de.unihd.dbs.uima.annotator.heideltime.utilities.LocaleException;
 import de.unihd.dbs.uima.types.heideltime.Dct;
 import de.unihd.dbs.uima.types.heideltime.Timex3;
+import de.unihd.dbs.uima.types.heideltime.Timex3Interval;
 import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.FSIterator;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
@@ -42,6 +43,11 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -72,6 +78,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
     public static final Pattern PATTERN_PTdH = Pattern.compile("PT([0-9]+)H");
     public static final Pattern PATTERN_PTdM = Pattern.compile("PT([0-9]+)M");
     public static final Pattern PATTERN_PdM = Pattern.compile("P([0-9]+)M");
+    public static final Pattern PATTERN_TEMPONYM_INTERVAL = Pattern.compile("\\[(.*?), (.*?), (.*?), (.*?)\\]");
     /// Something like {@code 20041224}
     public static final Pattern PATTERN_DCT_D8 = Pattern.compile("\\d{8}");
     /// Something like {@code 2004-12-24}
@@ -90,17 +97,28 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
     // COUNTER FOR TIMEX IDS
     private int timexID = 0;
 
+    // TIMEXES FOUND IN THE CURRENT DOCUMENT (added to the CAS at the end of process())
+    private TimexCandidates candidates;
+
+    // TIME THE RULES MAY SPEND ON THE CURRENT DOCUMENT
+    private TimeBudget budget;
+
+    // LANGUAGE AND LOCALE OF THE CURRENT DOCUMENT
+    private DocumentContext context;
+
     // chosen locale parameter name
     public static final String PARAM_LOCALE = "locale";
     @ConfigurationParameter(name = PARAM_LOCALE, defaultValue = "de_DE")
     String requestedLocale;
 
-    /// supported types (2012-05-19): news (english, german, dutch), narrative (english, german, dutch), colloquial
+    /// Language of the documents whose document language is neither english nor german
     public static final String PARAM_LANGUAGE = "languageString";
     @ConfigurationParameter(name = PARAM_LANGUAGE, defaultValue = "german")
     private String languageString;
 
-    private Language language = Language.GERMAN;
+    // language and locale used for documents in other languages than english and german
+    private Language defaultLanguage;
+    private Locale defaultLocale;
 
     /// Possible values: news, narrative or narratives, colloquial, and scientific
     public static final String PARAM_TYPE_TO_PROCESS = "typeToProcess";
@@ -136,6 +154,33 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
     @ConfigurationParameter(name = PARAM_DELETE_OVERLAPPED, defaultValue = "true")
     private boolean deleteOverlapped;
 
+    /// Match each rule once over the whole document text instead of once per sentence, with the same results
+    public static final String PARAM_DOCUMENT_SCAN = "documentScan";
+    @ConfigurationParameter(name = PARAM_DOCUMENT_SCAN, defaultValue = "false")
+    private boolean documentScan;
+
+    /// Number of sentences whose rule matches are cached, 0 disables the cache
+    public static final String PARAM_SENTENCE_CACHE_SIZE = "sentenceCacheSize";
+    @ConfigurationParameter(name = PARAM_SENTENCE_CACHE_SIZE, defaultValue = "0")
+    private int sentenceCacheSize;
+
+    /// Seconds after which cached sentence matches are found again, 0 keeps them until they are evicted
+    public static final String PARAM_SENTENCE_CACHE_TTL = "sentenceCacheTtlSeconds";
+    @ConfigurationParameter(name = PARAM_SENTENCE_CACHE_TTL, defaultValue = "3600")
+    private int sentenceCacheTtlSeconds;
+
+    private SentenceMatchCache<List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> sentenceCache;
+
+    /// Milliseconds the rules may spend on a document before temponyms and sets are skipped, 0 for no limit
+    public static final String PARAM_MAX_MILLIS_PER_DOC = "maxMillisPerDoc";
+    @ConfigurationParameter(name = PARAM_MAX_MILLIS_PER_DOC, defaultValue = "0")
+    private int maxMillisPerDoc;
+
+    /// Milliseconds a rule may spend on a sentence before it is aborted, 0 for no limit
+    public static final String PARAM_MAX_MILLIS_PER_RULE = "maxMillisPerRule";
+    @ConfigurationParameter(name = PARAM_MAX_MILLIS_PER_RULE, defaultValue = "0")
+    private int maxMillisPerRule;
+
 //    public static final String PARAM_PARALLEL_SEARCH = "parallelSearch";
 //    @ConfigurationParameter(name = PARAM_PARALLEL_SEARCH, defaultValue = "true")
 //    private boolean parallelSearch;
@@ -157,14 +202,12 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         /////////////////////////////////
         // HANDLE LOCALE    		   //
         /////////////////////////////////
-        this.language = Language.getLanguageFromString(languageString);
-
+        // the locale is kept per annotator and document, the JVM-wide default locale is not changed
         if (requestedLocale == null || requestedLocale.isEmpty()) { // if the PARAM_LOCALE setting was left empty,
-            Locale.setDefault(Locale.GERMAN); // use a default, the ISO8601-adhering UK locale (equivalent to "en_GB")
+            defaultLocale = Locale.GERMAN; // use a default locale
         } else { // otherwise, check if the desired locale exists in the JVM's available locale repertoire
             try {
-                Locale locale = DateCalculator.getLocaleFromString(requestedLocale);
-                Locale.setDefault(locale); // sets it for the entire JVM session
+                defaultLocale = DateCalculator.getLocaleFromString(requestedLocale);
             } catch (LocaleException e) {
                 StringBuilder localesString = new StringBuilder();
                 for (Locale l : Locale.getAvailableLocales()) { // list all available locales
@@ -178,7 +221,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         //////////////////////////////////
         // GET CONFIGURATION PARAMETERS //
         //////////////////////////////////
-        //		language = Language.getLanguageFromString((String) aContext.getConfigParameterValue(PARAM_LANGUAGE));
+        defaultLanguage = Language.getLanguageFromString(languageString);
 
         //		typeToProcess  = (String)  aContext.getConfigParameterValue(PARAM_TYPE_TO_PROCESS);
         //		find_dates     = (boolean) aContext.getConfigParameterValue(PARAM_DATE);
@@ -204,6 +247,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         ///////////////////////////////////////////////////
         RuleManager.getRuleSet(Language.getLanguageFromString("english"), find_temponyms);
         RuleManager.getRuleSet(Language.getLanguageFromString("german"), find_temponyms);
+        if (defaultLanguage != Language.ENGLISH && defaultLanguage != Language.GERMAN) {
+            NormalizationManager.getInstance(defaultLanguage, find_temponyms);
+            RePatternManager.getInstance(defaultLanguage, find_temponyms);
+            RuleManager.getRuleSet(defaultLanguage, find_temponyms);
+        }
 
         /////////////////////////////////////////////////////////////////////////////////
         // SUBPROCESSOR CONFIGURATION. REGISTER YOUR OWN PROCESSORS HERE FOR EXECUTION //
@@ -225,6 +273,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         chineseNumerals.put("[八８8]", "8");
         chineseNumerals.put("[九９9]", "9");
 
+        // Cache of the rule matches of recurring sentences
+        sentenceCache = sentenceCacheSize > 0
+                ? new SentenceMatchCache<>(sentenceCacheSize, sentenceCacheTtlSeconds)
+                : null;
+
         /////////////////////////////
         // PRINT WHAT WILL BE DONE //
         /////////////////////////////
@@ -241,7 +294,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         String documentUri = "";
         try {
             DocumentMetaData documentMetaData = DocumentMetaData.get(jcas);
-            documentUri = "documentUri=" + documentMetaData.getDocumentUri();
+            documentUri = documentMetaData.getDocumentUri();
         } catch (Exception ignored) {
         }
 
@@ -252,35 +305,40 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                     """
                             Detected an incorrect DCT in current CAS. 
                             HeidleTimeX expects either \"YYYYMMDD\" or \"YYYY-MM-DD...\".
-                            Skipping current document {}""",
+                            Skipping current document documentUri={}""",
                     documentUri
             );
             return;
         }
 
         // run preprocessing processors
+        PhaseEvent event = PhaseEvent.start();
         procMan.executeProcessors(jcas, Priority.PREPROCESSING);
+        // the sentences are given by the preprocessing, the later phases do not change them
+        int sentenceCount = JCasUtil.select(jcas, Sentence.class).size();
+        commitPhase(event, "preprocessing", documentUri, sentenceCount, jcas);
 
+        Language language = defaultLanguage;
+        Locale locale = defaultLocale;
         try {
             switch (jcas.getDocumentLanguage()) {
-                case String lang when lang.toLowerCase().startsWith("en") -> {
-                    Locale locale = DateCalculator.getLocaleFromString("en");
-                    Locale.setDefault(locale);
+                case String lang when lang.toLowerCase(Locale.ROOT).startsWith("en") -> {
+                    locale = DateCalculator.getLocaleFromString("en");
                     language = Language.ENGLISH;
                 }
-                case String lang when lang.toLowerCase().startsWith("de") -> {
-                    Locale locale = DateCalculator.getLocaleFromString("de");
-                    Locale.setDefault(locale);
+                case String lang when lang.toLowerCase(Locale.ROOT).startsWith("de") -> {
+                    locale = DateCalculator.getLocaleFromString("de");
                     language = Language.GERMAN;
                 }
                 default -> {
-                    language = Language.GERMAN;
+                    language = defaultLanguage;
                 }
             }
         } catch (LocaleException e) {
             getLogger().error(e.getMessage());
-            language = Language.GERMAN;
+            language = defaultLanguage;
         }
+        context = DocumentContext.of(language, locale, find_temponyms);
 
         RuleManager.RuleSet ruleSet = RuleManager.getRuleSet(language, find_temponyms);
 
@@ -290,6 +348,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
 
         flagHistoricDates = false;
 
+        candidates = new TimexCandidates(jcas.getDocumentText());
+        candidates.load(jcas);
+
+        budget = new TimeBudget(documentUri, maxMillisPerDoc, maxMillisPerRule);
+
         ////////////////////////////////////////////
         // CHECK SENTENCE BY SENTENCE FOR TIMEXES //
         ////////////////////////////////////////////
@@ -303,48 +366,44 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
             );
         }
 
-        try (ExecutorService threadPool = Executors.newCachedThreadPool()) {
+        if (documentScan) {
+            findTimexesInDocument(jcas, ruleSet, new DocumentSentences(jcas, sentences));
+        } else try (ExecutorService threadPool = Executors.newCachedThreadPool()) {
             for (Sentence sentence : sentences) {
                 final ContextAnalyzer.SentenceContainer container = ContextAnalyzer.SentenceContainer.fromSentence(jcas, sentence);
+                final String signature = sentenceCache == null ? null : SentenceMatchCache.signature(container);
                 boolean debugIteration = false;
                 do {
                     try {
                         ArrayList<Future<List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>>> futures = new ArrayList<>();
+                        boolean skipOptional = budget.skips(true);
+                        if (skipOptional && (find_sets || find_temponyms)) reportExhaustedBudget();
                         if (find_dates) {
-                            futures.add(threadPool.submit(() -> findTimexes(ruleSet.dates(), container)));
+                            futures.add(threadPool.submit(() -> findCached("dates", ruleSet.dates(), container, signature,
+                                    () -> findTimexes(ruleSet.dates(), container))));
                         }
                         if (find_times) {
-                            futures.add(threadPool.submit(() -> findTimexes(ruleSet.times(), container)));
+                            futures.add(threadPool.submit(() -> findCached("times", ruleSet.times(), container, signature,
+                                    () -> findTimexes(ruleSet.times(), container))));
                         }
-                        if (find_sets) {
-                            futures.add(threadPool.submit(() -> findTimexes(ruleSet.sets(), container)));
+                        if (find_sets && !skipOptional) {
+                            futures.add(threadPool.submit(() -> findCached("sets", ruleSet.sets(), container, signature,
+                                    () -> findTimexes(ruleSet.sets(), container))));
                         }
                         if (find_durations) {
-                            futures.add(threadPool.submit(() -> findTimexes(ruleSet.durations(), container)));
+                            futures.add(threadPool.submit(() -> findCached("durations", ruleSet.durations(), container, signature,
+                                    () -> findTimexes(ruleSet.durations(), container))));
                         }
-                        if (find_temponyms) {
-                            futures.add(threadPool.submit(() -> findTimexes(ruleSet.temponyms(), container)));
+                        if (find_temponyms && !skipOptional) {
+                            futures.add(threadPool.submit(() -> findCached("temponyms", ruleSet.temponyms(), container, signature,
+                                    () -> findTemponyms(ruleSet, container))));
                         }
                         for (Future<List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> future : futures) {
-                            addTimexAnnotationsToJCas(jcas, container, future.get());
+                            addTimexCandidates(jcas, container, future.get());
                         }
                     } catch (NullPointerException npe) {
                         if (!debugIteration) {
-                            getLogger().error(
-                                    """
-                                            HeidleTimeX's execution has been interrupted by an exception that \
-                                            is likely rooted in faulty normalization resource files. Please consider opening an issue \
-                                            report containing the following information at our GitHub project issue tracker: \
-                                            https://github.com/texttechnologylab/heideltime/issues - Thanks!
-                                            Sentence [{}-{}]: {}
-                                            Language: {}
-                                            Stack Trace: {}""",
-                                    sentence.getBegin(),
-                                    sentence.getEnd(),
-                                    sentence.getCoveredText(),
-                                    language,
-                                    npe.fillInStackTrace().getMessage()
-                            );
+                            reportFaultyResources(sentence, npe);
                             if (doDebug) {
                                 getLogger().debug("Re-running this sentence with DEBUGGING enabled...");
                                 debugIteration = true;
@@ -363,39 +422,65 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         /*
          * kick out some overlapping expressions
          */
-        if (deleteOverlapped) deleteOverlappedTimexesPreprocessing(jcas);
+        if (deleteOverlapped) {
+            event = PhaseEvent.start();
+            deleteOverlappedTimexesPreprocessing(jcas);
+            commitPhase(event, "deleteOverlappedTimexesPreprocessing", documentUri, sentenceCount, jcas);
+        }
 
         /*
          * specify ambiguous values, e.g.: specific year for dates values of
          * format UNDEF-year-01-01; specific month for values of format UNDEF-last-month
          */
+        event = PhaseEvent.start();
         specifyAmbiguousValues(jcas);
+        commitPhase(event, "specifyAmbiguousValues", documentUri, sentenceCount, jcas);
 
         // disambiguate historic dates
         // check dates without explicit hints to AD or BC if they might refer to BC dates
-        if (flagHistoricDates) try {
-            disambiguateHistoricDates(jcas);
-        } catch (Exception e) {
-            getLogger().error("Something went wrong disambiguating historic dates:\n" + e.fillInStackTrace().getMessage());
+        if (flagHistoricDates) {
+            event = PhaseEvent.start();
+            try {
+                disambiguateHistoricDates(jcas);
+            } catch (Exception e) {
+                getLogger().error("Something went wrong disambiguating historic dates:\n" + e.fillInStackTrace().getMessage());
+            }
+            commitPhase(event, "disambiguateHistoricDates", documentUri, sentenceCount, jcas);
         }
 
         if (find_temponyms) {
-            TemponymPostprocessing.handleIntervals(jcas);
+            event = PhaseEvent.start();
+            handleTemponymIntervals(jcas);
+            commitPhase(event, "handleTemponymIntervals", documentUri, sentenceCount, jcas);
         }
 
         /*
          * kick out the rest of the overlapping expressions
          */
-        if (deleteOverlapped) deleteOverlappedTimexesPostprocessing(jcas);
-
-        // run arbitrary processors
-        procMan.executeProcessors(jcas, Priority.ARBITRARY);
+        if (deleteOverlapped) {
+            event = PhaseEvent.start();
+            deleteOverlappedTimexesPostprocessing(jcas);
+            commitPhase(event, "deleteOverlappedTimexesPostprocessing", documentUri, sentenceCount, jcas);
+        }
 
         // remove invalid timexes
+        event = PhaseEvent.start();
         removeInvalids(jcas);
+        commitPhase(event, "removeInvalids", documentUri, sentenceCount, jcas);
+
+        // add the remaining timexes to the CAS, once each
+        candidates.materialize(jcas);
+        candidates = null;
+
+        // run arbitrary processors
+        event = PhaseEvent.start();
+        procMan.executeProcessors(jcas, Priority.ARBITRARY, context.locale());
+        commitPhase(event, "arbitrary", documentUri, sentenceCount, jcas);
 
         // run postprocessing processors
-        procMan.executeProcessors(jcas, Priority.POSTPROCESSING);
+        event = PhaseEvent.start();
+        procMan.executeProcessors(jcas, Priority.POSTPROCESSING, context.locale());
+        commitPhase(event, "postprocessing", documentUri, sentenceCount, jcas);
 
         timex_counter_global = timex_counter_global + timex_counter;
 
@@ -404,12 +489,30 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                     "Number of Timexes added to CAS: {} (global: {})",
                     timex_counter, timex_counter_global
             );
+        if (doDebug && sentenceCache != null)
+            getLogger().debug(
+                    "Sentence cache: {} hits, {} misses, hit rate {}",
+                    sentenceCache.hits(), sentenceCache.misses(), sentenceCache.hitRate()
+            );
+    }
+
+    @Override
+    public void collectionProcessComplete() throws AnalysisEngineProcessException {
+        super.collectionProcessComplete();
+
+        if (sentenceCache != null)
+            getLogger().info(
+                    "Sentence cache: {} hits, {} misses, hit rate {}, {} of {} entries used",
+                    sentenceCache.hits(), sentenceCache.misses(), sentenceCache.hitRate(),
+                    sentenceCache.size(), sentenceCacheSize
+            );
     }
 
     /**
-     * Add timex annotation to CAS object.
+     * Add timex annotation to the candidates of the document, which are added to the CAS object at the end of
+     * {@link #process(JCas)}.
      */
-    public void addTimexAnnotation(
+    private void addTimexAnnotation(
             String timexType,
             int begin,
             int end,
@@ -419,15 +522,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
             String foundByRule,
             JCas jcas
     ) {
-        Timex3 timex3 = new Timex3(jcas);
-        timex3.setBegin(begin);
-        timex3.setEnd(end);
+        int c = candidates.add(timexType, begin, end, attributes.value(), attributes.emptyValue(), timexId, foundByRule);
 
 //        timex3.setFilename(sentence.getFilename());
 //        timex3.setSentId(sentence.getSentenceId());
 
-        timex3.setEmptyValue(attributes.emptyValue());
-
 //        StringBuilder allTokIds = new StringBuilder();
 //        for (Annotation annotation : sentence.tokens()) {
 //            Token tok = (Token) annotation;
@@ -441,15 +540,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
 //        }
 //        timex3.setAllTokIds(allTokIds.toString());
 
-        timex3.setTimexType(timexType);
-        timex3.setTimexValue(attributes.value());
-        timex3.setTimexId(timexId);
-        timex3.setFoundByRule(foundByRule);
         if ((timexType.equals("DATE")) || (timexType.equals("TIME"))) {
             if ((attributes.value().startsWith("X")) || (attributes.value().startsWith("UNDEF"))) {
-                timex3.setFoundByRule(foundByRule + "-relative");
+                candidates.setFoundByRule(c, foundByRule + "-relative");
             } else {
-                timex3.setFoundByRule(foundByRule + "-explicit");
+                candidates.setFoundByRule(c, foundByRule + "-explicit");
             }
 
             /*
@@ -457,42 +552,41 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
              *  to check if post-processing step is required
              */
             if (!flagHistoricDates && (typeToProcess.equals("narrative") || typeToProcess.equals("narratives"))) {
-                if (timex3.getTimexValue().startsWith("BC")) {
+                if (attributes.value().startsWith("BC")) {
                     flagHistoricDates = true;
                 }
             }
         }
         if (attributes.quant() != null) {
-            timex3.setTimexQuant(attributes.quant());
+            candidates.setQuant(c, attributes.quant());
         }
         if (attributes.freq() != null) {
-            timex3.setTimexFreq(attributes.freq());
+            candidates.setFreq(c, attributes.freq());
         }
         if (attributes.mod() != null) {
-            timex3.setTimexMod(attributes.mod());
+            candidates.setMod(c, attributes.mod());
         }
 
-        timex3.addToIndexes();
         this.timex_counter++;
 
         if (doDebug) {
             getLogger().debug(
                     "EXTRACTION PHASE:   " +
-                            timex3.getTimexId() +
+                            candidates.timexId(c) +
                             " found by:" +
-                            timex3.getFoundByRule() +
+                            candidates.foundByRule(c) +
                             " text:" +
-                            timex3.getCoveredText()
+                            candidates.coveredText(c)
             );
             getLogger().debug(
                     "NORMALIZATION PHASE:" +
-                            timex3.getTimexId() +
+                            candidates.timexId(c) +
                             " found by:" +
-                            timex3.getFoundByRule() +
+                            candidates.foundByRule(c) +
                             " text:" +
-                            timex3.getCoveredText() +
+                            candidates.coveredText(c) +
                             " value:" +
-                            timex3.getTimexValue()
+                            candidates.value(c)
             );
         }
     }
@@ -501,57 +595,52 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
      * Postprocessing: Check dates starting with "0" which were extracted without
      * explicit "AD" hints if it is likely that they refer to the respective dates BC
      */
-    public void disambiguateHistoricDates(JCas jcas) {
+    private void disambiguateHistoricDates(JCas jcas) {
         // Create List of all Timexes of types "dates" and "times"
-        List<Timex3> linearDates = JCasUtil.select(jcas, Timex3.class).stream()
-                .filter(timex -> timex.getTimexType().equals("DATE") || timex.getTimexType().equals("TIME"))
-                .sorted(Comparator.comparing(Timex3::getBegin))
-                .toList();
+        int[] linearDates = Arrays.stream(candidates.inIndexOrder())
+                .filter(c -> candidates.type(c).equals("DATE") || candidates.type(c).equals("TIME"))
+                .toArray();
 
         //////////////////////////////////////////////
         // go through list of Date and Time timexes //
         //////////////////////////////////////////////
-        for (int i = 1; i < linearDates.size(); i++) {
-            Timex3 t_i = linearDates.get(i);
-            String value_i = t_i.getTimexValue();
+        for (int i = 1; i < linearDates.length; i++) {
+            int t_i = linearDates[i];
+            String value_i = candidates.value(t_i);
             String newValue = value_i;
             boolean change = false;
-            if (!(t_i.getFoundByRule().contains("-BCADhint"))) {
+            if (!(candidates.foundByRule(t_i).contains("-BCADhint"))) {
                 if (value_i.startsWith("0")) {
                     int offset = 1, counter = 1;
                     do {
                         if (
                                 (i == 1 || (i > 1 && !change)) &&
-                                        linearDates.get(i - offset).getTimexValue().startsWith("BC")
+                                        candidates.value(linearDates[i - offset]).startsWith("BC")
                         ) {
                             if (value_i.length() > 1) {
                                 if (
-                                        (linearDates
-                                                .get(i - offset)
-                                                .getTimexValue()
+                                        (candidates.value(linearDates[i - offset])
                                                 .startsWith("BC" + value_i.substring(0, 2))) ||
-                                                (linearDates
-                                                        .get(i - offset)
-                                                        .getTimexValue()
+                                                (candidates.value(linearDates[i - offset])
                                                         .startsWith(
                                                                 "BC" +
-                                                                        String.format("%02d", (Integer.parseInt(value_i.substring(0, 2)) + 1))
+                                                                        String.format(Locale.ROOT, "%02d", (Integer.parseInt(value_i.substring(0, 2)) + 1))
                                                         ))
                                 ) {
                                     if (
                                             ((value_i.startsWith("00")) &&
-                                                    (linearDates.get(i - offset).getTimexValue().startsWith("BC00"))) ||
+                                                    (candidates.value(linearDates[i - offset]).startsWith("BC00"))) ||
                                                     ((value_i.startsWith("01")) &&
-                                                            (linearDates.get(i - offset).getTimexValue().startsWith("BC01")))
+                                                            (candidates.value(linearDates[i - offset]).startsWith("BC01")))
                                     ) {
                                         if (
                                                 (value_i.length() > 2) &&
-                                                        (linearDates.get(i - offset).getTimexValue().length() > 4)
+                                                        (candidates.value(linearDates[i - offset]).length() > 4)
                                         ) {
                                             if (
                                                     Integer.parseInt(value_i.substring(0, 3)) <=
                                                             Integer.parseInt(
-                                                                    linearDates.get(i - offset).getTimexValue().substring(2, 5)
+                                                                    candidates.value(linearDates[i - offset]).substring(2, 5)
                                                             )
                                             ) {
                                                 newValue = "BC" + value_i;
@@ -562,9 +651,9 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                                                 " to " +
                                                                 newValue +
                                                                 ". Expression " +
-                                                                t_i.getCoveredText() +
+                                                                candidates.coveredText(t_i) +
                                                                 " due to " +
-                                                                linearDates.get(i - offset).getCoveredText()
+                                                                candidates.coveredText(linearDates[i - offset])
                                                 );
                                             }
                                         }
@@ -578,9 +667,9 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                                             " to " +
                                                             newValue +
                                                             ". Expression " +
-                                                            t_i.getCoveredText() +
+                                                            candidates.coveredText(t_i) +
                                                             " due to " +
-                                                            linearDates.get(i - offset).getCoveredText()
+                                                            candidates.coveredText(linearDates[i - offset])
                                             );
                                     }
                                 }
@@ -588,9 +677,9 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                         }
 
                         if (
-                                (linearDates.get(i - offset).getTimexType().equals("TIME") ||
-                                        linearDates.get(i - offset).getTimexType().equals("DATE")) &&
-                                        (linearDates.get(i - offset).getTimexValue().matches("^\\d.*"))
+                                (candidates.type(linearDates[i - offset]).equals("TIME") ||
+                                        candidates.type(linearDates[i - offset]).equals("DATE")) &&
+                                        (candidates.value(linearDates[i - offset]).matches("^\\d.*"))
                         ) {
                             counter++;
                         }
@@ -598,13 +687,10 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 }
             }
             if (!(newValue.equals(value_i))) {
-                t_i.removeFromIndexes();
                 if (doDebug)
                     getLogger().debug("DisambiguateHistoricDates: value changed to BC");
 
-                t_i.setTimexValue(newValue);
-                t_i.addToIndexes();
-                linearDates.set(i, t_i);
+                candidates.setValue(t_i, newValue);
             }
         }
     }
@@ -613,41 +699,35 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
      * Postprocessing: Remove invalid timex expressions. These are already
      * marked as invalid: timexValue().equals("REMOVE")
      */
-    public void removeInvalids(JCas jcas) {
-        /*
-         * Iterate over timexes and add invalids to HashSet
-         * (invalids cannot be removed directly since iterator is used)
-         */
-        JCasUtil.select(jcas, Timex3.class).stream()
-                .filter(timex3 -> timex3.getTimexValue().equals("REMOVE"))
-                .forEach(timex3 -> {
-                            timex3.removeFromIndexes();
+    private void removeInvalids(JCas jcas) {
+        Arrays.stream(candidates.inIndexOrder())
+                .filter(c -> candidates.value(c).equals("REMOVE"))
+                .forEach(c -> {
+                            candidates.remove(c);
                             this.timex_counter--;
 
                             if (doDebug)
                                 getLogger().debug(
                                         " REMOVING PHASE: " +
-                                                timex3.getTimexId() +
+                                                candidates.timexId(c) +
                                                 "found by:" +
-                                                timex3.getFoundByRule() +
+                                                candidates.foundByRule(c) +
                                                 " text:" +
-                                                timex3.getCoveredText() +
+                                                candidates.coveredText(c) +
                                                 " value:" +
-                                                timex3.getTimexValue()
+                                                candidates.value(c)
                                 );
                         }
                 );
     }
 
-    @SuppressWarnings("unused")
-    public String specifyAmbiguousValuesString(
+    private String specifyAmbiguousValuesString(
             String ambigString,
-            Timex3 t_i,
-            Integer i,
-            List<Timex3> linearDates,
+            int i,
+            int[] linearDates,
             JCas jcas
     ) {
-        NormalizationManager norm = NormalizationManager.getInstance(language, find_temponyms);
+        NormalizationManager norm = context.normalization();
 
         // //////////////////////////////////////
         // IS THERE A DOCUMENT CREATION TIME? //
@@ -737,7 +817,8 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                     dctYear + "-" + norm.getFromNormNumber(dctMonth + "") + "-" + norm.getFromNormNumber(dctDay + "")
             );
             dctWeek = DateCalculator.getWeekOfDate(
-                    dctYear + "-" + norm.getFromNormNumber(dctMonth + "") + "-" + norm.getFromNormNumber(dctDay + "")
+                    dctYear + "-" + norm.getFromNormNumber(dctMonth + "") + "-" + norm.getFromNormNumber(dctDay + ""),
+                    context.locale()
             );
 
             if (doDebug) {
@@ -843,7 +924,9 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
             }
         }
         // get the last tense (depending on the part of speech tags used in front or behind the expression)
-        String last_used_tense = ContextAnalyzer.getLastTense(t_i, jcas, language);
+        String last_used_tense = ContextAnalyzer.getLastTense(
+                candidates.begin(linearDates[i]), candidates.end(linearDates[i]), jcas, context.language()
+        );
 
         //////////////////////////
         // DISAMBIGUATION PHASE //
@@ -878,7 +961,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 }
                 // WITHOUT DOCUMENT CREATION TIME
                 else {
-                    newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    newYearValue = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                 }
             }
             // vi has quaurter
@@ -922,7 +1005,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 }
                 // WITHOUT DOCUMENT CREATION TIME
                 else {
-                    newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    newYearValue = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                 }
             }
             // vi has half
@@ -962,7 +1045,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 }
                 // WITHOUT DOCUMENT CREATION TIME
                 else {
-                    newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    newYearValue = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                 }
             }
 
@@ -975,7 +1058,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 }
                 // WITHOUT DOCUMENT CREATION TIME
                 else {
-                    newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    newYearValue = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                 }
             }
             // vi has week
@@ -986,7 +1069,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 }
                 // WITHOUT DOCUMENT CREATION TIME
                 else {
-                    newYearValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    newYearValue = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                 }
             }
 
@@ -1037,7 +1120,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
             }
             // NARRATIVE DOCUMENTS
             else {
-                newCenturyValue = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language);
+                newCenturyValue = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "century", context);
                 if (!(newCenturyValue.startsWith("BC"))) {
                     if (
                             (newCenturyValue.matches("^\\d\\d.*")) &&
@@ -1073,8 +1156,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
             valueNew = ambigString;
             if (ambigString.matches("^UNDEF-REFDATE$")) {
                 if (i > 0) {
-                    Timex3 anyDate = linearDates.get(i - 1);
-                    valueNew = anyDate.getTimexValue();
+                    valueNew = candidates.value(linearDates[i - 1]);
                 } else {
                     valueNew = "XXXX-XX-XX";
                 }
@@ -1181,10 +1263,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                         // check for REFUNIT (only allowed for "year")
                         if ((ltn.equals("REFUNIT")) && (unit.equals("year"))) {
                             String dateWithYear = ContextAnalyzer.getLastMentionedX(
+                                    candidates,
                                     linearDates,
                                     i,
                                     "dateYear",
-                                    language
+                                    context
                             );
                             String year = dateWithYear;
                             if (dateWithYear.isEmpty()) {
@@ -1220,10 +1303,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                 valueNew = valueNew.replace(checkUndef, century + "");
                             } else {
                                 String lmCentury = ContextAnalyzer.getLastMentionedX(
+                                        candidates,
                                         linearDates,
                                         i,
                                         "century",
-                                        language
+                                        context
                                 );
                                 if (lmCentury.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XX");
@@ -1249,7 +1333,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                         }
                                         valueNew = valueNew.replace(checkUndef, decade + "X");
                                     } else {
-                                        String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates, i, "decade", language);
+                                        String lmDecade = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "decade", context);
                                         if (lmDecade.isEmpty()) {
                                             valueNew = valueNew.replace(checkUndef, "XXX");
                                         } else {
@@ -1271,7 +1355,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                         }
                                         valueNew = valueNew.replace(checkUndef, intValue + "");
                                     } else {
-                                        String lmYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                                        String lmYear = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                                         if (lmYear.isEmpty()) {
                                             valueNew = valueNew.replace(checkUndef, "XXXX");
                                         } else {
@@ -1299,7 +1383,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                         intQuarter = intQuarter + diffQuarters;
                                         valueNew = valueNew.replace(checkUndef, intYear + "-Q" + intQuarter);
                                     } else {
-                                        String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+                                        String lmQuarter = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "quarter", context);
                                         if (lmQuarter.isEmpty()) {
                                             valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                                         } else {
@@ -1325,7 +1409,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                         }
                                         valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextMonth(dctYear + "-" + norm.getFromNormNumber(dctMonth + ""), diff));
                                     } else {
-                                        String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month", language);
+                                        String lmMonth = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "month", context);
                                         if (lmMonth.isEmpty()) {
                                             valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                                         } else {
@@ -1343,9 +1427,9 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                             // } else if (op.equals("PLUS")) {
                                             //     diff = diff * 7;
                                         }
-                                        valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear + "-W" + norm.getFromNormNumber(dctWeek + ""), diff, language));
+                                        valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(dctYear + "-W" + norm.getFromNormNumber(dctWeek + ""), diff, context.language(), context.locale()));
                                     } else {
-                                        String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                                        String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                                         if (lmDay.isEmpty()) {
                                             valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                                         } else {
@@ -1365,7 +1449,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                         }
                                         valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextDay(dctYear + "-" + norm.getFromNormNumber(dctMonth + "") + "-" + dctDay, diff));
                                     } else {
-                                        String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                                        String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                                         if (lmDay.isEmpty()) {
                                             valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                                         } else {
@@ -1387,7 +1471,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, norm.getFromNormNumber(dctCentury - 1 + ""));
                 } else {
-                    String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language);
+                    String lmCentury = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "century", context);
                     if (lmCentury.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XX");
                     } else {
@@ -1400,7 +1484,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, norm.getFromNormNumber(dctCentury + ""));
                 } else {
-                    String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language);
+                    String lmCentury = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "century", context);
                     if (lmCentury.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XX");
                     } else {
@@ -1412,7 +1496,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, norm.getFromNormNumber(dctCentury + 1 + ""));
                 } else {
-                    String lmCentury = ContextAnalyzer.getLastMentionedX(linearDates, i, "century", language);
+                    String lmCentury = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "century", context);
                     if (lmCentury.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XX");
                     } else {
@@ -1427,7 +1511,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, (dctYear - 10 + "").substring(0, 3));
                 } else {
-                    String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates, i, "decade", language);
+                    String lmDecade = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "decade", context);
                     if (lmDecade.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX");
                     } else {
@@ -1440,7 +1524,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, (dctYear + "").substring(0, 3));
                 } else {
-                    String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates, i, "decade", language);
+                    String lmDecade = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "decade", context);
                     if (lmDecade.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX");
                     } else {
@@ -1452,7 +1536,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, (dctYear + 10 + "").substring(0, 3));
                 } else {
-                    String lmDecade = ContextAnalyzer.getLastMentionedX(linearDates, i, "decade", language);
+                    String lmDecade = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "decade", context);
                     if (lmDecade.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX");
                     } else {
@@ -1467,7 +1551,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, dctYear - 1 + "");
                 } else {
-                    String lmYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    String lmYear = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                     if (lmYear.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX");
                     } else {
@@ -1483,7 +1567,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, dctYear + "");
                 } else {
-                    String lmYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    String lmYear = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                     if (lmYear.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX");
                     } else {
@@ -1498,7 +1582,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, dctYear + 1 + "");
                 } else {
-                    String lmYear = ContextAnalyzer.getLastMentionedX(linearDates, i, "year", language);
+                    String lmYear = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "year", context);
                     if (lmYear.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX");
                     } else {
@@ -1519,7 +1603,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                             DateCalculator.getXNextMonth(dctYear + "-" + norm.getFromNormNumber(dctMonth + ""), -1)
                     );
                 } else {
-                    String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month", language);
+                    String lmMonth = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "month", context);
                     if (lmMonth.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                     } else {
@@ -1531,7 +1615,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, dctYear + "-" + norm.getFromNormNumber(dctMonth + ""));
                 } else {
-                    String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month", language);
+                    String lmMonth = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "month", context);
                     if (lmMonth.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                     } else {
@@ -1546,7 +1630,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                             DateCalculator.getXNextMonth(dctYear + "-" + norm.getFromNormNumber(dctMonth + ""), 1)
                     );
                 } else {
-                    String lmMonth = ContextAnalyzer.getLastMentionedX(linearDates, i, "month", language);
+                    String lmMonth = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "month", context);
                     if (lmMonth.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                     } else {
@@ -1566,7 +1650,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                             )
                     );
                 } else {
-                    String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                    String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                     if (lmDay.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                     } else {
@@ -1585,7 +1669,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                     norm.getFromNormNumber(dctDay + "")
                     );
                 } else {
-                    String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                    String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                     if (lmDay.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                     } else {
@@ -1606,7 +1690,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                             )
                     );
                 } else {
-                    String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                    String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                     if (lmDay.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                     } else {
@@ -1620,14 +1704,14 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(
                             checkUndef,
-                            DateCalculator.getXNextWeek(dctYear + "-W" + norm.getFromNormNumber(dctWeek + ""), -1, language)
+                            DateCalculator.getXNextWeek(dctYear + "-W" + norm.getFromNormNumber(dctWeek + ""), -1, context.language(), context.locale())
                     );
                 } else {
-                    String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates, i, "week", language);
+                    String lmWeek = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "week", context);
                     if (lmWeek.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-WXX");
                     } else {
-                        valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek, -1, language));
+                        valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek, -1, context.language(), context.locale()));
                     }
                 }
             } else if (ambigString.startsWith("UNDEF-this-week")) {
@@ -1635,7 +1719,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, dctYear + "-W" + norm.getFromNormNumber(dctWeek + ""));
                 } else {
-                    String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates, i, "week", language);
+                    String lmWeek = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "week", context);
                     if (lmWeek.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-WXX");
                     } else {
@@ -1647,14 +1731,14 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(
                             checkUndef,
-                            DateCalculator.getXNextWeek(dctYear + "-W" + norm.getFromNormNumber(dctWeek + ""), 1, language)
+                            DateCalculator.getXNextWeek(dctYear + "-W" + norm.getFromNormNumber(dctWeek + ""), 1, context.language(), context.locale())
                     );
                 } else {
-                    String lmWeek = ContextAnalyzer.getLastMentionedX(linearDates, i, "week", language);
+                    String lmWeek = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "week", context);
                     if (lmWeek.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-WXX");
                     } else {
-                        valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek, 1, language));
+                        valueNew = valueNew.replace(checkUndef, DateCalculator.getXNextWeek(lmWeek, 1, context.language(), context.locale()));
                     }
                 }
             }
@@ -1669,7 +1753,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                         valueNew = valueNew.replace(checkUndef, dctYear + "-Q" + newQuarter);
                     }
                 } else {
-                    String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+                    String lmQuarter = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "quarter", context);
                     if (lmQuarter.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-QX");
                     } else {
@@ -1688,7 +1772,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 if ((documentTypeNews || documentTypeColloquial || documentTypeScientific) && (dctAvailable)) {
                     valueNew = valueNew.replace(checkUndef, dctYear + "-" + dctQuarter);
                 } else {
-                    String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+                    String lmQuarter = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "quarter", context);
                     if (lmQuarter.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-QX");
                     } else {
@@ -1705,7 +1789,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                         valueNew = valueNew.replace(checkUndef, dctYear + "-Q" + newQuarter);
                     }
                 } else {
-                    String lmQuarter = ContextAnalyzer.getLastMentionedX(linearDates, i, "quarter", language);
+                    String lmQuarter = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "quarter", context);
                     if (lmQuarter.isEmpty()) {
                         valueNew = valueNew.replace(checkUndef, "XXXX-QX");
                     } else {
@@ -1749,10 +1833,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                 }
                             } else {
                                 String lmMonth = ContextAnalyzer.getLastMentionedX(
+                                        candidates,
                                         linearDates,
                                         i,
                                         "month-with-details",
-                                        language
+                                        context
                                 );
                                 if (lmMonth.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX");
@@ -1794,10 +1879,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                 valueNew = valueNew.replace(checkUndef, dctYear + "-" + newMonth);
                             } else {
                                 String lmMonth = ContextAnalyzer.getLastMentionedX(
+                                        candidates,
                                         linearDates,
                                         i,
                                         "month-with-details",
-                                        language
+                                        context
                                 );
                                 if (lmMonth.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX");
@@ -1822,10 +1908,11 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                 }
                             } else {
                                 String lmMonth = ContextAnalyzer.getLastMentionedX(
+                                        candidates,
                                         linearDates,
                                         i,
                                         "month-with-details",
-                                        language
+                                        context
                                 );
                                 if (lmMonth.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX");
@@ -1883,7 +1970,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                     }
                                 }
                             } else { // NARRATVIE DOCUMENT
-                                String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language);
+                                String lmSeason = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "season", context);
                                 if (lmSeason.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                                 } else {
@@ -1922,7 +2009,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                 valueNew = valueNew.replace(checkUndef, dctYear + "-" + newSeason);
                             } else {
                                 // TODO include tense of sentence?
-                                String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language);
+                                String lmSeason = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "season", context);
                                 if (lmSeason.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                                 } else {
@@ -1957,7 +2044,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                     case "WI" -> valueNew = valueNew.replace(checkUndef, dctYear + 1 + "-" + newSeason);
                                 }
                             } else { // NARRATIVE DOCUMENT
-                                String lmSeason = ContextAnalyzer.getLastMentionedX(linearDates, i, "season", language);
+                                String lmSeason = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "season", context);
                                 if (lmSeason.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX");
                                 } else {
@@ -2023,7 +2110,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                         DateCalculator.getXNextDay(dctYear + "-" + dctMonth + "-" + dctDay, diff)
                                 );
                             } else {
-                                String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                                String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                                 if (lmDay.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                                 } else {
@@ -2053,7 +2140,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                 );
                             } else {
                                 // TODO tense should be included?!
-                                String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                                String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                                 if (lmDay.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                                 } else {
@@ -2080,7 +2167,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                         DateCalculator.getXNextDay(dctYear + "-" + dctMonth + "-" + dctDay, diff)
                                 );
                             } else {
-                                String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                                String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                                 if (lmDay.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                                 } else {
@@ -2116,7 +2203,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                                 );
                             } else {
                                 // TODO tense should be included?!
-                                String lmDay = ContextAnalyzer.getLastMentionedX(linearDates, i, "day", language);
+                                String lmDay = ContextAnalyzer.getLastMentionedX(candidates, linearDates, i, "day", context);
                                 if (lmDay.isEmpty()) {
                                     valueNew = valueNew.replace(checkUndef, "XXXX-XX-XX");
                                 } else {
@@ -2145,57 +2232,45 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
     /**
      * Under-specified values are disambiguated here. Only Timexes of types "dates" and "times" can be under-specified.
      */
-    public void specifyAmbiguousValues(JCas jcas) {
-        // build up a list with all found TIMEX expressions
-        List<Timex3> linearDates = new ArrayList<Timex3>();
-
-        // Create List of all Timexes of types "dates" and "times"
-        for (Annotation annotation : jcas.getAnnotationIndex(Timex3.type)) {
-            Timex3 timex = (Timex3) annotation;
-            if (timex.getTimexType().equals("DATE") || timex.getTimexType().equals("TIME")) {
-                linearDates.add(timex);
-            }
-
-            if (timex.getTimexType().equals("DURATION") && !timex.getEmptyValue().isEmpty()) {
-                linearDates.add(timex);
-            }
-        }
+    private void specifyAmbiguousValues(JCas jcas) {
+        // build up a list with all found TIMEX expressions of types "dates" and "times"
+        int[] linearDates = Arrays.stream(candidates.inIndexOrder())
+                .filter(c -> candidates.type(c).equals("DATE") || candidates.type(c).equals("TIME") ||
+                        (candidates.type(c).equals("DURATION") && !candidates.emptyValue(c).isEmpty()))
+                .toArray();
 
         //////////////////////////////////////////////
         // go through list of Date and Time timexes //
         //////////////////////////////////////////////
-        for (int i = 0; i < linearDates.size(); i++) {
+        for (int i = 0; i < linearDates.length; i++) {
             try {
-                Timex3 t_i = linearDates.get(i);
-                String value_i = t_i.getTimexValue();
+                int t_i = linearDates[i];
+                String value_i = candidates.value(t_i);
 
                 String valueNew = value_i;
                 // handle the value attribute only if we have a TIME or DATE
-                if (t_i.getTimexType().equals("TIME") || t_i.getTimexType().equals("DATE")) valueNew =
-                        specifyAmbiguousValuesString(value_i, t_i, i, linearDates, jcas);
+                if (candidates.type(t_i).equals("TIME") || candidates.type(t_i).equals("DATE")) valueNew =
+                        specifyAmbiguousValuesString(value_i, i, linearDates, jcas);
 
                 // handle the emptyValue attribute for any type
-                if (t_i.getEmptyValue() != null && !t_i.getEmptyValue().isEmpty()) {
-                    String emptyValueNew = specifyAmbiguousValuesString(t_i.getEmptyValue(), t_i, i, linearDates, jcas);
-                    t_i.setEmptyValue(emptyValueNew);
+                if (candidates.emptyValue(t_i) != null && !candidates.emptyValue(t_i).isEmpty()) {
+                    String emptyValueNew = specifyAmbiguousValuesString(candidates.emptyValue(t_i), i, linearDates, jcas);
+                    candidates.setEmptyValue(t_i, emptyValueNew);
                 }
 
-                t_i.removeFromIndexes();
                 getLogger().debug(
-                        t_i.getTimexId() +
+                        candidates.timexId(t_i) +
                                 " DISAMBIGUATION PHASE: foundBy:" +
-                                t_i.getFoundByRule() +
+                                candidates.foundByRule(t_i) +
                                 " text:" +
-                                t_i.getCoveredText() +
+                                candidates.coveredText(t_i) +
                                 " value:" +
-                                t_i.getTimexValue() +
+                                candidates.value(t_i) +
                                 " NEW value:" +
                                 valueNew
                 );
 
-                t_i.setTimexValue(valueNew);
-                t_i.addToIndexes();
-                linearDates.set(i, t_i);
+                candidates.setValue(t_i, valueNew);
             } catch (Exception e) {
                 getLogger().error("Caught error in disambiguation phase!", e);
             }
@@ -2203,45 +2278,44 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
     }
 
     private void deleteOverlappedTimexesPreprocessing(JCas jcas) {
-        HashSet<Timex3> hsTimexesToRemove = new HashSet<Timex3>();
-        for (Annotation a1 : jcas.getAnnotationIndex(Timex3.type)) {
-            Timex3 t1 = (Timex3) a1;
-            for (Annotation a2 : jcas.getAnnotationIndex(Timex3.type)) {
-                Timex3 t2 = (Timex3) a2;
+        int[] timexes = candidates.inIndexOrder();
+        HashSet<Integer> hsTimexesToRemove = new HashSet<Integer>();
+        for (int t1 : timexes) {
+            for (int t2 : timexes) {
                 if (
-                        ((t1.getBegin() >= t2.getBegin()) && (t1.getEnd() < t2.getEnd())) || // t1 starts inside or with t2 and ends before t2 -> remove t1
-                                ((t1.getBegin() > t2.getBegin()) && (t1.getEnd() <= t2.getEnd()))
+                        ((candidates.begin(t1) >= candidates.begin(t2)) && (candidates.end(t1) < candidates.end(t2))) || // t1 starts inside or with t2 and ends before t2 -> remove t1
+                                ((candidates.begin(t1) > candidates.begin(t2)) && (candidates.end(t1) <= candidates.end(t2)))
                 ) { // t1 starts inside t2 and ends with or before t2 -> remove t1
                     hsTimexesToRemove.add(t1);
                 } else if (
-                        ((t2.getBegin() >= t1.getBegin()) && (t2.getEnd() < t1.getEnd())) || // t2 starts inside or with t1 and ends before t1 -> remove t2
-                                ((t2.getBegin() > t1.getBegin()) && (t2.getEnd() <= t1.getEnd()))
+                        ((candidates.begin(t2) >= candidates.begin(t1)) && (candidates.end(t2) < candidates.end(t1))) || // t2 starts inside or with t1 and ends before t1 -> remove t2
+                                ((candidates.begin(t2) > candidates.begin(t1)) && (candidates.end(t2) <= candidates.end(t1)))
                 ) { // t2 starts inside t1 and ends with or before t1 -> remove t2
                     hsTimexesToRemove.add(t2);
                 }
                 // identical length
-                if (!t1.equals(t2) && (t1.getBegin() == t2.getBegin()) && (t1.getEnd() == t2.getEnd())) {
-                    if ((t1.getTimexValue().startsWith("UNDEF")) && (!(t2.getTimexValue().startsWith("UNDEF")))) {
+                if ((t1 != t2) && (candidates.begin(t1) == candidates.begin(t2)) && (candidates.end(t1) == candidates.end(t2))) {
+                    if ((candidates.value(t1).startsWith("UNDEF")) && (!(candidates.value(t2).startsWith("UNDEF")))) {
                         hsTimexesToRemove.add(t1);
                     } else if (
-                            (!(t1.getTimexValue().startsWith("UNDEF"))) && (t2.getTimexValue().startsWith("UNDEF"))
+                            (!(candidates.value(t1).startsWith("UNDEF"))) && (candidates.value(t2).startsWith("UNDEF"))
                     ) {
                         hsTimexesToRemove.add(t2);
                     }
                     // t1 is explicit, but t2 is not
                     else if (
-                            (t1.getFoundByRule().endsWith("explicit")) && (!(t2.getFoundByRule().endsWith("explicit")))
+                            (candidates.foundByRule(t1).endsWith("explicit")) && (!(candidates.foundByRule(t2).endsWith("explicit")))
                     ) {
                         hsTimexesToRemove.add(t2);
                     }
                     // remove timexes that are identical, but one has an emptyvalue
-                    else if (t2.getEmptyValue().isEmpty() && !t1.getEmptyValue().isEmpty()) {
+                    else if (candidates.emptyValue(t2).isEmpty() && !candidates.emptyValue(t1).isEmpty()) {
                         hsTimexesToRemove.add(t2);
                     }
                     // REMOVE REAL DUPLICATES (the one with the lower timexID)
                     else if (
-                            (Integer.parseInt(t1.getTimexId().substring(1)) <
-                                    Integer.parseInt(t2.getTimexId().substring(1)))
+                            (Integer.parseInt(candidates.timexId(t1).substring(1)) <
+                                    Integer.parseInt(candidates.timexId(t2).substring(1)))
                     ) {
                         hsTimexesToRemove.add(t1);
                     }
@@ -2249,41 +2323,38 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
             }
         }
         // remove, finally
-        for (Timex3 t : hsTimexesToRemove) {
+        for (int t : hsTimexesToRemove) {
             getLogger().debug(
                     "REMOVE DUPLICATE: " +
-                            t.getCoveredText() +
+                            candidates.coveredText(t) +
                             "(id:" +
-                            t.getTimexId() +
+                            candidates.timexId(t) +
                             " value:" +
-                            t.getTimexValue() +
+                            candidates.value(t) +
                             " found by:" +
-                            t.getFoundByRule() +
+                            candidates.foundByRule(t) +
                             ")"
             );
 
-            t.removeFromIndexes();
+            candidates.remove(t);
             timex_counter--;
         }
     }
 
     private void deleteOverlappedTimexesPostprocessing(JCas jcas) {
 
-        HashSet<Set<Timex3>> effectivelyToInspect = new HashSet<>();
-        HashSet<Timex3> allTimexesToInspect = new HashSet<>();
+        LinkedHashSet<Set<Integer>> effectivelyToInspect = new LinkedHashSet<>();
+        TreeSet<Integer> allTimexesToInspect = new TreeSet<>();
 
-        List<Timex3> timex3s = JCasUtil.select(jcas, Timex3.class).stream()
-                .filter(t -> !t.getTimexType().equals("TEMPONYM") && !t.getTimexValue().equals("REMOVE"))
+        List<Integer> timex3s = Arrays.stream(candidates.inIndexOrder())
+                .filter(t -> !candidates.type(t).equals("TEMPONYM") && !candidates.value(t).equals("REMOVE"))
+                .boxed()
                 .toList();
-        Utils.MergeSets<Timex3> mergeSets = new Utils.MergeSets<>();
-        TreeMap<Integer, Set<Timex3>> beginTreeMap = timex3s.stream().collect(Collectors.toMap(Timex3::getBegin, Collections::singleton, mergeSets, TreeMap::new));
-        TreeMap<Integer, Set<Timex3>> endTreeMap = timex3s.stream().collect(Collectors.toMap(Timex3::getEnd, Collections::singleton, mergeSets, TreeMap::new));
-        for (Timex3 outer : timex3s) {
-            if (outer.getTimexType().equals("TEMPONYM")) {
-                continue;
-            }
-
-            Set<Timex3> timexSet = getIntersection(outer, beginTreeMap, endTreeMap);
+        Utils.MergeSets<Integer> mergeSets = new Utils.MergeSets<>();
+        TreeMap<Integer, Set<Integer>> beginTreeMap = timex3s.stream().collect(Collectors.toMap(candidates::begin, Collections::singleton, mergeSets, TreeMap::new));
+        TreeMap<Integer, Set<Integer>> endTreeMap = timex3s.stream().collect(Collectors.toMap(candidates::end, Collections::singleton, mergeSets, TreeMap::new));
+        for (int outer : timex3s) {
+            Set<Integer> timexSet = getIntersection(outer, candidates.begin(outer), candidates.end(outer), beginTreeMap, endTreeMap);
 
             if (timexSet.size() > 1) {
                 allTimexesToInspect.add(outer);
@@ -2295,12 +2366,12 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         /* prune those sets of overlapping timexes that are subsets of others
          * (i.e. leave only the largest union of overlapping timexes)
          */
-        HashSet<Set<Timex3>> newEffectivelyToInspect = new HashSet<>();
-        for (Timex3 t : allTimexesToInspect) {
-            Set<Timex3> setToKeep = Collections.emptySet();
+        LinkedHashSet<Set<Integer>> newEffectivelyToInspect = new LinkedHashSet<>();
+        for (int t : allTimexesToInspect) {
+            Set<Integer> setToKeep = Collections.emptySet();
 
             // determine the largest sets that contains this timex
-            for (Set<Timex3> tSet : effectivelyToInspect) {
+            for (Set<Integer> tSet : effectivelyToInspect) {
                 if (tSet.contains(t) && tSet.size() > setToKeep.size()) setToKeep = tSet;
             }
 
@@ -2308,13 +2379,9 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 newEffectivelyToInspect.add(setToKeep);
             }
         }
-        // overwrite previous list of sets
-        effectivelyToInspect = newEffectivelyToInspect;
 
         // iterate over the selected sets and merge information, remove old timexes
-        for (Set<Timex3> tSet : effectivelyToInspect) {
-            Timex3 newTimex = new Timex3(jcas);
-
+        for (Set<Integer> tSet : newEffectivelyToInspect) {
             /*
              * check
              * - whether all timexes of this sets have the same timex type attribute,
@@ -2323,16 +2390,15 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
              */
             boolean allSameTypes = true;
             String timexType = null;
-            Timex3 longestTimex = null;
+            int longestTimex = -1;
             int combinedBegin = Integer.MAX_VALUE, combinedEnd = Integer.MIN_VALUE;
-            ArrayList<Integer> tokenIds = new ArrayList<Integer>();
-            for (Timex3 t : tSet) {
+            for (int t : tSet) {
                 // check whether the types are identical and either all DATE or TIME
                 if (timexType == null) {
-                    timexType = t.getTimexType();
+                    timexType = candidates.type(t);
                 } else {
                     if (
-                            (allSameTypes && !timexType.equals(t.getTimexType())) ||
+                            (allSameTypes && !timexType.equals(candidates.type(t))) ||
                                     !(timexType.equals("DATE") || timexType.equals("TIME"))
                     ) {
                         allSameTypes = false;
@@ -2341,78 +2407,108 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                 getLogger().debug("Are these overlapping timexes of same type? => " + allSameTypes);
 
                 // check timex value attribute string length
-                if (longestTimex == null) {
+                if (longestTimex < 0) {
                     longestTimex = t;
-                } else if (allSameTypes && t.getFoundByRule().contains("-BCADhint")) {
+                } else if (allSameTypes && candidates.foundByRule(t).contains("-BCADhint")) {
                     longestTimex = t;
                 } else if (
                         allSameTypes &&
-                                !t.getFoundByRule().contains("relative") &&
-                                longestTimex.getFoundByRule().contains("relative")
+                                !candidates.foundByRule(t).contains("relative") &&
+                                candidates.foundByRule(longestTimex).contains("relative")
                 ) {
                     longestTimex = t;
-                } else if (longestTimex.getTimexValue().length() == t.getTimexValue().length()) {
-                    if (t.getBegin() < longestTimex.getBegin()) longestTimex = t;
-                } else if (longestTimex.getTimexValue().length() < t.getTimexValue().length()) {
+                } else if (candidates.value(longestTimex).length() == candidates.value(t).length()) {
+                    if (candidates.begin(t) < candidates.begin(longestTimex)) longestTimex = t;
+                } else if (candidates.value(longestTimex).length() < candidates.value(t).length()) {
                     longestTimex = t;
                 }
                 getLogger().debug(
                         "Selected " +
-                                longestTimex.getTimexId() +
+                                candidates.timexId(longestTimex) +
                                 ": " +
-                                longestTimex.getCoveredText() +
+                                candidates.coveredText(longestTimex) +
                                 "[" +
-                                longestTimex.getTimexValue() +
+                                candidates.value(longestTimex) +
                                 "] as the longest-valued timex."
                 );
 
                 // check combined beginning/end
-                if (combinedBegin > t.getBegin()) combinedBegin = t.getBegin();
-                if (combinedEnd < t.getEnd()) combinedEnd = t.getEnd();
+                if (combinedBegin > candidates.begin(t)) combinedBegin = candidates.begin(t);
+                if (combinedEnd < candidates.end(t)) combinedEnd = candidates.end(t);
                 getLogger().debug("Selected combined constraints: " + combinedBegin + ":" + combinedEnd);
-
-                // disassemble and remember the token ids
-//                String[] tokenizedTokenIds = t.getAllTokIds().split("<-->");
-//                for (int i = 1; i < tokenizedTokenIds.length; i++) {
-//                    if (!tokenIds.contains(Integer.parseInt(tokenizedTokenIds[i]))) {
-//                        tokenIds.add(Integer.parseInt(tokenizedTokenIds[i]));
-//                    }
-//                }
             }
 
             /* types are equal => merge constraints, use the longer, "more granular" value.
              * if types are not equal, just take the longest value.
              */
-            Collections.sort(tokenIds);
-            newTimex = longestTimex;
             if (allSameTypes) {
-                newTimex.setBegin(combinedBegin);
-                newTimex.setEnd(combinedEnd);
-                if (!tokenIds.isEmpty()) newTimex.setFirstTokId(tokenIds.getFirst());
-                StringBuilder tokenIdText = new StringBuilder("BEGIN");
-                for (Integer tokenId : tokenIds) {
-                    tokenIdText.append("<-->").append(tokenId);
-                }
-                newTimex.setAllTokIds(tokenIdText.toString());
+                candidates.setSpan(longestTimex, combinedBegin, combinedEnd);
+                candidates.setAllTokIds(longestTimex, "BEGIN");
             }
 
             // remove old overlaps.
-            for (Timex3 t : tSet) {
-                t.removeFromIndexes();
+            for (int t : tSet) {
+                candidates.remove(t);
             }
-            // add the single constructed/chosen timex to the indexes.
-            newTimex.addToIndexes();
+            // keep the single chosen timex.
+            candidates.restore(longestTimex);
         }
     }
 
-    private static Set<Timex3> getIntersection(Timex3 pivot, TreeMap<Integer, Set<Timex3>> beginTreeMap, TreeMap<Integer, Set<Timex3>> endTreeMap) {
-        Set<Timex3> othersThatEndAfterThisBegins = endTreeMap.tailMap(pivot.getBegin(), false).values().stream().flatMap(Collection::stream).collect(Collectors.toSet());
-        Set<Timex3> othersThatBeginBeforeThisEnds = beginTreeMap.headMap(pivot.getEnd(), false).values().stream().flatMap(Collection::stream).collect(Collectors.toSet());
+    private static Set<Integer> getIntersection(int pivot, int begin, int end, TreeMap<Integer, Set<Integer>> beginTreeMap, TreeMap<Integer, Set<Integer>> endTreeMap) {
+        Set<Integer> othersThatEndAfterThisBegins = endTreeMap.tailMap(begin, false).values().stream().flatMap(Collection::stream).collect(Collectors.toCollection(TreeSet::new));
+        Set<Integer> othersThatBeginBeforeThisEnds = beginTreeMap.headMap(end, false).values().stream().flatMap(Collection::stream).collect(Collectors.toSet());
         othersThatEndAfterThisBegins.retainAll(othersThatBeginBeforeThisEnds);
         othersThatEndAfterThisBegins.add(pivot);
         return othersThatEndAfterThisBegins;
     }
 
+    /**
+     * Replace the temponyms by TIMEX3INTERVAL annotations containing (earliest|latest)(Begin|End) information,
+     * as {@link de.unihd.dbs.uima.annotator.heideltime.processors.TemponymPostprocessing} does for the CAS.
+     */
+    private void handleTemponymIntervals(JCas jcas) {
+        for (int t : candidates.inIndexOrder()) {
+            if (!candidates.type(t).equals("TEMPONYM")) {
+                continue;
+            }
+
+            // create a timex3interval for each temponym
+            Timex3Interval ti = new Timex3Interval(jcas, candidates.begin(t), candidates.end(t));
+
+            getLogger().debug("TEMPONYM: " + candidates.coveredText(t));
+
+            ti.setTimexType(candidates.type(t));
+            ti.setAllTokIds(candidates.allTokIds(t));
+            ti.setTimexFreq(candidates.freq(t));
+            ti.setTimexMod(candidates.mod(t));
+            ti.setTimexQuant(candidates.quant(t));
+            // set a new id
+            int newId = Integer.parseInt(candidates.timexId(t).replace("t", "")) + 100000;
+            ti.setTimexId("t" + newId);
+
+            // get the (earliest|last)(begin|end) information
+            for (MatchResult mr : Utils.findMatches(PATTERN_TEMPONYM_INTERVAL, candidates.value(t))) {
+                ti.setTimexValueEB(mr.group(1));
+                ti.setTimexValueLB(mr.group(2));
+                ti.setTimexValueEE(mr.group(3));
+                ti.setTimexValueLE(mr.group(4));
+            }
+            if (Objects.equals(ti.getTimexValueEB(), ti.getTimexValueLB()) &&
+                    Objects.equals(ti.getTimexValueLB(), ti.getTimexValueEE()) &&
+                    Objects.equals(ti.getTimexValueEE(), ti.getTimexValueLE())) {
+                ti.setTimexValue(ti.getTimexValueEB());
+            } else { // what's the best single value for an interval!?
+                ti.setTimexValue(ti.getTimexValueLE());
+            }
+            ti.setFoundByRule(candidates.foundByRule(t));
+            ti.addToIndexes();
+
+            // the standard timexes are removed
+            candidates.remove(t);
+        }
+    }
+
     public static record RuleMatches<T>(RuleManager.RuleInstance rule, List<T> results) {
         public boolean isEmpty() {
             return results.isEmpty();
@@ -2423,33 +2519,381 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
         }
     }
 
+    /**
+     * Look up the matches of a category of rules in the sentence cache, if there is one, or find them.
+     * The matching is recorded as a {@link PhaseEvent}.
+     */
+    private List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> findCached(
+            String category,
+            TreeMap<String, RuleManager.RuleInstance> rules,
+            ContextAnalyzer.SentenceContainer sentence,
+            String signature,
+            Supplier<List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> find
+    ) {
+        PhaseEvent event = PhaseEvent.start();
+        List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> ruleMatches =
+                sentenceCache == null ? null : sentenceCache.get(context.language(), rules, sentence, signature);
+        if (ruleMatches == null) {
+            int timeouts = budget.timeouts();
+            ruleMatches = find.get();
+            // do not keep what a rule failed to find in time
+            if (sentenceCache != null && budget.timeouts() == timeouts) {
+                sentenceCache.put(context.language(), rules, sentence, signature, ruleMatches);
+            }
+        }
+        if (event.finish()) {
+            event.phase = "matching " + category;
+            event.documentId = budget.documentId();
+            event.sentences = 1;
+            event.timexes = countMatches(ruleMatches);
+            event.commit();
+        }
+        return ruleMatches;
+    }
+
+    /**
+     * Find the matches of a category of rules in all sentences of the document.
+     * The matching is recorded as a {@link PhaseEvent}.
+     */
+    private NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> findInDocument(
+            String category,
+            DocumentSentences document,
+            Supplier<NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>>> find
+    ) {
+        PhaseEvent event = PhaseEvent.start();
+        NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> bySentence = find.get();
+        if (event.finish()) {
+            event.phase = "matching " + category;
+            event.documentId = budget.documentId();
+            event.sentences = document.size();
+            event.timexes = bySentence.values().stream().mapToInt(HeidelTimeX::countMatches).sum();
+            event.commit();
+        }
+        return bySentence;
+    }
+
+    /**
+     * Log an exception that is likely rooted in faulty normalization resource files, with the sentence in which it
+     * occurred.
+     */
+    private void reportFaultyResources(Annotation sentence, NullPointerException npe) {
+        getLogger().error(
+                """
+                        HeidleTimeX's execution has been interrupted by an exception that \
+                        is likely rooted in faulty normalization resource files. Please consider opening an issue \
+                        report containing the following information at our GitHub project issue tracker: \
+                        https://github.com/texttechnologylab/heideltime/issues - Thanks!
+                        Sentence [{}-{}]: {}
+                        Language: {}
+                        Stack Trace: {}""",
+                sentence.getBegin(),
+                sentence.getEnd(),
+                sentence.getCoveredText(),
+                context.language(),
+                npe.fillInStackTrace().getMessage()
+        );
+    }
+
+    private static int countMatches(List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> ruleMatches) {
+        return ruleMatches.stream().mapToInt(matches -> matches.results().size()).sum();
+    }
+
+    /**
+     * Commit the event of a phase of {@link #process}. The timexes are counted among the candidates while there
+     * are candidates, and in the CAS afterward.
+     *
+     * @param sentences number of sentences of the document, counted once per document
+     */
+    private void commitPhase(PhaseEvent event, String phase, String documentId, int sentences, JCas jcas) {
+        if (event.finish()) {
+            event.phase = phase;
+            event.documentId = documentId;
+            event.sentences = sentences;
+            event.timexes = candidates != null ? candidates.remaining() : JCasUtil.select(jcas, Timex3.class).size();
+            event.commit();
+        }
+    }
+
     /**
      * Apply the extraction rules, normalization rules
      */
     private List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> findTimexes(
             TreeMap<String, RuleManager.RuleInstance> rules,
             ContextAnalyzer.SentenceContainer sentence
+    ) {
+        return findTimexes(rules, sentence, rule -> Utils.findMatches(rule.pattern(), budget.wrap(sentence.text())));
+    }
+
+    /**
+     * Apply the temponym rules, finding the matches of the rules covered by the gazetteer in a single scan
+     */
+    private List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> findTemponyms(
+            RuleManager.RuleSet ruleSet,
+            ContextAnalyzer.SentenceContainer sentence
+    ) {
+        TemponymGazetteer gazetteer = ruleSet.temponymGazetteer();
+        if (gazetteer.isEmpty()) {
+            return findTimexes(ruleSet.temponyms(), sentence);
+        }
+
+        TemponymGazetteer.Hits hits = gazetteer.scan(sentence.text());
+        return findTimexes(
+                ruleSet.temponyms(),
+                sentence,
+                rule -> gazetteer.covers(rule.name())
+                        ? hits.matches(rule.name())
+                        : Utils.findMatches(rule.pattern(), budget.wrap(sentence.text()))
+        );
+    }
+
+    private List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> findTimexes(
+            TreeMap<String, RuleManager.RuleInstance> rules,
+            ContextAnalyzer.SentenceContainer sentence,
+            Function<RuleManager.RuleInstance, List<MatchResult>> matcher
     ) {
         return rules.values().stream().parallel()
-                .filter(rule -> rule.fastCheck(sentence.text()))
-                .map(rule ->
-                        new HeidelTimeX.RuleMatches<>(
-                                rule,
-                                Utils.findMatches(rule.pattern(), sentence.text()).stream()
-                                        .filter(matchResult -> ContextAnalyzer.checkSentenceMatch(
-                                                sentence, matchResult.start(), matchResult.end()
-                                        ))
-                                        .filter(matchResult -> rule.checkPosConstraint(sentence, matchResult))
-                                        .map(matchResult -> getTimexAttributes(rule, matchResult))
-                                        .filter(Objects::nonNull)
-                                        .toList()
-                        )
-                )
+                .map(rule -> {
+                    // the fast check is bounded by the budget like the matching
+                    List<MatchResult> matchResults = matchWithinBudget(
+                            rule, sentence.begin(), sentence.end(),
+                            () -> rule.fastCheck(budget.wrap(sentence.text())) ? matcher.apply(rule) : null
+                    );
+                    if (matchResults == null) {
+                        return null;
+                    }
+                    return new HeidelTimeX.RuleMatches<>(
+                            rule,
+                            matchResults.stream()
+                                    .filter(matchResult -> ContextAnalyzer.checkSentenceMatch(
+                                            sentence, matchResult.start(), matchResult.end()
+                                    ))
+                                    .filter(matchResult -> rule.checkPosConstraint(sentence, matchResult))
+                                    .map(matchResult -> getTimexAttributes(rule, matchResult))
+                                    .filter(Objects::nonNull)
+                                    .toList()
+                    );
+                })
+                .filter(Objects::nonNull)
                 .sorted(Comparator.comparing(stage -> stage.rule().name()))
                 .toList();
     }
 
-    private void addTimexAnnotationsToJCas(JCas jCas, ContextAnalyzer.SentenceContainer sentence, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> ruleMatches) {
+    /**
+     * Apply the rules of all categories to the whole document, sentence by sentence, and add the timexes to the
+     * candidates in the same order as the sentence-by-sentence matching does.
+     */
+    private void findTimexesInDocument(JCas jcas, RuleManager.RuleSet ruleSet, DocumentSentences document) {
+        try (ExecutorService threadPool = Executors.newCachedThreadPool()) {
+            ArrayList<Future<NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>>>> futures =
+                    new ArrayList<>();
+            if (find_dates) {
+                futures.add(threadPool.submit(() -> findInDocument("dates", document,
+                        () -> findTimexes(ruleSet.dates(), document, false))));
+            }
+            if (find_times) {
+                futures.add(threadPool.submit(() -> findInDocument("times", document,
+                        () -> findTimexes(ruleSet.times(), document, false))));
+            }
+            if (find_sets) {
+                futures.add(threadPool.submit(() -> findInDocument("sets", document,
+                        () -> findTimexes(ruleSet.sets(), document, true))));
+            }
+            if (find_durations) {
+                futures.add(threadPool.submit(() -> findInDocument("durations", document,
+                        () -> findTimexes(ruleSet.durations(), document, false))));
+            }
+            if (find_temponyms) {
+                futures.add(threadPool.submit(() -> findInDocument("temponyms", document,
+                        () -> findTemponyms(ruleSet, document))));
+            }
+
+            List<NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>>> categories =
+                    new ArrayList<>();
+            TreeSet<Integer> hits = new TreeSet<>();
+            for (Future<NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>>> future : futures) {
+                categories.add(future.get());
+                hits.addAll(categories.getLast().keySet());
+            }
+            for (int i : hits) {
+                try {
+                    for (NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> category : categories) {
+                        List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> ruleMatches = category.get(i);
+                        if (ruleMatches != null) {
+                            addTimexCandidates(jcas, document.container(i), ruleMatches);
+                        }
+                    }
+                } catch (NullPointerException npe) {
+                    reportFaultyResources(document.sentence(i), npe);
+                }
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Apply the extraction rules, normalization rules to every sentence of the document
+     *
+     * @return the rule matches by the index of the sentence, for the sentences in which any rule matches
+     */
+    private NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> findTimexes(
+            TreeMap<String, RuleManager.RuleInstance> rules,
+            DocumentSentences document,
+            boolean optional
+    ) {
+        return findTimexes(rules, document, optional, rule -> document.matcher(rule.pattern(), budget));
+    }
+
+    /**
+     * Apply the temponym rules to every sentence of the document, finding the matches of the rules covered by the
+     * gazetteer in a single scan per sentence
+     */
+    private NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> findTemponyms(
+            RuleManager.RuleSet ruleSet,
+            DocumentSentences document
+    ) {
+        TemponymGazetteer gazetteer = ruleSet.temponymGazetteer();
+        if (gazetteer.isEmpty()) {
+            return findTimexes(ruleSet.temponyms(), document, true);
+        }
+
+        AtomicReferenceArray<TemponymGazetteer.Hits> hits = new AtomicReferenceArray<>(document.size());
+        return findTimexes(
+                ruleSet.temponyms(),
+                document,
+                true,
+                rule -> gazetteer.covers(rule.name())
+                        ? i -> hits.updateAndGet(i, h -> h != null ? h : gazetteer.scan(document.container(i).text()))
+                                .matches(rule.name())
+                        : document.matcher(rule.pattern(), budget)
+        );
+    }
+
+    private NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> findTimexes(
+            TreeMap<String, RuleManager.RuleInstance> rules,
+            DocumentSentences document,
+            boolean optional,
+            Function<RuleManager.RuleInstance, IntFunction<List<MatchResult>>> matcher
+    ) {
+        // the matches of every rule in the sentences in which it matches, the rules sorted by name
+        List<List<Map.Entry<Integer, HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>>> byRule =
+                rules.values().stream().parallel()
+                        .map(rule -> {
+                            IntPredicate fastCheck = document.fastCheck(rule, budget);
+                            IntFunction<List<MatchResult>> sentenceMatcher = matcher.apply(rule);
+                            List<Map.Entry<Integer, HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> hits =
+                                    new ArrayList<>();
+                            for (int i = 0; i < document.size(); i++) {
+                                if (budget.skips(optional)) {
+                                    reportExhaustedBudget();
+                                    continue;
+                                }
+                                HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes> ruleMatches =
+                                        findInSentence(rule, document, i, fastCheck, sentenceMatcher);
+                                if (ruleMatches != null && ruleMatches.any()) {
+                                    hits.add(Map.entry(i, ruleMatches));
+                                }
+                            }
+                            return hits;
+                        })
+                        .toList();
+
+        NavigableMap<Integer, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> bySentence = new TreeMap<>();
+        for (List<Map.Entry<Integer, HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>>> hits : byRule) {
+            for (Map.Entry<Integer, HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> hit : hits) {
+                bySentence.computeIfAbsent(hit.getKey(), i -> new ArrayList<>()).add(hit.getValue());
+            }
+        }
+        return bySentence;
+    }
+
+    /**
+     * Apply a rule to the i-th sentence of the document. Like in the sentence-by-sentence matching, an exception
+     * rooted in faulty normalization resources is reported, the sentence is re-run once when debugging, and the
+     * rule finds nothing in it.
+     *
+     * @return the matches of the rule, or null if the pattern does not match
+     */
+    private HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes> findInSentence(
+            RuleManager.RuleInstance rule,
+            DocumentSentences document,
+            int i,
+            IntPredicate fastCheck,
+            IntFunction<List<MatchResult>> sentenceMatcher
+    ) {
+        boolean debugIteration = false;
+        do {
+            try {
+                Sentence annotation = document.sentence(i);
+                List<MatchResult> matchResults = matchWithinBudget(
+                        rule, annotation.getBegin(), annotation.getEnd(),
+                        () -> fastCheck.test(i) ? sentenceMatcher.apply(i) : List.of()
+                );
+                if (matchResults.isEmpty()) {
+                    return null;
+                }
+                ContextAnalyzer.SentenceContainer sentence = document.container(i);
+                return new HeidelTimeX.RuleMatches<>(
+                        rule,
+                        matchResults.stream()
+                                .filter(matchResult -> ContextAnalyzer.checkSentenceMatch(
+                                        sentence, matchResult.start(), matchResult.end()
+                                ))
+                                .filter(matchResult -> rule.checkPosConstraint(sentence, matchResult))
+                                .map(matchResult -> getTimexAttributes(rule, matchResult))
+                                .filter(Objects::nonNull)
+                                .toList()
+                );
+            } catch (NullPointerException npe) {
+                if (!debugIteration) {
+                    reportFaultyResources(document.sentence(i), npe);
+                    if (doDebug) {
+                        getLogger().debug("Re-running this sentence with DEBUGGING enabled...");
+                        debugIteration = true;
+                    }
+                } else {
+                    getLogger().info("Execution will now resume.");
+                    break;
+                }
+            }
+        } while (doDebug && debugIteration);
+        return null;
+    }
+
+    /**
+     * Apply a rule to the sentence from <code>begin</code> to <code>end</code>. If the rule runs out of time, it is
+     * logged and finds nothing in this sentence.
+     */
+    private List<MatchResult> matchWithinBudget(
+            RuleManager.RuleInstance rule,
+            int begin,
+            int end,
+            Supplier<List<MatchResult>> match
+    ) {
+        try {
+            return match.get();
+        } catch (MatchTimeoutException e) {
+            budget.timedOut();
+            getLogger().warn(
+                    "Rule {} exceeded its time budget in sentence [{}-{}] of document documentUri={} and is skipped there",
+                    rule.name(), begin, end, budget.documentId()
+            );
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Log once per document that the document budget is used up and the optional categories are skipped.
+     */
+    private void reportExhaustedBudget() {
+        if (budget.reportExhaustion())
+            getLogger().warn(
+                    "Matching took longer than {} ms for document documentUri={}, skipping temponyms and sets for the rest of it",
+                    maxMillisPerDoc, budget.documentId()
+            );
+    }
+
+    private void addTimexCandidates(JCas jCas, ContextAnalyzer.SentenceContainer sentence, List<HeidelTimeX.RuleMatches<HeidelTimeX.TimexAttributes>> ruleMatches) {
         // Iterator over the rules by sorted by the name of the rules
         // this is important since later, the timexId will be used to
         // decide which of two expressions shall be removed if both
@@ -2473,7 +2917,7 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
 
     public String applyRuleFunctions(String tonormalize, MatchResult m) throws NormalizationException {
         try {
-            NormalizationManager norm = NormalizationManager.getInstance(language, find_temponyms);
+            NormalizationManager norm = context.normalization();
 
             // pattern for normalization functions + group information
             // pattern for group information
@@ -2549,16 +2993,16 @@ public class HeidelTimeX extends JCasAnnotator_ImplBase {
                     String substring = mr.group(1).substring(Integer.parseInt(mr.group(2)), Integer.parseInt(mr.group(3)));
                     tonormalize = tonormalize.replace(mr.group(), substring);
                 }
-                if (language.getName().compareTo("arabic") != 0) {
+                if (context.language().getName().compareTo("arabic") != 0) {
                     // replace lowercase
                     for (MatchResult mr : Utils.findMatches(PATTERN_LOWERCASE, tonormalize)) {
-                        String substring = mr.group(1).toLowerCase();
+                        String substring = mr.group(1).toLowerCase(context.locale());
                         tonormalize = tonormalize.replace(mr.group(), substring);
                     }
 
                     // replace uppercase
                     for (MatchResult mr : Utils.findMatches(PATTERN_UPPERCASE, tonormalize)) {
-                        String substring = mr.group(1).toUpperCase();
+                        String substring = mr.group(1).toUpperCase(context.locale());
                         tonormalize = tonormalize.replace(mr.group(), substring);
                     }
                 }
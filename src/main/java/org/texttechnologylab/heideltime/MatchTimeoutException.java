@@ -0,0 +1,11 @@
+package org.texttechnologylab.heideltime;
+
+/**
+ * Thrown when a regular expression is still matching after its deadline, see {@link Utils.DeadlineCharSequence}.
+ */
+public class MatchTimeoutException extends RuntimeException {
+
+    public MatchTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,76 @@
+package org.texttechnologylab.heideltime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a phase of {@link HeidelTimeX#process}, e.g. the matching of a category of rules
+ * or the disambiguation of ambiguous values.
+ * <p>
+ * While the event is not recorded, no event is created, and the counts are only taken for events that are recorded:
+ * <pre>{@code
+ * PhaseEvent event = PhaseEvent.start();
+ * ...
+ * if (event.finish()) {
+ *     event.phase = ...;
+ *     event.commit();
+ * }
+ * }</pre>
+ * Record them with e.g. <code>-XX:StartFlightRecording</code> and inspect the
+ * <code>org.texttechnologylab.heideltime.Phase</code> events with JDK Mission Control or <code>jfr print</code>.
+ */
+@Name("org.texttechnologylab.heideltime.Phase")
+@Label("HeidelTimeX Phase")
+@Category("HeidelTimeX")
+@Description("A phase of the processing of a document")
+@StackTrace(false)
+final class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Document")
+    String documentId;
+
+    @Label("Sentences")
+    @Description("Number of sentences the phase worked on")
+    int sentences;
+
+    @Label("Timexes")
+    @Description("Number of timexes after the phase, or found by it when matching")
+    int timexes;
+
+    private static final EventType TYPE = EventType.getEventType(PhaseEvent.class);
+
+    /// Stands in for the events of all phases that start while the event is not recorded
+    private static final PhaseEvent DISABLED = new PhaseEvent();
+
+    /**
+     * @return a new event whose duration starts now, or a shared placeholder if the event is not recorded
+     */
+    static PhaseEvent start() {
+        if (!TYPE.isEnabled()) {
+            return DISABLED;
+        }
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the phase.
+     *
+     * @return whether the event is recorded, the caller then fills in the fields and commits it
+     */
+    boolean finish() {
+        if (this == DISABLED) {
+            return false;
+        }
+        end();
+        return shouldCommit();
+    }
+}
@@ -0,0 +1,693 @@
+package org.texttechnologylab.heideltime;
+
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+import de.unihd.dbs.uima.annotator.heideltime.resources.ResourceScanner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Reports how expensive the rules of a language are once their <code>%reXxx</code> variables have been expanded by
+ * {@link RuleManager.RuleReader}, so that rules that backtrack badly are caught before they reach production.
+ * <p>
+ * For every rule the report lists the size of the expanded pattern, its backtracking hotspots and whether the rule
+ * has a <code>FAST_CHECK</code>. A hotspot is either a nested quantifier, a group with a variable length that is
+ * repeated without bound as in <code>(a+)+</code>, or an ambiguous alternation, a repeated group with two
+ * alternatives that can match the same prefix as in <code>(a|ab)*</code>. Atomic groups, possessive quantifiers
+ * and lookarounds do not backtrack into their content and are not reported.
+ * <p>
+ * Every rule is also timed on generated adversarial texts: runs of digits and words as found in news text, and for
+ * every hotspot a text that reaches the hotspot, repeats what it matches and then fails. The rules are ranked by the
+ * slowest of these timings.
+ * <pre>
+ * java org.texttechnologylab.heideltime.RuleCostAnalyzer [--top n] [--timeout ms] [language ...]
+ * </pre>
+ * Without languages, all languages found in the resources are analyzed.
+ */
+public class RuleCostAnalyzer {
+    /**
+     * Number of repetitions in the adversarial texts; the growth is measured between the last two.
+     */
+    private static final int[] REPETITIONS = {16, 64, 256};
+
+    /**
+     * Number of runs per adversarial text.
+     */
+    private static final int RUNS = 3;
+
+    /**
+     * Characters tried in this order to find one that a character class matches.
+     */
+    private static final String SAMPLE_CHARS = "a1 A.,-/:'";
+
+    private final long timeoutNanos;
+
+    /**
+     * @param timeoutMillis time after which a rule is aborted on one adversarial text
+     */
+    private RuleCostAnalyzer(long timeoutMillis) {
+        this.timeoutNanos = timeoutMillis * 1_000_000L;
+    }
+
+    public static void main(String[] args) {
+        int top = 25;
+        long timeoutMillis = 1000;
+        List<String> languages = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--top" -> top = Integer.parseInt(args[++i]);
+                case "--timeout" -> timeoutMillis = Long.parseLong(args[++i]);
+                default -> languages.add(args[i]);
+            }
+        }
+        if (languages.isEmpty()) {
+            languages.addAll(new TreeSet<>(ResourceScanner.getInstance().getDetectedResourceFolders()));
+        }
+
+        RuleCostAnalyzer analyzer = new RuleCostAnalyzer(timeoutMillis);
+        List<RuleCost> costs = new ArrayList<>();
+        for (String language : languages) {
+            costs.addAll(analyzer.analyze(language));
+        }
+        costs.sort(RuleCost.MOST_EXPENSIVE_FIRST);
+        print(costs, top);
+    }
+
+    /**
+     * Analyze all rules of a language, temponym rules included.
+     */
+    List<RuleCost> analyze(String language) {
+        RuleManager.RuleSet ruleSet = RuleManager.getRuleSet(Language.getLanguageFromString(language), true);
+        Map<String, TreeMap<String, RuleManager.RuleInstance>> categories = new TreeMap<>();
+        categories.put("date", ruleSet.dates());
+        categories.put("duration", ruleSet.durations());
+        categories.put("set", ruleSet.sets());
+        categories.put("temponym", ruleSet.temponyms());
+        categories.put("time", ruleSet.times());
+
+        List<RuleCost> costs = new ArrayList<>();
+        categories.forEach((category, rules) -> {
+            for (RuleManager.RuleInstance rule : rules.values()) {
+                costs.add(analyze(language, category, rule));
+            }
+        });
+        return costs;
+    }
+
+    /**
+     * Analyze a single rule.
+     */
+    RuleCost analyze(String language, String category, RuleManager.RuleInstance rule) {
+        String regex = rule.pattern().pattern();
+        Node root = new Parser(regex).parse();
+
+        List<Hotspot> hotspots = new ArrayList<>();
+        findHotspots(regex, root, hotspots);
+
+        List<Attack> attacks = new ArrayList<>();
+        attacks.add(new Attack("digits", null, "1 "));
+        attacks.add(new Attack("words", null, "a "));
+        for (Hotspot hotspot : hotspots) {
+            String pump = witness(hotspot.node().body());
+            if (!pump.isEmpty()) {
+                StringBuilder prefix = new StringBuilder();
+                prefixTo(root, hotspot.node(), prefix);
+                attacks.add(new Attack(hotspot.kind() + "@" + hotspot.offset(), prefix.toString(), pump));
+            }
+        }
+
+        Timing worst = null;
+        for (Attack attack : attacks) {
+            Timing timing = time(rule.pattern(), attack);
+            if (worst == null || timing.nanos() > worst.nanos()) {
+                worst = timing;
+            }
+        }
+        return new RuleCost(language, category, rule.name(), regex.length(), hotspots, rule.patternFast() != null, worst);
+    }
+
+    /**
+     * Time a rule on the texts of an attack with an increasing number of repetitions.
+     */
+    private Timing time(Pattern pattern, Attack attack) {
+        long previous = 0;
+        long nanos = 0;
+        for (int repetitions : REPETITIONS) {
+            StringBuilder text = new StringBuilder();
+            if (attack.prefix() != null) {
+                text.append(attack.prefix());
+            }
+            text.append(attack.pump().repeat(repetitions));
+            if (attack.prefix() != null) {
+                // a character that no rule expects, so that the repetitions cannot be completed to a match
+                text.append('\u0007');
+            }
+
+            previous = nanos;
+            nanos = Long.MAX_VALUE;
+            // the fastest of a few runs, so that class loading and compilation do not count
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                try {
+                    Matcher matcher = pattern.matcher(new Utils.DeadlineCharSequence(text, start + timeoutNanos));
+                    while (matcher.find()) {
+                        // only the time is of interest
+                    }
+                    nanos = Math.min(nanos, System.nanoTime() - start);
+                } catch (MatchTimeoutException e) {
+                    return new Timing(attack.name(), repetitions, System.nanoTime() - start, Double.POSITIVE_INFINITY, true);
+                }
+            }
+        }
+        double growth = previous > 0 ? (double) nanos / previous : 1;
+        return new Timing(attack.name(), REPETITIONS[REPETITIONS.length - 1], nanos, growth, false);
+    }
+
+    private static void findHotspots(String regex, Node node, List<Hotspot> hotspots) {
+        if (node instanceof Quantified quantified && quantified.backtracks() && quantified.max() == Integer.MAX_VALUE) {
+            if (repeatsVariably(quantified.body())) {
+                hotspots.add(new Hotspot("nested-quantifier", quantified.begin(), excerpt(regex, quantified), quantified));
+            }
+            if (quantified.body() instanceof Group group && group.backtracks() && ambiguous(regex, group)) {
+                hotspots.add(new Hotspot("ambiguous-alternation", quantified.begin(), excerpt(regex, quantified), quantified));
+            }
+        }
+        for (Node child : node.children()) {
+            findHotspots(regex, child, hotspots);
+        }
+    }
+
+    /**
+     * @return whether a node contains a quantifier that lets it match texts of different lengths
+     */
+    private static boolean repeatsVariably(Node node) {
+        if (node instanceof Quantified quantified && quantified.backtracks() && quantified.min() != quantified.max()
+                && !witness(quantified.body()).isEmpty()) {
+            return true;
+        }
+        if (node instanceof Group group && !group.backtracks()) {
+            return false;
+        }
+        for (Node child : node.children()) {
+            if (repeatsVariably(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether an alternative of a group matches a prefix of what another alternative matches
+     */
+    private static boolean ambiguous(String regex, Group group) {
+        List<List<Node>> alternatives = group.alternatives();
+        for (int i = 0; i < alternatives.size(); i++) {
+            String witness = witness(alternatives.get(i));
+            for (int j = 0; j < alternatives.size(); j++) {
+                if (i == j) {
+                    continue;
+                }
+                List<Node> other = alternatives.get(j);
+                if (other.isEmpty()) {
+                    return true;
+                }
+                String source = regex.substring(other.get(0).begin(), other.get(other.size() - 1).end());
+                try {
+                    if (Pattern.compile(source).matcher(witness).lookingAt()) {
+                        return true;
+                    }
+                } catch (PatternSyntaxException e) {
+                    // e.g. a back reference to a group outside of the alternative
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String excerpt(String regex, Node node) {
+        String excerpt = regex.substring(node.begin(), node.end());
+        return excerpt.length() <= 60 ? excerpt : excerpt.substring(0, 57) + "...";
+    }
+
+    /**
+     * @return a text that a node matches, as short as possible
+     */
+    private static String witness(Node node) {
+        StringBuilder sb = new StringBuilder();
+        node.witness(sb, null);
+        return sb.toString();
+    }
+
+    private static String witness(List<Node> sequence) {
+        StringBuilder sb = new StringBuilder();
+        for (Node node : sequence) {
+            node.witness(sb, null);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append a text that a node matches up to the start of a target node within it.
+     *
+     * @return whether the target was reached
+     */
+    private static boolean prefixTo(Node node, Node target, StringBuilder sb) {
+        return node.witness(sb, target);
+    }
+
+    private static void print(List<RuleCost> costs, int top) {
+        System.out.printf("%-4s %-12s %-9s %-40s %8s %7s %9s %4s %12s %8s  %s%n",
+                "rank", "language", "category", "rule", "size", "nested", "ambiguous", "fast", "worst [ms]", "growth", "input");
+        for (int i = 0; i < Math.min(top, costs.size()); i++) {
+            RuleCost cost = costs.get(i);
+            System.out.printf("%-4d %-12s %-9s %-40s %8d %7d %9d %4s %12s %8s  %s%n",
+                    i + 1, cost.language(), cost.category(), cost.rule(), cost.patternSize(),
+                    cost.count("nested-quantifier"), cost.count("ambiguous-alternation"),
+                    cost.fastCheck() ? "yes" : "no",
+                    cost.worst().timedOut() ? ">" + cost.worst().nanos() / 1_000_000 : String.format("%.3f", cost.worst().nanos() / 1e6),
+                    Double.isInfinite(cost.worst().growth()) ? "-" : String.format("%.1f", cost.worst().growth()),
+                    cost.worst().input() + " x" + cost.worst().repetitions());
+        }
+        System.out.println();
+        for (int i = 0; i < Math.min(top, costs.size()); i++) {
+            RuleCost cost = costs.get(i);
+            for (Hotspot hotspot : cost.hotspots()) {
+                System.out.printf("%s %s @%d %s: %s%n",
+                        cost.language(), cost.rule(), hotspot.offset(), hotspot.kind(), hotspot.excerpt());
+            }
+        }
+    }
+
+    /**
+     * The cost of a rule.
+     *
+     * @param patternSize length of the expanded pattern
+     * @param fastCheck   whether the rule has a <code>FAST_CHECK</code>
+     * @param worst       the slowest timing on the adversarial texts
+     */
+    record RuleCost(
+            String language,
+            String category,
+            String rule,
+            int patternSize,
+            List<Hotspot> hotspots,
+            boolean fastCheck,
+            Timing worst
+    ) {
+        static final Comparator<RuleCost> MOST_EXPENSIVE_FIRST = Comparator
+                .comparingLong((RuleCost cost) -> cost.worst().timedOut() ? Long.MAX_VALUE : cost.worst().nanos())
+                .thenComparingInt(cost -> cost.hotspots().size())
+                .thenComparingInt(RuleCost::patternSize)
+                .reversed();
+
+        long count(String kind) {
+            return hotspots.stream().filter(hotspot -> hotspot.kind().equals(kind)).count();
+        }
+    }
+
+    /**
+     * @param offset  offset of the hotspot in the expanded pattern
+     * @param excerpt the start of the hotspot
+     */
+    record Hotspot(String kind, int offset, String excerpt, Quantified node) {
+    }
+
+    /**
+     * @param input       name of the adversarial text
+     * @param repetitions number of repetitions in the slowest text
+     * @param growth      factor by which the time grew with the last increase of the repetitions
+     * @param timedOut    whether the rule was aborted
+     */
+    record Timing(String input, int repetitions, long nanos, double growth, boolean timedOut) {
+    }
+
+    /**
+     * An adversarial text: the prefix, the pump repeated and, if there is a prefix, a character that fails.
+     */
+    private record Attack(String name, String prefix, String pump) {
+    }
+
+    /**
+     * A node of a parsed regular expression, with its offsets in the expression.
+     */
+    sealed interface Node permits Atom, Group, Quantified {
+        int begin();
+
+        int end();
+
+        List<Node> children();
+
+        /**
+         * Append a short text that the node matches, stopping at the target node if it is not null.
+         *
+         * @return whether the target was reached
+         */
+        boolean witness(StringBuilder sb, Node target);
+    }
+
+    /**
+     * A single character, character class, escape or anchor.
+     *
+     * @param sample a character that the atom matches, empty for anchors and other zero-width atoms
+     */
+    record Atom(int begin, int end, String sample) implements Node {
+        @Override
+        public List<Node> children() {
+            return List.of();
+        }
+
+        @Override
+        public boolean witness(StringBuilder sb, Node target) {
+            if (this == target) {
+                return true;
+            }
+            sb.append(sample);
+            return false;
+        }
+    }
+
+    /**
+     * A group or the whole expression.
+     *
+     * @param kind the group construct, e.g. <code>(?:</code>, or <code>(</code> for capturing groups
+     */
+    record Group(int begin, int end, String kind, List<List<Node>> alternatives) implements Node {
+        boolean backtracks() {
+            return !kind.equals("(?>");
+        }
+
+        boolean zeroWidth() {
+            return kind.startsWith("(?=") || kind.startsWith("(?!") || kind.startsWith("(?<=") || kind.startsWith("(?<!");
+        }
+
+        @Override
+        public List<Node> children() {
+            return zeroWidth() ? List.of() : alternatives.stream().flatMap(List::stream).toList();
+        }
+
+        @Override
+        public boolean witness(StringBuilder sb, Node target) {
+            if (this == target) {
+                return true;
+            }
+            if (zeroWidth()) {
+                return false;
+            }
+            List<Node> alternative = alternatives.get(0);
+            if (target != null) {
+                for (List<Node> candidate : alternatives) {
+                    if (candidate.stream().anyMatch(node -> contains(node, target))) {
+                        alternative = candidate;
+                    }
+                }
+            }
+            for (Node node : alternative) {
+                if (node.witness(sb, target)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean contains(Node node, Node target) {
+            return node == target || node.children().stream().anyMatch(child -> contains(child, target));
+        }
+    }
+
+    /**
+     * A quantified node; an unbounded maximum is {@link Integer#MAX_VALUE}.
+     *
+     * @param suffix <code>?</code> for lazy, <code>+</code> for possessive quantifiers, empty otherwise
+     */
+    record Quantified(int begin, int end, Node body, int min, int max, String suffix) implements Node {
+        boolean backtracks() {
+            return !suffix.equals("+");
+        }
+
+        @Override
+        public List<Node> children() {
+            return List.of(body);
+        }
+
+        @Override
+        public boolean witness(StringBuilder sb, Node target) {
+            if (this == target) {
+                return true;
+            }
+            if (target != null && Group.contains(body, target)) {
+                return body.witness(sb, target);
+            }
+            for (int i = 0; i < min; i++) {
+                body.witness(sb, null);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A recursive descent parser for the syntax of {@link Pattern}, precise enough to find quantifiers and
+     * alternations. Inline flags are ignored.
+     */
+    static final class Parser {
+        private final String regex;
+        private int pos = 0;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        Node parse() {
+            List<List<Node>> alternatives = alternatives();
+            return new Group(0, regex.length(), "", alternatives);
+        }
+
+        private List<List<Node>> alternatives() {
+            List<List<Node>> alternatives = new ArrayList<>();
+            alternatives.add(sequence());
+            while (pos < regex.length() && regex.charAt(pos) == '|') {
+                pos++;
+                alternatives.add(sequence());
+            }
+            return alternatives;
+        }
+
+        private List<Node> sequence() {
+            List<Node> sequence = new ArrayList<>();
+            while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                Node atom = atom();
+                if (atom != null) {
+                    sequence.add(quantifier(atom));
+                }
+            }
+            return sequence;
+        }
+
+        private Node atom() {
+            int begin = pos;
+            char c = regex.charAt(pos);
+            switch (c) {
+                case '(':
+                    return group();
+                case '[':
+                    skipClass();
+                    return new Atom(begin, pos, sampleOfClass(regex.substring(begin, pos)));
+                case '\\':
+                    return escape();
+                case '.':
+                    pos++;
+                    return new Atom(begin, pos, "a");
+                case '^':
+                case '$':
+                    pos++;
+                    return new Atom(begin, pos, "");
+                default:
+                    pos += Character.charCount(regex.codePointAt(pos));
+                    return new Atom(begin, pos, regex.substring(begin, pos));
+            }
+        }
+
+        private Node group() {
+            int begin = pos;
+            String kind;
+            if (regex.startsWith("(?<=", pos) || regex.startsWith("(?<!", pos)) {
+                kind = regex.substring(pos, pos + 4);
+            } else if (regex.startsWith("(?<", pos)) {
+                kind = regex.substring(pos, regex.indexOf('>', pos) + 1);
+            } else if (regex.startsWith("(?:", pos) || regex.startsWith("(?=", pos)
+                    || regex.startsWith("(?!", pos) || regex.startsWith("(?>", pos)) {
+                kind = regex.substring(pos, pos + 3);
+            } else if (regex.startsWith("(?", pos)) {
+                // inline flags, either alone as (?i) or for a group as (?i:X)
+                int end = pos + 2;
+                while (regex.charAt(end) != ')' && regex.charAt(end) != ':') {
+                    end++;
+                }
+                if (regex.charAt(end) == ')') {
+                    pos = end + 1;
+                    return null;
+                }
+                kind = "(?:";
+                pos = end + 1 - kind.length();
+            } else {
+                kind = "(";
+            }
+            pos += kind.length();
+            List<List<Node>> alternatives = alternatives();
+            // the closing parenthesis
+            pos++;
+            return new Group(begin, pos, kind, alternatives);
+        }
+
+        private void skipClass() {
+            int depth = 0;
+            do {
+                char c = regex.charAt(pos);
+                if (c == '\\') {
+                    pos += regex.startsWith("\\Q", pos) ? regex.indexOf("\\E", pos) + 2 - pos : 2;
+                    continue;
+                }
+                if (c == '[') {
+                    depth++;
+                    pos++;
+                    // a closing bracket right at the start of a class is a literal
+                    if (pos < regex.length() && regex.charAt(pos) == '^') pos++;
+                    if (pos < regex.length() && regex.charAt(pos) == ']') pos++;
+                    continue;
+                }
+                if (c == ']') {
+                    depth--;
+                }
+                pos++;
+            } while (depth > 0 && pos < regex.length());
+        }
+
+        private Node escape() {
+            int begin = pos;
+            char c = regex.charAt(pos + 1);
+            pos += 2;
+            String sample;
+            switch (c) {
+                case 'Q' -> {
+                    int end = regex.indexOf("\\E", pos);
+                    end = end < 0 ? regex.length() : end;
+                    sample = regex.substring(pos, end);
+                    pos = Math.min(end + 2, regex.length());
+                }
+                case 'p', 'P' -> {
+                    if (pos < regex.length() && regex.charAt(pos) == '{') {
+                        pos = regex.indexOf('}', pos) + 1;
+                    } else {
+                        pos++;
+                    }
+                    sample = sampleOfClass(regex.substring(begin, pos));
+                }
+                case 'x' -> {
+                    if (regex.charAt(pos) == '{') {
+                        int end = regex.indexOf('}', pos);
+                        sample = Character.toString(Integer.parseInt(regex.substring(pos + 1, end), 16));
+                        pos = end + 1;
+                    } else {
+                        sample = Character.toString(Integer.parseInt(regex.substring(pos, pos + 2), 16));
+                        pos += 2;
+                    }
+                }
+                case 'u' -> {
+                    sample = Character.toString(Integer.parseInt(regex.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                case 'k' -> {
+                    pos = regex.indexOf('>', pos) + 1;
+                    sample = "";
+                }
+                case 'd' -> sample = "1";
+                case 's', 'W' -> sample = " ";
+                case 'w', 'S', 'D' -> sample = "a";
+                case 't' -> sample = "\t";
+                case 'n' -> sample = "\n";
+                case 'r' -> sample = "\r";
+                case 'b', 'B', 'A', 'z', 'Z', 'G' -> sample = "";
+                default -> {
+                    if (Character.isDigit(c)) {
+                        // back reference
+                        while (pos < regex.length() && Character.isDigit(regex.charAt(pos))) {
+                            pos++;
+                        }
+                        sample = "";
+                    } else {
+                        sample = Character.toString(c);
+                    }
+                }
+            }
+            return new Atom(begin, pos, sample);
+        }
+
+        private Node quantifier(Node atom) {
+            if (pos >= regex.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            switch (regex.charAt(pos)) {
+                case '*' -> {
+                    min = 0;
+                    max = Integer.MAX_VALUE;
+                    pos++;
+                }
+                case '+' -> {
+                    min = 1;
+                    max = Integer.MAX_VALUE;
+                    pos++;
+                }
+                case '?' -> {
+                    min = 0;
+                    max = 1;
+                    pos++;
+                }
+                case '{' -> {
+                    int end = regex.indexOf('}', pos);
+                    String[] bounds = regex.substring(pos + 1, end).split(",", -1);
+                    min = Integer.parseInt(bounds[0].trim());
+                    max = bounds.length == 1 ? min
+                            : bounds[1].isBlank() ? Integer.MAX_VALUE : Integer.parseInt(bounds[1].trim());
+                    pos = end + 1;
+                }
+                default -> {
+                    return atom;
+                }
+            }
+            String suffix = "";
+            if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+                suffix = regex.substring(pos, pos + 1);
+                pos++;
+            }
+            return new Quantified(atom.begin(), pos, atom, min, max, suffix);
+        }
+
+        private static String sampleOfClass(String characterClass) {
+            try {
+                Pattern pattern = Pattern.compile(characterClass);
+                for (int i = 0; i < characterClass.length(); i++) {
+                    char c = characterClass.charAt(i);
+                    if (c != '[' && c != '^' && c != '\\' && pattern.matcher(Character.toString(c)).matches()) {
+                        return Character.toString(c);
+                    }
+                }
+                for (char c : SAMPLE_CHARS.toCharArray()) {
+                    if (pattern.matcher(Character.toString(c)).matches()) {
+                        return Character.toString(c);
+                    }
+                }
+            } catch (PatternSyntaxException e) {
+                // fall through to the default sample
+            }
+            return "a";
+        }
+    }
+}
@@ -10,10 +10,8 @@ import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.unihd.dbs.uima.annotator.heideltime.resources.*;
 import de.unihd.dbs.uima.annotator.heideltime.utilities.Logger;
-import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
 /**
  * This class fills the role of a manager of all the rule resources. It reads
@@ -85,7 +83,7 @@ public class RuleManager {
             List<PosConstraint> constraints,
             String empty
     ) {
-        public boolean fastCheck(String string) {
+        public boolean fastCheck(CharSequence string) {
             return patternFast == null || !patternFast.matcher(string).find();
         }
 
@@ -112,13 +110,7 @@ public class RuleManager {
          * Identify the part of speech (POS) of a MarchResult.
          */
         public static String getPosFromMatchResult(ContextAnalyzer.SentenceContainer sentence, int tokBegin) {
-            for (Token token : sentence.tokens()) {
-                if (token.getBegin() == tokBegin) {
-                    POS pos = token.getPos();
-                    return pos == null ? "" : pos.getPosValue();
-                }
-            }
-            return "";
+            return sentence.index().posAt(tokBegin);
         }
 
 
@@ -129,7 +121,8 @@ public class RuleManager {
             TreeMap<String, RuleInstance> durations,
             TreeMap<String, RuleInstance> times,
             TreeMap<String, RuleInstance> sets,
-            TreeMap<String, RuleInstance> temponyms
+            TreeMap<String, RuleInstance> temponyms,
+            TemponymGazetteer temponymGazetteer
     ) {
     }
 
@@ -201,6 +194,9 @@ public class RuleManager {
         HashMap<String, Pattern> hmSetFastCheck = new HashMap<String, Pattern>();
         HashMap<String, Pattern> hmTemponymFastCheck = new HashMap<String, Pattern>();
 
+        // GAZETTEER part of temponym rules whose extraction part is a single repattern
+        LinkedHashMap<String, List<String>> hmTemponymGazetteer = new LinkedHashMap<String, List<String>>();
+
         /**
          * Constructor calls the parent constructor that sets language/resource
          * parameters and collects rules resources.
@@ -304,7 +300,7 @@ public class RuleManager {
                             rule_extraction = rule_extraction.replaceAll(" ", "[\\\\s]+");
                             Pattern pattern = null;
                             try {
-                                pattern = Pattern.compile(rule_extraction);
+                                pattern = ResourceStore.compile(rule_extraction);
                             } catch (java.util.regex.PatternSyntaxException e) {
                                 Logger.printError("Compiling rules resulted in errors.");
                                 Logger.printError("Problematic rule is " + rule_name);
@@ -387,7 +383,7 @@ public class RuleManager {
                                         rule_fast_check = rule_fast_check.replaceAll(" ", "[\\\\s]+");
                                         patternFast = null;
                                         try {
-                                            patternFast = Pattern.compile(rule_fast_check);
+                                            patternFast = ResourceStore.compile(rule_fast_check);
                                         } catch (java.util.regex.PatternSyntaxException e) {
                                             Logger.printError("Compiling rules resulted in errors.");
                                             Logger.printError("Problematic rule is " + rule_name);
@@ -572,6 +568,11 @@ public class RuleManager {
                             else if (resource.equals("temponymrules")) {
                                 // get extraction part
                                 hmTemponymPattern.put(rule_name, pattern);
+                                // get gazetteer part
+                                Matcher gazetteer = paVariable.matcher(r.group(2));
+                                if (gazetteer.matches() && rpm.getLines(gazetteer.group(1)) != null) {
+                                    hmTemponymGazetteer.put(rule_name, rpm.getLines(gazetteer.group(1)));
+                                }
                                 // get normalization part
                                 hmTemponymNormalization.put(rule_name,
                                         rule_normalization);
@@ -688,7 +689,8 @@ public class RuleManager {
                     getDurationRules(),
                     getTimeRules(),
                     getSetRules(),
-                    getTemponymRules()
+                    getTemponymRules(),
+                    new TemponymGazetteer(hmTemponymGazetteer)
             );
         }
     }
@@ -0,0 +1,139 @@
+package org.texttechnologylab.heideltime;
+
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded cache of the rule matches of sentences, for documents that repeat the same sentences, such as datelines,
+ * bylines and disclaimers of news feeds.
+ * <p>
+ * The matches of a category of rules only depend on the rules, the sentence text and its tokens with their POS values,
+ * so they are cached under these. The rules are compared by identity, as the rule sets of a language are read once
+ * and never change, so a new rule set never hits the entries of an old one. The cached offsets are relative to the
+ * sentence begin and can be replayed into any document. The least recently used entry is evicted when the cache is
+ * full, and entries older than the time to live are not used.
+ *
+ * @param <V> the cached matches
+ */
+final class SentenceMatchCache<V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry<V>> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param maxSize    maximum number of entries
+     * @param ttlSeconds time to live of the entries, no limit if not positive
+     */
+    SentenceMatchCache(int maxSize, long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds > 0 ? ttlSeconds * 1_000_000_000L : Long.MAX_VALUE;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry<V>> eldest) {
+                return size() > SentenceMatchCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the token offsets relative to the sentence begin and the POS values of the tokens of a sentence
+     */
+    static String signature(ContextAnalyzer.SentenceContainer sentence) {
+        ContextAnalyzer.TokenIndex index = sentence.index();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < index.begins().length; i++) {
+            sb.append(index.begins()[i] - sentence.begin())
+                    .append('-')
+                    .append(index.ends()[i] - sentence.begin())
+                    .append('/')
+                    .append(index.posValues()[i])
+                    .append(' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get the cached matches of the rules in a sentence.
+     *
+     * @param signature {@link #signature} of the sentence
+     * @return the matches, or null if they are not cached or expired
+     */
+    synchronized V get(Language language, Object rules, ContextAnalyzer.SentenceContainer sentence, String signature) {
+        Entry<V> entry = entries.get(new Key(language, rules, sentence.text(), signature));
+        if (entry != null && System.nanoTime() - entry.created < ttlNanos) {
+            hits++;
+            return entry.value;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Cache the matches of the rules in a sentence.
+     *
+     * @param signature {@link #signature} of the sentence
+     */
+    synchronized void put(Language language, Object rules, ContextAnalyzer.SentenceContainer sentence, String signature, V value) {
+        entries.put(new Key(language, rules, sentence.text(), signature), new Entry<>(value, System.nanoTime()));
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return the share of lookups that were hits, 0 if there were none
+     */
+    synchronized double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long created) {
+    }
+
+    private static final class Key {
+        private final Language language;
+        private final Object rules;
+        private final String text;
+        private final String signature;
+        private final int hash;
+
+        Key(Language language, Object rules, String text, String signature) {
+            this.language = language;
+            this.rules = rules;
+            this.text = text;
+            this.signature = signature;
+            this.hash = Objects.hash(language, System.identityHashCode(rules), text, signature);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && hash == other.hash
+                    && Objects.equals(language, other.language)
+                    && rules == other.rules
+                    && text.equals(other.text)
+                    && signature.equals(other.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package org.texttechnologylab.heideltime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gazetteer for the temponym rules whose extraction part is a single repattern resource, e.g.
+ * <code>%reTemponymEventElections</code>. These resources hold thousands of names that are plain text apart from
+ * the spaces, which are all put into one trie. A single scan over a sentence then finds the hits of all these rules,
+ * instead of one scan per rule with an alternation of thousands of names.
+ * <p>
+ * The hits are the same as those of the rule patterns: at every position the line that comes first in the
+ * alternation wins, and the next hit starts after its end. Lines that use regular expression syntax, e.g. the
+ * optional groups in <code>Battle of Aberdeen (1644)</code>, stay in a smaller alternation per rule, whose matches
+ * are merged with the hits of the trie.
+ */
+public class TemponymGazetteer {
+    /**
+     * A space in a repattern line, as replaced by {@link Utils#replaceSpaces(String)}.
+     */
+    private static final String SEPARATOR = Utils.replaceSpaces(" ");
+
+    /**
+     * The characters matched by {@link #SEPARATOR} in a rule pattern, where its space has been replaced by
+     * <code>[\s]+</code> as well.
+     */
+    private static final BitSet SEPARATOR_CHARS = separatorChars();
+
+    /**
+     * Symbol of the trie for a run of separator characters.
+     */
+    private static final int SYMBOL_SEPARATOR = -1;
+
+    private final Map<String, Integer> ruleIndex = new HashMap<>();
+    private final List<Pattern> residualPatterns = new ArrayList<>();
+    private final List<List<Pattern>> residualLines = new ArrayList<>();
+    private final List<int[]> residualRanks = new ArrayList<>();
+    private final Node root = new Node();
+
+    /**
+     * @param rules the names of the rules and the lines of their repattern resource, in the order of the alternation
+     */
+    public TemponymGazetteer(Map<String, List<String>> rules) {
+        rules.forEach((name, lines) -> {
+            List<int[]> literals = new ArrayList<>();
+            List<String> residual = new ArrayList<>();
+            List<Integer> ranks = new ArrayList<>();
+            for (String line : lines) {
+                int[] symbols = parse(line);
+                literals.add(symbols);
+                if (symbols == null) {
+                    residual.add(line);
+                    ranks.add(literals.size() - 1);
+                }
+            }
+            if (residual.size() == lines.size()) {
+                return;
+            }
+
+            int rule = ruleIndex.size();
+            ruleIndex.put(name, rule);
+            for (int rank = 0; rank < literals.size(); rank++) {
+                if (literals.get(rank) != null) {
+                    root.add(literals.get(rank), rule, rank);
+                }
+            }
+            residualPatterns.add(residual.isEmpty() ? null : compile(String.join("|", residual)));
+            residualLines.add(residual.stream().map(TemponymGazetteer::compile).toList());
+            residualRanks.add(ranks.stream().mapToInt(Integer::intValue).toArray());
+        });
+    }
+
+    /**
+     * @return true if no rule is handled by the gazetteer
+     */
+    public boolean isEmpty() {
+        return ruleIndex.isEmpty();
+    }
+
+    /**
+     * @param ruleName the name of a rule
+     * @return true if the hits of the rule are found by the gazetteer
+     */
+    public boolean covers(String ruleName) {
+        return ruleIndex.containsKey(ruleName);
+    }
+
+    /**
+     * Finds the names of all rules in a text.
+     *
+     * @param text the text of a sentence
+     * @return the hits, to get the matches of single rules from
+     */
+    public Hits scan(String text) {
+        Hits hits = new Hits(text);
+        Node[] nodes = new Node[16];
+        int[] positions = new int[16];
+        for (int start = 0; start < text.length(); start++) {
+            int size = 0;
+            nodes[size] = root;
+            positions[size++] = start;
+            while (size > 0) {
+                Node node = nodes[--size];
+                int pos = positions[size];
+                for (int i = 0; i < node.rules.length; i++) {
+                    hits.add(node.rules[i], start, pos, node.ranks[i]);
+                }
+                if (pos == text.length()) {
+                    continue;
+                }
+
+                if (size + 2 > nodes.length) {
+                    nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                    positions = Arrays.copyOf(positions, positions.length * 2);
+                }
+                char c = text.charAt(pos);
+                Node next = node.child(c);
+                if (next != null) {
+                    nodes[size] = next;
+                    positions[size++] = pos + 1;
+                }
+                if (node.separator != null && SEPARATOR_CHARS.get(c)) {
+                    // the separator is followed by a character that it does not match, so it is greedy
+                    int end = pos + 1;
+                    while (end < text.length() && SEPARATOR_CHARS.get(text.charAt(end))) {
+                        end++;
+                    }
+                    nodes[size] = node.separator;
+                    positions[size++] = end;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * The hits of the gazetteer in a text.
+     */
+    public class Hits {
+        private final String text;
+        // per rule: start, end and rank of the first line in the alternation that matches at a position
+        private final List<List<int[]>> hits = new ArrayList<>();
+
+        private Hits(String text) {
+            this.text = text;
+            for (int i = 0; i < ruleIndex.size(); i++) {
+                hits.add(new ArrayList<>());
+            }
+        }
+
+        private void add(int rule, int start, int end, int rank) {
+            List<int[]> ruleHits = hits.get(rule);
+            int[] last = ruleHits.isEmpty() ? null : ruleHits.getLast();
+            if (last != null && last[0] == start) {
+                if (rank < last[2]) {
+                    last[1] = end;
+                    last[2] = rank;
+                }
+            } else {
+                ruleHits.add(new int[]{start, end, rank});
+            }
+        }
+
+        /**
+         * @param ruleName the name of a rule covered by the gazetteer
+         * @return the matches of the rule pattern in the text, in the order in which it finds them
+         */
+        public List<MatchResult> matches(String ruleName) {
+            int rule = ruleIndex.get(ruleName);
+            List<int[]> ruleHits = hits.get(rule);
+            Pattern residual = residualPatterns.get(rule);
+            Matcher matcher = residual == null ? null : residual.matcher(text);
+            MatchResult next = null;
+
+            List<MatchResult> results = new ArrayList<>();
+            int pos = 0;
+            int h = 0;
+            while (pos <= text.length()) {
+                while (h < ruleHits.size() && ruleHits.get(h)[0] < pos) {
+                    h++;
+                }
+                if (matcher != null && (next == null || next.start() < pos)) {
+                    next = matcher.find(pos) ? matcher.toMatchResult() : null;
+                    if (next == null) {
+                        matcher = null;
+                    }
+                }
+
+                int[] hit = h < ruleHits.size() ? ruleHits.get(h) : null;
+                MatchResult result;
+                if (hit == null && next == null) {
+                    break;
+                } else if (next == null || hit != null && hit[0] < next.start()) {
+                    result = new Hit(text, hit[0], hit[1]);
+                } else if (hit == null || next.start() < hit[0]) {
+                    result = next;
+                } else {
+                    result = residualFirst(rule, next.start(), hit[2]) ? next : new Hit(text, hit[0], hit[1]);
+                }
+                results.add(result);
+                pos = result.end() == result.start() ? result.end() + 1 : result.end();
+            }
+            return results;
+        }
+
+        /**
+         * @return true if a line of the residual alternation that comes before the given rank matches at the position
+         */
+        private boolean residualFirst(int rule, int pos, int rank) {
+            int[] ranks = residualRanks.get(rule);
+            List<Pattern> lines = residualLines.get(rule);
+            for (int i = 0; i < ranks.length && ranks[i] < rank; i++) {
+                Matcher matcher = lines.get(i).matcher(text)
+                        .region(pos, text.length())
+                        .useTransparentBounds(true)
+                        .useAnchoringBounds(false);
+                if (matcher.lookingAt()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A hit of the gazetteer, with the name as the only group like in the rule patterns.
+     */
+    private record Hit(String text, int start, int end) implements MatchResult {
+        @Override
+        public int start(int group) {
+            checkGroup(group);
+            return start;
+        }
+
+        @Override
+        public int end(int group) {
+            checkGroup(group);
+            return end;
+        }
+
+        @Override
+        public String group() {
+            return text.substring(start, end);
+        }
+
+        @Override
+        public String group(int group) {
+            checkGroup(group);
+            return group();
+        }
+
+        @Override
+        public int groupCount() {
+            return 1;
+        }
+
+        private static void checkGroup(int group) {
+            if (group < 0 || group > 1) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+        }
+    }
+
+    private static class Node {
+        private char[] chars = new char[0];
+        private Node[] children = new Node[0];
+        private Node separator;
+        // the rules with a line ending here, and the rank of their first such line
+        private int[] rules = new int[0];
+        private int[] ranks = new int[0];
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(chars, c);
+            return i < 0 ? null : children[i];
+        }
+
+        private void add(int[] symbols, int rule, int rank) {
+            Node node = this;
+            for (int symbol : symbols) {
+                if (symbol == SYMBOL_SEPARATOR) {
+                    if (node.separator == null) {
+                        node.separator = new Node();
+                    }
+                    node = node.separator;
+                    continue;
+                }
+
+                int i = Arrays.binarySearch(node.chars, (char) symbol);
+                if (i < 0) {
+                    i = -i - 1;
+                    node.chars = insert(node.chars, i, (char) symbol);
+                    Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+                    System.arraycopy(children, i, children, i + 1, children.length - i - 1);
+                    children[i] = new Node();
+                    node.children = children;
+                }
+                node = node.children[i];
+            }
+
+            for (int r : node.rules) {
+                if (r == rule) {
+                    // lines come in the order of the alternation, so an earlier line wins
+                    return;
+                }
+            }
+            node.rules = Arrays.copyOf(node.rules, node.rules.length + 1);
+            node.rules[node.rules.length - 1] = rule;
+            node.ranks = Arrays.copyOf(node.ranks, node.ranks.length + 1);
+            node.ranks[node.ranks.length - 1] = rank;
+        }
+
+        private static char[] insert(char[] chars, int i, char c) {
+            char[] result = new char[chars.length + 1];
+            System.arraycopy(chars, 0, result, 0, i);
+            result[i] = c;
+            System.arraycopy(chars, i, result, i + 1, chars.length - i);
+            return result;
+        }
+    }
+
+    /**
+     * Splits a repattern line into characters and separators.
+     *
+     * @return the symbols, or null if the line uses regular expression syntax or a separator could match in more
+     * than one way
+     */
+    private static int[] parse(String line) {
+        List<Integer> symbols = new ArrayList<>();
+        int i = 0;
+        while (i < line.length()) {
+            if (line.startsWith(SEPARATOR, i)) {
+                symbols.add(SYMBOL_SEPARATOR);
+                i += SEPARATOR.length();
+                continue;
+            }
+
+            char c = line.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == line.length()) {
+                    return null;
+                }
+                c = line.charAt(i + 1);
+                // "\(" is turned into "\(?:" when the repattern is finalized
+                if (Character.isLetterOrDigit(c) || c == '(' || Character.isSurrogate(c)) {
+                    return null;
+                }
+                i += 2;
+            } else if ("[](){}.*+?^$|".indexOf(c) >= 0 || Character.isSurrogate(c)) {
+                return null;
+            } else {
+                i++;
+            }
+            symbols.add((int) c);
+        }
+
+        for (int j = 1; j < symbols.size(); j++) {
+            if (symbols.get(j - 1) == SYMBOL_SEPARATOR
+                    && (symbols.get(j) == SYMBOL_SEPARATOR || SEPARATOR_CHARS.get(symbols.get(j)))) {
+                return null;
+            }
+        }
+        return symbols.isEmpty() ? null : symbols.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Compiles repattern lines like {@link RuleManager} compiles a rule whose extraction part is the repattern.
+     */
+    private static Pattern compile(String lines) {
+        String pattern = "(" + lines.replaceAll("\\(([^\\?])", "(?:$1") + ")";
+        return Pattern.compile(pattern.replaceAll(" ", "[\\\\s]+"));
+    }
+
+    private static BitSet separatorChars() {
+        String separator = SEPARATOR.replaceAll(" ", "[\\\\s]+");
+        Pattern pattern = Pattern.compile(separator.substring(0, separator.length() - 1));
+        BitSet chars = new BitSet(Character.MAX_VALUE + 1);
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            if (!Character.isSurrogate((char) c) && pattern.matcher(String.valueOf((char) c)).matches()) {
+                chars.set(c);
+            }
+        }
+        return chars;
+    }
+}
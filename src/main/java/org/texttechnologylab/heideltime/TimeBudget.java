@@ -0,0 +1,94 @@
+package org.texttechnologylab.heideltime;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The time that the rules may spend matching a document.
+ * <p>
+ * Each application of a rule to a sentence, including its fast check, may take at most the time per rule and may not
+ * run past the end of the time per document, otherwise it is aborted and the rule finds nothing in that sentence.
+ * When the time per document is used up, the optional categories (temponyms and sets) are skipped for the rest of the
+ * document. Dates, times and durations are still applied, but every rule application that takes long enough to be
+ * checked is aborted, so a document cannot take much longer than its budget. A limit of 0 or less means no limit.
+ */
+final class TimeBudget {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final String documentId;
+    private final long maxNanosPerRule;
+    private final boolean limitDocument;
+    private final long documentDeadline;
+    private final AtomicBoolean exhaustionReported = new AtomicBoolean(false);
+    private final AtomicInteger timeouts = new AtomicInteger(0);
+
+    TimeBudget(String documentId, long maxMillisPerDoc, long maxMillisPerRule) {
+        this.documentId = documentId;
+        this.maxNanosPerRule = Math.max(0, maxMillisPerRule) * NANOS_PER_MILLI;
+        this.limitDocument = maxMillisPerDoc > 0;
+        this.documentDeadline = System.nanoTime() + Math.max(0, maxMillisPerDoc) * NANOS_PER_MILLI;
+    }
+
+    String documentId() {
+        return documentId;
+    }
+
+    /**
+     * @return whether the time per document is used up
+     */
+    boolean isExhausted() {
+        return limitDocument && System.nanoTime() - documentDeadline > 0;
+    }
+
+    /**
+     * @return whether a category has to be skipped, true for optional categories once the document budget is used up
+     */
+    boolean skips(boolean optional) {
+        return optional && isExhausted();
+    }
+
+    /**
+     * @return true only on the first call, so that the exhaustion of the document budget is reported once
+     */
+    boolean reportExhaustion() {
+        return exhaustionReported.compareAndSet(false, true);
+    }
+
+    /**
+     * Count a rule application that was aborted.
+     */
+    void timedOut() {
+        timeouts.incrementAndGet();
+    }
+
+    /**
+     * @return the number of rule applications that were aborted so far
+     */
+    int timeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * Wrap a text for one application of a rule, so that matching it fails with a {@link MatchTimeoutException}
+     * when the rule runs out of time or the document budget is used up.
+     *
+     * @return the text itself if there is no limit
+     */
+    CharSequence wrap(CharSequence text) {
+        boolean limitRule = maxNanosPerRule > 0;
+        if (!limitRule && !limitDocument) {
+            return text;
+        }
+
+        long deadline;
+        if (limitRule && limitDocument) {
+            long ruleDeadline = System.nanoTime() + maxNanosPerRule;
+            deadline = ruleDeadline - documentDeadline < 0 ? ruleDeadline : documentDeadline;
+        } else if (limitRule) {
+            deadline = System.nanoTime() + maxNanosPerRule;
+        } else {
+            deadline = documentDeadline;
+        }
+        return new Utils.DeadlineCharSequence(text, deadline);
+    }
+}
@@ -0,0 +1,256 @@
+package org.texttechnologylab.heideltime;
+
+import de.unihd.dbs.uima.types.heideltime.Timex3;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * The timexes found in a document before they are added to the CAS.
+ * <p>
+ * All phases of {@link HeidelTimeX#process(JCas)} work on these candidates, which are stored column by column
+ * and addressed by the order in which they were added. Removing a candidate only marks it, so that the phases
+ * do not pay for index updates; {@link #materialize(JCas)} adds each remaining candidate to the CAS exactly once.
+ */
+final class TimexCandidates {
+    private final String documentText;
+
+    private int size = 0;
+    private int remaining = 0;
+    private int[] begin = new int[16];
+    private int[] end = new int[16];
+    private String[] type = new String[16];
+    private String[] value = new String[16];
+    private String[] emptyValue = new String[16];
+    private String[] quant = new String[16];
+    private String[] freq = new String[16];
+    private String[] mod = new String[16];
+    private String[] timexId = new String[16];
+    private String[] foundByRule = new String[16];
+    private String[] allTokIds = new String[16];
+    private boolean[] removed = new boolean[16];
+    private Timex3[] annotation = new Timex3[16];
+
+    TimexCandidates(String documentText) {
+        this.documentText = documentText;
+    }
+
+    /**
+     * Add a candidate.
+     *
+     * @return the index of the new candidate
+     */
+    int add(String timexType, int begin, int end, String value, String emptyValue, String timexId, String foundByRule) {
+        if (size == this.begin.length) {
+            grow();
+        }
+        int c = size++;
+        remaining++;
+        this.begin[c] = begin;
+        this.end[c] = end;
+        this.type[c] = timexType;
+        this.value[c] = value;
+        this.emptyValue[c] = emptyValue;
+        this.timexId[c] = timexId;
+        this.foundByRule[c] = foundByRule;
+        return c;
+    }
+
+    private void grow() {
+        int capacity = begin.length * 2;
+        begin = Arrays.copyOf(begin, capacity);
+        end = Arrays.copyOf(end, capacity);
+        type = Arrays.copyOf(type, capacity);
+        value = Arrays.copyOf(value, capacity);
+        emptyValue = Arrays.copyOf(emptyValue, capacity);
+        quant = Arrays.copyOf(quant, capacity);
+        freq = Arrays.copyOf(freq, capacity);
+        mod = Arrays.copyOf(mod, capacity);
+        timexId = Arrays.copyOf(timexId, capacity);
+        foundByRule = Arrays.copyOf(foundByRule, capacity);
+        allTokIds = Arrays.copyOf(allTokIds, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+        annotation = Arrays.copyOf(annotation, capacity);
+    }
+
+    /**
+     * Take over the timexes that are already in the CAS, e.g. from an upstream annotator or a preprocessing
+     * processor, so that they go through the same phases as the ones found by the rules. They are removed from the
+     * CAS indexes, and {@link #materialize(JCas)} adds them back unless they have been removed in the meantime.
+     *
+     * @return the number of timexes taken over
+     */
+    int load(JCas jcas) {
+        List<Timex3> timexes = new ArrayList<>(JCasUtil.select(jcas, Timex3.class));
+        for (Timex3 timex3 : timexes) {
+            // the phases expect a type and values, which other annotators may leave unset
+            int c = add(Objects.requireNonNullElse(timex3.getTimexType(), ""), timex3.getBegin(), timex3.getEnd(),
+                    Objects.requireNonNullElse(timex3.getTimexValue(), ""),
+                    Objects.requireNonNullElse(timex3.getEmptyValue(), ""),
+                    timex3.getTimexId(), Objects.requireNonNullElse(timex3.getFoundByRule(), ""));
+            quant[c] = timex3.getTimexQuant();
+            freq[c] = timex3.getTimexFreq();
+            mod[c] = timex3.getTimexMod();
+            allTokIds[c] = timex3.getAllTokIds();
+            annotation[c] = timex3;
+            timex3.removeFromIndexes();
+        }
+        return timexes.size();
+    }
+
+    /**
+     * @return the indexes of the candidates that have not been removed, in the order of the UIMA annotation index:
+     * by begin, then longest first, then in the order they were added
+     */
+    int[] inIndexOrder() {
+        return IntStream.range(0, size)
+                .filter(c -> !removed[c])
+                .boxed()
+                .sorted((a, b) -> begin[a] != begin[b]
+                        ? Integer.compare(begin[a], begin[b])
+                        : end[a] != end[b] ? Integer.compare(end[b], end[a]) : Integer.compare(a, b))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Add every candidate that has not been removed to the CAS indexes. Timexes taken over from the CAS by
+     * {@link #load(JCas)} are updated and added back, so that their other features are kept.
+     *
+     * @return the number of timexes added
+     */
+    int materialize(JCas jcas) {
+        int[] order = inIndexOrder();
+        for (int c : order) {
+            Timex3 timex3 = annotation[c] != null ? annotation[c] : new Timex3(jcas);
+            timex3.setBegin(begin[c]);
+            timex3.setEnd(end[c]);
+            timex3.setTimexType(type[c]);
+            timex3.setTimexValue(value[c]);
+            timex3.setEmptyValue(emptyValue[c]);
+            timex3.setTimexId(timexId[c]);
+            timex3.setFoundByRule(foundByRule[c]);
+            if (quant[c] != null) timex3.setTimexQuant(quant[c]);
+            if (freq[c] != null) timex3.setTimexFreq(freq[c]);
+            if (mod[c] != null) timex3.setTimexMod(mod[c]);
+            if (allTokIds[c] != null) timex3.setAllTokIds(allTokIds[c]);
+            timex3.addToIndexes();
+        }
+        return order.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of candidates that have not been removed
+     */
+    int remaining() {
+        return remaining;
+    }
+
+    boolean isRemoved(int c) {
+        return removed[c];
+    }
+
+    void remove(int c) {
+        if (!removed[c]) {
+            removed[c] = true;
+            remaining--;
+        }
+    }
+
+    void restore(int c) {
+        if (removed[c]) {
+            removed[c] = false;
+            remaining++;
+        }
+    }
+
+    int begin(int c) {
+        return begin[c];
+    }
+
+    int end(int c) {
+        return end[c];
+    }
+
+    void setSpan(int c, int begin, int end) {
+        this.begin[c] = begin;
+        this.end[c] = end;
+    }
+
+    String coveredText(int c) {
+        return documentText.substring(begin[c], end[c]);
+    }
+
+    String type(int c) {
+        return type[c];
+    }
+
+    String value(int c) {
+        return value[c];
+    }
+
+    void setValue(int c, String value) {
+        this.value[c] = value;
+    }
+
+    String emptyValue(int c) {
+        return emptyValue[c];
+    }
+
+    void setEmptyValue(int c, String emptyValue) {
+        this.emptyValue[c] = emptyValue;
+    }
+
+    String quant(int c) {
+        return quant[c];
+    }
+
+    void setQuant(int c, String quant) {
+        this.quant[c] = quant;
+    }
+
+    String freq(int c) {
+        return freq[c];
+    }
+
+    void setFreq(int c, String freq) {
+        this.freq[c] = freq;
+    }
+
+    String mod(int c) {
+        return mod[c];
+    }
+
+    void setMod(int c, String mod) {
+        this.mod[c] = mod;
+    }
+
+    String timexId(int c) {
+        return timexId[c];
+    }
+
+    String foundByRule(int c) {
+        return foundByRule[c];
+    }
+
+    void setFoundByRule(int c, String foundByRule) {
+        this.foundByRule[c] = foundByRule;
+    }
+
+    String allTokIds(int c) {
+        return allTokIds[c];
+    }
+
+    void setAllTokIds(int c, String allTokIds) {
+        this.allTokIds[c] = allTokIds;
+    }
+}
@@ -25,6 +25,53 @@ public class Utils {
         return text.replaceAll(" ", "[\\\\u2000-\\\\u200A \\\\u202F\\\\u205F\\\\u3000\\\\u00A0\\\\u1680\\\\u180E]+");
     }
 
+    /**
+     * A text that throws a {@link MatchTimeoutException} when a matcher still reads it after a deadline, so that
+     * a regular expression that backtracks catastrophically does not stall the pipeline. The deadline is checked
+     * every few thousand reads to keep the overhead low.
+     */
+    public static class DeadlineCharSequence implements CharSequence {
+        private static final int CHECK_INTERVAL = 4096;
+
+        private final CharSequence text;
+        private final long deadline;
+        private int reads = 0;
+
+        /**
+         * @param deadline value of {@link System#nanoTime()} after which reading fails
+         */
+        public DeadlineCharSequence(CharSequence text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads == CHECK_INTERVAL) {
+                reads = 0;
+                if (System.nanoTime() - deadline > 0) {
+                    throw new MatchTimeoutException("Matching did not finish before its deadline");
+                }
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
     public static class MergeSets<T> implements BinaryOperator<Set<T>> {
 
         @Override
@@ -0,0 +1,65 @@
+package de.unihd.dbs.heideltime.standalone.components.impl;
+
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.unihd.dbs.uima.types.heideltime.Dct;
+import de.unihd.dbs.uima.types.heideltime.Timex3;
+import de.unihd.dbs.uima.types.heideltime.Timex3Interval;
+
+public class TestJSONResultFormatter {
+	private JCas jcas;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		jcas = JCasFactory.createJCas("desc.type.HeidelTime_TypeSystem");
+		jcas.setDocumentText("From 2010 to 2012.");
+
+		Dct dct = new Dct(jcas, 0, 0);
+		dct.setValue("2013-01-01");
+		dct.addToIndexes();
+
+		Timex3 from = new Timex3(jcas, 5, 9);
+		from.setTimexId("t1");
+		from.setTimexType("DATE");
+		from.setTimexValue("2010");
+		from.addToIndexes();
+
+		Timex3 to = new Timex3(jcas, 13, 17);
+		to.setTimexId("t2");
+		to.setTimexType("DATE");
+		to.setTimexValue("2012");
+		to.addToIndexes();
+
+		Timex3Interval interval = new Timex3Interval(jcas, 5, 17);
+		interval.setTimexValueEB("2010");
+		interval.setTimexValueLB("2010");
+		interval.setTimexValueEE("2012");
+		interval.setTimexValueLE("2012");
+		interval.addToIndexes();
+	}
+
+	@Test
+	public void documentWritesIntervalOnce() throws Exception {
+		Assertions.assertEquals("{\"dct\":\"2013-01-01\",\"timexes\":["
+				+ "{\"begin\":5,\"end\":9,\"text\":\"2010\",\"tid\":\"t1\",\"type\":\"DATE\",\"value\":\"2010\"},"
+				+ "{\"begin\":13,\"end\":17,\"text\":\"2012\",\"tid\":\"t2\",\"type\":\"DATE\",\"value\":\"2012\"}"
+				+ "],\"intervals\":["
+				+ "{\"begin\":5,\"end\":17,\"text\":\"2010 to 2012\",\"earliestBegin\":\"2010\",\"latestBegin\":\"2010\","
+				+ "\"earliestEnd\":\"2012\",\"latestEnd\":\"2012\"}"
+				+ "]}\n", new JSONResultFormatter(false).format(jcas));
+	}
+
+	@Test
+	public void linesWriteIntervalOnce() throws Exception {
+		Assertions.assertEquals(
+				"{\"kind\":\"timex\",\"begin\":5,\"end\":9,\"text\":\"2010\",\"tid\":\"t1\",\"type\":\"DATE\",\"value\":\"2010\"}\n"
+				+ "{\"kind\":\"timex\",\"begin\":13,\"end\":17,\"text\":\"2012\",\"tid\":\"t2\",\"type\":\"DATE\",\"value\":\"2012\"}\n"
+				+ "{\"kind\":\"interval\",\"begin\":5,\"end\":17,\"text\":\"2010 to 2012\",\"earliestBegin\":\"2010\",\"latestBegin\":\"2010\","
+				+ "\"earliestEnd\":\"2012\",\"latestEnd\":\"2012\"}\n",
+				new JSONResultFormatter(true).format(jcas));
+	}
+}
@@ -0,0 +1,71 @@
+package de.unihd.dbs.heideltime.standalone.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unihd.dbs.heideltime.standalone.DocumentType;
+import de.unihd.dbs.heideltime.standalone.OutputType;
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+
+public class TestBatchDispatcher {
+	// the workers are never started, so submitted documents stay in the queue
+	private static BatchDispatcher dispatcher(int queueCapacity) {
+		return new BatchDispatcher(new AnnotatorPool(null, null, false), new ServerMetrics(), 1, 4, 0, queueCapacity);
+	}
+
+	private static TaggingRequest request(String text) {
+		return new TaggingRequest(text, null, Language.ENGLISH, DocumentType.NARRATIVES, OutputType.TIMEML);
+	}
+
+	@Test
+	public void submitAllEnqueuesEverything() {
+		BatchDispatcher dispatcher = dispatcher(3);
+		List<TaggingRequest> requests = Arrays.asList(request("a"), request("b"), request("c"));
+		Assertions.assertTrue(dispatcher.submitAll(requests));
+		Assertions.assertEquals(3, dispatcher.queueDepth());
+		for (TaggingRequest request : requests)
+			Assertions.assertFalse(request.getResult().isDone());
+	}
+
+	@Test
+	public void submitAllWithdrawsOnFullQueue() {
+		BatchDispatcher dispatcher = dispatcher(2);
+		TaggingRequest waiting = request("waiting");
+		Assertions.assertTrue(dispatcher.submit(waiting));
+
+		List<TaggingRequest> requests = Arrays.asList(request("a"), request("b"));
+		Assertions.assertFalse(dispatcher.submitAll(requests));
+
+		// only the document of the earlier request is left
+		Assertions.assertEquals(1, dispatcher.queueDepth());
+		Assertions.assertFalse(waiting.getResult().isDone());
+		for (TaggingRequest request : requests)
+			Assertions.assertTrue(request.getResult().isCancelled());
+	}
+
+	@Test
+	public void invalidDocumentRejectsRequest() throws IOException {
+		HeidelTimeServer server = new HeidelTimeServer("localhost", 0, new AnnotatorPool(null, null, false), 1, 4, 0, 4,
+				Language.ENGLISH, DocumentType.NARRATIVES, OutputType.TIMEML);
+		Map<String, Object> valid = new LinkedHashMap<String, Object>();
+		valid.put("text", "Yesterday it rained.");
+		Map<String, Object> invalid = new LinkedHashMap<String, Object>();
+		invalid.put("text", "Today it snows.");
+		invalid.put("language", "klingon");
+
+		List<Object> documents = new ArrayList<Object>(Arrays.asList(valid, invalid));
+		try {
+			Assertions.assertThrows(IllegalArgumentException.class, () -> server.toRequests(documents));
+			Assertions.assertEquals(1, server.toRequests(documents.subList(0, 1)).size());
+		} finally {
+			server.stop();
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package de.unihd.dbs.uima.annotator.alllanguagestokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unihd.dbs.uima.types.heideltime.Sentence;
+import de.unihd.dbs.uima.types.heideltime.Token;
+
+public class TestAllLanguagesTokenizer {
+	private static final String[] TEXTS = {
+			"Dr. Smith met U.S.A. officials on 3.5.2012 at 10:30 a.m. and paid $1,234.56 - see "
+					+ "http://example.com/a?b=1&c=2, or www.heideltime.de/index.html.",
+			"„Am 1. Mai 2012 kam er zurück.“ Er sagte: 'Das ist's!' Die Zahl 1.000.000,50 € stimmt z.B. nicht.",
+			"L'homme qu'il a vu est-il venu aujourd'hui ? C'est l'été -- dit-on. Jusqu'à 20 h 30...",
+			"Dell'anno scorso, all'inizio del 2011. Quest'anno no; l'anno prossimo sì!",
+			"¿Dónde está el 5 de mayo? ¡Aquí! Dígamelo (por favor).",
+			"I can't go, they're here and we'll see. He said \"No.\" Then he left... On Jan. 5 A. Smith came.",
+			"Москва, 12 апреля 1961 г. Гагарин полетел. «Поехали!» — сказал он.",
+			"2012年5月1日、東京で会議があった。次は2013年です。",
+			"<p class=\"x\">Text from 1990.</p>\nNext line\twith a tab.\r\nEnd of 3rd line  \u00A0with\u2009spaces.",
+			"He paid 5.000,00 EUR (approx. 6,500.00 USD) on 2012-05-01T10:00:00.",
+	};
+
+	@Test
+	public void sameTokensAsRegexTokenizer() {
+		for (String text : TEXTS)
+			Assertions.assertEquals(RegexTokenizer.tokens(text), AllLanguagesTokenizer.splitTokens(text), text);
+	}
+
+	@Test
+	public void sameOffsetsAsRegexTokenizer() throws Exception {
+		JCas jcas = JCasFactory.createJCas("desc.type.HeidelTime_TypeSystem");
+		for (String text : TEXTS) {
+			jcas.reset();
+			jcas.setDocumentText(text);
+			new AllLanguagesTokenizer().process(jcas);
+
+			List<int[]> tokens = RegexTokenizer.tokenOffsets(text);
+			Assertions.assertEquals(toString(tokens), toString(offsets(jcas, Token.type)), text);
+			Assertions.assertEquals(toString(RegexTokenizer.sentenceOffsets(text, tokens)), toString(offsets(jcas, Sentence.type)), text);
+		}
+	}
+
+	private static List<int[]> offsets(JCas jcas, int type) {
+		List<int[]> offsets = new ArrayList<int[]>();
+		FSIterator<Annotation> it = jcas.getAnnotationIndex(type).iterator();
+		while (it.hasNext()) {
+			Annotation a = it.next();
+			offsets.add(new int[] {a.getBegin(), a.getEnd()});
+		}
+		return offsets;
+	}
+
+	private static String toString(List<int[]> offsets) {
+		StringBuilder sb = new StringBuilder();
+		for (int[] offset : offsets)
+			sb.append(Arrays.toString(offset));
+		return sb.toString();
+	}
+
+	/**
+	 * The regex based implementation that the character scanner replaced, on strings instead of annotations.
+	 */
+	private static final class RegexTokenizer {
+		private static final String PChar = "\\[¿¡\\{\\(\\`\"‚„†‡‹‘’“”•–—›'";
+		private static final String FChar = "\\]\\}\\'\\`\"\\),;:\\!\\?\\%‚„…†‡‰‹‘’“”•–—›";
+		private static final String FClitic = "'(s|re|ve|d|m|em|ll)|n't"
+				+ "|-t-elles?|-t-ils?|-t-on|-ce|-elles?|-ils?|-je|-la|-les?|-leur|-lui|-mmes?|-m'|-moi|-nous|-on|-toi|-tu|-t'|-vous|-en|-y|-ci|-l"
+				+ "|-la|-las|-lo|-los|-nos";
+		private static final String PClitic = "[dD][ae]ll'|[nN]ell'|[Aa]ll'|[lLDd]'|[Ss]ull'|[Qq]uest'|[Uu]n'|[Ss]enz'|[Tt]utt'"
+				+ "|[dcjlmnstDCJLNMST]'|[Qq]u'|[Jj]usqu'|[Ll]orsqu'";
+
+		static List<String> tokens(String documentText) {
+			StringBuilder outBuf = new StringBuilder();
+
+			for(String text : documentText.split("\n")) {
+				text = text.replaceAll("[\r\n\t]", " ");
+				text = text.replaceAll("(<[^<> ]*) ([^<>]*>)", "$1\377$2");
+				text = text.replaceAll("[\\u2000-\\u200A \\u202F\\u205F\\u3000\\u00A0\\u1680\\u180E]", "\376");
+				text = text.replaceAll("\377", " ");
+				text = text.replaceAll("\376", "\377");
+				text = text.replaceAll("(<[^<>]*>)", "\377$1\377");
+				text = text.replaceAll("^\377", "");
+				text = text.replaceAll("\377$", "");
+				text = text.replaceAll("\377\377\377*", "\377");
+
+				for(String line : text.split("\377")) {
+					if(line.matches("^<.*>$")) {
+						outBuf.append(line + "\n");
+						continue;
+					}
+					line = " " + line + " ";
+
+					line = line.replaceAll("\\.\\.\\.", " ... ");
+					line = line.replaceAll("([;\\!\\?])([^ ])", "$1 $2");
+					line = line.replaceAll("([.,:])([^ 0-9.])", "$1 $2");
+
+					for(String token : line.split(" ")) {
+						if(token.equals(""))
+							continue;
+
+						String suffix = "";
+						boolean finished;
+						Matcher m;
+						do {
+							finished = true;
+
+							m = Pattern.compile("^([" + PChar + "])(.)").matcher(token);
+							if(m.find()) {
+								token = token.replaceAll("^([" + PChar + "])(.)", "$2");
+								outBuf.append(m.group(1) + "\n");
+								finished = false;
+							}
+
+							m = Pattern.compile("(.)([" + FChar + "])$").matcher(token);
+							if(m.find()) {
+								token = token.replaceAll("(.)([" + FChar + "])$", "$1");
+								suffix = m.group(2) + "\n" + suffix;
+								finished = false;
+							}
+
+							m = Pattern.compile("([" + FChar + "])\\.$").matcher(token);
+							if(m.find()) {
+								token = token.replaceAll("([" + FChar + "])\\.$", "");
+								suffix = ".\n" + suffix;
+
+								if(token.equals("")) {
+									token = m.group(1);
+								} else {
+									suffix = m.group(1) + "\n" + suffix;
+								}
+
+								finished = false;
+							}
+						} while(!finished);
+
+						if(token.matches("^([A-Za-z-]\\.)+$")) {
+							outBuf.append(token + "\n" + suffix);
+							continue;
+						}
+
+						m = Pattern.compile("^(..*)\\.$").matcher(token);
+						if(m.matches() && !line.equals("...")) {
+							token = m.group(1);
+							suffix = ".\n" + suffix;
+						}
+
+						while(true) {
+							m = Pattern.compile("^(--)(.)").matcher(token);
+							if(!m.find())
+								break;
+							token = token.replaceAll("^(--)(.)", "$2");
+							outBuf.append(m.group(1) + "\n");
+						}
+						while(true) {
+							m = Pattern.compile("^(" + PClitic + ")(.)").matcher(token);
+							if(!m.find())
+								break;
+							token = token.replaceAll("^(" + PClitic + ")(.)", "$2");
+							outBuf.append(m.group(1) + "\n");
+						}
+
+						while(true) {
+							m = Pattern.compile("^(--)(.)").matcher(token);
+							if(!m.find())
+								break;
+							token = token.replaceAll("^(--)(.)", "$1");
+							suffix = m.group(2) + "\n" + suffix;
+						}
+						while(true) {
+							m = Pattern.compile("(.)(" + FClitic + ")$").matcher(token);
+							if(!m.find())
+								break;
+							token = token.replaceAll("(.)(" + FClitic + ")$", "$1");
+							suffix = m.group(2) + "\n" + suffix;
+						}
+						outBuf.append(token + "\n" + suffix);
+					}
+				}
+			}
+
+			return Arrays.asList(outBuf.toString().split("\n"));
+		}
+
+		/**
+		 * @return the offsets of the tokens in the order of the annotation index
+		 */
+		static List<int[]> tokenOffsets(String text) {
+			List<int[]> offsets = new ArrayList<int[]>();
+			int origTextOffset = 0;
+			for(String s : tokens(text)) {
+				int begin = text.indexOf(s, origTextOffset);
+				offsets.add(new int[] {begin, begin + s.length()});
+				origTextOffset = begin + s.length();
+			}
+			offsets.sort(Comparator.<int[]>comparingInt(o -> o[0]).thenComparing(o -> -o[1]));
+			return offsets;
+		}
+
+		static List<int[]> sentenceOffsets(String text, List<int[]> tokens) {
+			List<int[]> sentences = new ArrayList<int[]>();
+			int begin = 0;
+			boolean sentenceStarted = false;
+			int[] tOld = null;
+			int[] t = null;
+			for(int k = 0; k < tokens.size(); k++) {
+				if(t != null)
+					tOld = t;
+				t = tokens.get(k);
+
+				if(!sentenceStarted) {
+					sentenceStarted = true;
+					begin = t[0];
+				}
+
+				boolean hasNext = k + 1 < tokens.size();
+				if(!hasNext ||
+						(text.substring(t[0], t[1]).matches("[.:!\\?]+") &&
+								(!((tOld != null && text.substring(tOld[0], tOld[1]).matches("[\\d]+")) ||
+								((text.substring(t[1]).length() > 2) && (text.substring(t[1], t[1] + 3)).matches(" [A-Z][.-]")))))) {
+					sentenceStarted = false;
+					int end = t[1];
+
+					// a closing quotation mark is taken into the sentence, the punctuation stays the previous token
+					if(hasNext) {
+						int[] tNext = tokens.get(k + 1);
+						if(text.substring(tNext[0], tNext[1]).matches("[»’'\"‛”‟›〞』」﹄＂＇｣﹂]+")) {
+							end = tNext[1];
+							k++;
+						}
+					}
+
+					sentences.add(new int[] {begin, end});
+				}
+			}
+			return sentences;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package de.unihd.dbs.uima.annotator.heideltime.processors;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestHolidayProcessor {
+	// years inside and outside of the Easter table, the gregorian calendar of the reference starts in 1583
+	private static final int[] YEARS = {1583, 1600, 1700, 1799, 1800, 1899, 1900, 1954, 1961, 2000, 2001, 2008,
+			2011, 2019, 2024, 2025, 2038, 2099, 2100, 2101, 2200, 2500, 2999, 3000, 3001, 3100};
+	private static final int[] DAYS = {-49, -47, -2, 0, 1, 39, 49, 50, 60};
+
+	private final HolidayProcessor processor = new HolidayProcessor();
+
+	@Test
+	public void easterSunday() {
+		Assertions.assertEquals("2024-03-31", processor.getEasterSunday(2024));
+		Assertions.assertEquals("2025-04-20", processor.getEasterSunday(2025));
+		Assertions.assertEquals("2008-03-23", processor.getEasterSunday(2008));
+		for (int year : YEARS)
+			for (int days : DAYS)
+				Assertions.assertEquals(referenceEasterSunday(year, days), processor.getEasterSunday(year, days),
+						"Easter Sunday " + year + " " + days);
+	}
+
+	@Test
+	public void easterSundayOrthodox() {
+		Assertions.assertEquals("2024-05-05", processor.getEasterSundayOrthodox(2024));
+		Assertions.assertEquals("2025-04-20", processor.getEasterSundayOrthodox(2025));
+		Assertions.assertEquals("2008-04-27", processor.getEasterSundayOrthodox(2008));
+		for (int year : YEARS)
+			for (int days : DAYS)
+				Assertions.assertEquals(referenceEasterSundayOrthodox(year, days), processor.getEasterSundayOrthodox(year, days),
+						"Orthodox Easter Sunday " + year + " " + days);
+	}
+
+	@Test
+	public void shroveTideWeekOrthodox() {
+		for (Locale locale : new Locale[] {Locale.UK, Locale.US, Locale.GERMANY}) {
+			for (int year : YEARS) {
+				Assertions.assertEquals(referenceShroveTideWeekOrthodox(year, locale), processor.getShroveTideWeekOrthodox(year, locale),
+						"Shrove-Tide week " + year + " " + locale);
+			}
+		}
+		// weeks are counted as in the UK if no locale was configured
+		Assertions.assertEquals(processor.getShroveTideWeekOrthodox(2024, Locale.UK), processor.getShroveTideWeekOrthodox(2024));
+	}
+
+	// the implementation before the Easter table, with explicit calendars instead of the default locale
+
+	private static String referenceEasterSunday(int year, int days) {
+		int K = year / 100;
+		int M = 15 + ( ( 3 * K + 3 ) / 4 ) - ( ( 8 * K + 13 ) / 25 );
+		int S = 2 - ( (3 * K + 3) / 4 );
+		int A = year % 19;
+		int D = ( 19 * A + M ) % 30;
+		int R = ( D / 29) + ( ( D / 28 ) - ( D / 29 ) * ( A / 11 ) );
+		int OG = 21 + D - R;
+		int SZ = 7 - ( year + ( year / 4 ) + S ) % 7;
+		int OE = 7 - ( OG - SZ ) % 7;
+		int OS = OG + OE;
+
+		String date;
+		if( OS <= 31 ) {
+			date = String.format(Locale.ROOT, "%04d-03-%02d", year, OS);
+		}
+		else{
+			date = String.format(Locale.ROOT, "%04d-04-%02d", year, ( OS - 31 ) );
+		}
+		return addDays(date, days, Locale.UK);
+	}
+
+	private static String referenceEasterSundayOrthodox(int year, int days) {
+		int A = year%4;
+		int B = year%7;
+		int C = year%19;
+		int D = (19*C+15)%30;
+		int E = ((2*A + 4*B -D + 34))%7;
+		int Month = (int)(Math.floor ((D + E + 114) / 31));
+		int Day = ((D + E + 114)% 31) +1;
+
+		String date = String.format(Locale.ROOT, "%04d-%02d-%02d", year, Month, Day );
+		return addDays(date, days + referenceJulianDifference(year), Locale.UK);
+	}
+
+	private static String referenceShroveTideWeekOrthodox(int year, Locale locale) {
+		Calendar calendar = parse(referenceEasterSundayOrthodox(year, -49), locale);
+		int shroveTideWeek = calendar.get(Calendar.WEEK_OF_YEAR);
+		if(shroveTideWeek<10){
+			return year+"-W0"+shroveTideWeek;
+		}
+		return year+"-W"+shroveTideWeek;
+	}
+
+	private static int referenceJulianDifference(int year) {
+		int century = year/100 + 1;
+		if(century<18){
+			return 10;
+		}
+		if(century==18){
+			return 11;
+		}
+		if(century==19){
+			return 12;
+		}
+		if(century==20||century == 21){
+			return 13;
+		}
+		if(century==22){
+			return 14;
+		}
+		return 15;
+	}
+
+	private static String addDays(String date, int days, Locale locale) {
+		Calendar c = parse(date, locale);
+		c.add(Calendar.DAY_OF_MONTH, days);
+		return formatter(locale).format(c.getTime());
+	}
+
+	private static Calendar parse(String date, Locale locale) {
+		try {
+			Calendar c = new GregorianCalendar(locale);
+			c.setTime(formatter(locale).parse(date));
+			return c;
+		} catch (ParseException e) {
+			throw new IllegalArgumentException(date, e);
+		}
+	}
+
+	private static SimpleDateFormat formatter(Locale locale) {
+		return new SimpleDateFormat("yyyy-MM-dd", locale);
+	}
+}
@@ -0,0 +1,177 @@
+package de.unihd.dbs.uima.annotator.heideltime.resources;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestRePatternTrie {
+	// characters of the corpus to match the repatterns against
+	private static final int CORPUS_LENGTH = 20000;
+	// lines of a repattern file to build samples from, the long name lists are sampled evenly
+	private static final int MAX_SAMPLES = 200;
+	// candidates for the sample character of an atom
+	private static final String SAMPLE_CHARS = " aAeEnNsStTxX019.,-'/:()&äöüßéç\u00A0";
+
+	@Test
+	public void longestLineWins() {
+		List<String> lines = Arrays.asList("[Jj]anuary", "[Jj]an\\.", "[Jj]an");
+		String trie = RePatternTrie.compile(lines);
+		Assertions.assertNotNull(trie);
+
+		String text = "January, jan. and Jan or Janu.";
+		Assertions.assertEquals(Arrays.asList("January", "jan.", "Jan", "Jan"), matches(finalize(trie), text));
+		assertSameMatches(lines, trie, text);
+	}
+
+	@Test
+	public void wordBoundaries() {
+		List<String> lines = Arrays.asList("[Jj]anuary", "[Jj]an\\.", "[Jj]an");
+		String trie = RePatternTrie.compile(lines);
+		Assertions.assertNotNull(trie);
+
+		// "jan." is followed by a blank, so the bounded pattern has to fall back to "jan"
+		String text = "Janx jan. January1 Jan.x xJan January";
+		Assertions.assertEquals(Arrays.asList("jan", "Jan.", "January"), matches("\\b" + finalize(trie) + "\\b", text));
+		assertSameMatches(lines, trie, text);
+	}
+
+	@Test
+	public void fallsBackToAlternation() {
+		// the shorter line would be tried first
+		Assertions.assertNull(RePatternTrie.compile(Arrays.asList("[Jj]an", "[Jj]anuary")));
+		// groups are not folded
+		Assertions.assertNull(RePatternTrie.compile(Arrays.asList("(?:a|b)c", "d")));
+		// a repeated atom that could also match its successor can match in more than one way
+		Assertions.assertNull(RePatternTrie.compile(Arrays.asList("a+ab", "b")));
+	}
+
+	@Test
+	public void sameMatchesAsAlternation() throws IOException {
+		String corpus = corpus();
+		int tries = 0;
+		for (Language language : new Language[] {Language.ENGLISH, Language.GERMAN}) {
+			RePatternManager manager = RePatternManager.getInstance(language, true);
+			for (String key : ResourceScanner.getInstance().getRepatterns(language.getResourceFolder()).keySet()) {
+				List<String> lines = manager.getLines(key);
+				String trie = lines == null ? null : RePatternTrie.compile(lines);
+				if (trie == null)
+					continue;
+				tries++;
+
+				// the manager escapes the backslashes for the replacement in the rules
+				Assertions.assertEquals(finalize(trie), manager.get(key).replace("\\\\", "\\"), key);
+				assertSameMatches(lines, trie, samples(lines) + "\n" + corpus);
+			}
+		}
+		Assertions.assertTrue(tries > 0);
+	}
+
+	private static void assertSameMatches(List<String> lines, String trie, String text) {
+		String alternation = finalize("|" + String.join("|", lines));
+		String folded = finalize(trie);
+		Assertions.assertEquals(offsets(alternation, text), offsets(folded, text), alternation);
+		Assertions.assertEquals(offsets("\\b" + alternation + "\\b", text), offsets("\\b" + folded + "\\b", text), alternation);
+	}
+
+	/**
+	 * Finalizes an alternation like RePatternManager, apart from escaping the backslashes.
+	 */
+	private static String finalize(String alternation) {
+		return "(" + alternation.replaceFirst("\\|", "").replaceAll("\\(([^\\?])", "(?:$1") + ")";
+	}
+
+	private static List<String> matches(String pattern, String text) {
+		List<String> matches = new ArrayList<String>();
+		Matcher m = Pattern.compile(pattern).matcher(text);
+		while (m.find())
+			matches.add(m.group());
+		return matches;
+	}
+
+	/**
+	 * @return the offsets of the matches, to compare without building their texts
+	 */
+	private static List<Integer> offsets(String pattern, String text) {
+		List<Integer> offsets = new ArrayList<Integer>();
+		Matcher m = Pattern.compile(pattern).matcher(text);
+		while (m.find()) {
+			offsets.add(m.start());
+			offsets.add(m.end());
+		}
+		return offsets;
+	}
+
+	/**
+	 * @return a text with a sample of each line, of its beginning and of the line followed by a letter
+	 */
+	private static String samples(List<String> lines) {
+		StringBuilder sb = new StringBuilder();
+		int step = Math.max(1, lines.size() / MAX_SAMPLES);
+		for (int l = 0; l < lines.size(); l += step) {
+			String sample = sample(lines.get(l));
+			sb.append(sample).append(' ')
+					.append(sample, 0, sample.length() - 1).append(' ')
+					.append(sample).append("x ")
+					.append(sample).append(sample).append(". ");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return a text matched by a line that consists of characters, escapes and character classes only
+	 */
+	private static String sample(String line) {
+		StringBuilder sb = new StringBuilder();
+		int i = 0;
+		while (i < line.length()) {
+			int end;
+			if (line.charAt(i) == '\\') {
+				end = i + 2;
+			} else if (line.charAt(i) == '[') {
+				end = i + 1;
+				if (end < line.length() && line.charAt(end) == '^')
+					end++;
+				if (end < line.length() && line.charAt(end) == ']')
+					end++;
+				while (line.charAt(end) != ']')
+					end += line.charAt(end) == '\\' ? 2 : 1;
+				end++;
+			} else {
+				end = i + 1;
+			}
+			sb.append(sampleChar(Pattern.compile(line.substring(i, end))));
+			i = end < line.length() && line.charAt(end) == '+' ? end + 1 : end;
+		}
+		return sb.toString();
+	}
+
+	private static char sampleChar(Pattern atom) {
+		for (char c : SAMPLE_CHARS.toCharArray())
+			if (atom.matcher(String.valueOf(c)).matches())
+				return c;
+		for (char c = ' '; c < Character.MAX_VALUE; c++)
+			if (atom.matcher(String.valueOf(c)).matches())
+				return c;
+		throw new IllegalArgumentException(atom.pattern());
+	}
+
+	private static String corpus() throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(TestRePatternTrie.class.getClassLoader().getResourceAsStream("13068230.txt.gz")),
+				StandardCharsets.UTF_8))) {
+			String corpus = reader.lines().collect(Collectors.joining("\n"));
+			return corpus.substring(0, Math.min(CORPUS_LENGTH, corpus.length()));
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package de.unihd.dbs.uima.annotator.heideltime.utilities;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+
+public class TestDateCalculator {
+	// unchanged by the switch to java.time, the expected values are those of the Calendar based implementation
+
+	@Test
+	public void nextDay() {
+		Assertions.assertEquals("2013-01-01", DateCalculator.getXNextDay("2012-12-31", 1));
+		Assertions.assertEquals("2011-12-31", DateCalculator.getXNextDay("2012-01-01", -1));
+		Assertions.assertEquals("2012-02-29", DateCalculator.getXNextDay("2012-02-28", 1));
+		Assertions.assertEquals("2011-03-01", DateCalculator.getXNextDay("2011-02-28", 1));
+		Assertions.assertEquals("2012-02-29", DateCalculator.getXNextDay("2012-03-01", -1));
+		Assertions.assertEquals("2013-01-04", DateCalculator.getXNextDay("2012-12-25", 10));
+		Assertions.assertEquals("2001-02-28", DateCalculator.getXNextDay("2000-02-29", 365));
+	}
+
+	@Test
+	public void nextWeek() {
+		Assertions.assertEquals("2012-W51", DateCalculator.getXNextWeek("2012-W50", 1, Language.ENGLISH, Locale.UK));
+		Assertions.assertEquals("2012-W20", DateCalculator.getXNextWeek("2012-W10", 10, Language.ENGLISH, Locale.UK));
+		Assertions.assertEquals("2012-W52", DateCalculator.getXNextWeek("2013-W01", -1, Language.ENGLISH, Locale.UK));
+		Assertions.assertEquals("2016-W01", DateCalculator.getXNextWeek("2015-W53", 1, Language.ENGLISH, Locale.UK));
+		Assertions.assertEquals("2015-W53", DateCalculator.getXNextWeek("2016-W01", -1, Language.ENGLISH, Locale.UK));
+	}
+
+	@Test
+	public void nextWeekRollsOverTheWeekBasedYear() {
+		// was 2012-W01, the calendar year of the week's first day was written instead of its week-based year
+		Assertions.assertEquals("2013-W01", DateCalculator.getXNextWeek("2012-W52", 1, Language.ENGLISH, Locale.UK));
+	}
+
+	@Test
+	public void weekOfDate() {
+		Assertions.assertEquals(1, DateCalculator.getWeekOfDate("2012-12-31", Locale.UK));
+		Assertions.assertEquals(1, DateCalculator.getWeekOfDate("2013-01-01", Locale.UK));
+		Assertions.assertEquals(53, DateCalculator.getWeekOfDate("2015-12-31", Locale.UK));
+		Assertions.assertEquals(53, DateCalculator.getWeekOfDate("2016-01-01", Locale.UK));
+		Assertions.assertEquals(24, DateCalculator.getWeekOfDate("2012-06-15", Locale.UK));
+	}
+
+	@Test
+	public void weekdayOfDate() {
+		Assertions.assertEquals(2, DateCalculator.getWeekdayOfDate("2012-12-31"));
+		Assertions.assertEquals(7, DateCalculator.getWeekdayOfDate("2013-01-05"));
+		Assertions.assertEquals(1, DateCalculator.getWeekdayOfDate("2013-01-06"));
+	}
+
+	@Test
+	public void nextMonth() {
+		Assertions.assertEquals("2013-01", DateCalculator.getXNextMonth("2012-12", 1));
+		Assertions.assertEquals("2011-12", DateCalculator.getXNextMonth("2012-01", -1));
+		Assertions.assertEquals("2014-01", DateCalculator.getXNextMonth("2012-11", 14));
+		Assertions.assertEquals("2009-12", DateCalculator.getXNextMonth("2012-03", -27));
+		Assertions.assertEquals("BC0001-12", DateCalculator.getXNextMonth("0001-01", -1));
+	}
+
+	@Test
+	public void nextQuarter() {
+		// there is no quarter arithmetic of its own, quarters are three months from their first month
+		Assertions.assertEquals("2013-01", DateCalculator.getXNextMonth("2012-10", 3));
+		Assertions.assertEquals("2011-10", DateCalculator.getXNextMonth("2012-01", -3));
+	}
+
+	@Test
+	public void nextYear() {
+		Assertions.assertEquals("2013", DateCalculator.getXNextYear("2012", 1));
+		Assertions.assertEquals("1999", DateCalculator.getXNextYear("2000", -1));
+		Assertions.assertEquals("BC0001", DateCalculator.getXNextYear("0001", -1));
+		Assertions.assertEquals("0001", DateCalculator.getXNextYear("BC0001", 1));
+		Assertions.assertEquals("BC0060", DateCalculator.getXNextYear("BC0050", -10));
+	}
+
+	@Test
+	public void nextDecade() {
+		Assertions.assertEquals("200", DateCalculator.getXNextDecade("199", 1));
+		Assertions.assertEquals("199", DateCalculator.getXNextDecade("200", -1));
+		Assertions.assertEquals("198", DateCalculator.getXNextDecade("201", -3));
+	}
+
+	@Test
+	public void nextCentury() {
+		Assertions.assertEquals("20", DateCalculator.getXNextCentury("19", 1));
+		Assertions.assertEquals("19", DateCalculator.getXNextCentury("20", -1));
+		Assertions.assertEquals("13", DateCalculator.getXNextCentury("18", -5));
+		Assertions.assertEquals("01", DateCalculator.getXNextCentury("BC01", 3));
+		Assertions.assertEquals("BC01", DateCalculator.getXNextCentury("05", -7));
+	}
+
+	@Test
+	public void centuriesAreCountedWithoutGap() {
+		// was AD01, the Calendar skipped from BC0001 to AD0001
+		Assertions.assertEquals("00", DateCalculator.getXNextCentury("18", -18));
+		Assertions.assertEquals("BC00", DateCalculator.getXNextCentury("18", -19));
+	}
+
+	@Test
+	public void bcPrefixIsLiteral() {
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			// the localized era of SimpleDateFormat would have been "v. Chr."
+			Locale.setDefault(Locale.GERMANY);
+			Assertions.assertEquals("BC0001", DateCalculator.getXNextYear("0001", -1));
+			Assertions.assertEquals("BC0001-12", DateCalculator.getXNextMonth("0001-01", -1));
+			Assertions.assertEquals("BC000", DateCalculator.getXNextDecade("001", -1));
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public void prolepticGregorianBefore1583() {
+		// the Julian calendar was used before, with its gap in October 1582 and a leap day in every fourth year
+		Assertions.assertEquals("1582-10-05", DateCalculator.getXNextDay("1582-10-04", 1));
+		Assertions.assertEquals("1000-03-01", DateCalculator.getXNextDay("1000-02-28", 1));
+		Assertions.assertEquals(2, DateCalculator.getWeekdayOfDate("1500-01-01"));
+	}
+}
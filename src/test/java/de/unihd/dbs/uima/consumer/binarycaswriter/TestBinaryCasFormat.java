@@ -0,0 +1,134 @@
+package de.unihd.dbs.uima.consumer.binarycaswriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unihd.dbs.heideltime.standalone.components.impl.BinaryCasResultFormatter;
+import de.unihd.dbs.uima.types.heideltime.Dct;
+import de.unihd.dbs.uima.types.heideltime.Event;
+import de.unihd.dbs.uima.types.heideltime.Sentence;
+import de.unihd.dbs.uima.types.heideltime.Timex3;
+import de.unihd.dbs.uima.types.heideltime.Timex3Interval;
+import de.unihd.dbs.uima.types.heideltime.Token;
+
+public class TestBinaryCasFormat {
+	private static final String TEXT = "From 2010 to 2012 we met daily.";
+
+	@Test
+	public void roundTrip() throws Exception {
+		JCas jcas = taggedJCas();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new BinaryCasResultFormatter().format(jcas, out);
+
+		JCas read = JCasFactory.createJCas("desc.type.HeidelTime_TypeSystem");
+		TypeSystem filtered = BinaryCasFormat.createFilteredTypeSystem(read.getTypeSystem());
+		BinaryCasFormat.deserialize(read.getCas(), filtered, new ByteArrayInputStream(out.toByteArray()));
+
+		Assertions.assertEquals(TEXT, read.getDocumentText());
+		Assertions.assertEquals("en", read.getDocumentLanguage());
+		Assertions.assertEquals(annotations(jcas, Dct.type), annotations(read, Dct.type));
+		Assertions.assertEquals(annotations(jcas, Sentence.type), annotations(read, Sentence.type));
+		Assertions.assertEquals(annotations(jcas, Token.type), annotations(read, Token.type));
+		Assertions.assertEquals(annotations(jcas, Timex3.type), annotations(read, Timex3.type));
+		Assertions.assertEquals(annotations(jcas, Timex3Interval.type), annotations(read, Timex3Interval.type));
+		Assertions.assertEquals(3, annotations(read, Timex3.type).size());
+
+		// types that are not kept are dropped while writing
+		Assertions.assertEquals(1, annotations(jcas, Event.type).size());
+		Assertions.assertEquals(0, annotations(read, Event.type).size());
+	}
+
+	private static JCas taggedJCas() throws Exception {
+		JCas jcas = JCasFactory.createJCas("desc.type.HeidelTime_TypeSystem");
+		jcas.setDocumentText(TEXT);
+		jcas.setDocumentLanguage("en");
+
+		Dct dct = new Dct(jcas, 0, TEXT.length());
+		dct.setFilename("/data/news/apw19980227.txt");
+		dct.setValue("2013-01-01");
+		dct.setTimexId("t0");
+		dct.addToIndexes();
+
+		Sentence sentence = new Sentence(jcas, 0, TEXT.length());
+		sentence.setSentenceId(0);
+		sentence.addToIndexes();
+
+		int tokenId = 0;
+		int begin = 0;
+		for (String word : TEXT.substring(0, TEXT.length() - 1).split(" ")) {
+			addToken(jcas, begin, begin + word.length(), tokenId++, word.matches("\\d+") ? "CD" : "NN");
+			begin += word.length() + 1;
+		}
+		addToken(jcas, TEXT.length() - 1, TEXT.length(), tokenId, ".");
+
+		Timex3 from = addTimex(jcas, 5, 9, "t1", "DATE", "2010");
+		from.setFirstTokId(1);
+		from.setAllTokIds("BEGIN<-->1");
+		from.setFoundByRule("date_r1a");
+		Timex3 to = addTimex(jcas, 13, 17, "t2", "DATE", "2012");
+		to.setTimexMod("END");
+		Timex3 daily = addTimex(jcas, 25, 30, "t3", "SET", "P1D");
+		daily.setTimexQuant("EACH");
+		daily.setTimexFreq("1X");
+
+		Timex3Interval interval = new Timex3Interval(jcas, 5, 17);
+		interval.setTimexValueEB("2010");
+		interval.setTimexValueLB("2010");
+		interval.setTimexValueEE("2012");
+		interval.setTimexValueLE("2012");
+		interval.setBeginTimex("t1");
+		interval.setEndTimex("t2");
+		interval.addToIndexes();
+
+		Event event = new Event(jcas, 21, 24);
+		event.setEventId("e1");
+		event.addToIndexes();
+		return jcas;
+	}
+
+	private static void addToken(JCas jcas, int begin, int end, int tokenId, String pos) {
+		Token token = new Token(jcas, begin, end);
+		token.setTokenId(tokenId);
+		token.setSentId(0);
+		token.setPos(pos);
+		token.addToIndexes();
+	}
+
+	private static Timex3 addTimex(JCas jcas, int begin, int end, String id, String type, String value) {
+		Timex3 timex = new Timex3(jcas, begin, end);
+		timex.setSentId(0);
+		timex.setTimexId(id);
+		timex.setTimexType(type);
+		timex.setTimexValue(value);
+		timex.addToIndexes();
+		return timex;
+	}
+
+	/**
+	 * @return the annotations of a type with the values of their primitive features, in index order
+	 */
+	private static List<String> annotations(JCas jcas, int type) {
+		List<String> annotations = new ArrayList<String>();
+		FSIterator<Annotation> it = jcas.getAnnotationIndex(type).iterator();
+		while (it.hasNext()) {
+			Annotation a = it.next();
+			StringBuilder sb = new StringBuilder(a.getType().getShortName());
+			for (Feature feature : a.getType().getFeatures())
+				if (feature.getRange().isPrimitive())
+					sb.append(' ').append(feature.getShortName()).append('=').append(a.getFeatureValueAsString(feature));
+			annotations.add(sb.toString());
+		}
+		return annotations;
+	}
+}
@@ -0,0 +1,248 @@
+package jflexcrf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import jvntextpro.util.BinaryModel;
+
+public class TestModel {
+	private static final String[] LABELS = {"B", "I", "O"};
+	private static final int NUM_CPS = 50;
+	private static final int NUM_SEQUENCES = 300;
+	private static final int MAX_LENGTH = 6;
+
+	@Test
+	public void viterbiFollowsTheTransitions() throws IOException {
+		// "a" alone would be labeled O, but only B is likely to be followed by I
+		double[][] edges = new double[LABELS.length][LABELS.length];
+		edges[1][0] = 2.0;
+		edges[1][2] = -3.0;
+		double[][] states = {
+				{1.0, 0.0, 1.2},
+				{0.0, 1.0, 0.5},
+		};
+		File modelDir = writeModel(new String[] {"a", "b"}, edges, states);
+		try {
+			Model model = load(modelDir);
+			List seq = sequence(new int[][] {{0}, {1}});
+			model.inference(seq);
+			Assertions.assertEquals(Arrays.asList("B", "I"), labels(model, seq));
+
+			seq = sequence(new int[][] {{0}});
+			model.inference(seq);
+			Assertions.assertEquals(Arrays.asList("O"), labels(model, seq));
+		} finally {
+			delete(modelDir);
+		}
+	}
+
+	@Test
+	public void viterbiFindsTheBestPath() throws IOException {
+		Random random = new Random(1);
+		double[][] edges = gaussians(random, LABELS.length);
+		double[][] states = gaussians(random, NUM_CPS);
+		File modelDir = writeModel(cpStrs(), edges, states);
+		try {
+			Model model = load(modelDir);
+			List data = sequences(new Random(2));
+			// the lattice is reused by the sequences of a batch, and grows with the longest of them
+			model.taggerVtb.allocateMemory(2);
+			model.inferenceAll(data);
+
+			for (Object seq : data) {
+				int[] expected = bestPath((List)seq, edges, states);
+				int[] actual = new int[expected.length];
+				for (int i = 0; i < actual.length; i++)
+					actual[i] = ((Observation)((List)seq).get(i)).modelLabel;
+				Assertions.assertArrayEquals(expected, actual);
+			}
+		} finally {
+			delete(modelDir);
+		}
+	}
+
+	@Test
+	public void binaryModelRoundTrip() throws IOException {
+		Random random = new Random(3);
+		File modelDir = writeModel(cpStrs(), gaussians(random, LABELS.length), gaussians(random, NUM_CPS));
+		try {
+			Model text = load(modelDir);
+			List data = sequences(new Random(4));
+			text.inferenceAll(data);
+			int[] labels = modelLabels(data);
+
+			text.writeBinaryModel(new File(modelDir, BinaryModel.MODEL_FILE));
+			// without the text model, a binary model that cannot be read fails to load
+			Assertions.assertTrue(new File(modelDir, "model.txt").delete());
+
+			Model binary = load(modelDir);
+			Assertions.assertTrue(binary.lambda.isDirect());
+			data = sequences(new Random(4));
+			binary.inferenceAll(data);
+			Assertions.assertArrayEquals(labels, modelLabels(data));
+		} finally {
+			delete(modelDir);
+		}
+	}
+
+	/**
+	 * Finds the best label path by trying all of them, with the scores that the Viterbi decoder maximizes.
+	 */
+	private static int[] bestPath(List seq, double[][] edges, double[][] states) {
+		int numLabels = LABELS.length;
+		int[] path = new int[seq.size()];
+		int[] best = null;
+		double bestScore = Double.NEGATIVE_INFINITY;
+		while (true) {
+			double score = 0;
+			for (int i = 0; i < path.length; i++) {
+				for (int cp : ((Observation)seq.get(i)).cps)
+					if (cp < states.length)
+						score += states[cp][path[i]];
+				if (i > 0)
+					score += edges[path[i]][path[i - 1]];
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				best = path.clone();
+			}
+
+			int i = path.length - 1;
+			while (i >= 0 && path[i] == numLabels - 1)
+				path[i--] = 0;
+			if (i < 0)
+				return best;
+			path[i]++;
+		}
+	}
+
+	private static Model load(File modelDir) {
+		Option option = new Option(modelDir.getPath());
+		Assertions.assertTrue(option.readOptions());
+		Maps maps = new Maps();
+		Dictionary dict = new Dictionary();
+		Model model = new Model(option, maps, dict, new FeatureGen(maps, dict), new Viterbi());
+		Assertions.assertTrue(model.init());
+		return model;
+	}
+
+	private static int[] modelLabels(List data) {
+		List<Integer> labels = new ArrayList<Integer>();
+		for (Object seq : data)
+			for (Object obsr : (List)seq)
+				labels.add(((Observation)obsr).modelLabel);
+		return labels.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static List<String> labels(Model model, List seq) {
+		List<String> labels = new ArrayList<String>();
+		for (Object obsr : seq)
+			labels.add(model.taggerMaps.lbInt2Str.get(((Observation)obsr).modelLabel));
+		return labels;
+	}
+
+	private static List sequence(int[][] cps) {
+		List seq = new ArrayList();
+		for (int[] obsrCps : cps) {
+			Observation obsr = new Observation();
+			obsr.cps = obsrCps;
+			seq.add(obsr);
+		}
+		return seq;
+	}
+
+	/**
+	 * @return sequences with one or more context predicates per observation, some of them not in the model
+	 */
+	private static List sequences(Random random) {
+		List data = new ArrayList();
+		for (int s = 0; s < NUM_SEQUENCES; s++) {
+			int[][] cps = new int[1 + random.nextInt(MAX_LENGTH)][];
+			for (int i = 0; i < cps.length; i++) {
+				cps[i] = new int[1 + random.nextInt(4)];
+				for (int j = 0; j < cps[i].length; j++)
+					cps[i][j] = random.nextInt(NUM_CPS + 5);
+			}
+			data.add(sequence(cps));
+		}
+		return data;
+	}
+
+	private static String[] cpStrs() {
+		String[] cpStrs = new String[NUM_CPS];
+		for (int i = 0; i < cpStrs.length; i++)
+			cpStrs[i] = "c" + i;
+		return cpStrs;
+	}
+
+	private static double[][] gaussians(Random random, int rows) {
+		double[][] values = new double[rows][LABELS.length];
+		for (double[] row : values)
+			for (int j = 0; j < row.length; j++)
+				row[j] = random.nextGaussian();
+		return values;
+	}
+
+	/**
+	 * Writes a first-order text model, in the format read by {@link Model#init()}.
+	 *
+	 * @param edges the weights of the transitions, edges[y][yp] for the transition from yp to y
+	 * @param states the weights of the state features, states[cp][y]
+	 * @return the model directory
+	 */
+	private static File writeModel(String[] cpStrs, double[][] edges, double[][] states) throws IOException {
+		File modelDir = Files.createTempDirectory("jflexcrf").toFile();
+		try (PrintWriter out = new PrintWriter(new File(modelDir, "option.txt"), StandardCharsets.UTF_8)) {
+			out.println("order=1");
+		}
+		try (PrintWriter out = new PrintWriter(new File(modelDir, "model.txt"), StandardCharsets.UTF_8)) {
+			out.println(cpStrs.length);
+			for (int i = 0; i < cpStrs.length; i++)
+				out.println(cpStrs[i] + " " + i);
+			out.println("##########");
+
+			out.println(LABELS.length);
+			for (int i = 0; i < LABELS.length; i++)
+				out.println(LABELS[i] + " " + i);
+			out.println("##########");
+
+			List<String> features = new ArrayList<String>();
+			for (int y = 0; y < LABELS.length; y++)
+				for (int yp = 0; yp < LABELS.length; yp++)
+					features.add("e1_" + LABELS[y] + "_" + LABELS[yp] + " " + features.size() + " " + edges[y][yp]);
+
+			out.println(cpStrs.length);
+			for (int cp = 0; cp < cpStrs.length; cp++) {
+				StringBuilder line = new StringBuilder().append(cp).append(':').append(LABELS.length);
+				for (int y = 0; y < LABELS.length; y++) {
+					line.append(" 1:").append(y).append(":1:").append(features.size());
+					features.add("s1_" + LABELS[y] + "_" + cpStrs[cp] + " " + features.size() + " " + states[cp][y]);
+				}
+				out.println(line);
+			}
+			out.println("##########");
+
+			out.println(features.size());
+			for (String feature : features)
+				out.println(feature);
+			out.println("##########");
+		}
+		return modelDir;
+	}
+
+	private static void delete(File modelDir) {
+		for (File file : modelDir.listFiles())
+			file.delete();
+		modelDir.delete();
+	}
+}
@@ -0,0 +1,176 @@
+package jmaxent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import jvntextpro.util.BinaryModel;
+
+public class TestClassification {
+	private static final int NUM_LABELS = 4;
+	private static final int NUM_CPS = 200;
+	private static final int NUM_WORDS = 20;
+	private static final int NUM_OBSERVATIONS = 2000;
+
+	@Test
+	public void binaryModelRoundTrip() throws IOException {
+		File modelDir = writeModel(new Random(1));
+		try {
+			Classification text = new Classification(modelDir.getPath());
+			List<String> cps = observations(new Random(2));
+			String[][] cpArrs = split(cps);
+			List<String> labels = classifyEach(text, cps);
+			List<String> posLabels = classifyEach(text, cpArrs);
+			Assertions.assertTrue(new HashSet<String>(labels).size() > 1);
+
+			text.writeBinaryModel(new File(modelDir, BinaryModel.MODEL_FILE));
+			// without the text model, a binary model that cannot be read would leave the classifier without a model
+			Assertions.assertTrue(new File(modelDir, "model.txt").delete());
+
+			Classification binary = new Classification(modelDir.getPath());
+			Assertions.assertEquals(labels, classifyEach(binary, cps));
+			Assertions.assertEquals(posLabels, classifyEach(binary, cpArrs));
+		} finally {
+			delete(modelDir);
+		}
+	}
+
+	@Test
+	public void batchedLikeSingleClassification() throws IOException {
+		File modelDir = writeModel(new Random(3));
+		try {
+			Classification classification = new Classification(modelDir.getPath());
+			Assertions.assertNotNull(classification.inference.cpWeights);
+
+			List<String> cps = observations(new Random(4));
+			String[][] cpArrs = split(cps);
+			List<String> labels = classifyEach(classification, cps);
+			List<String> posLabels = classifyEach(classification, cpArrs);
+
+			Assertions.assertEquals(labels, classification.classify(cps));
+			Assertions.assertEquals(posLabels, Arrays.asList(classification.classify(cpArrs)));
+
+			// without dense weights, the batch is scored from the feature lists
+			classification.inference.cpWeights = null;
+			Assertions.assertEquals(labels, classification.classify(cps));
+			Assertions.assertEquals(posLabels, Arrays.asList(classification.classify(cpArrs)));
+			Assertions.assertEquals(labels, classifyEach(classification, cps));
+		} finally {
+			delete(modelDir);
+		}
+	}
+
+	private static List<String> classifyEach(Classification classification, List<String> cps) {
+		List<String> labels = new ArrayList<String>();
+		for (String cp : cps)
+			labels.add(classification.classify(cp));
+		return labels;
+	}
+
+	private static List<String> classifyEach(Classification classification, String[][] cpArrs) {
+		List<String> labels = new ArrayList<String>();
+		for (String[] cpArr : cpArrs)
+			labels.add(classification.classify(cpArr));
+		return labels;
+	}
+
+	/**
+	 * @return observations with context predicates of the model, of the POS tagger and unknown ones
+	 */
+	private static List<String> observations(Random random) {
+		List<String> observations = new ArrayList<String>();
+		observations.add("");
+		observations.add("unknown");
+		for (int i = 0; i < NUM_OBSERVATIONS; i++) {
+			StringBuilder sb = new StringBuilder();
+			if (random.nextInt(3) == 0)
+				sb.append("w:0:word").append(random.nextInt(NUM_WORDS + 5)).append(' ');
+			for (int j = random.nextInt(3); j > 0; j--)
+				sb.append("dict:0:L").append(random.nextInt(NUM_LABELS)).append(' ');
+			for (int j = random.nextInt(8); j > 0; j--)
+				sb.append("cp").append(random.nextInt(NUM_CPS + 20)).append(' ');
+			observations.add(sb.toString().trim());
+		}
+		return observations;
+	}
+
+	private static String[][] split(List<String> observations) {
+		String[][] cpArrs = new String[observations.size()][];
+		for (int i = 0; i < cpArrs.length; i++)
+			cpArrs[i] = observations.get(i).isEmpty() ? new String[0] : observations.get(i).split(" ");
+		return cpArrs;
+	}
+
+	/**
+	 * Writes a text model with random weights, in the format read by {@link Classification#init()}.
+	 *
+	 * @return the model directory
+	 */
+	private static File writeModel(Random random) throws IOException {
+		List<String> cpStrs = new ArrayList<String>();
+		for (int i = 0; i < NUM_CPS; i++)
+			cpStrs.add("cp" + i);
+		for (int i = 0; i < NUM_WORDS; i++)
+			cpStrs.add("w:0:word" + i);
+		for (int i = 0; i < NUM_LABELS; i++)
+			cpStrs.add("dict:0:L" + i);
+
+		File modelDir = Files.createTempDirectory("jmaxent").toFile();
+		try (PrintWriter out = new PrintWriter(new File(modelDir, "option.txt"), StandardCharsets.UTF_8)) {
+			out.println("numIterations=10");
+		}
+		try (PrintWriter out = new PrintWriter(new File(modelDir, "model.txt"), StandardCharsets.UTF_8)) {
+			out.println(cpStrs.size());
+			for (int i = 0; i < cpStrs.size(); i++)
+				out.println(cpStrs.get(i) + " " + i);
+			out.println("##########");
+
+			out.println(NUM_LABELS);
+			for (int i = 0; i < NUM_LABELS; i++)
+				out.println("L" + i + " " + i);
+			out.println("##########");
+
+			StringBuilder features = new StringBuilder();
+			int numFeatures = 0;
+			out.println(cpStrs.size());
+			for (int cp = 0; cp < cpStrs.size(); cp++) {
+				StringBuilder line = new StringBuilder();
+				int count = 0;
+				for (int label = 0; label < NUM_LABELS; label++) {
+					if (random.nextInt(2) == 0)
+						continue;
+					int labelCount = 1 + random.nextInt(9);
+					count += labelCount;
+					line.append(' ').append(label).append(':').append(labelCount).append(':').append(numFeatures);
+					features.append("L").append(label).append(' ').append(cpStrs.get(cp)).append(' ').append(numFeatures)
+							.append(' ').append(random.nextGaussian() * 2).append('\n');
+					numFeatures++;
+				}
+				// a context predicate without features is left out of the dictionary
+				out.println(count == 0 ? "" : cp + ":" + count + line);
+			}
+			out.println("##########");
+
+			out.println(numFeatures);
+			out.print(features);
+			out.println("##########");
+		}
+		return modelDir;
+	}
+
+	private static void delete(File modelDir) {
+		for (File file : modelDir.listFiles())
+			file.delete();
+		modelDir.delete();
+	}
+}
@@ -16,11 +16,14 @@ import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class TestHeidelTimeX {
@@ -30,7 +33,15 @@ public class TestHeidelTimeX {
     @BeforeAll
     public void setUp() throws ResourceInitializationException, CASException {
         jCas = JCasFactory.createJCas();
-        engine = AnalysisEngineFactory.createEngine(
+        engine = createEngine(false);
+    }
+
+    private static AnalysisEngine createEngine(boolean documentScan) throws ResourceInitializationException {
+        return createEngine(documentScan, 0);
+    }
+
+    private static AnalysisEngine createEngine(boolean documentScan, int sentenceCacheSize) throws ResourceInitializationException {
+        return AnalysisEngineFactory.createEngine(
                 HeidelTimeX.class,
 //                HeidelTimeX.PARAM_PARALLEL_SEARCH, true,
                 HeidelTimeX.PARAM_LANGUAGE, Language.GERMAN,
@@ -41,7 +52,9 @@ public class TestHeidelTimeX {
                 HeidelTimeX.PARAM_FIND_DURATIONS, true,
                 HeidelTimeX.PARAM_FIND_SETS, true,
                 HeidelTimeX.PARAM_FIND_TEMPONYMS, true,
-                HeidelTimeX.PARAM_GROUP_GRAN, true
+                HeidelTimeX.PARAM_GROUP_GRAN, true,
+                HeidelTimeX.PARAM_DOCUMENT_SCAN, documentScan,
+                HeidelTimeX.PARAM_SENTENCE_CACHE_SIZE, sentenceCacheSize
         );
     }
 
@@ -327,7 +340,90 @@ public class TestHeidelTimeX {
         }
     }
 
+    @Test
+    public void test_existing_timexes() throws AnalysisEngineProcessException {
+        String input = "25. Februar 2009 und Sonstiges";
+        prepareSingleSentence(input);
+
+        // timexes from an upstream annotator go through the same phases as the ones found by the rules
+        Timex3 overlapped = new Timex3(jCas, 4, 11);
+        overlapped.setTimexType("DATE");
+        overlapped.setTimexValue("XXXX-02");
+        overlapped.setFoundByRule("upstream-overlapped");
+        overlapped.addToIndexes();
+
+        Timex3 invalid = new Timex3(jCas, 17, 20);
+        invalid.setTimexType("DATE");
+        invalid.setTimexValue("REMOVE");
+        invalid.setFoundByRule("upstream-invalid");
+        invalid.addToIndexes();
+
+        Timex3 kept = new Timex3(jCas, 21, 30);
+        kept.setTimexType("DURATION");
+        kept.setTimexValue("P1D");
+        kept.setFoundByRule("upstream-kept");
+        kept.addToIndexes();
+
+        SimplePipeline.runPipeline(jCas, engine);
+        Collection<Timex3> timex3s = JCasUtil.select(jCas, Timex3.class);
+        printAnnotations(timex3s);
+        Assertions.assertTrue(timex3s.stream().noneMatch(t -> t.getFoundByRule().equals("upstream-overlapped")));
+        Assertions.assertTrue(timex3s.stream().noneMatch(t -> t.getFoundByRule().equals("upstream-invalid")));
+        Assertions.assertTrue(timex3s.stream().anyMatch(t -> t.getFoundByRule().equals("upstream-kept")));
+        Assertions.assertTrue(timex3s.stream().anyMatch(t -> !t.getFoundByRule().startsWith("upstream")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "13068230.txt.gz",
+    })
+    public void test_document_scan(String resourceName) throws IOException, ResourceInitializationException, AnalysisEngineProcessException {
+        TestHeidelTimeXIntegration.loadFile(jCas, resourceName);
+        SimplePipeline.runPipeline(jCas, engine);
+        List<String> bySentence = describe(JCasUtil.select(jCas, Timex3.class));
+
+        TestHeidelTimeXIntegration.loadFile(jCas, resourceName);
+        SimplePipeline.runPipeline(jCas, createEngine(true));
+        List<String> byDocument = describe(JCasUtil.select(jCas, Timex3.class));
+
+        Assertions.assertFalse(bySentence.isEmpty());
+        Assertions.assertEquals(bySentence, byDocument);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "13068230.txt.gz",
+    })
+    public void test_sentence_cache(String resourceName) throws IOException, ResourceInitializationException, AnalysisEngineProcessException {
+        TestHeidelTimeXIntegration.loadFile(jCas, resourceName);
+        SimplePipeline.runPipeline(jCas, engine);
+        List<String> uncached = describe(JCasUtil.select(jCas, Timex3.class));
+
+        // the second run replays the matches cached by the first one
+        AnalysisEngine cachedEngine = createEngine(false, 10_000);
+        for (int run = 0; run < 2; run++) {
+            TestHeidelTimeXIntegration.loadFile(jCas, resourceName);
+            SimplePipeline.runPipeline(jCas, cachedEngine);
+            Assertions.assertEquals(uncached, describe(JCasUtil.select(jCas, Timex3.class)), "run " + run);
+        }
+        Assertions.assertFalse(uncached.isEmpty());
+    }
+
+    private static List<String> describe(Collection<Timex3> timex3s) {
+        return timex3s.stream()
+                .map(t -> "%d-%d %s %s %s %s %s".formatted(
+                        t.getBegin(), t.getEnd(), t.getTimexId(), t.getTimexType(), t.getTimexValue(),
+                        t.getTimexMod(), t.getFoundByRule()
+                ))
+                .toList();
+    }
+
     public void runSingleSentence(String input) throws ResourceInitializationException, CASException, AnalysisEngineProcessException {
+        prepareSingleSentence(input);
+        SimplePipeline.runPipeline(jCas, engine);
+    }
+
+    public void prepareSingleSentence(String input) {
         jCas.reset();
         jCas.setDocumentLanguage("de");
         jCas.setDocumentText(input);
@@ -340,8 +436,6 @@ public class TestHeidelTimeX {
             }
         }
         new Sentence(jCas, 0, input.length()).addToIndexes();
-
-        SimplePipeline.runPipeline(jCas, engine);
     }
 
     public static void printAnnotations(Collection<? extends Annotation> annotations) {
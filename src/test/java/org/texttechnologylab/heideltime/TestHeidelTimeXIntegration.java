@@ -36,7 +36,7 @@ public class TestHeidelTimeXIntegration {
     AnalysisEngine engine;
     JCas jCas;
 
-    final Pattern WORD_PATTERN = Pattern.compile("\\p{L}+(-\\p{L}+)?|[^\\p{L}\\s]+", Pattern.UNICODE_CHARACTER_CLASS);
+    static final Pattern WORD_PATTERN = Pattern.compile("\\p{L}+(-\\p{L}+)?|[^\\p{L}\\s]+", Pattern.UNICODE_CHARACTER_CLASS);
 
     @BeforeAll
     public void setUp() throws ResourceInitializationException, CASException {
@@ -66,7 +66,7 @@ public class TestHeidelTimeXIntegration {
      * @return A {@link BufferedReader} for the resource with the given name, possibly decompressed.
      * @throws NullPointerException If the resource with the given name could not be found.
      */
-    private static BufferedReader getBufferedReader(String resourceName) throws NullPointerException {
+    static BufferedReader getBufferedReader(String resourceName) throws NullPointerException {
         final BufferedInputStream fileInputStream = new BufferedInputStream(
                 Objects.requireNonNull(
                         TestHeidelTimeXIntegration.class.getClassLoader().getResourceAsStream(resourceName),
@@ -86,6 +86,26 @@ public class TestHeidelTimeXIntegration {
             "13068230.txt.gz",
     })
     public void testFile(String resourceName) throws IOException {
+        try {
+            int lines = loadFile(jCas, resourceName);
+
+            SimplePipeline.runPipeline(jCas, engine);
+
+            Collection<Timex3> timex3s = JCasUtil.select(jCas, Timex3.class);
+            System.out.printf("Found %d Timex3 annotations in %d sentences.%n", timex3s.size(), lines);
+            printAnnotations(timex3s);
+        } catch (AnalysisEngineProcessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reset the given CAS and fill it with the text of a resource, with one sentence per line and tokens as given by
+     * {@link #WORD_PATTERN}.
+     *
+     * @return the number of sentences
+     */
+    static int loadFile(JCas jCas, String resourceName) throws IOException {
         try (BufferedReader reader = getBufferedReader(resourceName)) {
             List<String> lines = reader.lines().filter(line -> !line.startsWith("#")).map(String::trim).toList();
             String text = String.join(" ", lines);
@@ -108,14 +128,7 @@ public class TestHeidelTimeXIntegration {
             for (MatchResult matchResult : tokenMatches) {
                 new Token(jCas, matchResult.start(), matchResult.end()).addToIndexes();
             }
-
-            SimplePipeline.runPipeline(jCas, engine);
-
-            Collection<Timex3> timex3s = JCasUtil.select(jCas, Timex3.class);
-            System.out.printf("Found %d Timex3 annotations in %d sentences.%n", timex3s.size(), lines.size());
-            printAnnotations(timex3s);
-        } catch (AnalysisEngineProcessException e) {
-            throw new RuntimeException(e);
+            return lines.size();
         }
     }
 
@@ -0,0 +1,83 @@
+package org.texttechnologylab.heideltime;
+
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeMap;
+
+public class TestSentenceMatchCache {
+    private static final String TEXT = "Am 1. Mai 2020";
+    private static final int[] BEGINS = {0, 3, 6, 10};
+    private static final int[] ENDS = {2, 5, 9, 14};
+    private static final String[] POS = {"APPR", "ADJA", "NN", "CARD"};
+
+    private final TreeMap<String, RuleManager.RuleInstance> rules = new TreeMap<>();
+
+    @Test
+    public void test_key() {
+        SentenceMatchCache<String> cache = new SentenceMatchCache<>(10, 0);
+        ContextAnalyzer.SentenceContainer sentence = sentence(TEXT, 0, POS);
+        String signature = SentenceMatchCache.signature(sentence);
+        cache.put(Language.GERMAN, rules, sentence, signature, "matches");
+
+        Assertions.assertEquals("matches", cache.get(Language.GERMAN, rules, sentence, signature));
+
+        // the offsets are relative to the sentence, so the same sentence elsewhere in a document hits
+        ContextAnalyzer.SentenceContainer moved = sentence(TEXT, 120, POS);
+        Assertions.assertEquals(signature, SentenceMatchCache.signature(moved));
+        Assertions.assertEquals("matches", cache.get(Language.GERMAN, rules, moved, SentenceMatchCache.signature(moved)));
+
+        Assertions.assertNull(cache.get(Language.ENGLISH, rules, sentence, signature));
+        // an equal rule map of another rule set is a different rule set
+        Assertions.assertEquals(rules, new TreeMap<>(rules));
+        Assertions.assertNull(cache.get(Language.GERMAN, new TreeMap<>(rules), sentence, signature));
+
+        ContextAnalyzer.SentenceContainer otherText = sentence("Am 2. Mai 2020", 0, POS);
+        Assertions.assertEquals(signature, SentenceMatchCache.signature(otherText));
+        Assertions.assertNull(cache.get(Language.GERMAN, rules, otherText, signature));
+
+        ContextAnalyzer.SentenceContainer otherPos = sentence(TEXT, 0, new String[]{"APPR", "CARD", "NN", "CARD"});
+        Assertions.assertNotEquals(signature, SentenceMatchCache.signature(otherPos));
+        Assertions.assertNull(cache.get(Language.GERMAN, rules, otherPos, SentenceMatchCache.signature(otherPos)));
+
+        Assertions.assertEquals(2, cache.hits());
+        Assertions.assertEquals(4, cache.misses());
+        Assertions.assertEquals(2 / 6.0, cache.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void test_lru_eviction() {
+        SentenceMatchCache<String> cache = new SentenceMatchCache<>(2, 0);
+        ContextAnalyzer.SentenceContainer a = sentence("Am 1. Mai 2020", 0, POS);
+        ContextAnalyzer.SentenceContainer b = sentence("Am 2. Mai 2020", 0, POS);
+        ContextAnalyzer.SentenceContainer c = sentence("Am 3. Mai 2020", 0, POS);
+        String signature = SentenceMatchCache.signature(a);
+
+        cache.put(Language.GERMAN, rules, a, signature, "a");
+        cache.put(Language.GERMAN, rules, b, signature, "b");
+        // using a makes b the least recently used entry
+        Assertions.assertEquals("a", cache.get(Language.GERMAN, rules, a, signature));
+        cache.put(Language.GERMAN, rules, c, signature, "c");
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals("a", cache.get(Language.GERMAN, rules, a, signature));
+        Assertions.assertNull(cache.get(Language.GERMAN, rules, b, signature));
+        Assertions.assertEquals("c", cache.get(Language.GERMAN, rules, c, signature));
+    }
+
+    private static ContextAnalyzer.SentenceContainer sentence(String text, int begin, String[] pos) {
+        int[] begins = new int[BEGINS.length];
+        int[] ends = new int[ENDS.length];
+        for (int i = 0; i < begins.length; i++) {
+            begins[i] = begin + BEGINS[i];
+            ends[i] = begin + ENDS[i];
+        }
+        return new ContextAnalyzer.SentenceContainer(
+                text, begin, begin + text.length(), List.of(),
+                new ContextAnalyzer.TokenIndex(begins, pos, ends, new BitSet())
+        );
+    }
+}
@@ -0,0 +1,151 @@
+package org.texttechnologylab.heideltime;
+
+import de.unihd.dbs.uima.annotator.heideltime.resources.Language;
+import de.unihd.dbs.uima.annotator.heideltime.resources.RePatternManager;
+import de.unihd.dbs.uima.annotator.heideltime.resources.ResourceScanner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+public class TestTemponymGazetteer {
+    private static final String RULE = "temponym_rule";
+    // lines of a repattern file to take names from, the long name lists are sampled evenly
+    private static final int MAX_SAMPLES = 20;
+
+    @Test
+    public void test_first_line_wins() {
+        // the shorter line comes first, so the alternation never matches the longer one
+        List<String> lines = lines("War", "War of 1812", "Battle of Hastings", "Battle");
+        String text = "The War of 1812 and the Battle of Hastings, Battle of Britain.";
+        Assertions.assertEquals(List.of("War", "Battle of Hastings", "Battle"), texts(gazetteer(lines).scan(text).matches(RULE)));
+        assertSameMatches(lines, text);
+    }
+
+    @Test
+    public void test_longest_line_first() {
+        List<String> lines = lines("Battle of Hastings", "War of 1812", "Battle", "War");
+        String text = "The War of 1812 and the Battle of Hastings, Battle of Britain and the War.";
+        Assertions.assertEquals(
+                List.of("War of 1812", "Battle of Hastings", "Battle", "War"),
+                texts(gazetteer(lines).scan(text).matches(RULE))
+        );
+        assertSameMatches(lines, text);
+    }
+
+    @Test
+    public void test_word_boundaries() {
+        // like the rule patterns, the names are not bounded by word boundaries, and matches do not overlap
+        List<String> lines = lines("War", "Warsaw Uprising", "Saw");
+        String text = "Warsaw, WarWar, Warsaw Uprising, Warsaw  Uprising, Warsaw Uprising, Warsaw\nUprising, Warsaw Uprisings";
+        assertSameMatches(lines, text);
+    }
+
+    @Test
+    public void test_separators() {
+        List<String> lines = lines("Battle of Hastings", "Battle of", "of Hastings");
+        String text = "Battle of Hastings, Battle  of\tHastings, Battle of Hastings, Battle of  Hastings, Battleof Hastings, Battle of ";
+        assertSameMatches(lines, text);
+    }
+
+    @Test
+    public void test_residual_lines() {
+        // lines with regex syntax are matched by a residual alternation and merged with the hits of the trie
+        List<String> lines = lines("Battle of Aberdeen( \\(1644\\))?", "Battle of Aberdeen", "Aberdeen", "Siege of [A-Z][a-z]+");
+        String text = "Battle of Aberdeen (1644), Battle of Aberdeen, Aberdeen, Siege of Leningrad, Siege of aberdeen";
+        assertSameMatches(lines, text);
+    }
+
+    @Test
+    public void test_same_matches_as_rules() {
+        RuleManager.RuleSet ruleSet = RuleManager.getRuleSet(Language.ENGLISH, true);
+        TemponymGazetteer gazetteer = ruleSet.temponymGazetteer();
+        Assertions.assertFalse(gazetteer.isEmpty());
+
+        List<RuleManager.RuleInstance> covered = ruleSet.temponyms().values().stream()
+                .filter(rule -> gazetteer.covers(rule.name()))
+                .toList();
+        Assertions.assertFalse(covered.isEmpty());
+
+        // names of the temponym repatterns, some of them cut off, followed by a letter or run together
+        RePatternManager manager = RePatternManager.getInstance(Language.ENGLISH, true);
+        StringBuilder sb = new StringBuilder();
+        for (String key : ResourceScanner.getInstance().getRepatterns(Language.ENGLISH.getResourceFolder()).keySet()) {
+            List<String> lines = key.startsWith("reTemponym") ? manager.getLines(key) : null;
+            if (lines == null) {
+                continue;
+            }
+            int step = Math.max(1, lines.size() / MAX_SAMPLES);
+            for (int l = 0; l < lines.size(); l += step) {
+                String name = name(lines.get(l));
+                if (name != null) {
+                    sb.append(name).append(' ')
+                            .append(name, 0, name.length() - 1).append(", ")
+                            .append(name).append("s ")
+                            .append(name).append(name).append(".\n");
+                }
+            }
+        }
+        String text = sb.toString();
+        Assertions.assertFalse(text.isEmpty());
+
+        TemponymGazetteer.Hits hits = gazetteer.scan(text);
+        for (RuleManager.RuleInstance rule : covered) {
+            Assertions.assertEquals(
+                    offsets(Utils.findMatches(rule.pattern(), text)),
+                    offsets(hits.matches(rule.name())),
+                    rule.name()
+            );
+        }
+    }
+
+    /**
+     * @return repattern lines as they are read by the RePatternManager, with their spaces replaced
+     */
+    private static List<String> lines(String... lines) {
+        List<String> replaced = new ArrayList<>();
+        for (String line : lines) {
+            replaced.add(Utils.replaceSpaces(line));
+        }
+        return replaced;
+    }
+
+    /**
+     * @return the text of a line without regular expression syntax, or null if the line is not plain text
+     */
+    private static String name(String line) {
+        String name = line.replace(Utils.replaceSpaces(" "), " ").replaceAll("\\\\([^\\p{Alnum}])", "$1");
+        return Pattern.compile("(?:" + line.replaceAll(" ", "[\\\\s]+") + ")").matcher(name).matches() ? name : null;
+    }
+
+    private static TemponymGazetteer gazetteer(List<String> lines) {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put(RULE, lines);
+        return new TemponymGazetteer(rules);
+    }
+
+    /**
+     * Compares the hits with the matches of a rule whose extraction part is the repattern of the lines.
+     */
+    private static void assertSameMatches(List<String> lines, String text) {
+        String alternation = "(" + String.join("|", lines).replaceAll("\\(([^\\?])", "(?:$1") + ")";
+        Pattern pattern = Pattern.compile(alternation.replaceAll(" ", "[\\\\s]+"));
+        List<MatchResult> expected = Utils.findMatches(pattern, text);
+        List<MatchResult> actual = gazetteer(lines).scan(text).matches(RULE);
+        Assertions.assertEquals(offsets(expected), offsets(actual));
+        Assertions.assertEquals(texts(expected), texts(actual));
+    }
+
+    private static List<String> offsets(List<MatchResult> matches) {
+        return matches.stream().map(m -> m.start() + "-" + m.end() + "/" + m.start(1) + "-" + m.end(1)).toList();
+    }
+
+    private static List<String> texts(List<MatchResult> matches) {
+        return matches.stream().map(MatchResult::group).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package org.texttechnologylab.heideltime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+public class TestTimeBudget {
+    /// Backtracks exponentially in the length of the input, the back reference prevents any memoization.
+    private static final Pattern PATHOLOGICAL = Pattern.compile("(a*)*(\\1)b");
+    private static final String INPUT = "a".repeat(32);
+
+    @Test
+    public void test_document_budget_is_enforced() {
+        TimeBudget budget = new TimeBudget("doc", 50, 0);
+        // mandatory categories are not skipped, but their matching is still bounded by the document deadline
+        Assertions.assertFalse(budget.skips(false));
+
+        long start = System.nanoTime();
+        Assertions.assertThrows(MatchTimeoutException.class, () -> PATHOLOGICAL.matcher(budget.wrap(INPUT)).find());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        Assertions.assertTrue(elapsedMillis < 5_000, "matching took " + elapsedMillis + " ms");
+
+        Assertions.assertTrue(budget.isExhausted());
+        Assertions.assertTrue(budget.skips(true));
+        Assertions.assertFalse(budget.skips(false));
+
+        // once the document budget is used up, every further rule application is aborted at its first check
+        Assertions.assertThrows(MatchTimeoutException.class, () -> PATHOLOGICAL.matcher(budget.wrap(INPUT)).find());
+    }
+
+    @Test
+    public void test_rule_budget_is_enforced() {
+        TimeBudget budget = new TimeBudget("doc", 0, 50);
+        Assertions.assertThrows(MatchTimeoutException.class, () -> PATHOLOGICAL.matcher(budget.wrap(INPUT)).find());
+        Assertions.assertFalse(budget.isExhausted());
+        Assertions.assertFalse(budget.skips(true));
+    }
+
+    @Test
+    public void test_rule_budget_does_not_outlast_document_budget() {
+        TimeBudget budget = new TimeBudget("doc", 50, 60_000);
+        long start = System.nanoTime();
+        Assertions.assertThrows(MatchTimeoutException.class, () -> PATHOLOGICAL.matcher(budget.wrap(INPUT)).find());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        Assertions.assertTrue(elapsedMillis < 5_000, "matching took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void test_unlimited() {
+        TimeBudget budget = new TimeBudget("doc", 0, 0);
+        String text = "on 1 May 2020";
+        Assertions.assertSame(text, budget.wrap(text));
+        Assertions.assertFalse(budget.isExhausted());
+        Assertions.assertFalse(budget.skips(true));
+    }
+}